@@ -51,6 +51,7 @@ class BasicMountHandle implements MountHandle {
 
     /* {@inheritDoc} */
     public File getMountSource() {
+        // null for filesystems which are not mounted from a file, such as memory and overlay filesystems
         return fileSystem.getMountSource();
     }
 
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of equally sized direct buffers.  Buffers are allocated on demand when the pool is empty and are
+ * dropped rather than retained once the pool is full.
+ */
+final class BufferPool {
+
+    static final BufferPool DEFAULT = new BufferPool(16384, 64);
+
+    private final int bufferSize;
+    private final int maxRetained;
+    private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+    private final AtomicInteger retained = new AtomicInteger();
+
+    BufferPool(int bufferSize, int maxRetained) {
+        this.bufferSize = bufferSize;
+        this.maxRetained = maxRetained;
+    }
+
+    /**
+     * Take a cleared buffer from the pool, allocating a new one if none is available.
+     *
+     * @return the buffer
+     */
+    ByteBuffer allocate() {
+        final ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        retained.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool.  The caller must not use the buffer afterwards.
+     *
+     * @param buffer the buffer
+     */
+    void free(ByteBuffer buffer) {
+        if (buffer.capacity() != bufferSize || retained.incrementAndGet() > maxRetained) {
+            if (buffer.capacity() == bufferSize) {
+                retained.decrementAndGet();
+            }
+            return;
+        }
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs;
+
+/**
+ * The policy by which a mount matches the names of virtual files against the names in its index.  Names are folded
+ * once, when the index is built; lookups use the key which every {@link VirtualFile} already holds, so a
+ * case-insensitive lookup is a single probe of the index, like a case-sensitive one.
+ */
+public enum CasePolicy {
+
+    /**
+     * Names match only if they are equal.
+     */
+    SENSITIVE {
+        public String fold(String name) {
+            return name;
+        }
+
+        public String getKey(VirtualFile file) {
+            return file.getName();
+        }
+    },
+    /**
+     * Names match if they are equal ignoring case.
+     */
+    INSENSITIVE {
+        public String fold(String name) {
+            // must match the lower case name of VirtualFile
+            return name.toLowerCase();
+        }
+
+        @SuppressWarnings("deprecation")
+        public String getKey(VirtualFile file) {
+            return file.getLowerCaseName();
+        }
+    },
+    ;
+
+    /**
+     * Fold a name into the key under which it is indexed.
+     *
+     * @param name the name
+     * @return the key
+     */
+    public abstract String fold(String name);
+
+    /**
+     * Get the key under which the name of a virtual file is looked up.  This is equal to folding its name, but
+     * costs nothing.
+     *
+     * @param file the virtual file
+     * @return the key
+     */
+    public abstract String getKey(VirtualFile file);
+}
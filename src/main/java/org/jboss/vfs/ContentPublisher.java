@@ -0,0 +1,208 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A publisher of the bytes of a channel.  Every subscription opens its own channel and reads from it on the executor
+ * only while there is outstanding demand; reads for one subscription are serialized, and a drain task yields the
+ * executor after a bounded number of buffers so that one fast subscriber cannot monopolize it.
+ * <p/>
+ * Bytes are read into pooled direct buffers.  Unless the subscriber has opted in to recycling, each buffer is copied
+ * into one which the subscriber owns; otherwise the subscriber is given a read-only view of the pooled buffer, which
+ * is reused as soon as {@code onNext} returns.
+ */
+final class ContentPublisher implements Flow.Publisher<ByteBuffer> {
+
+    private static final int MAX_BATCH = 16;
+
+    private final Callable<ReadableByteChannel> opener;
+    private final Executor executor;
+    private final BufferPool pool;
+    private final boolean recycle;
+
+    ContentPublisher(Callable<ReadableByteChannel> opener, Executor executor, boolean recycle) {
+        this(opener, executor, BufferPool.DEFAULT, recycle);
+    }
+
+    ContentPublisher(Callable<ReadableByteChannel> opener, Executor executor, BufferPool pool, boolean recycle) {
+        this.opener = opener;
+        this.executor = executor;
+        this.pool = pool;
+        this.recycle = recycle;
+    }
+
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        // the Flow contract requires a NullPointerException here
+        Objects.requireNonNull(subscriber, "subscriber");
+        final ContentSubscription subscription = new ContentSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class ContentSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        // only accessed by the drain task, which never runs concurrently with itself
+        private ReadableByteChannel channel;
+        private boolean done;
+
+        ContentSubscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        public void request(long n) {
+            if (n <= 0L) {
+                invalidRequest = new IllegalArgumentException("Non-positive request: " + n);
+            } else {
+                long current, updated;
+                do {
+                    current = demand.get();
+                    updated = current + n;
+                    if (updated < 0L) {
+                        updated = Long.MAX_VALUE;
+                    }
+                } while (!demand.compareAndSet(current, updated));
+            }
+            schedule();
+        }
+
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RuntimeException e) {
+                    pending.set(0);
+                    if (!cancelled) {
+                        cancelled = true;
+                        subscriber.onError(e);
+                    }
+                }
+            }
+        }
+
+        public void run() {
+            int missed = pending.get();
+            for (;;) {
+                if (!drain()) {
+                    return;
+                }
+                missed = pending.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Emit buffers while there is demand.
+         *
+         * @return {@code false} if the task was resubmitted to the executor and must return immediately
+         */
+        private boolean drain() {
+            if (done) {
+                return true;
+            }
+            if (cancelled) {
+                terminate();
+                return true;
+            }
+            final Throwable invalid = invalidRequest;
+            if (invalid != null) {
+                terminate();
+                subscriber.onError(invalid);
+                return true;
+            }
+            int emitted = 0;
+            ByteBuffer buffer = null;
+            try {
+                while (demand.get() > 0L && !cancelled) {
+                    if (emitted == MAX_BATCH) {
+                        // the pending count is still held, so the resubmitted task keeps exclusive access
+                        executor.execute(this);
+                        return false;
+                    }
+                    if (channel == null) {
+                        channel = opener.call();
+                    }
+                    buffer = pool.allocate();
+                    int read;
+                    do {
+                        read = channel.read(buffer);
+                    } while (read == 0);
+                    if (read == -1) {
+                        pool.free(buffer);
+                        buffer = null;
+                        terminate();
+                        subscriber.onComplete();
+                        return true;
+                    }
+                    buffer.flip();
+                    demand.decrementAndGet();
+                    if (recycle) {
+                        subscriber.onNext(buffer.asReadOnlyBuffer());
+                        pool.free(buffer);
+                        buffer = null;
+                    } else {
+                        // the copy belongs to the subscriber, so the pooled buffer can go back straight away
+                        final ByteBuffer copy = ByteBuffer.allocate(buffer.remaining()).put(buffer);
+                        pool.free(buffer);
+                        buffer = null;
+                        copy.flip();
+                        subscriber.onNext(copy.asReadOnlyBuffer());
+                    }
+                    emitted++;
+                }
+                if (cancelled) {
+                    terminate();
+                }
+            } catch (Throwable t) {
+                if (buffer != null) {
+                    pool.free(buffer);
+                }
+                terminate();
+                subscriber.onError(t);
+            }
+            return true;
+        }
+
+        private void terminate() {
+            done = true;
+            cancelled = true;
+            VFSUtils.safeClose(channel);
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of content digests for the files of one mount.  Each digest is recorded with
+ * the size and modification time the file had when it was computed, and is only returned while those still match.
+ */
+final class DigestCache {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Get a cached digest.
+     *
+     * @param file       the file
+     * @param algorithm  the digest algorithm
+     * @param attributes the current attributes of the file
+     * @return the digest, or {@code null} if none is cached for the current size and modification time
+     */
+    byte[] get(VirtualFile file, String algorithm, VirtualFileAttributes attributes) {
+        final Entry entry;
+        synchronized (entries) {
+            entry = entries.get(new Key(file, algorithm));
+        }
+        if (entry == null || entry.size != attributes.getSize() || entry.lastModified != attributes.getLastModified()) {
+            return null;
+        }
+        return entry.digest;
+    }
+
+    /**
+     * Cache a digest.
+     *
+     * @param file       the file
+     * @param algorithm  the digest algorithm
+     * @param attributes the attributes of the file read before the digest was computed
+     * @param digest     the digest, which must not be modified afterwards
+     */
+    void put(VirtualFile file, String algorithm, VirtualFileAttributes attributes, byte[] digest) {
+        final Entry entry = new Entry(attributes.getSize(), attributes.getLastModified(), digest);
+        synchronized (entries) {
+            entries.put(new Key(file, algorithm), entry);
+        }
+    }
+
+    private static final class Key {
+        private final VirtualFile file;
+        private final String algorithm;
+
+        Key(VirtualFile file, String algorithm) {
+            this.file = file;
+            this.algorithm = algorithm;
+        }
+
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).file.equals(file) && ((Key) obj).algorithm.equals(algorithm);
+        }
+
+        public int hashCode() {
+            return file.hashCode() * 31 + algorithm.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final byte[] digest;
+
+        Entry(long size, long lastModified, byte[] digest) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+    }
+}
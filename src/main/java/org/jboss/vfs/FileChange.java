@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs;
+
+/**
+ * A change to a file observed in a watched filesystem.
+ *
+ * @see FileChangeListener
+ */
+public final class FileChange {
+
+    /**
+     * The kind of a change.
+     */
+    public enum Kind {
+        /**
+         * The file was created.
+         */
+        CREATED,
+        /**
+         * The file was modified, or replaced by a new file of the same name.
+         */
+        MODIFIED,
+        /**
+         * The file was deleted.
+         */
+        DELETED,
+        /**
+         * Changes may have been lost, so anything at or below the file may have changed.
+         */
+        OVERFLOW,
+    }
+
+    private final VirtualFile file;
+    private final Kind kind;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param file the changed file
+     * @param kind the kind of change
+     */
+    public FileChange(VirtualFile file, Kind kind) {
+        if (file == null) {
+            throw VFSMessages.MESSAGES.nullArgument("file");
+        }
+        if (kind == null) {
+            throw VFSMessages.MESSAGES.nullArgument("kind");
+        }
+        this.file = file;
+        this.kind = kind;
+    }
+
+    /**
+     * Get the changed file.
+     *
+     * @return the file
+     */
+    public VirtualFile getFile() {
+        return file;
+    }
+
+    /**
+     * Get the kind of change.
+     *
+     * @return the kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean equals(Object obj) {
+        return obj instanceof FileChange && ((FileChange) obj).kind == kind && ((FileChange) obj).file.equals(file);
+    }
+
+    public int hashCode() {
+        return file.hashCode() * 31 + kind.hashCode();
+    }
+
+    public String toString() {
+        return kind + " " + file;
+    }
+}
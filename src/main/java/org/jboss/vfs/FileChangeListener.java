@@ -0,0 +1,37 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs;
+
+import java.util.List;
+
+/**
+ * A listener for changes to the files of a watched filesystem.
+ *
+ * @see org.jboss.vfs.spi.RealFileWatcher
+ */
+public interface FileChangeListener {
+
+    /**
+     * Handle a batch of changes.  Changes to the same file within a batch are coalesced into one, and batches are
+     * delivered one at a time from a single thread.
+     *
+     * @param changes the changes, in the order they were first observed
+     */
+    void filesChanged(List<FileChange> changes);
+}
@@ -0,0 +1,383 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs;
+
+import java.io.Closeable;
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * A scheduler which orders the I/O of the VFS by priority class, so that background bulk work yields the disk to
+ * foreground reads.  Each {@linkplain Priority class} has its own concurrency limit; an operation of a background class
+ * does not start while an operation of a more urgent class is running, waiting or has recently started, unless it has
+ * already yielded for the maximum yield time, so background work is delayed but never starved.
+ * <p/>
+ * Foreground reads through {@link VirtualFile} only {@linkplain #noteInteractive() note} that they happened, which
+ * costs a clock read and a single volatile write, so the scheduler adds nothing to the latency of class loading.  Background work holds a
+ * {@link Permit} for its duration.
+ */
+public final class IoScheduler {
+
+    /**
+     * The priority classes, most urgent first.
+     */
+    public enum Priority {
+        /**
+         * Reads which a caller is waiting for, such as class loading and asynchronous reads made on its behalf.
+         */
+        INTERACTIVE,
+        /**
+         * Speculative reads of content which may be needed soon, but which nobody is waiting for yet.
+         */
+        PREFETCH,
+        /**
+         * Extraction of archive content to temporary files.
+         */
+        EXTRACTION,
+        /**
+         * Deletion of temporary files.
+         */
+        CLEANUP,
+    }
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final long YIELD_SLICE = TimeUnit.MILLISECONDS.toNanos(1L);
+    // foreground reads come in bursts; background work keeps yielding for this long after the last one
+    private static final long INTERACTIVE_WINDOW = TimeUnit.MILLISECONDS.toNanos(2L);
+
+    private static volatile IoScheduler defaultScheduler = new IoScheduler();
+
+    private final Lane[] lanes = new Lane[PRIORITIES.length];
+    private final long maxYield;
+    private volatile long lastInteractive = System.nanoTime() - INTERACTIVE_WINDOW;
+
+    /**
+     * Construct a scheduler with the default limits: no limit for interactive reads, one concurrent operation per
+     * processor for prefetching, half as many for extraction, a single cleanup at a time, and a maximum yield time of
+     * 100 milliseconds.
+     */
+    public IoScheduler() {
+        this(Integer.MAX_VALUE, Runtime.getRuntime().availableProcessors(), Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 1,
+                100L, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Construct a scheduler.
+     *
+     * @param interactiveLimit the maximum number of concurrent interactive operations which hold a permit
+     * @param prefetchLimit    the maximum number of concurrent prefetch operations
+     * @param extractionLimit  the maximum number of concurrent extractions
+     * @param cleanupLimit     the maximum number of concurrent cleanups
+     * @param maxYield         the longest time a background operation yields to more urgent ones before it proceeds
+     * @param unit             the unit of {@code maxYield}
+     */
+    public IoScheduler(int interactiveLimit, int prefetchLimit, int extractionLimit, int cleanupLimit, long maxYield, TimeUnit unit) {
+        final int[] limits = {interactiveLimit, prefetchLimit, extractionLimit, cleanupLimit};
+        for (int i = 0; i < limits.length; i++) {
+            if (limits[i] <= 0) {
+                throw VFSMessages.MESSAGES.argumentMustBePositive(PRIORITIES[i].name().toLowerCase(Locale.ROOT) + "Limit");
+            }
+            lanes[i] = new Lane(limits[i]);
+        }
+        if (maxYield < 0L) {
+            throw VFSMessages.MESSAGES.argumentMustBePositive("maxYield");
+        }
+        this.maxYield = unit.toNanos(maxYield);
+    }
+
+    /**
+     * Get the scheduler used by the VFS.
+     *
+     * @return the default scheduler
+     */
+    public static IoScheduler getDefault() {
+        return defaultScheduler;
+    }
+
+    /**
+     * Set the scheduler used by the VFS.  Operations which already hold permits of the previous scheduler are not
+     * affected.
+     *
+     * @param scheduler the new default scheduler
+     */
+    public static void setDefault(IoScheduler scheduler) {
+        if (scheduler == null) {
+            throw VFSMessages.MESSAGES.nullArgument("scheduler");
+        }
+        defaultScheduler = scheduler;
+    }
+
+    /**
+     * Note that a foreground read has started.  Background operations yield for a short time after every such read.
+     */
+    public void noteInteractive() {
+        lastInteractive = System.nanoTime();
+    }
+
+    /**
+     * Acquire a permit for an operation, waiting until its class is below its limit and, for background classes, until
+     * no more urgent operation is running or waiting (or the maximum yield time has passed).  The permit must be
+     * {@linkplain Permit#close() closed} when the operation ends.
+     *
+     * @param priority the class of the operation
+     * @return the permit
+     * @throws InterruptedIOException if the thread is interrupted while waiting; its interrupt status is kept
+     */
+    public Permit acquire(Priority priority) throws InterruptedIOException {
+        final Permit permit = tryAcquire(priority);
+        if (permit != null) {
+            return permit;
+        }
+        final Lane lane = lanes[priority.ordinal()];
+        final long start = System.nanoTime();
+        boolean yielded = false;
+        lane.waiting.incrementAndGet();
+        try {
+            for (;;) {
+                if (Thread.interrupted()) {
+                    throw interrupted();
+                }
+                if (System.nanoTime() - start < maxYield && isUrgentWorkPending(priority)) {
+                    yielded = true;
+                    LockSupport.parkNanos(this, YIELD_SLICE);
+                } else {
+                    try {
+                        if (lane.permits.tryAcquire(YIELD_SLICE, TimeUnit.NANOSECONDS)) {
+                            break;
+                        }
+                    } catch (InterruptedException e) {
+                        throw interrupted();
+                    }
+                }
+            }
+        } finally {
+            lane.waiting.decrementAndGet();
+        }
+        if (yielded) {
+            lane.yields.increment();
+        }
+        lane.waitTime.add(System.nanoTime() - start);
+        return new Permit(lane);
+    }
+
+    private static InterruptedIOException interrupted() {
+        Thread.currentThread().interrupt();
+        return new InterruptedIOException();
+    }
+
+    /**
+     * Acquire a permit for an operation if it can start immediately.
+     *
+     * @param priority the class of the operation
+     * @return the permit, or {@code null} if the operation would have to wait
+     */
+    public Permit tryAcquire(Priority priority) {
+        final Lane lane = lanes[priority.ordinal()];
+        if (isUrgentWorkPending(priority) || !lane.permits.tryAcquire()) {
+            return null;
+        }
+        return new Permit(lane);
+    }
+
+    /**
+     * Start an asynchronous operation once a permit for it is available.  If the permit can be acquired immediately
+     * the operation is started by the calling thread; otherwise the wait for the permit takes place on the executor,
+     * so the calling thread never blocks.  The permit is held until the future of the operation completes.
+     *
+     * @param priority  the class of the operation
+     * @param executor  the executor on which to wait for a permit
+     * @param operation the operation, which returns the future of its result
+     * @param <T>       the type of the result
+     * @return a future for the result of the operation
+     */
+    public <T> CompletableFuture<T> submit(final Priority priority, Executor executor, final Supplier<CompletableFuture<T>> operation) {
+        final Permit permit = tryAcquire(priority);
+        if (permit != null) {
+            return start(permit, operation);
+        }
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    final Permit permit;
+                    try {
+                        permit = acquire(priority);
+                    } catch (InterruptedIOException e) {
+                        future.completeExceptionally(e);
+                        return;
+                    }
+                    start(permit, operation).whenComplete((result, failure) -> {
+                        if (failure != null) {
+                            future.completeExceptionally(failure);
+                        } else {
+                            future.complete(result);
+                        }
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static <T> CompletableFuture<T> start(Permit permit, Supplier<CompletableFuture<T>> operation) {
+        final CompletableFuture<T> future;
+        try {
+            future = operation.get();
+        } catch (Throwable t) {
+            permit.close();
+            final CompletableFuture<T> failed = new CompletableFuture<T>();
+            failed.completeExceptionally(t);
+            return failed;
+        }
+        return future.whenComplete((result, failure) -> permit.close());
+    }
+
+    private boolean isUrgentWorkPending(Priority priority) {
+        final int ordinal = priority.ordinal();
+        if (ordinal == 0) {
+            return false;
+        }
+        if (System.nanoTime() - lastInteractive < INTERACTIVE_WINDOW) {
+            return true;
+        }
+        for (int i = 0; i < ordinal; i++) {
+            final Lane lane = lanes[i];
+            if (lane.active.get() > 0 || lane.waiting.get() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the concurrency limit of a class.
+     *
+     * @param priority the class
+     * @return the limit
+     */
+    public int getLimit(Priority priority) {
+        return lanes[priority.ordinal()].limit;
+    }
+
+    /**
+     * Get the number of operations of a class which currently hold permits.
+     *
+     * @param priority the class
+     * @return the number of active operations
+     */
+    public int getActiveCount(Priority priority) {
+        return lanes[priority.ordinal()].active.get();
+    }
+
+    /**
+     * Get the number of operations of a class which are waiting for permits.
+     *
+     * @param priority the class
+     * @return the number of waiting operations
+     */
+    public int getWaitingCount(Priority priority) {
+        return lanes[priority.ordinal()].waiting.get();
+    }
+
+    /**
+     * Get the number of operations of a class which have completed while holding permits.  Foreground reads which are
+     * only {@linkplain #noteInteractive() noted} are not counted.
+     *
+     * @param priority the class
+     * @return the number of completed operations
+     */
+    public long getCompletedCount(Priority priority) {
+        return lanes[priority.ordinal()].completed.sum();
+    }
+
+    /**
+     * Get the number of operations of a class which yielded to more urgent operations before they started.
+     *
+     * @param priority the class
+     * @return the number of operations which yielded
+     */
+    public long getYieldCount(Priority priority) {
+        return lanes[priority.ordinal()].yields.sum();
+    }
+
+    /**
+     * Get the total time which operations of a class spent waiting for permits.
+     *
+     * @param priority the class
+     * @param unit     the unit of the result
+     * @return the total waiting time
+     */
+    public long getTotalWaitTime(Priority priority, TimeUnit unit) {
+        return unit.convert(lanes[priority.ordinal()].waitTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    private static final class Lane {
+
+        private final int limit;
+        private final Semaphore permits;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder yields = new LongAdder();
+        private final LongAdder waitTime = new LongAdder();
+
+        Lane(int limit) {
+            this.limit = limit;
+            permits = new Semaphore(limit);
+        }
+    }
+
+    /**
+     * The permission for one operation to proceed.  Closing it releases the slot of the operation; closing it again
+     * has no effect.
+     */
+    public static final class Permit implements Closeable {
+
+        private final Lane lane;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Permit(Lane lane) {
+            this.lane = lane;
+            lane.active.incrementAndGet();
+        }
+
+        /**
+         * Release the permit.
+         */
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                lane.active.decrementAndGet();
+                lane.completed.increment();
+                lane.permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs;
+
+import static org.jboss.vfs.VFSMessages.MESSAGES;
+
+/**
+ * A predicate over the simple names of directory entries, used to filter a directory listing before any
+ * {@link VirtualFile} is created.  A predicate may declare a prefix and a suffix which every accepted name is known to
+ * have; filesystems which keep their entries sorted use the prefix to answer the listing from a range of the index
+ * instead of testing every entry.
+ */
+public interface NamePredicate {
+
+    /**
+     * A predicate which accepts every name.
+     */
+    NamePredicate ALL = new NamePredicate() {
+        public boolean accepts(String name) {
+            return true;
+        }
+    };
+
+    /**
+     * Match a name.
+     *
+     * @param name the simple name of the entry
+     * @return {@code true} if the name is accepted
+     */
+    boolean accepts(String name);
+
+    /**
+     * Get the prefix which every accepted name starts with.  This is only a hint: names are still passed to {@link
+     * #accepts(String)}.
+     *
+     * @return the prefix, or the empty string if there is none
+     */
+    default String getPrefix() {
+        return "";
+    }
+
+    /**
+     * Get the suffix which every accepted name ends with.  This is only a hint: names are still passed to {@link
+     * #accepts(String)}.
+     *
+     * @return the suffix, or the empty string if there is none
+     */
+    default String getSuffix() {
+        return "";
+    }
+
+    /**
+     * Get a predicate which accepts names starting with the given prefix.
+     *
+     * @param prefix the prefix
+     * @return the predicate
+     */
+    static NamePredicate prefix(String prefix) {
+        return of(prefix, "");
+    }
+
+    /**
+     * Get a predicate which accepts names ending with the given suffix.
+     *
+     * @param suffix the suffix
+     * @return the predicate
+     */
+    static NamePredicate suffix(String suffix) {
+        return of("", suffix);
+    }
+
+    /**
+     * Get a predicate which accepts names starting with the given prefix and ending with the given suffix.  The
+     * prefix and the suffix of an accepted name do not overlap.
+     *
+     * @param prefix the prefix, or the empty string for none
+     * @param suffix the suffix, or the empty string for none
+     * @return the predicate
+     */
+    static NamePredicate of(final String prefix, final String suffix) {
+        if (prefix == null) {
+            throw MESSAGES.nullArgument("prefix");
+        }
+        if (suffix == null) {
+            throw MESSAGES.nullArgument("suffix");
+        }
+        return new NamePredicate() {
+            public boolean accepts(String name) {
+                return name.length() >= prefix.length() + suffix.length() && name.startsWith(prefix) && name.endsWith(suffix);
+            }
+
+            public String getPrefix() {
+                return prefix;
+            }
+
+            public String getSuffix() {
+                return suffix;
+            }
+
+            public String toString() {
+                return prefix + "*" + suffix;
+            }
+        };
+    }
+}
@@ -21,6 +21,7 @@ package org.jboss.vfs;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.Random;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -94,7 +95,7 @@ public final class TempFileProvider implements Closeable {
                         throw new IOException("Failed to rename " + possiblyExistingProviderRoot.getAbsolutePath() + " to " + toBeDeletedProviderRoot.getAbsolutePath());
                     } else {
                         // delete in the background
-                        executor.submit(new DeleteTask(toBeDeletedProviderRoot, executor));
+                        executor.submit(new DeleteTask(toBeDeletedProviderRoot, executor, true));
                     }
                 }
             } catch (Throwable t) {
@@ -109,6 +110,19 @@ public final class TempFileProvider implements Closeable {
         return new TempFileProvider(createTempDir(providerType, "", providerRoot), executor);
     }
 
+    /**
+     * Get a directory for content which is kept across restarts, such as caches.  It is under the same root as the
+     * directories of all providers, but it is not deleted when a provider is closed or its existing content is cleaned.
+     *
+     * @param name the name of the cache
+     * @return the directory
+     */
+    public static File getCacheDir(String name) {
+        final File dir = new File(new File(TMP_ROOT, ".cache"), name);
+        dir.mkdirs();
+        return dir;
+    }
+
     private final File providerRoot;
     private final ScheduledExecutorService executor;
 
@@ -184,23 +198,46 @@ public final class TempFileProvider implements Closeable {
      * @throws IOException
      */
     void delete(final File root) throws IOException {
-        new DeleteTask(root, executor).run();
+        new DeleteTask(root, executor, false).run();
     }
 
     static final class DeleteTask implements Runnable {
 
         private final File root;
         private ScheduledExecutorService retryExecutor;
+        private boolean background;
 
-        DeleteTask(final File root, final ScheduledExecutorService retryExecutor) {
+        DeleteTask(final File root, final ScheduledExecutorService retryExecutor, final boolean background) {
             this.root = root;
             this.retryExecutor = retryExecutor;
+            this.background = background;
         }
 
         public void run() {
-            if (VFSUtils.recursiveDelete(root) == false) {
+            final IoScheduler.Permit permit;
+            if (background) {
+                try {
+                    permit = IoScheduler.getDefault().acquire(IoScheduler.Priority.CLEANUP);
+                } catch (InterruptedIOException e) {
+                    VFSLogger.ROOT_LOGGER.tracef("Interrupted before deleting root (%s).", root);
+                    return;
+                }
+            } else {
+                // the caller is closing a provider, possibly on the finalizer thread, so it does not wait for a permit
+                permit = IoScheduler.getDefault().tryAcquire(IoScheduler.Priority.CLEANUP);
+            }
+            final boolean deleted;
+            try {
+                deleted = VFSUtils.recursiveDelete(root);
+            } finally {
+                if (permit != null) {
+                    permit.close();
+                }
+            }
+            if (deleted == false) {
                 if (retryExecutor != null) {
                     VFSLogger.ROOT_LOGGER.tracef("Failed to delete root (%s), retrying in 30sec.", root);
+                    background = true;
                     retryExecutor.schedule(this, 30L, TimeUnit.SECONDS);
                 } else {
                     VFSLogger.ROOT_LOGGER.tracef("Failed to delete root (%s).", root);
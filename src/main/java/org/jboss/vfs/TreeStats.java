@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs;
+
+/**
+ * Summary statistics of a virtual file tree: the number of files and directories it contains (including its root),
+ * their total size and the newest modification time among them.
+ */
+public final class TreeStats {
+
+    /**
+     * The statistics of an empty tree, for example one whose root does not exist.
+     */
+    public static final TreeStats EMPTY = new TreeStats(0L, 0L, 0L, 0L);
+
+    private final long fileCount;
+    private final long directoryCount;
+    private final long totalSize;
+    private final long newestLastModified;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param fileCount          the number of files
+     * @param directoryCount     the number of directories
+     * @param totalSize          the total size of the files, in bytes
+     * @param newestLastModified the newest modification time, in milliseconds since the epoch
+     */
+    public TreeStats(long fileCount, long directoryCount, long totalSize, long newestLastModified) {
+        this.fileCount = fileCount;
+        this.directoryCount = directoryCount;
+        this.totalSize = totalSize;
+        this.newestLastModified = newestLastModified;
+    }
+
+    /**
+     * Get the statistics of a single file or empty directory.
+     *
+     * @param attributes the attributes of the file
+     * @return the statistics
+     */
+    public static TreeStats of(VirtualFileAttributes attributes) {
+        if (!attributes.exists()) {
+            return EMPTY;
+        }
+        if (attributes.isDirectory()) {
+            return new TreeStats(0L, 1L, 0L, attributes.getLastModified());
+        }
+        return new TreeStats(1L, 0L, attributes.getSize(), attributes.getLastModified());
+    }
+
+    /**
+     * Combine these statistics with those of a disjoint tree.
+     *
+     * @param other the other statistics
+     * @return the combined statistics
+     */
+    public TreeStats plus(TreeStats other) {
+        return new TreeStats(fileCount + other.fileCount, directoryCount + other.directoryCount, totalSize + other.totalSize,
+                Math.max(newestLastModified, other.newestLastModified));
+    }
+
+    /**
+     * Get the number of files in the tree.
+     *
+     * @return the number of files
+     */
+    public long getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * Get the number of directories in the tree, including its root if it is a directory.
+     *
+     * @return the number of directories
+     */
+    public long getDirectoryCount() {
+        return directoryCount;
+    }
+
+    /**
+     * Get the total size of the files in the tree.
+     *
+     * @return the total size, in bytes
+     */
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * Get the newest modification time of any file or directory in the tree.
+     *
+     * @return the modification time, in milliseconds since the epoch, or 0 for an empty tree
+     */
+    public long getNewestLastModified() {
+        return newestLastModified;
+    }
+
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TreeStats)) {
+            return false;
+        }
+        final TreeStats other = (TreeStats) obj;
+        return fileCount == other.fileCount && directoryCount == other.directoryCount && totalSize == other.totalSize
+                && newestLastModified == other.newestLastModified;
+    }
+
+    public int hashCode() {
+        return (int) (((fileCount * 31 + directoryCount) * 31 + totalSize) * 31 + newestLastModified);
+    }
+
+    public String toString() {
+        return "files=" + fileCount + " directories=" + directoryCount + " size=" + totalSize + " newest=" + newestLastModified;
+    }
+}
@@ -25,26 +25,47 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.jboss.vfs.metrics.VFSMetrics;
 import org.jboss.vfs.spi.AssemblyFileSystem;
+import org.jboss.vfs.spi.AttributeCache;
 import org.jboss.vfs.spi.FileSystem;
+import org.jboss.vfs.spi.FileSystemInterceptor;
+import org.jboss.vfs.spi.InterceptingFileSystem;
 import org.jboss.vfs.spi.JavaZipFileSystem;
+import org.jboss.vfs.spi.MemoryFileSystem;
 import org.jboss.vfs.spi.MountHandle;
+import org.jboss.vfs.spi.OverlayFileSystem;
 import org.jboss.vfs.spi.RealFileSystem;
+import org.jboss.vfs.spi.RealFileWatcher;
 import org.jboss.vfs.spi.RootFileSystem;
+import org.jboss.vfs.spi.SnapshotFileSystem;
 
 /**
  * Virtual File System
@@ -57,6 +78,7 @@ import org.jboss.vfs.spi.RootFileSystem;
  */
 public class VFS {
     private static final ConcurrentMap<VirtualFile, Map<String, Mount>> mounts = new ConcurrentHashMap<VirtualFile, Map<String, Mount>>();
+    private static final List<FileSystemInterceptor.Factory> interceptorFactories = new CopyOnWriteArrayList<FileSystemInterceptor.Factory>();
     private static final VirtualFile rootVirtualFile = new VirtualFile("/", null);
 
     // Note that rootVirtualFile is ignored by RootFS
@@ -73,7 +95,7 @@ public class VFS {
     }
 
     /**
-     * Initialize VFS protocol handlers package property.
+     * Initialize VFS protocol handlers package property and, if requested, I/O metrics.
      */
     private static void init() {
         String pkgs = System.getProperty("java.protocol.handler.pkgs");
@@ -85,6 +107,9 @@ public class VFS {
             pkgs += "|org.jboss.vfs.protocol";
             System.setProperty("java.protocol.handler.pkgs", pkgs);
         }
+        if (Boolean.getBoolean("jboss.vfs.metrics")) {
+            VFSMetrics.install();
+        }
     }
 
     /**
@@ -97,6 +122,67 @@ public class VFS {
      * @throws IOException if an I/O error occurs, such as a filesystem already being mounted at the given mount point
      */
     public static Closeable mount(VirtualFile mountPoint, FileSystem fileSystem) throws IOException {
+        return addInterceptedMount(mountPoint, fileSystem);
+    }
+
+    /**
+     * Mount a filesystem on a mount point in the VFS, routing every call to it through the given interceptors.  The
+     * first interceptor is the outermost one; globally registered interceptors still wrap the resulting chain.
+     *
+     * @param mountPoint the mount point
+     * @param fileSystem the file system to mount
+     * @param interceptors the interceptors for this mount
+     * @return a handle which can be used to unmount the filesystem
+     * @throws IOException if an I/O error occurs, such as a filesystem already being mounted at the given mount point
+     */
+    public static Closeable mount(VirtualFile mountPoint, FileSystem fileSystem, FileSystemInterceptor... interceptors) throws IOException {
+        return addInterceptedMount(mountPoint, InterceptingFileSystem.wrap(fileSystem, interceptors));
+    }
+
+    /**
+     * Register an interceptor factory which is consulted for every subsequently created mount.  Existing mounts are
+     * not affected.
+     *
+     * @param factory the interceptor factory
+     */
+    public static void addInterceptorFactory(FileSystemInterceptor.Factory factory) {
+        if (factory == null) {
+            throw VFSMessages.MESSAGES.nullArgument("factory");
+        }
+        interceptorFactories.add(factory);
+    }
+
+    /**
+     * Remove a previously registered interceptor factory.  Existing mounts are not affected.
+     *
+     * @param factory the interceptor factory
+     * @return {@code true} if the factory was registered
+     */
+    public static boolean removeInterceptorFactory(FileSystemInterceptor.Factory factory) {
+        return interceptorFactories.remove(factory);
+    }
+
+    private static Mount addInterceptedMount(VirtualFile mountPoint, FileSystem fileSystem) throws IOException {
+        FileSystem result = fileSystem;
+        // in reverse so that the first registered factory produces the outermost interceptor
+        final Object[] factories = interceptorFactories.toArray();
+        final FileSystemInterceptor[] interceptors = new FileSystemInterceptor[factories.length];
+        for (int i = factories.length - 1; i >= 0; i--) {
+            interceptors[i] = ((FileSystemInterceptor.Factory) factories[i]).createInterceptor(mountPoint, fileSystem);
+            if (interceptors[i] != null) {
+                result = new InterceptingFileSystem(result, interceptors[i]);
+            }
+        }
+        final Mount mount = addMount(mountPoint, result);
+        for (int i = 0; i < factories.length; i++) {
+            if (interceptors[i] != null) {
+                ((FileSystemInterceptor.Factory) factories[i]).mounted(mountPoint, interceptors[i]);
+            }
+        }
+        return mount;
+    }
+
+    private static Mount addMount(VirtualFile mountPoint, FileSystem fileSystem) throws IOException {
         final VirtualFile parent = mountPoint.getParent();
         if (parent == null) {
             throw VFSMessages.MESSAGES.rootFileSystemAlreadyMounted();
@@ -253,6 +339,95 @@ public class VFS {
         visitor.visit(file);
     }
 
+    /**
+     * Asynchronously read the complete contents of several files at once, using the default VFS I/O executor.
+     *
+     * @param files the files to read
+     * @return a future for a map of each file to a buffer holding its contents, in the iteration order of {@code files}
+     * @see VirtualFile#readAsync()
+     */
+    public static CompletableFuture<Map<VirtualFile, ByteBuffer>> readAsync(Collection<VirtualFile> files) {
+        return readAsync(files, getAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously read the complete contents of several files at once.  The reads are issued concurrently; the
+     * returned future fails if any one of them fails.
+     *
+     * @param files    the files to read
+     * @param executor the executor on which blocking work and completion may take place
+     * @return a future for a map of each file to a buffer holding its contents, in the iteration order of {@code files}
+     * @see VirtualFile#readAsync(Executor)
+     */
+    public static CompletableFuture<Map<VirtualFile, ByteBuffer>> readAsync(Collection<VirtualFile> files, Executor executor) {
+        if (files == null) {
+            throw VFSMessages.MESSAGES.nullArgument("files");
+        }
+        final Map<VirtualFile, CompletableFuture<ByteBuffer>> futures = new LinkedHashMap<VirtualFile, CompletableFuture<ByteBuffer>>();
+        for (VirtualFile file : files) {
+            futures.put(file, file.readAsync(executor));
+        }
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[futures.size()])).thenApply(ignored -> {
+            final Map<VirtualFile, ByteBuffer> results = new LinkedHashMap<VirtualFile, ByteBuffer>(futures.size());
+            for (Map.Entry<VirtualFile, CompletableFuture<ByteBuffer>> entry : futures.entrySet()) {
+                results.put(entry.getKey(), entry.getValue().join());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Get the basic attributes of several files at once.  The files are grouped by the mount which contains them, and
+     * each mounted file system answers its whole group in one call, which is much cheaper than querying the files one
+     * by one when there are many of them.
+     *
+     * @param files the files to query
+     * @return a map of each file to its attributes, in the iteration order of {@code files}
+     * @see VirtualFile#getAttributes()
+     */
+    public static Map<VirtualFile, VirtualFileAttributes> getAttributes(Collection<VirtualFile> files) {
+        if (files == null) {
+            throw VFSMessages.MESSAGES.nullArgument("files");
+        }
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            for (VirtualFile file : files) {
+                sm.checkPermission(new VirtualFilePermission(file.getPathName(), "read"));
+            }
+        }
+        final Map<VirtualFile, Mount> resolvedMounts = new HashMap<VirtualFile, Mount>();
+        final Map<Mount, List<VirtualFile>> groups = new LinkedHashMap<Mount, List<VirtualFile>>();
+        for (VirtualFile file : files) {
+            groups.computeIfAbsent(getMount(file, resolvedMounts), mount -> new ArrayList<VirtualFile>()).add(file);
+        }
+        final Map<VirtualFile, VirtualFileAttributes> attributes = new HashMap<VirtualFile, VirtualFileAttributes>(groups.size() * 2);
+        final Executor executor = getAsyncExecutor();
+        for (Map.Entry<Mount, List<VirtualFile>> group : groups.entrySet()) {
+            final Mount mount = group.getKey();
+            final List<VirtualFile> targets = group.getValue();
+            final VirtualFileAttributes[] results = sm == null ? mount.getFileSystem().getAttributes(mount.getMountPoint(), targets, executor)
+                    : AccessController.doPrivileged((PrivilegedAction<VirtualFileAttributes[]>) () -> mount.getFileSystem().getAttributes(mount.getMountPoint(), targets, executor));
+            for (int i = 0; i < results.length; i++) {
+                attributes.put(targets.get(i), results[i]);
+            }
+        }
+        final Map<VirtualFile, VirtualFileAttributes> ordered = new LinkedHashMap<VirtualFile, VirtualFileAttributes>(attributes.size() * 2);
+        for (VirtualFile file : files) {
+            ordered.put(file, attributes.get(file));
+        }
+        return ordered;
+    }
+
+    /**
+     * Get the executor used for asynchronous I/O when the caller does not supply one.  Its threads are daemon threads
+     * which are retired when idle.
+     *
+     * @return the default asynchronous I/O executor
+     */
+    static ExecutorService getAsyncExecutor() {
+        return AsyncExecutorHolder.EXECUTOR;
+    }
+
     static Mount getMount(VirtualFile virtualFile) {
         final ConcurrentMap<VirtualFile, Map<String, Mount>> mounts = VFS.mounts;
         for (; ; ) {
@@ -274,6 +449,61 @@ public class VFS {
         }
     }
 
+    /**
+     * Find the mount for a file, sharing the resolution of ancestors between calls through the given map.
+     *
+     * @param virtualFile the file
+     * @param resolved    the mounts already resolved for directories
+     * @return the mount
+     */
+    private static Mount getMount(VirtualFile virtualFile, Map<VirtualFile, Mount> resolved) {
+        final VirtualFile parent = virtualFile.getParent();
+        if (parent == null) {
+            return rootMount;
+        }
+        final Map<String, Mount> parentMounts = mounts.get(parent);
+        if (parentMounts != null) {
+            final Mount mount = parentMounts.get(virtualFile.getName());
+            if (mount != null) {
+                return mount;
+            }
+        }
+        Mount mount = resolved.get(parent);
+        if (mount == null) {
+            mount = getMount(parent, resolved);
+            resolved.put(parent, mount);
+        }
+        return mount;
+    }
+
+    /**
+     * Get the files within a tree which have something mounted strictly below them: the root of the tree and its
+     * descendants which are ancestors of a mount point in the tree.  The mounts are scanned once, so that a walk of
+     * the tree can test each file it visits with a set lookup.
+     *
+     * @param virtualFile the root of the tree
+     * @return the files of the tree with submounts, which is empty if nothing is mounted below the root
+     */
+    static Set<VirtualFile> getSubmountAncestors(VirtualFile virtualFile) {
+        Set<VirtualFile> ancestors = Collections.emptySet();
+        for (VirtualFile parent : mounts.keySet()) {
+            // the keys are the parents of mount points
+            for (VirtualFile file = parent; file != null; file = file.getParent()) {
+                if (file.equals(virtualFile)) {
+                    if (ancestors.isEmpty()) {
+                        ancestors = new HashSet<VirtualFile>();
+                    }
+                    VirtualFile ancestor = parent;
+                    while (ancestors.add(ancestor) && !ancestor.equals(virtualFile)) {
+                        ancestor = ancestor.getParent();
+                    }
+                    break;
+                }
+            }
+        }
+        return ancestors;
+    }
+
     /**
      * Get all immediate submounts for a path.
      *
@@ -292,9 +522,9 @@ public class VFS {
     private static MountHandle doMount(final FileSystem fileSystem, final VirtualFile mountPoint, Closeable... additionalCloseables) throws IOException {
         boolean ok = false;
         try {
-            final Closeable mountHandle = mount(mountPoint, fileSystem);
+            final Mount mount = addInterceptedMount(mountPoint, fileSystem);
             ok = true;
-            return new BasicMountHandle(fileSystem, mountHandle, additionalCloseables);
+            return new BasicMountHandle(mount.getFileSystem(), mount, additionalCloseables);
         } finally {
             if (!ok) {
                 VFSUtils.safeClose(fileSystem);
@@ -313,10 +543,25 @@ public class VFS {
      * @throws IOException if an error occurs
      */
     public static Closeable mountZip(File zipFile, VirtualFile mountPoint, TempFileProvider tempFileProvider) throws IOException {
+        return mountZip(zipFile, mountPoint, tempFileProvider, CasePolicy.SENSITIVE);
+    }
+
+    /**
+     * Create and mount a zip file into the filesystem which matches names by the given case policy, returning a single
+     * handle which will unmount and close the file system when closed.
+     *
+     * @param zipFile          the zip file to mount
+     * @param mountPoint       the point at which the filesystem should be mounted
+     * @param tempFileProvider the temporary file provider
+     * @param casePolicy       the case policy
+     * @return a handle
+     * @throws IOException if an error occurs
+     */
+    public static Closeable mountZip(File zipFile, VirtualFile mountPoint, TempFileProvider tempFileProvider, CasePolicy casePolicy) throws IOException {
         boolean ok = false;
         final TempDir tempDir = tempFileProvider.createTempDir(zipFile.getName());
         try {
-            final MountHandle handle = doMount(new JavaZipFileSystem(zipFile, tempDir), mountPoint);
+            final MountHandle handle = doMount(new JavaZipFileSystem(zipFile, tempDir, casePolicy), mountPoint);
             ok = true;
             return handle;
         } finally {
@@ -382,6 +627,63 @@ public class VFS {
         return doMount(new RealFileSystem(realRoot), mountPoint);
     }
 
+    /**
+     * Create and mount a real file system which caches attributes and directory listings, returning a single handle
+     * which will unmount and close the filesystem when closed.
+     *
+     * @param realRoot   the real filesystem root
+     * @param mountPoint the point at which the filesystem should be mounted
+     * @param cache      the attribute cache
+     * @return a handle
+     * @throws IOException if an error occurs
+     */
+    public static Closeable mountReal(File realRoot, VirtualFile mountPoint, AttributeCache cache) throws IOException {
+        return doMount(new RealFileSystem(realRoot, true, cache), mountPoint);
+    }
+
+    /**
+     * Create and mount a real file system whose changes are tracked, returning a single handle which will unmount and
+     * close the filesystem and stop tracking changes when closed.  Changes invalidate the affected entries of the
+     * attribute cache and are published to the listener, so the tree need not be polled for modifications.
+     *
+     * @param realRoot   the real filesystem root
+     * @param mountPoint the point at which the filesystem should be mounted
+     * @param cache      the attribute cache, or {@code null} to query the real filesystem on every call
+     * @param listener   the listener for changes, or {@code null} to only invalidate the cache
+     * @return a handle
+     * @throws IOException if an error occurs
+     */
+    public static Closeable mountReal(File realRoot, VirtualFile mountPoint, AttributeCache cache, FileChangeListener listener) throws IOException {
+        final RealFileWatcher watcher = new RealFileWatcher(realRoot, mountPoint, cache);
+        boolean ok = false;
+        try {
+            if (listener != null) {
+                watcher.addListener(listener);
+            }
+            final MountHandle handle = doMount(new RealFileSystem(realRoot, true, cache), mountPoint, watcher);
+            ok = true;
+            return handle;
+        } finally {
+            if (!ok) {
+                VFSUtils.safeClose(watcher);
+            }
+        }
+    }
+
+    /**
+     * Create and mount a snapshot of a real directory tree, returning a single handle which will unmount and close the
+     * filesystem when closed.  The tree is indexed before this method returns, and metadata queries are answered from
+     * the index until it is {@linkplain SnapshotFileSystem#refresh() refreshed}.
+     *
+     * @param realRoot   the real filesystem root
+     * @param mountPoint the point at which the filesystem should be mounted
+     * @return a handle
+     * @throws IOException if an error occurs
+     */
+    public static Closeable mountSnapshot(File realRoot, VirtualFile mountPoint) throws IOException {
+        return doMount(new SnapshotFileSystem(realRoot, true, getAsyncExecutor()), mountPoint);
+    }
+
     /**
      * Create and mount a temporary file system, returning a single handle which will unmount and close the filesystem
      * when closed.
@@ -405,6 +707,64 @@ public class VFS {
         }
     }
 
+    /**
+     * Create and mount a heap-backed memory file system without a budget, returning a single handle which will unmount
+     * and close the filesystem when closed.  The filesystem is not mounted from a file, so the
+     * {@linkplain VFSUtils#getMountSource(Closeable) mount source} of the handle is {@code null}.
+     *
+     * @param mountPoint the point at which the filesystem should be mounted
+     * @return a handle
+     * @throws IOException if an error occurs
+     */
+    public static Closeable mountMemory(VirtualFile mountPoint) throws IOException {
+        return doMount(new MemoryFileSystem(), mountPoint);
+    }
+
+    /**
+     * Create and mount a memory file system, returning a single handle which will unmount and close the filesystem
+     * when closed.  If a temporary file provider is given, content beyond the budget is spilled to a temporary
+     * directory which is removed when the handle is closed.  The filesystem is not mounted from a file, so the
+     * {@linkplain VFSUtils#getMountSource(Closeable) mount source} of the handle is {@code null}.
+     *
+     * @param mountPoint       the point at which the filesystem should be mounted
+     * @param storage          the kind of memory to store content in
+     * @param budget           the maximum number of bytes of content to keep in memory
+     * @param tempFileProvider the temporary file provider, or {@code null} to fail writes beyond the budget
+     * @return a handle
+     * @throws IOException if an error occurs
+     */
+    public static Closeable mountMemory(VirtualFile mountPoint, MemoryFileSystem.Storage storage, long budget, TempFileProvider tempFileProvider) throws IOException {
+        if (tempFileProvider == null) {
+            return doMount(new MemoryFileSystem(storage, budget, null), mountPoint);
+        }
+        boolean ok = false;
+        final TempDir tempDir = tempFileProvider.createTempDir("memfs");
+        try {
+            final MountHandle handle = doMount(new MemoryFileSystem(storage, budget, tempDir), mountPoint, tempDir);
+            ok = true;
+            return handle;
+        } finally {
+            if (!ok) {
+                VFSUtils.safeClose(tempDir);
+            }
+        }
+    }
+
+    /**
+     * Create and mount an overlay of file system layers, returning a single handle which will unmount and close the
+     * filesystem, and with it all of its layers, when closed.  The overlay is not mounted from a single file, so the
+     * {@linkplain VFSUtils#getMountSource(Closeable) mount source} of the handle is {@code null}.
+     *
+     * @param mountPoint the point at which the filesystem should be mounted
+     * @param layers     the layers, from the top (writable) layer down to the base layer
+     * @return a handle
+     * @throws IOException if an error occurs
+     * @see OverlayFileSystem
+     */
+    public static Closeable mountOverlay(VirtualFile mountPoint, List<FileSystem> layers) throws IOException {
+        return doMount(new OverlayFileSystem(layers), mountPoint);
+    }
+
     /**
      * Create and mount an expanded zip file in a temporary file system, returning a single handle which will unmount and
      * close the filesystem when closed.
@@ -546,6 +906,7 @@ public class VFS {
         private final VirtualFile mountPoint;
         private final StackTraceElement[] allocationPoint;
         private final AtomicBoolean closed = new AtomicBoolean(false);
+        private final DigestCache digestCache = new DigestCache();
 
         Mount(FileSystem fileSystem, VirtualFile mountPoint) {
             this.fileSystem = fileSystem;
@@ -607,6 +968,10 @@ public class VFS {
             return mountPoint;
         }
 
+        DigestCache getDigestCache() {
+            return digestCache;
+        }
+
         @SuppressWarnings({"FinalizeDoesntCallSuperFinalize"})
         protected void finalize() throws IOException {
             if (!closed.get()) {
@@ -623,6 +988,27 @@ public class VFS {
         }
     }
 
+    private static final class AsyncExecutorHolder {
+
+        static final ExecutorService EXECUTOR;
+
+        static {
+            final int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+            final AtomicInteger threadCount = new AtomicInteger();
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), task -> {
+                        final Thread thread = new Thread(task, "VFS async I/O thread " + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            EXECUTOR = executor;
+        }
+
+        private AsyncExecutorHolder() {
+        }
+    }
+
     private static final class LeakDescriptor extends Throwable {
 
         private static final long serialVersionUID = 6034058126740270584L;
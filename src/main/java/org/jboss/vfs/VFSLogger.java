@@ -30,4 +30,16 @@ public interface VFSLogger extends BasicLogger {
     @Message(id = 2, value = "Failed to clean existing content for temp file provider of type %s. Enable DEBUG level log to find what caused this")
     void failedToCleanExistingContentForTempFileProvider(String providerType);
 
+    @LogMessage(level = WARN)
+    @Message(id = 3, value = "Failed to register or unregister metrics MBean %s")
+    void failedToRegisterMetrics(Object objectName, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 4, value = "File change listener %s failed")
+    void fileChangeListenerFailed(Object listener, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 5, value = "Failed to write the cached index of %s to %s")
+    void failedToWriteIndexCache(Object archive, Object cacheFile, @Cause Throwable cause);
+
 }
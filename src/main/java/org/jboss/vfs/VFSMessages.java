@@ -3,6 +3,7 @@ package org.jboss.vfs;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.MalformedURLException;
 
 import org.jboss.logging.Messages;
 import org.jboss.logging.annotations.Cause;
@@ -88,4 +89,40 @@ public interface VFSMessages {
 
     @Message(id = 32, value = ".. on root path")
     IllegalStateException onRootPath();
+
+    @Message(id = 33, value = "File '%s' is too large to map (%d bytes)")
+    IOException fileTooLargeToMap(String path, long size);
+
+    @Message(id = 34, value = "Unsupported digest algorithm '%s'")
+    IllegalArgumentException unsupportedDigestAlgorithm(String algorithm, @Cause Throwable cause);
+
+    @Message(id = 35, value = "%s must be positive")
+    IllegalArgumentException argumentMustBePositive(String name);
+
+    @Message(id = 36, value = "%s must be greater than 0 and less than 1")
+    IllegalArgumentException argumentMustBeFraction(String name);
+
+    @Message(id = 37, value = "Memory budget of %d bytes exceeded writing '%s'")
+    IOException memoryBudgetExceeded(long budget, String path);
+
+    @Message(id = 38, value = "No physical file is available for '%s'")
+    IOException noPhysicalFile(String path);
+
+    @Message(id = 39, value = "Not a directory: '%s'")
+    IOException notADirectory(String path);
+
+    @Message(id = 40, value = "Between 1 and %d layers are supported")
+    IllegalArgumentException invalidLayerCount(int max);
+
+    @Message(id = 41, value = "Cannot write '%s' to a read-only filesystem")
+    IOException readOnlyFileSystem(String path);
+
+    @Message(id = 42, value = "The channel must be in blocking mode")
+    IllegalArgumentException channelMustBeBlocking();
+
+    @Message(id = 43, value = "The filesystem of '%s' has no root URL")
+    MalformedURLException noRootUrl(VirtualFile file);
+
+    @Message(id = 44, value = "Position and length must not be negative")
+    IllegalArgumentException negativePositionOrLength();
 }
@@ -33,6 +33,9 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
@@ -440,6 +443,67 @@ public class VFSUtils {
         os.flush();
     }
 
+    /**
+     * Copy input stream to a channel and close the input stream.  The channel is left open.
+     *
+     * @param is      input stream
+     * @param channel the channel
+     * @return the number of bytes written to the channel
+     * @throws IOException for any error
+     */
+    public static long copyStreamAndClose(InputStream is, WritableByteChannel channel) throws IOException {
+        try {
+            final long count = copyStream(is, channel);
+            is.close();
+            return count;
+        } finally {
+            safeClose(is);
+        }
+    }
+
+    /**
+     * Copy input stream to a channel without closing either of them.  The channel must be blocking, so that every
+     * byte read from the stream is written; a {@link SelectableChannel} in non-blocking mode is rejected.
+     *
+     * @param is      input stream
+     * @param channel the channel
+     * @return the number of bytes written to the channel
+     * @throws IOException for any error
+     * @throws IllegalArgumentException if the channel is in non-blocking mode
+     */
+    public static long copyStream(InputStream is, WritableByteChannel channel) throws IOException {
+        if (is == null) {
+            throw MESSAGES.nullArgument("input stream");
+        }
+        if (channel == null) {
+            throw MESSAGES.nullArgument("channel");
+        }
+        checkBlocking(channel);
+        final byte[] buff = new byte[DEFAULT_BUFFER_SIZE];
+        final ByteBuffer buffer = ByteBuffer.wrap(buff);
+        long count = 0L;
+        int rc;
+        while ((rc = is.read(buff)) != -1) {
+            buffer.limit(rc).position(0);
+            while (buffer.hasRemaining()) {
+                count += channel.write(buffer);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Check that a channel blocks until its writes make progress.
+     *
+     * @param channel the channel
+     * @throws IllegalArgumentException if the channel is a selectable channel in non-blocking mode
+     */
+    static void checkBlocking(WritableByteChannel channel) {
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()) {
+            throw MESSAGES.channelMustBeBlocking();
+        }
+    }
+
     /**
      * Write the given bytes to the given virtual file, replacing its current contents (if any) or creating a new file if
      * one does not exist.
@@ -449,14 +513,12 @@ public class VFSUtils {
      * @throws IOException if an error occurs
      */
     public static void writeFile(VirtualFile virtualFile, byte[] bytes) throws IOException {
-        final File file = virtualFile.getPhysicalFile();
-        file.getParentFile().mkdirs();
-        final FileOutputStream fos = new FileOutputStream(file);
+        final OutputStream os = virtualFile.openOutputStream();
         try {
-            fos.write(bytes);
-            fos.close();
+            os.write(bytes);
+            os.close();
         } finally {
-            safeClose(fos);
+            safeClose(os);
         }
     }
 
@@ -469,10 +531,7 @@ public class VFSUtils {
      * @throws IOException if an error occurs
      */
     public static void writeFile(VirtualFile virtualFile, InputStream is) throws IOException {
-        final File file = virtualFile.getPhysicalFile();
-        file.getParentFile().mkdirs();
-        final FileOutputStream fos = new FileOutputStream(file);
-        copyStreamAndClose(is, fos);
+        copyStreamAndClose(is, virtualFile.openOutputStream());
     }
 
     /**
@@ -560,7 +619,7 @@ public class VFSUtils {
      *
      * @param file the virtual file
      * @return the root URL
-     * @throws MalformedURLException if the URL is not valid
+     * @throws MalformedURLException if the URL is not valid, or the filesystem has no root URL
      */
     public static URL getRootURL(VirtualFile file) throws MalformedURLException {
         final URI uri;
@@ -569,6 +628,9 @@ public class VFSUtils {
         } catch (URISyntaxException e) {
             throw new MalformedURLException(e.getMessage());
         }
+        if (uri == null) {
+            throw VFSMessages.MESSAGES.noRootUrl(file);
+        }
         return uri.toURL();
     }
 
@@ -577,7 +639,7 @@ public class VFSUtils {
      * code source URL or in similar situations where only standard URL types ({@code jar} and {@code file}) are supported.
      *
      * @param file the virtual file
-     * @return the root URI
+     * @return the root URI, or {@code null} if the filesystem has no valid root URI
      * @throws URISyntaxException if the URI is not valid
      */
     public static URI getRootURI(final VirtualFile file) throws URISyntaxException {
@@ -894,19 +956,24 @@ public class VFSUtils {
                     }
                 }
                 if (!zipEntry.isDirectory()) {
-                    final InputStream is = zip.getInputStream(zipEntry);
+                    final IoScheduler.Permit permit = IoScheduler.getDefault().acquire(IoScheduler.Priority.EXTRACTION);
                     try {
-                        final FileOutputStream os = new FileOutputStream(current);
+                        final InputStream is = zip.getInputStream(zipEntry);
                         try {
-                            VFSUtils.copyStream(is, os);
-                            // allow an error on close to terminate the unzip
-                            is.close();
-                            os.close();
+                            final FileOutputStream os = new FileOutputStream(current);
+                            try {
+                                VFSUtils.copyStream(is, os);
+                                // allow an error on close to terminate the unzip
+                                is.close();
+                                os.close();
+                            } finally {
+                                VFSUtils.safeClose(os);
+                            }
                         } finally {
-                            VFSUtils.safeClose(os);
+                            VFSUtils.safeClose(is);
                         }
                     } finally {
-                        VFSUtils.safeClose(is);
+                        permit.close();
                     }
                     // exclude jsp files last modified time change. jasper jsp compiler Compiler.java depends on last modified time-stamp to re-compile jsp files
                     if (!current.getName().endsWith(".jsp"))
@@ -18,15 +18,23 @@
 package org.jboss.vfs;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.CodeSigner;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
@@ -36,8 +44,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 
+import org.jboss.vfs.spi.FileSystem;
 import org.jboss.vfs.util.FilterVirtualFileVisitor;
 import org.jboss.vfs.util.MatchAllVirtualFileFilter;
 import org.jboss.vfs.util.PathTokenizer;
@@ -192,6 +205,152 @@ public final class VirtualFile implements Serializable {
         return mount.getFileSystem().getSize(mount.getMountPoint(), this);
     }
 
+    /**
+     * Get the basic attributes of this file.  The attributes are read together, in a single file system operation where
+     * the underlying file system supports it, so they are consistent with each other.
+     *
+     * @return the attributes, which report a nonexistent file if the file does not exist
+     */
+    public VirtualFileAttributes getAttributes() {
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new VirtualFilePermission(getPathName(), "read"));
+        }
+        final VFS.Mount mount = VFS.getMount(this);
+        if (sm != null) {
+            return AccessController.doPrivileged(
+                    (PrivilegedAction<VirtualFileAttributes>) () -> mount.getFileSystem().getAttributes(mount.getMountPoint(), this)
+            );
+        }
+        return mount.getFileSystem().getAttributes(mount.getMountPoint(), this);
+    }
+
+    /**
+     * Get the statistics of the tree rooted at this file: the number of files and directories, their total size and
+     * the newest modification time.  The statistics are computed by the underlying file system where the tree lies
+     * within a single mount, which is much cheaper than visiting each file; a zip archive, for example, answers from
+     * its index without any I/O.  Real directories are walked in parallel on the default asynchronous I/O executor.
+     *
+     * @return the tree statistics, or {@link TreeStats#EMPTY} if this file does not exist
+     * @see #getTreeStats(Executor)
+     */
+    public TreeStats getTreeStats() {
+        return getTreeStats(VFS.getAsyncExecutor());
+    }
+
+    /**
+     * Get the statistics of the tree rooted at this file, walking real directories in parallel on the given executor.
+     * The calling thread takes part in the walk, so it completes even if the executor never runs the helper tasks.
+     *
+     * @param executor the executor for parallel work
+     * @return the tree statistics, or {@link TreeStats#EMPTY} if this file does not exist
+     * @see #getTreeStats()
+     */
+    public TreeStats getTreeStats(Executor executor) {
+        if (executor == null) {
+            throw VFSMessages.MESSAGES.nullArgument("executor");
+        }
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new VirtualFilePermission(getPathName(), "read"));
+            return AccessController.doPrivileged((PrivilegedAction<TreeStats>) () -> computeTreeStats(VFS.getSubmountAncestors(this), executor));
+        }
+        return computeTreeStats(VFS.getSubmountAncestors(this), executor);
+    }
+
+    private TreeStats computeTreeStats(Set<VirtualFile> submountAncestors, Executor executor) {
+        final VFS.Mount mount = VFS.getMount(this);
+        if (!submountAncestors.contains(this)) {
+            return mount.getFileSystem().getTreeStats(mount.getMountPoint(), this, executor);
+        }
+        // other file systems are mounted within this tree, so only walk as far as needed to reach them
+        final VirtualFileAttributes attributes = mount.getFileSystem().getAttributes(mount.getMountPoint(), this);
+        TreeStats stats = TreeStats.of(attributes);
+        if (attributes.isDirectory()) {
+            for (VirtualFile child : getChildren()) {
+                stats = stats.plus(child.computeTreeStats(submountAncestors, executor));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Get a fingerprint of the file contents: an opaque value which changes when the contents change.  It is much
+     * cheaper than a digest; for an entry of a zip archive, for example, it is derived from the CRC-32 and size held in
+     * the archive index, while for a real file it is derived from the size and modification time.  Fingerprints are
+     * only meaningful for detecting a change to the same file.
+     *
+     * @return the fingerprint
+     */
+    public long getFingerprint() {
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new VirtualFilePermission(getPathName(), "read"));
+        }
+        final VFS.Mount mount = VFS.getMount(this);
+        if (sm != null) {
+            return AccessController.doPrivileged(
+                    (PrivilegedAction<Long>) () -> mount.getFileSystem().getFingerprint(mount.getMountPoint(), this)
+            );
+        }
+        return mount.getFileSystem().getFingerprint(mount.getMountPoint(), this);
+    }
+
+    /**
+     * Compute a digest of the file contents.  Digests are cached with the size and modification time of the file, and
+     * are only recomputed once either of those changes.
+     *
+     * @param algorithm the name of the {@link MessageDigest} algorithm, for example {@code "SHA-256"}
+     * @return the digest
+     * @throws IOException for any error accessing the file system, or if this file is a directory
+     * @throws IllegalArgumentException if the algorithm is not supported
+     */
+    public byte[] getDigest(String algorithm) throws IOException {
+        if (algorithm == null) {
+            throw VFSMessages.MESSAGES.nullArgument("algorithm");
+        }
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw VFSMessages.MESSAGES.unsupportedDigestAlgorithm(algorithm, e);
+        }
+        final String key = algorithm.toUpperCase(Locale.ROOT);
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new VirtualFilePermission(getPathName(), "read"));
+        }
+        final VFS.Mount mount = VFS.getMount(this);
+        final FileSystem fileSystem = mount.getFileSystem();
+        final VirtualFileAttributes attributes = sm == null ? fileSystem.getAttributes(mount.getMountPoint(), this)
+                : AccessController.doPrivileged((PrivilegedAction<VirtualFileAttributes>) () -> fileSystem.getAttributes(mount.getMountPoint(), this));
+        if (!attributes.exists()) {
+            throw new FileNotFoundException(getPathName());
+        }
+        if (attributes.isDirectory()) {
+            throw VFSMessages.MESSAGES.notAFile(getPathName());
+        }
+        final DigestCache cache = mount.getDigestCache();
+        final byte[] cached = cache.get(this, key, attributes);
+        if (cached != null) {
+            return cached.clone();
+        }
+        final ByteBuffer buffer = BufferPool.DEFAULT.allocate();
+        try (ReadableByteChannel channel = sm == null ? fileSystem.openChannel(mount.getMountPoint(), this)
+                : doIoPrivileged(() -> fileSystem.openChannel(mount.getMountPoint(), this))) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        } finally {
+            BufferPool.DEFAULT.free(buffer);
+        }
+        final byte[] result = digest.digest();
+        cache.put(this, key, attributes, result);
+        return result.clone();
+    }
+
     /**
      * Tests whether the underlying implementation file still exists.
      *
@@ -285,6 +444,7 @@ public final class VirtualFile implements Serializable {
         if (isDirectory()) {
             return new VirtualJarInputStream(this);
         }
+        IoScheduler.getDefault().noteInteractive();
         final VFS.Mount mount = VFS.getMount(this);
         if (sm != null) {
             return doIoPrivileged(() -> mount.getFileSystem().openInputStream(mount.getMountPoint(), this));
@@ -292,6 +452,224 @@ public final class VirtualFile implements Serializable {
         return mount.getFileSystem().openInputStream(mount.getMountPoint(), this);
     }
 
+    /**
+     * Access the file contents if this is a plain file.  Unlike calling {@link #exists()} and then
+     * {@link #openStream()}, this looks the file up once, and a missing file is reported without constructing an
+     * exception, which makes it suitable for callers such as class loaders which probe many locations.
+     *
+     * @return an InputStream for the file contents, or {@code null} if the file does not exist or is a directory
+     * @throws IOException for any error opening an existing file
+     */
+    public InputStream tryOpenStream() throws IOException {
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new VirtualFilePermission(getPathName(), "read"));
+        }
+        IoScheduler.getDefault().noteInteractive();
+        final VFS.Mount mount = VFS.getMount(this);
+        if (sm != null) {
+            return doIoPrivileged(() -> mount.getFileSystem().tryOpenInputStream(mount.getMountPoint(), this));
+        }
+        return mount.getFileSystem().tryOpenInputStream(mount.getMountPoint(), this);
+    }
+
+    /**
+     * Access the file contents as a channel.  Where the underlying file system can address the bytes of the file
+     * directly, the channel reads them without an intermediate stream and is a
+     * {@link java.nio.channels.SeekableByteChannel}.
+     *
+     * @return a channel for the file contents
+     * @throws IOException for any error accessing the file system
+     */
+    public ReadableByteChannel openChannel() throws IOException {
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new VirtualFilePermission(getPathName(), "read"));
+        }
+        if (isDirectory()) {
+            return Channels.newChannel(new VirtualJarInputStream(this));
+        }
+        IoScheduler.getDefault().noteInteractive();
+        final VFS.Mount mount = VFS.getMount(this);
+        if (sm != null) {
+            return doIoPrivileged(() -> mount.getFileSystem().openChannel(mount.getMountPoint(), this));
+        }
+        return mount.getFileSystem().openChannel(mount.getMountPoint(), this);
+    }
+
+    /**
+     * Get the file contents as a read-only buffer.  Where the underlying file system can address the bytes of the file
+     * directly (for example a real file, or an uncompressed entry of a zip archive), the buffer is a memory mapping of
+     * those bytes and no copy is made; otherwise the contents are read into a heap buffer.
+     *
+     * @return a read-only buffer holding the file contents
+     * @throws IOException for any error accessing the file system, or if this file is a directory
+     */
+    public ByteBuffer map() throws IOException {
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new VirtualFilePermission(getPathName(), "read"));
+        }
+        IoScheduler.getDefault().noteInteractive();
+        final VFS.Mount mount = VFS.getMount(this);
+        if (sm != null) {
+            return doIoPrivileged(() -> mount.getFileSystem().map(mount.getMountPoint(), this));
+        }
+        return mount.getFileSystem().map(mount.getMountPoint(), this);
+    }
+
+    /**
+     * Write the file contents to a channel.  Where the underlying file system can address the bytes of the file
+     * directly, they are transferred by the operating system (for example with {@code sendfile}) without being copied
+     * through the Java heap.  The channel is not closed.  It must be blocking, so that the whole file is written; a
+     * {@link java.nio.channels.SelectableChannel} in non-blocking mode is rejected.
+     *
+     * @param channel the channel to write to
+     * @return the number of bytes written
+     * @throws IOException for any error accessing the file system or writing to the channel
+     * @throws IllegalArgumentException if the channel is in non-blocking mode
+     */
+    public long transferTo(WritableByteChannel channel) throws IOException {
+        if (channel == null) {
+            throw VFSMessages.MESSAGES.nullArgument("channel");
+        }
+        VFSUtils.checkBlocking(channel);
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new VirtualFilePermission(getPathName(), "read"));
+        }
+        IoScheduler.getDefault().noteInteractive();
+        final VFS.Mount mount = VFS.getMount(this);
+        if (sm != null) {
+            return doIoPrivileged(() -> mount.getFileSystem().transferTo(mount.getMountPoint(), this, channel));
+        }
+        return mount.getFileSystem().transferTo(mount.getMountPoint(), this, channel);
+    }
+
+    /**
+     * Asynchronously read the complete file contents, using the default VFS I/O executor.
+     *
+     * @return a future for a buffer holding the file contents
+     * @see #readAsync(long, int, Executor)
+     */
+    public CompletableFuture<ByteBuffer> readAsync() {
+        return readAsync(0L, Integer.MAX_VALUE, VFS.getAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously read the complete file contents.
+     *
+     * @param executor the executor on which blocking work and completion may take place
+     * @return a future for a buffer holding the file contents
+     * @see #readAsync(long, int, Executor)
+     */
+    public CompletableFuture<ByteBuffer> readAsync(Executor executor) {
+        return readAsync(0L, Integer.MAX_VALUE, executor);
+    }
+
+    /**
+     * Asynchronously read a chunk of the file contents.  Real files are opened on the given executor and read with an
+     * {@link java.nio.channels.AsynchronousFileChannel}; other content is read on the given executor, so that the
+     * calling thread never blocks on I/O.  Any I/O failure is reported through the returned future.
+     *
+     * <p/>
+     * The read is scheduled as {@linkplain IoScheduler.Priority#INTERACTIVE interactive}, since a caller is waiting
+     * for it; use {@link #readAsync(long, int, Executor, IoScheduler.Priority)} for speculative reads.
+     *
+     * @param position the position in the file of the first byte to read
+     * @param length   the maximum number of bytes to read; fewer are read if the end of the file is reached
+     * @param executor the executor on which blocking work and completion may take place
+     * @return a future for a buffer, ready to be read, holding the bytes which were read
+     */
+    public CompletableFuture<ByteBuffer> readAsync(long position, int length, Executor executor) {
+        return readAsync(position, length, executor, IoScheduler.Priority.INTERACTIVE);
+    }
+
+    /**
+     * Asynchronously read a chunk of the file contents in the given priority class of the {@linkplain IoScheduler I/O
+     * scheduler}.  Reads which nobody is waiting for yet, such as prefetching, should use
+     * {@link IoScheduler.Priority#PREFETCH} so that they give way to reads which callers are waiting for.
+     *
+     * @param position the position in the file of the first byte to read
+     * @param length   the maximum number of bytes to read; fewer are read if the end of the file is reached
+     * @param executor the executor on which blocking work and completion may take place
+     * @param priority the priority class of the read
+     * @return a future for a buffer, ready to be read, holding the bytes which were read
+     * @see #readAsync(long, int, Executor)
+     */
+    public CompletableFuture<ByteBuffer> readAsync(long position, int length, Executor executor, IoScheduler.Priority priority) {
+        if (executor == null) {
+            throw VFSMessages.MESSAGES.nullArgument("executor");
+        }
+        if (priority == null) {
+            throw VFSMessages.MESSAGES.nullArgument("priority");
+        }
+        if (position < 0L || length < 0) {
+            throw VFSMessages.MESSAGES.negativePositionOrLength();
+        }
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new VirtualFilePermission(getPathName(), "read"));
+        }
+        final VFS.Mount mount = VFS.getMount(this);
+        final PrivilegedAction<CompletableFuture<ByteBuffer>> read = () -> mount.getFileSystem().readAsync(mount.getMountPoint(), this, position, length, executor);
+        return IoScheduler.getDefault().submit(priority, executor, sm == null ? read::run : () -> AccessController.doPrivileged(read));
+    }
+
+    /**
+     * Publish the file contents to reactive subscribers, using the default VFS I/O executor.
+     *
+     * @return a publisher of the file contents
+     * @see #publish(Executor)
+     */
+    public Flow.Publisher<ByteBuffer> publish() {
+        return publish(VFS.getAsyncExecutor());
+    }
+
+    /**
+     * Publish the file contents to reactive subscribers.  Each subscription opens its own channel on the file (see
+     * {@link #openChannel()}) and reads from it on the given executor only while the subscriber has outstanding
+     * demand, so no thread is held by a subscriber which is not requesting data.
+     * <p/>
+     * The buffers passed to {@link Flow.Subscriber#onNext(Object)} are read-only and belong to the subscriber, which
+     * may keep them for as long as it likes.
+     *
+     * @param executor the executor on which the file is read and the subscriber is signalled
+     * @return a publisher of the file contents
+     * @see #publish(Executor, boolean)
+     */
+    public Flow.Publisher<ByteBuffer> publish(Executor executor) {
+        return publish(executor, false);
+    }
+
+    /**
+     * Publish the file contents to reactive subscribers, optionally without copying the bytes out of pooled buffers.
+     * <p/>
+     * If {@code recycleBuffers} is {@code true}, the buffers passed to {@link Flow.Subscriber#onNext(Object)} are
+     * read-only views of pooled direct buffers which are reused as soon as {@code onNext} returns; a subscriber which
+     * needs the bytes afterwards must copy them before returning.  Otherwise every buffer is a read-only copy which
+     * belongs to the subscriber.
+     *
+     * @param executor the executor on which the file is read and the subscriber is signalled
+     * @param recycleBuffers {@code true} if the subscriber consumes each buffer within {@code onNext}, so that pooled
+     *                       buffers can be passed without copying
+     * @return a publisher of the file contents
+     * @see #publish(Executor)
+     */
+    public Flow.Publisher<ByteBuffer> publish(Executor executor, boolean recycleBuffers) {
+        if (executor == null) {
+            throw VFSMessages.MESSAGES.nullArgument("executor");
+        }
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new VirtualFilePermission(getPathName(), "read"));
+        }
+        if (sm != null) {
+            return new ContentPublisher(() -> doIoPrivileged(this::openChannel), executor, recycleBuffers);
+        }
+        return new ContentPublisher(this::openChannel, executor, recycleBuffers);
+    }
+
     /**
      * Delete this virtual file
      *
@@ -332,6 +710,26 @@ public final class VirtualFile implements Serializable {
         return mount.getFileSystem().getFile(mount.getMountPoint(), this);
     }
 
+    /**
+     * Open an output stream which replaces the content of this file, creating it if necessary.  As with writing to
+     * the {@linkplain #getPhysicalFile() physical file}, the stream is opened with the permissions of the caller.
+     *
+     * @return the output stream
+     * @throws IOException if an I/O error occurs
+     */
+    OutputStream openOutputStream() throws IOException {
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(new VirtualFilePermission(getPathName(), "getfile"));
+        }
+        final VFS.Mount mount = VFS.getMount(this);
+        if (sm != null) {
+            // producing the physical file is privileged, writing to it is not
+            doIoPrivileged(() -> mount.getFileSystem().getFile(mount.getMountPoint(), this));
+        }
+        return mount.getFileSystem().openOutputStream(mount.getMountPoint(), this);
+    }
+
     private static <T> T doIoPrivileged(PrivilegedExceptionAction<T> action) throws IOException {
         try {
             return AccessController.doPrivileged(action);
@@ -411,6 +809,35 @@ public final class VirtualFile implements Serializable {
         return virtualFiles;
     }
 
+    /**
+     * Get the children whose names are accepted by a predicate.  Unlike {@link #getChildren(VirtualFileFilter)}, the
+     * names are filtered by the filesystem before any virtual file is created.
+     *
+     * @param predicate the predicate which the names of the children must match
+     * @return the matching children
+     */
+    public List<VirtualFile> getMatchingChildren(NamePredicate predicate) {
+        if (predicate == null) {
+            throw VFSMessages.MESSAGES.nullArgument("predicate");
+        }
+        // isDirectory does the read security check
+        if (!isDirectory()) { return Collections.emptyList(); }
+        final VFS.Mount mount = VFS.getMount(this);
+        final Set<String> submounts = VFS.getSubmounts(this);
+        final List<String> names = mount.getFileSystem().getDirectoryEntries(mount.getMountPoint(), this, predicate);
+        final List<VirtualFile> virtualFiles = new ArrayList<VirtualFile>(names.size());
+        for (String name : names) {
+            virtualFiles.add(new VirtualFile(name, this));
+            submounts.remove(name);
+        }
+        for (String name : submounts) {
+            if (predicate.accepts(name)) {
+                virtualFiles.add(new VirtualFile(name, this));
+            }
+        }
+        return virtualFiles;
+    }
+
     /**
      * Get the children
      *
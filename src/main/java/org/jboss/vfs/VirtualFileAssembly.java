@@ -22,6 +22,8 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -42,11 +44,32 @@ import org.jboss.vfs.util.PathTokenizer;
 public class VirtualFileAssembly implements Closeable {
 
     private static final Random RANDOM_NUM_GEN = new SecureRandom();
-    private final AssemblyNode rootNode = new AssemblyNode("");
+    private final CasePolicy casePolicy;
+    private final AssemblyNode rootNode;
     private final List<Closeable> mountHandles = new CopyOnWriteArrayList<Closeable>();
     private final VirtualFile mountRoot = VFS.getChild("assembly-mounts").getChild(getAssemblyId());
     private TempFileProvider tempFileProvider;
 
+    /**
+     * Create an assembly which matches names ignoring case.
+     */
+    public VirtualFileAssembly() {
+        this(CasePolicy.INSENSITIVE);
+    }
+
+    /**
+     * Create an assembly which matches names by the given case policy.
+     *
+     * @param casePolicy the case policy
+     */
+    public VirtualFileAssembly(CasePolicy casePolicy) {
+        if (casePolicy == null) {
+            throw VFSMessages.MESSAGES.nullArgument("casePolicy");
+        }
+        this.casePolicy = casePolicy;
+        rootNode = new AssemblyNode("", casePolicy);
+    }
+
     /**
      * Add a {@link VirtualFile} to the assembly.
      *
@@ -93,8 +116,12 @@ public class VirtualFileAssembly implements Closeable {
      * @throws IOException
      */
     public VirtualFile getFile(VirtualFile mountPoint, VirtualFile target) {
-        final String path = target.getPathNameRelativeTo(mountPoint);
-        return rootNode.getFile(new Path(path), mountPoint);
+        final List<VirtualFile> path = new ArrayList<VirtualFile>();
+        for (VirtualFile current = target; !current.equals(mountPoint); current = current.getParent()) {
+            path.add(current);
+        }
+        Collections.reverse(path);
+        return rootNode.getFile(path);
     }
 
     /**
@@ -104,12 +131,7 @@ public class VirtualFileAssembly implements Closeable {
      */
     public List<String> getChildNames(VirtualFile mountPoint, VirtualFile target) {
         List<String> names = new LinkedList<String>();
-        AssemblyNode targetNode = null;
-        if (mountPoint.equals(target)) {
-            targetNode = rootNode;
-        } else {
-            targetNode = rootNode.find(target.getPathNameRelativeTo(mountPoint));
-        }
+        final AssemblyNode targetNode = find(mountPoint, target);
         if (targetNode != null) {
             for (AssemblyNode childNode : targetNode.children.values()) {
                 names.add(childNode.realName);
@@ -119,8 +141,24 @@ public class VirtualFileAssembly implements Closeable {
     }
 
     public boolean contains(VirtualFile mountPoint, VirtualFile target) {
-        final String path = target.getPathNameRelativeTo(mountPoint);
-        return rootNode.find(path) != null;
+        return find(mountPoint, target) != null;
+    }
+
+    /**
+     * Get the case policy by which names are matched.
+     *
+     * @return the case policy
+     */
+    public CasePolicy getCasePolicy() {
+        return casePolicy;
+    }
+
+    private AssemblyNode find(VirtualFile mountPoint, VirtualFile target) {
+        if (mountPoint.equals(target)) {
+            return rootNode;
+        }
+        final AssemblyNode parent = find(mountPoint, target.getParent());
+        return parent == null ? null : parent.children.get(casePolicy.getKey(target));
     }
 
     /**
@@ -172,20 +210,12 @@ public class VirtualFileAssembly implements Closeable {
     private static class AssemblyNode {
         private final Map<String, AssemblyNode> children = new ConcurrentHashMap<String, AssemblyNode>();
         private final String realName;
+        private final CasePolicy casePolicy;
         private VirtualFile target;
 
-        AssemblyNode(String realName) {
+        AssemblyNode(String realName, CasePolicy casePolicy) {
             this.realName = realName;
-        }
-
-        /**
-         * Find an AssemblyNode staring with this node and return null if not found.
-         *
-         * @param path
-         * @return
-         */
-        public AssemblyNode find(String path) {
-            return find(new Path(path), false);
+            this.casePolicy = casePolicy;
         }
 
         /**
@@ -215,7 +245,7 @@ public class VirtualFileAssembly implements Closeable {
                 if (!createIfMissing) {
                     return null;
                 }
-                childNode = new AssemblyNode(current);
+                childNode = new AssemblyNode(current, casePolicy);
                 addChild(current, childNode);
             }
             return childNode.find(path, createIfMissing);
@@ -225,43 +255,34 @@ public class VirtualFileAssembly implements Closeable {
          * Get the VirtualFile for a given path.  Will traverse VirtualFile links if not
          * found in the assembly.
          *
-         * @param path
-         * @return
-         * @throws IOException
+         * @param path the virtual files along the path, below the mount point
+         * @return the virtual file, or {@code null} if the path is not in the assembly
          */
-        public VirtualFile getFile(Path path, VirtualFile assemblyMountPoint) {
-
-            if (path.isEndOfPath()) {
-                return target;
-            }
-            String current = path.getCurrent();
-            AssemblyNode childNode = getChild(current);
-            if (childNode != null) {
-                return childNode.getFile(path, assemblyMountPoint);
-            }
-            if (target != null) {
-                VirtualFile currentFile = target != null ? target.getChild(current) : null;
-                if (currentFile != null) {
-                    while (!path.isEndOfPath()) {
-                        current = path.getCurrent();
-                        currentFile = currentFile.getChild(current);
-                        if (currentFile == null) {
-                            return null;
-                        }
+        public VirtualFile getFile(List<VirtualFile> path) {
+            AssemblyNode node = this;
+            for (int i = 0; i < path.size(); i++) {
+                final AssemblyNode childNode = node.children.get(casePolicy.getKey(path.get(i)));
+                if (childNode == null) {
+                    if (node.target == null) {
+                        return null;
+                    }
+                    VirtualFile currentFile = node.target;
+                    for (; i < path.size(); i++) {
+                        currentFile = currentFile.getChild(path.get(i).getName());
                     }
                     return currentFile;
                 }
+                node = childNode;
             }
-            return null;
-
+            return node.target;
         }
 
         private void addChild(String name, AssemblyNode child) {
-            children.put(name.toLowerCase(), child);
+            children.put(casePolicy.fold(name), child);
         }
 
         private AssemblyNode getChild(String name) {
-            return children.get(name.toLowerCase());
+            return children.get(casePolicy.fold(name));
         }
 
         private void setTarget(VirtualFile target) {
@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs;
+
+/**
+ * An immutable snapshot of the basic attributes of a virtual file, read in a single file system operation.
+ */
+public final class VirtualFileAttributes {
+
+    /**
+     * The attributes of a file which does not exist.
+     */
+    public static final VirtualFileAttributes NONEXISTENT = new VirtualFileAttributes(false, false, 0L, 0L);
+
+    private final boolean exists;
+    private final boolean directory;
+    private final long size;
+    private final long lastModified;
+
+    /**
+     * Construct the attributes of an existing file.
+     *
+     * @param directory    {@code true} if the file is a directory
+     * @param size         the size of the file, in bytes
+     * @param lastModified the last modification time of the file, in milliseconds since the epoch
+     */
+    public VirtualFileAttributes(boolean directory, long size, long lastModified) {
+        this(true, directory, size, lastModified);
+    }
+
+    private VirtualFileAttributes(boolean exists, boolean directory, long size, long lastModified) {
+        this.exists = exists;
+        this.directory = directory;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Determine whether the file exists.
+     *
+     * @return {@code true} if the file exists
+     */
+    public boolean exists() {
+        return exists;
+    }
+
+    /**
+     * Determine whether the file is a directory.
+     *
+     * @return {@code true} if the file exists and is a directory
+     */
+    public boolean isDirectory() {
+        return directory;
+    }
+
+    /**
+     * Determine whether the file is a plain file.
+     *
+     * @return {@code true} if the file exists and is not a directory
+     */
+    public boolean isFile() {
+        return exists && !directory;
+    }
+
+    /**
+     * Get the size of the file.
+     *
+     * @return the size, in bytes, or 0 if the file does not exist
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Get the last modification time of the file.
+     *
+     * @return the time, in milliseconds since the epoch, or 0 if the file does not exist
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof VirtualFileAttributes)) {
+            return false;
+        }
+        final VirtualFileAttributes other = (VirtualFileAttributes) obj;
+        return exists == other.exists && directory == other.directory && size == other.size && lastModified == other.lastModified;
+    }
+
+    public int hashCode() {
+        return (int) (size ^ size >>> 32) * 31 + (int) (lastModified ^ lastModified >>> 32) + (directory ? 1 : 0) + (exists ? 2 : 0);
+    }
+
+    public String toString() {
+        if (!exists) {
+            return "nonexistent";
+        }
+        return (directory ? "directory" : "file") + " size=" + size + " lastModified=" + lastModified;
+    }
+}
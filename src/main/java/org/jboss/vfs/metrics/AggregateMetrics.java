@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.metrics;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The sum of the metrics of all currently instrumented mounts.
+ */
+final class AggregateMetrics implements MetricsMXBean {
+
+    private final Collection<MountMetrics> mounts;
+    private final int sampleInterval;
+
+    AggregateMetrics(final Collection<MountMetrics> mounts, final int sampleInterval) {
+        this.mounts = mounts;
+        this.sampleInterval = sampleInterval;
+    }
+
+    public Map<String, Long> getOperationCounts() {
+        final Map<String, Long> counts = new LinkedHashMap<String, Long>();
+        for (OperationType type : OperationType.values()) {
+            long count = 0L;
+            for (MountMetrics metrics : mounts) {
+                count += metrics.getOperationCount(type);
+            }
+            counts.put(type.name(), Long.valueOf(count));
+        }
+        return counts;
+    }
+
+    public long getTotalOperations() {
+        long total = 0L;
+        for (MountMetrics metrics : mounts) {
+            total += metrics.getTotalOperations();
+        }
+        return total;
+    }
+
+    public long getBytesRead() {
+        long total = 0L;
+        for (MountMetrics metrics : mounts) {
+            total += metrics.getBytesRead();
+        }
+        return total;
+    }
+
+    public long getOpenStreams() {
+        long total = 0L;
+        for (MountMetrics metrics : mounts) {
+            total += metrics.getOpenStreams();
+        }
+        return total;
+    }
+
+    public long getExtractionCount() {
+        long total = 0L;
+        for (MountMetrics metrics : mounts) {
+            total += metrics.getExtractionCount();
+        }
+        return total;
+    }
+
+    public long getExtractedBytes() {
+        long total = 0L;
+        for (MountMetrics metrics : mounts) {
+            total += metrics.getExtractedBytes();
+        }
+        return total;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public LatencySnapshot getOpenInputStreamLatency() {
+        final long[] buckets = new long[LatencyHistogram.BUCKETS];
+        for (MountMetrics metrics : mounts) {
+            metrics.openInputStreamLatency.addTo(buckets);
+        }
+        return LatencySnapshot.of(buckets);
+    }
+
+    public LatencySnapshot getDirectoryEntriesLatency() {
+        final long[] buckets = new long[LatencyHistogram.BUCKETS];
+        for (MountMetrics metrics : mounts) {
+            metrics.directoryEntriesLatency.addTo(buckets);
+        }
+        return LatencySnapshot.of(buckets);
+    }
+
+    public LatencySnapshot getExistsLatency() {
+        final long[] buckets = new long[LatencyHistogram.BUCKETS];
+        for (MountMetrics metrics : mounts) {
+            metrics.existsLatency.addTo(buckets);
+        }
+        return LatencySnapshot.of(buckets);
+    }
+}
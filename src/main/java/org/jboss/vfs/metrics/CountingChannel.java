@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * A channel which reports the bytes read to a {@link MountMetrics}.  A seekable channel stays seekable when it is
+ * wrapped, so callers which position it still can.
+ */
+class CountingChannel implements ReadableByteChannel {
+
+    private final ReadableByteChannel channel;
+    private final MountMetrics metrics;
+
+    CountingChannel(final ReadableByteChannel channel, final MountMetrics metrics) {
+        this.channel = channel;
+        this.metrics = metrics;
+    }
+
+    static ReadableByteChannel wrap(final ReadableByteChannel channel, final MountMetrics metrics) {
+        if (channel instanceof SeekableByteChannel) {
+            return new Seekable((SeekableByteChannel) channel, metrics);
+        }
+        return new CountingChannel(channel, metrics);
+    }
+
+    public int read(final ByteBuffer dst) throws IOException {
+        final int n = channel.read(dst);
+        if (n > 0) {
+            metrics.read(n);
+        }
+        return n;
+    }
+
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static final class Seekable extends CountingChannel implements SeekableByteChannel {
+
+        private final SeekableByteChannel channel;
+
+        Seekable(final SeekableByteChannel channel, final MountMetrics metrics) {
+            super(channel, metrics);
+            this.channel = channel;
+        }
+
+        public int write(final ByteBuffer src) throws IOException {
+            return channel.write(src);
+        }
+
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        public SeekableByteChannel position(final long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        public SeekableByteChannel truncate(final long size) throws IOException {
+            channel.truncate(size);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream which reports the bytes read and its closing to a {@link MountMetrics}.
+ */
+final class CountingInputStream extends FilterInputStream {
+
+    private final MountMetrics metrics;
+    private boolean closed;
+
+    CountingInputStream(final InputStream in, final MountMetrics metrics) {
+        super(in);
+        this.metrics = metrics;
+    }
+
+    public int read() throws IOException {
+        final int b = in.read();
+        if (b != -1) {
+            metrics.read(1L);
+        }
+        return b;
+    }
+
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final int n = in.read(b, off, len);
+        if (n > 0) {
+            metrics.read(n);
+        }
+        return n;
+    }
+
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            in.close();
+        } finally {
+            metrics.streamClosed();
+        }
+    }
+}
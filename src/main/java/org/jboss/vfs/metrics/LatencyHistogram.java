@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free latency histogram with power-of-two buckets.  Bucket {@code n} counts the samples between
+ * {@code 2^n} and {@code 2^(n+1) - 1} nanoseconds, so recording a sample is a single atomic increment and
+ * percentiles are accurate to within a factor of two.
+ */
+public final class LatencyHistogram {
+
+    static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Record a sample.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        buckets.getAndIncrement(bucketOf(nanos));
+    }
+
+    /**
+     * Get the number of recorded samples.
+     *
+     * @return the sample count
+     */
+    public long getCount() {
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Get a copy of the bucket counts.
+     *
+     * @return the bucket counts, indexed by the base two logarithm of the latency
+     */
+    public long[] getBuckets() {
+        final long[] copy = new long[BUCKETS];
+        addTo(copy);
+        return copy;
+    }
+
+    void addTo(long[] target) {
+        for (int i = 0; i < BUCKETS; i++) {
+            target[i] += buckets.get(i);
+        }
+    }
+
+    /**
+     * Take a snapshot of this histogram.
+     *
+     * @return the snapshot
+     */
+    public LatencySnapshot snapshot() {
+        return LatencySnapshot.of(getBuckets());
+    }
+
+    static int bucketOf(long nanos) {
+        return nanos <= 0L ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    static long upperBound(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (2L << bucket) - 1L;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.metrics;
+
+/**
+ * An immutable summary of a {@link LatencyHistogram}.  Percentiles are reported as the upper bound of the bucket
+ * they fall in.
+ */
+public final class LatencySnapshot {
+
+    private final long sampleCount;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    private LatencySnapshot(final long sampleCount, final long p50Nanos, final long p90Nanos, final long p99Nanos, final long maxNanos) {
+        this.sampleCount = sampleCount;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    static LatencySnapshot of(long[] buckets) {
+        long count = 0L;
+        int highest = -1;
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] != 0L) {
+                count += buckets[i];
+                highest = i;
+            }
+        }
+        if (count == 0L) {
+            return new LatencySnapshot(0L, 0L, 0L, 0L, 0L);
+        }
+        return new LatencySnapshot(count, percentile(buckets, count, 0.5), percentile(buckets, count, 0.9),
+                percentile(buckets, count, 0.99), LatencyHistogram.upperBound(highest));
+    }
+
+    private static long percentile(long[] buckets, long count, double fraction) {
+        final long rank = Math.max(1L, (long) Math.ceil(count * fraction));
+        long seen = 0L;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return LatencyHistogram.upperBound(i);
+            }
+        }
+        return LatencyHistogram.upperBound(buckets.length - 1);
+    }
+
+    /**
+     * Get the number of samples this snapshot was computed from.
+     *
+     * @return the sample count
+     */
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Get the median latency.
+     *
+     * @return the median latency in nanoseconds
+     */
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    /**
+     * Get the 90th percentile latency.
+     *
+     * @return the 90th percentile latency in nanoseconds
+     */
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    /**
+     * Get the 99th percentile latency.
+     *
+     * @return the 99th percentile latency in nanoseconds
+     */
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    /**
+     * Get the maximum latency.
+     *
+     * @return the maximum latency in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public String toString() {
+        return "LatencySnapshot[samples=" + sampleCount + ", p50=" + p50Nanos + "ns, p90=" + p90Nanos + "ns, p99=" + p99Nanos
+                + "ns, max=" + maxNanos + "ns]";
+    }
+}
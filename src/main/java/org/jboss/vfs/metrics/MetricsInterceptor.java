@@ -0,0 +1,201 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.CodeSigner;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.jboss.vfs.NamePredicate;
+import org.jboss.vfs.TreeStats;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VirtualFileAttributes;
+import org.jboss.vfs.spi.FileSystem;
+import org.jboss.vfs.spi.FileSystemInterceptor;
+
+/**
+ * The interceptor which feeds a {@link MountMetrics}.
+ */
+final class MetricsInterceptor implements FileSystemInterceptor {
+
+    private final MountMetrics metrics;
+
+    MetricsInterceptor(final MountMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    MountMetrics getMetrics() {
+        return metrics;
+    }
+
+    public File getFile(FileSystem next, VirtualFile mountPoint, VirtualFile target) throws IOException {
+        metrics.count(OperationType.GET_FILE);
+        return next.getFile(mountPoint, target);
+    }
+
+    public InputStream openInputStream(FileSystem next, VirtualFile mountPoint, VirtualFile target) throws IOException {
+        metrics.count(OperationType.OPEN_INPUT_STREAM);
+        if (!metrics.sample()) {
+            return metrics.track(next.openInputStream(mountPoint, target));
+        }
+        final long start = System.nanoTime();
+        try {
+            return metrics.track(next.openInputStream(mountPoint, target));
+        } finally {
+            metrics.openInputStreamLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    public InputStream tryOpenInputStream(FileSystem next, VirtualFile mountPoint, VirtualFile target) throws IOException {
+        metrics.count(OperationType.TRY_OPEN_INPUT_STREAM);
+        return metrics.track(next.tryOpenInputStream(mountPoint, target));
+    }
+
+    public ReadableByteChannel openChannel(FileSystem next, VirtualFile mountPoint, VirtualFile target) throws IOException {
+        metrics.count(OperationType.OPEN_CHANNEL);
+        return metrics.track(next.openChannel(mountPoint, target));
+    }
+
+    public ByteBuffer map(FileSystem next, VirtualFile mountPoint, VirtualFile target) throws IOException {
+        metrics.count(OperationType.MAP);
+        final ByteBuffer buffer = next.map(mountPoint, target);
+        metrics.read(buffer.remaining());
+        return buffer;
+    }
+
+    public long transferTo(FileSystem next, VirtualFile mountPoint, VirtualFile target, WritableByteChannel channel) throws IOException {
+        metrics.count(OperationType.TRANSFER_TO);
+        final long transferred = next.transferTo(mountPoint, target, channel);
+        metrics.read(transferred);
+        return transferred;
+    }
+
+    public CompletableFuture<ByteBuffer> readAsync(FileSystem next, VirtualFile mountPoint, VirtualFile target, long position, int length, Executor executor) {
+        metrics.count(OperationType.READ_ASYNC);
+        return next.readAsync(mountPoint, target, position, length, executor).whenComplete((buffer, failure) -> {
+            if (buffer != null) {
+                metrics.read(buffer.remaining());
+            }
+        });
+    }
+
+    public boolean delete(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        metrics.count(OperationType.DELETE);
+        return next.delete(mountPoint, target);
+    }
+
+    public VirtualFileAttributes getAttributes(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        metrics.count(OperationType.GET_ATTRIBUTES);
+        return next.getAttributes(mountPoint, target);
+    }
+
+    public VirtualFileAttributes[] getAttributes(FileSystem next, VirtualFile mountPoint, List<VirtualFile> targets, Executor executor) {
+        metrics.count(OperationType.GET_ATTRIBUTES, targets.size());
+        return next.getAttributes(mountPoint, targets, executor);
+    }
+
+    public TreeStats getTreeStats(FileSystem next, VirtualFile mountPoint, VirtualFile target, Executor executor) {
+        metrics.count(OperationType.GET_TREE_STATS);
+        return next.getTreeStats(mountPoint, target, executor);
+    }
+
+    public long getFingerprint(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        metrics.count(OperationType.GET_FINGERPRINT);
+        return next.getFingerprint(mountPoint, target);
+    }
+
+    public long getSize(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        metrics.count(OperationType.GET_SIZE);
+        return next.getSize(mountPoint, target);
+    }
+
+    public long getLastModified(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        metrics.count(OperationType.GET_LAST_MODIFIED);
+        return next.getLastModified(mountPoint, target);
+    }
+
+    public boolean exists(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        metrics.count(OperationType.EXISTS);
+        if (!metrics.sample()) {
+            return next.exists(mountPoint, target);
+        }
+        final long start = System.nanoTime();
+        try {
+            return next.exists(mountPoint, target);
+        } finally {
+            metrics.existsLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    public boolean isFile(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        metrics.count(OperationType.IS_FILE);
+        return next.isFile(mountPoint, target);
+    }
+
+    public boolean isDirectory(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        metrics.count(OperationType.IS_DIRECTORY);
+        return next.isDirectory(mountPoint, target);
+    }
+
+    public List<String> getDirectoryEntries(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        metrics.count(OperationType.GET_DIRECTORY_ENTRIES);
+        if (!metrics.sample()) {
+            return next.getDirectoryEntries(mountPoint, target);
+        }
+        final long start = System.nanoTime();
+        try {
+            return next.getDirectoryEntries(mountPoint, target);
+        } finally {
+            metrics.directoryEntriesLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    public List<String> getDirectoryEntries(FileSystem next, VirtualFile mountPoint, VirtualFile target, NamePredicate predicate) {
+        metrics.count(OperationType.GET_DIRECTORY_ENTRIES);
+        if (!metrics.sample()) {
+            return next.getDirectoryEntries(mountPoint, target, predicate);
+        }
+        final long start = System.nanoTime();
+        try {
+            return next.getDirectoryEntries(mountPoint, target, predicate);
+        } finally {
+            metrics.directoryEntriesLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    public CodeSigner[] getCodeSigners(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        metrics.count(OperationType.GET_CODE_SIGNERS);
+        return next.getCodeSigners(mountPoint, target);
+    }
+
+    public void close(FileSystem next) throws IOException {
+        try {
+            next.close();
+        } finally {
+            VFSMetrics.unregister(metrics);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of the VFS I/O metrics.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * Get the number of operations performed, by {@link OperationType} name.
+     *
+     * @return the operation counts
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * Get the total number of operations performed.
+     *
+     * @return the operation count
+     */
+    long getTotalOperations();
+
+    /**
+     * Get the number of bytes read through streams and transfers.
+     *
+     * @return the byte count
+     */
+    long getBytesRead();
+
+    /**
+     * Get the number of streams which are currently open.
+     *
+     * @return the open stream count
+     */
+    long getOpenStreams();
+
+    /**
+     * Get the number of archive entries extracted to temporary files.
+     *
+     * @return the extraction count
+     */
+    long getExtractionCount();
+
+    /**
+     * Get the number of bytes extracted to temporary files.
+     *
+     * @return the extracted byte count
+     */
+    long getExtractedBytes();
+
+    /**
+     * Get the sample interval of the latency histograms; one call in this many is timed.
+     *
+     * @return the sample interval
+     */
+    int getSampleInterval();
+
+    /**
+     * Get the sampled latency of {@code openInputStream}.
+     *
+     * @return the latency snapshot
+     */
+    LatencySnapshot getOpenInputStreamLatency();
+
+    /**
+     * Get the sampled latency of {@code getDirectoryEntries}.
+     *
+     * @return the latency snapshot
+     */
+    LatencySnapshot getDirectoryEntriesLatency();
+
+    /**
+     * Get the sampled latency of {@code exists}.
+     *
+     * @return the latency snapshot
+     */
+    LatencySnapshot getExistsLatency();
+}
@@ -0,0 +1,212 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.metrics;
+
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.FileSystem;
+import org.jboss.vfs.spi.InterceptingFileSystem;
+import org.jboss.vfs.spi.JavaZipFileSystem;
+
+/**
+ * The I/O metrics of a single mount.  Counters are striped so that concurrent updates do not contend; latencies
+ * are only measured for one call in {@link #getSampleInterval()} so that unsampled calls pay a counter increment and
+ * a random number draw.
+ */
+public final class MountMetrics implements MountMetricsMXBean {
+
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
+
+    private final VirtualFile mountPoint;
+    private final FileSystem fileSystem;
+    private final int sampleMask;
+    private final LongAdder[] operations = new LongAdder[OPERATION_TYPES.length];
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder openStreams = new LongAdder();
+    final LatencyHistogram openInputStreamLatency = new LatencyHistogram();
+    final LatencyHistogram directoryEntriesLatency = new LatencyHistogram();
+    final LatencyHistogram existsLatency = new LatencyHistogram();
+
+    MountMetrics(final VirtualFile mountPoint, final FileSystem fileSystem, final int sampleInterval) {
+        this.mountPoint = mountPoint;
+        // mount-specific interceptors may wrap the file system which provides the extraction counters
+        FileSystem innermost = fileSystem;
+        while (innermost instanceof InterceptingFileSystem) {
+            innermost = ((InterceptingFileSystem) innermost).getDelegate();
+        }
+        this.fileSystem = innermost;
+        sampleMask = sampleInterval - 1;
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = new LongAdder();
+        }
+    }
+
+    void count(OperationType type) {
+        operations[type.ordinal()].increment();
+    }
+
+    void count(OperationType type, int amount) {
+        operations[type.ordinal()].add(amount);
+    }
+
+    boolean sample() {
+        return (ThreadLocalRandom.current().nextInt() & sampleMask) == 0;
+    }
+
+    void read(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    InputStream track(InputStream is) {
+        if (is == null) {
+            return null;
+        }
+        openStreams.increment();
+        return new CountingInputStream(is, this);
+    }
+
+    ReadableByteChannel track(ReadableByteChannel channel) {
+        return channel == null ? null : CountingChannel.wrap(channel, this);
+    }
+
+    void streamClosed() {
+        openStreams.decrement();
+    }
+
+    /**
+     * Get the mount point these metrics belong to.
+     *
+     * @return the mount point
+     */
+    public VirtualFile getMountPointFile() {
+        return mountPoint;
+    }
+
+    /**
+     * Get the number of operations of the given type.
+     *
+     * @param type the operation type
+     * @return the operation count
+     */
+    public long getOperationCount(OperationType type) {
+        return operations[type.ordinal()].sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getMountPoint() {
+        return mountPoint.getPathName();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getFileSystemType() {
+        return fileSystem.getClass().getName();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Map<String, Long> getOperationCounts() {
+        final Map<String, Long> counts = new LinkedHashMap<String, Long>();
+        for (OperationType type : OPERATION_TYPES) {
+            counts.put(type.name(), Long.valueOf(getOperationCount(type)));
+        }
+        return counts;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getTotalOperations() {
+        long total = 0L;
+        for (LongAdder operation : operations) {
+            total += operation.sum();
+        }
+        return total;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getOpenStreams() {
+        return openStreams.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getExtractionCount() {
+        return fileSystem instanceof JavaZipFileSystem ? ((JavaZipFileSystem) fileSystem).getExtractionCount() : 0L;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getExtractedBytes() {
+        return fileSystem instanceof JavaZipFileSystem ? ((JavaZipFileSystem) fileSystem).getExtractedBytes() : 0L;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getSampleInterval() {
+        return sampleMask + 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public LatencySnapshot getOpenInputStreamLatency() {
+        return openInputStreamLatency.snapshot();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public LatencySnapshot getDirectoryEntriesLatency() {
+        return directoryEntriesLatency.snapshot();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public LatencySnapshot getExistsLatency() {
+        return existsLatency.snapshot();
+    }
+
+    public String toString() {
+        return "MountMetrics[" + mountPoint.getPathName() + "]";
+    }
+}
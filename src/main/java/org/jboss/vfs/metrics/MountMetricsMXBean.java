@@ -0,0 +1,39 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.metrics;
+
+/**
+ * The management interface of the I/O metrics of a single mount.
+ */
+public interface MountMetricsMXBean extends MetricsMXBean {
+
+    /**
+     * Get the path name of the mount point.
+     *
+     * @return the mount point path name
+     */
+    String getMountPoint();
+
+    /**
+     * Get the class name of the mounted file system.
+     *
+     * @return the file system type
+     */
+    String getFileSystemType();
+}
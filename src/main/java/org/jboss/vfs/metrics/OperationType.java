@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.metrics;
+
+/**
+ * The file system operations which are counted by {@link MountMetrics}.
+ */
+public enum OperationType {
+    GET_FILE,
+    OPEN_INPUT_STREAM,
+    TRY_OPEN_INPUT_STREAM,
+    OPEN_CHANNEL,
+    MAP,
+    TRANSFER_TO,
+    READ_ASYNC,
+    DELETE,
+    GET_ATTRIBUTES,
+    GET_TREE_STATS,
+    GET_FINGERPRINT,
+    GET_SIZE,
+    GET_LAST_MODIFIED,
+    EXISTS,
+    IS_FILE,
+    IS_DIRECTORY,
+    GET_DIRECTORY_ENTRIES,
+    GET_CODE_SIGNERS,
+}
@@ -0,0 +1,215 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSLogger;
+import org.jboss.vfs.VFSMessages;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.FileSystem;
+import org.jboss.vfs.spi.FileSystemInterceptor;
+
+/**
+ * Per-mount I/O metrics.  Once {@linkplain #install() installed}, every subsequently created mount is instrumented
+ * and registered in the platform MBean server as {@code org.jboss.vfs:type=MountMetrics,mountPoint="<path>"},
+ * alongside an aggregate of all instrumented mounts registered as {@code org.jboss.vfs:type=VFSMetrics}.  Metrics
+ * may also be installed at startup by setting the {@code jboss.vfs.metrics} system property to {@code true}.
+ */
+public final class VFSMetrics {
+
+    /**
+     * The default latency sample interval.
+     */
+    public static final int DEFAULT_SAMPLE_INTERVAL = 16;
+
+    static final String DOMAIN = "org.jboss.vfs";
+
+    private static final ConcurrentMap<VirtualFile, MountMetrics> mountMetrics = new ConcurrentHashMap<VirtualFile, MountMetrics>();
+    private static final Collection<MountMetrics> mountMetricsView = Collections.unmodifiableCollection(mountMetrics.values());
+
+    private static FileSystemInterceptor.Factory factory;
+    private static volatile AggregateMetrics aggregate;
+
+    private VFSMetrics() {
+    }
+
+    /**
+     * Start instrumenting new mounts with the {@linkplain #DEFAULT_SAMPLE_INTERVAL default sample interval}.
+     */
+    public static void install() {
+        install(DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Start instrumenting new mounts.  Mounts which already exist are not affected.
+     *
+     * @param sampleInterval time one call in this many; rounded up to a power of two
+     */
+    public static synchronized void install(int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw VFSMessages.MESSAGES.argumentMustBePositive("sampleInterval");
+        }
+        if (factory != null) {
+            return;
+        }
+        final int interval = sampleInterval == 1 ? 1 : Integer.highestOneBit(sampleInterval - 1) << 1;
+        final AggregateMetrics aggregate = new AggregateMetrics(mountMetricsView, interval);
+        factory = new FileSystemInterceptor.Factory() {
+            public FileSystemInterceptor createInterceptor(final VirtualFile mountPoint, final FileSystem fileSystem) {
+                return new MetricsInterceptor(new MountMetrics(mountPoint, fileSystem, interval));
+            }
+
+            public void mounted(final VirtualFile mountPoint, final FileSystemInterceptor interceptor) {
+                // only now, so that a mount which fails leaves the metrics of the existing mount registered
+                final MountMetrics metrics = ((MetricsInterceptor) interceptor).getMetrics();
+                final MountMetrics previous = mountMetrics.put(mountPoint, metrics);
+                if (previous != null) {
+                    unregister(objectName(previous));
+                }
+                register(objectName(metrics), metrics);
+            }
+        };
+        VFSMetrics.aggregate = aggregate;
+        register(aggregateObjectName(), aggregate);
+        VFS.addInterceptorFactory(factory);
+    }
+
+    /**
+     * Stop instrumenting new mounts and unregister all metrics MBeans.  Mounts which are already instrumented keep
+     * counting until they are closed.
+     */
+    public static synchronized void uninstall() {
+        if (factory == null) {
+            return;
+        }
+        VFS.removeInterceptorFactory(factory);
+        factory = null;
+        aggregate = null;
+        unregister(aggregateObjectName());
+        for (MountMetrics metrics : mountMetrics.values()) {
+            if (mountMetrics.remove(metrics.getMountPointFile(), metrics)) {
+                unregister(objectName(metrics));
+            }
+        }
+    }
+
+    /**
+     * Determine whether metrics are installed.
+     *
+     * @return {@code true} if new mounts are instrumented
+     */
+    public static synchronized boolean isInstalled() {
+        return factory != null;
+    }
+
+    /**
+     * Get the metrics of a mount.
+     *
+     * @param mountPoint the mount point
+     * @return the metrics, or {@code null} if the mount is not instrumented
+     */
+    public static MountMetrics getMountMetrics(VirtualFile mountPoint) {
+        return mountMetrics.get(mountPoint);
+    }
+
+    /**
+     * Get the metrics of all instrumented mounts.
+     *
+     * @return the mount metrics
+     */
+    public static Collection<MountMetrics> getMountMetrics() {
+        return mountMetricsView;
+    }
+
+    /**
+     * Get the aggregate metrics of all instrumented mounts.
+     *
+     * @return the aggregate metrics, or {@code null} if metrics are not installed
+     */
+    public static MetricsMXBean getAggregateMetrics() {
+        return aggregate;
+    }
+
+    static void unregister(MountMetrics metrics) {
+        if (mountMetrics.remove(metrics.getMountPointFile(), metrics)) {
+            unregister(objectName(metrics));
+        }
+    }
+
+    private static ObjectName objectName(MountMetrics metrics) {
+        return objectName("type=MountMetrics,mountPoint=" + ObjectName.quote(metrics.getMountPoint()));
+    }
+
+    private static ObjectName aggregateObjectName() {
+        return objectName("type=VFSMetrics");
+    }
+
+    private static ObjectName objectName(String properties) {
+        try {
+            return new ObjectName(DOMAIN + ":" + properties);
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void register(final ObjectName name, final Object mbean) {
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            public Void run() {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                try {
+                    if (server.isRegistered(name)) {
+                        server.unregisterMBean(name);
+                    }
+                    server.registerMBean(mbean, name);
+                } catch (JMException e) {
+                    VFSLogger.ROOT_LOGGER.failedToRegisterMetrics(name, e);
+                }
+                return null;
+            }
+        });
+    }
+
+    private static void unregister(final ObjectName name) {
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            public Void run() {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                try {
+                    if (server.isRegistered(name)) {
+                        server.unregisterMBean(name);
+                    }
+                } catch (JMException e) {
+                    VFSLogger.ROOT_LOGGER.failedToRegisterMetrics(name, e);
+                }
+                return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * A read-only seekable channel over content which can only be read sequentially, such as a compressed archive entry.
+ * Seeking forward skips content; seeking backward reopens the content and skips from the start.
+ */
+final class ReopeningByteChannel implements SeekableByteChannel {
+
+    private final VirtualFile file;
+    private final long size;
+    private ReadableByteChannel channel;
+    // the position of the underlying channel, which lags the logical position until the next read
+    private long channelPosition;
+    private long position;
+    private boolean open = true;
+
+    ReopeningByteChannel(VirtualFile file, ReadableByteChannel channel, long size) {
+        this.file = file;
+        this.channel = channel;
+        this.size = size;
+    }
+
+    public synchronized int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        if (position >= size) {
+            return -1;
+        }
+        if (position < channelPosition) {
+            channel.close();
+            channel = file.openChannel();
+            channelPosition = 0L;
+        }
+        if (position > channelPosition) {
+            final ByteBuffer skip = ByteBuffer.allocate((int) Math.min(8192L, position - channelPosition));
+            while (channelPosition < position) {
+                skip.clear();
+                if (skip.remaining() > position - channelPosition) {
+                    skip.limit((int) (position - channelPosition));
+                }
+                final int skipped = channel.read(skip);
+                if (skipped == -1) {
+                    return -1;
+                }
+                channelPosition += skipped;
+            }
+        }
+        final int read = channel.read(dst);
+        if (read > 0) {
+            channelPosition += read;
+            position = channelPosition;
+        }
+        return read;
+    }
+
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    public synchronized long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    public synchronized SeekableByteChannel position(long newPosition) throws IOException {
+        if (newPosition < 0L) {
+            throw new IllegalArgumentException();
+        }
+        ensureOpen();
+        position = newPosition;
+        return this;
+    }
+
+    public synchronized long size() throws IOException {
+        ensureOpen();
+        return size;
+    }
+
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    public synchronized void close() throws IOException {
+        if (open) {
+            open = false;
+            channel.close();
+        }
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.nio;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * A directory stream over the children of a virtual directory.
+ */
+final class VFSDirectoryStream implements DirectoryStream<Path> {
+
+    private final Path dir;
+    private final List<VirtualFile> children;
+    private final Filter<? super Path> filter;
+    private volatile boolean closed;
+    private boolean iterated;
+
+    VFSDirectoryStream(Path dir, List<VirtualFile> children, Filter<? super Path> filter) {
+        this.dir = dir;
+        this.children = children;
+        this.filter = filter;
+    }
+
+    public synchronized Iterator<Path> iterator() {
+        if (closed) {
+            throw new IllegalStateException("Directory stream is closed");
+        }
+        if (iterated) {
+            throw new IllegalStateException("Directory stream has already been iterated");
+        }
+        iterated = true;
+        final Iterator<VirtualFile> delegate = children.iterator();
+        return new Iterator<Path>() {
+            private Path next;
+
+            public boolean hasNext() {
+                while (next == null && !closed && delegate.hasNext()) {
+                    final Path candidate = dir.resolve(delegate.next().getName());
+                    try {
+                        if (filter == null || filter.accept(candidate)) {
+                            next = candidate;
+                        }
+                    } catch (IOException e) {
+                        throw new DirectoryIteratorException(e);
+                    }
+                }
+                return next != null;
+            }
+
+            public Path next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Path result = next;
+                next = null;
+                return result;
+            }
+        };
+    }
+
+    public void close() {
+        closed = true;
+    }
+}
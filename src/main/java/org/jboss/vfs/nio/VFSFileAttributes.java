@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.nio;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import org.jboss.vfs.VirtualFileAttributes;
+
+/**
+ * Basic file attributes backed by a {@link VirtualFileAttributes} snapshot.  Virtual files have only a modification
+ * time, which is also reported as the access and creation times.
+ */
+final class VFSFileAttributes implements BasicFileAttributes {
+
+    private final VirtualFileAttributes attributes;
+
+    VFSFileAttributes(VirtualFileAttributes attributes) {
+        this.attributes = attributes;
+    }
+
+    public FileTime lastModifiedTime() {
+        return FileTime.fromMillis(attributes.getLastModified());
+    }
+
+    public FileTime lastAccessTime() {
+        return lastModifiedTime();
+    }
+
+    public FileTime creationTime() {
+        return lastModifiedTime();
+    }
+
+    public boolean isRegularFile() {
+        return attributes.isFile();
+    }
+
+    public boolean isDirectory() {
+        return attributes.isDirectory();
+    }
+
+    public boolean isSymbolicLink() {
+        return false;
+    }
+
+    public boolean isOther() {
+        return false;
+    }
+
+    public long size() {
+        return attributes.getSize();
+    }
+
+    public Object fileKey() {
+        return null;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.nio;
+
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The single {@code java.nio.file} view of the virtual file system.  It is always open and is read-only.
+ */
+final class VFSFileSystem extends FileSystem {
+
+    private final VirtualFileSystemProvider provider;
+    private final VFSPath root;
+
+    VFSFileSystem(VirtualFileSystemProvider provider) {
+        this.provider = provider;
+        root = VFSPath.parse(this, "/");
+    }
+
+    public VirtualFileSystemProvider provider() {
+        return provider;
+    }
+
+    public void close() {
+        // like the default file system, this one can never be closed
+        throw new UnsupportedOperationException();
+    }
+
+    public boolean isOpen() {
+        return true;
+    }
+
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    public String getSeparator() {
+        return "/";
+    }
+
+    public Iterable<Path> getRootDirectories() {
+        return Collections.<Path>singletonList(root);
+    }
+
+    public Iterable<FileStore> getFileStores() {
+        return Collections.emptyList();
+    }
+
+    public Set<String> supportedFileAttributeViews() {
+        return Collections.singleton("basic");
+    }
+
+    public Path getPath(String first, String... more) {
+        if (more.length == 0) {
+            return VFSPath.parse(this, first);
+        }
+        final StringBuilder b = new StringBuilder(first);
+        for (String segment : more) {
+            if (!segment.isEmpty()) {
+                b.append('/').append(segment);
+            }
+        }
+        return VFSPath.parse(this, b.toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Glob and regex patterns are interpreted as they are by the default file system, against the string form of the
+     * path.
+     */
+    public PathMatcher getPathMatcher(String syntaxAndPattern) {
+        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher(syntaxAndPattern);
+        return path -> matcher.matches(Paths.get(path.toString()));
+    }
+
+    public UserPrincipalLookupService getUserPrincipalLookupService() {
+        throw new UnsupportedOperationException();
+    }
+
+    public WatchService newWatchService() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.nio;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * A path in the virtual file system.  Absolute paths correspond directly to {@link VirtualFile} paths; relative paths
+ * are resolved against the VFS root.
+ */
+final class VFSPath implements Path {
+
+    private static final String[] NO_NAMES = new String[0];
+
+    private final VFSFileSystem fileSystem;
+    private final boolean absolute;
+    private final String[] names;
+    private volatile String string;
+
+    VFSPath(VFSFileSystem fileSystem, boolean absolute, String[] names) {
+        this.fileSystem = fileSystem;
+        this.absolute = absolute;
+        this.names = names;
+    }
+
+    static VFSPath parse(VFSFileSystem fileSystem, String path) {
+        final List<String> names = new ArrayList<String>();
+        int start = 0;
+        final int length = path.length();
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end == -1) {
+                end = length;
+            }
+            if (end > start) {
+                names.add(path.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return new VFSPath(fileSystem, path.startsWith("/"), names.toArray(NO_NAMES));
+    }
+
+    /**
+     * Get the virtual file which this path denotes, resolving a relative path against the VFS root.
+     *
+     * @return the virtual file
+     */
+    VirtualFile getVirtualFile() {
+        VirtualFile file = VFS.getRootVirtualFile();
+        for (String name : names) {
+            if ("..".equals(name)) {
+                final VirtualFile parent = file.getParent();
+                if (parent != null) {
+                    file = parent;
+                }
+            } else if (!".".equals(name)) {
+                file = file.getChild(name);
+            }
+        }
+        return file;
+    }
+
+    public VFSFileSystem getFileSystem() {
+        return fileSystem;
+    }
+
+    public boolean isAbsolute() {
+        return absolute;
+    }
+
+    public Path getRoot() {
+        return absolute ? new VFSPath(fileSystem, true, NO_NAMES) : null;
+    }
+
+    public Path getFileName() {
+        return names.length == 0 ? null : new VFSPath(fileSystem, false, new String[] {names[names.length - 1]});
+    }
+
+    public Path getParent() {
+        if (names.length == 0 || names.length == 1 && !absolute) {
+            return null;
+        }
+        return new VFSPath(fileSystem, absolute, Arrays.copyOf(names, names.length - 1));
+    }
+
+    public int getNameCount() {
+        return names.length;
+    }
+
+    public Path getName(int index) {
+        if (index < 0 || index >= names.length) {
+            throw new IllegalArgumentException("Invalid name index " + index);
+        }
+        return new VFSPath(fileSystem, false, new String[] {names[index]});
+    }
+
+    public Path subpath(int beginIndex, int endIndex) {
+        if (beginIndex < 0 || endIndex > names.length || beginIndex >= endIndex) {
+            throw new IllegalArgumentException("Invalid subpath range " + beginIndex + ".." + endIndex);
+        }
+        return new VFSPath(fileSystem, false, Arrays.copyOfRange(names, beginIndex, endIndex));
+    }
+
+    public boolean startsWith(Path other) {
+        if (!(other instanceof VFSPath)) {
+            return false;
+        }
+        final VFSPath path = (VFSPath) other;
+        if (path.absolute != absolute || path.names.length > names.length) {
+            return false;
+        }
+        for (int i = 0; i < path.names.length; i++) {
+            if (!names[i].equals(path.names[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean endsWith(Path other) {
+        if (!(other instanceof VFSPath)) {
+            return false;
+        }
+        final VFSPath path = (VFSPath) other;
+        if (path.absolute) {
+            return equals(path);
+        }
+        final int offset = names.length - path.names.length;
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < path.names.length; i++) {
+            if (!names[offset + i].equals(path.names[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Path normalize() {
+        final List<String> normalized = new ArrayList<String>(names.length);
+        for (String name : names) {
+            if (".".equals(name)) {
+                continue;
+            }
+            if ("..".equals(name)) {
+                final int last = normalized.size() - 1;
+                if (last >= 0 && !"..".equals(normalized.get(last))) {
+                    normalized.remove(last);
+                    continue;
+                } else if (absolute) {
+                    continue;
+                }
+            }
+            normalized.add(name);
+        }
+        return normalized.size() == names.length ? this : new VFSPath(fileSystem, absolute, normalized.toArray(NO_NAMES));
+    }
+
+    public Path resolve(Path other) {
+        final VFSPath path = checkPath(other);
+        if (path.absolute) {
+            return path;
+        }
+        if (path.names.length == 0) {
+            return this;
+        }
+        final String[] resolved = Arrays.copyOf(names, names.length + path.names.length);
+        System.arraycopy(path.names, 0, resolved, names.length, path.names.length);
+        return new VFSPath(fileSystem, absolute, resolved);
+    }
+
+    public Path resolve(String other) {
+        return resolve(parse(fileSystem, other));
+    }
+
+    public Path relativize(Path other) {
+        final VFSPath path = checkPath(other);
+        if (path.absolute != absolute) {
+            throw new IllegalArgumentException("Cannot relativize an absolute path against a relative path");
+        }
+        int common = 0;
+        while (common < names.length && common < path.names.length && names[common].equals(path.names[common])) {
+            common++;
+        }
+        final List<String> relative = new ArrayList<String>();
+        for (int i = common; i < names.length; i++) {
+            relative.add("..");
+        }
+        relative.addAll(Arrays.asList(path.names).subList(common, path.names.length));
+        return new VFSPath(fileSystem, false, relative.toArray(NO_NAMES));
+    }
+
+    public URI toUri() {
+        try {
+            return getVirtualFile().toURI();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Path toAbsolutePath() {
+        return absolute ? this : new VFSPath(fileSystem, true, names);
+    }
+
+    public Path toRealPath(LinkOption... options) throws IOException {
+        final VFSPath path = (VFSPath) toAbsolutePath().normalize();
+        if (!path.getVirtualFile().exists()) {
+            throw new NoSuchFileException(path.toString());
+        }
+        return path;
+    }
+
+    public WatchKey register(WatchService watcher, WatchEvent.Kind<?>[] events, WatchEvent.Modifier... modifiers) {
+        throw new UnsupportedOperationException();
+    }
+
+    public int compareTo(Path other) {
+        return toString().compareTo(checkPath(other).toString());
+    }
+
+    public boolean equals(Object obj) {
+        return obj instanceof VFSPath && ((VFSPath) obj).fileSystem == fileSystem && obj.toString().equals(toString());
+    }
+
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    public String toString() {
+        String string = this.string;
+        if (string == null) {
+            final StringBuilder b = new StringBuilder();
+            if (absolute) {
+                b.append('/');
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (i > 0) {
+                    b.append('/');
+                }
+                b.append(names[i]);
+            }
+            this.string = string = b.toString();
+        }
+        return string;
+    }
+
+    private VFSPath checkPath(Path path) {
+        if (path == null) {
+            throw new NullPointerException();
+        }
+        if (!(path instanceof VFSPath)) {
+            throw new ProviderMismatchException();
+        }
+        return (VFSPath) path;
+    }
+}
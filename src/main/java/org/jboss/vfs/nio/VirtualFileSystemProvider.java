@@ -0,0 +1,274 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.nio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AccessMode;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.ReadOnlyFileSystemException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.vfs.VFSMessages;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VirtualFileAttributes;
+
+/**
+ * A {@code java.nio.file} provider for the {@code vfs} URI scheme, so that code written against {@link Path} can read
+ * virtual files directly; for example {@code Paths.get(URI.create("vfs:/deployments/app.war/index.html"))}.  Content,
+ * directory listings and attributes are read through the VFS file system SPI, so archive entries are never extracted
+ * to temporary files.
+ * <p/>
+ * The provider exposes a single, always open, read-only file system whose absolute paths are VFS path names.
+ */
+public final class VirtualFileSystemProvider extends FileSystemProvider {
+
+    private static final String[] BASIC_ATTRIBUTES = {
+        "lastModifiedTime", "lastAccessTime", "creationTime", "size", "isRegularFile", "isDirectory", "isSymbolicLink", "isOther", "fileKey"
+    };
+
+    private final VFSFileSystem fileSystem = new VFSFileSystem(this);
+
+    public String getScheme() {
+        return VFSUtils.VFS_PROTOCOL;
+    }
+
+    public FileSystem newFileSystem(URI uri, Map<String, ?> env) {
+        checkUri(uri);
+        throw new FileSystemAlreadyExistsException(uri.toString());
+    }
+
+    public FileSystem getFileSystem(URI uri) {
+        checkUri(uri);
+        return fileSystem;
+    }
+
+    public Path getPath(URI uri) {
+        checkUri(uri);
+        String path = uri.getPath();
+        if (path == null) {
+            path = uri.getSchemeSpecificPart();
+        }
+        return fileSystem.getPath(path.startsWith("/") ? path : "/" + path);
+    }
+
+    public SeekableByteChannel newByteChannel(Path path, Set<? extends OpenOption> options, FileAttribute<?>... attrs) throws IOException {
+        checkReadOnly(options);
+        final VirtualFile file = toVirtualFile(path);
+        final VirtualFileAttributes attributes = getExistingAttributes(path, file);
+        checkNotDirectory(path, attributes);
+        final ReadableByteChannel channel = file.openChannel();
+        if (channel instanceof SeekableByteChannel) {
+            return (SeekableByteChannel) channel;
+        }
+        return new ReopeningByteChannel(file, channel, attributes.getSize());
+    }
+
+    public InputStream newInputStream(Path path, OpenOption... options) throws IOException {
+        checkReadOnly(Arrays.asList(options));
+        final VirtualFile file = toVirtualFile(path);
+        checkNotDirectory(path, getExistingAttributes(path, file));
+        return file.openStream();
+    }
+
+    public DirectoryStream<Path> newDirectoryStream(Path dir, DirectoryStream.Filter<? super Path> filter) throws IOException {
+        final VirtualFile file = toVirtualFile(dir);
+        if (!getExistingAttributes(dir, file).isDirectory()) {
+            throw new NotDirectoryException(dir.toString());
+        }
+        final List<VirtualFile> children = file.getChildren();
+        return new VFSDirectoryStream(dir, children, filter);
+    }
+
+    public void createDirectory(Path dir, FileAttribute<?>... attrs) {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    public void delete(Path path) {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    public void copy(Path source, Path target, CopyOption... options) {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    public void move(Path source, Path target, CopyOption... options) {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    public boolean isSameFile(Path path, Path path2) {
+        return path.equals(path2) || path2 instanceof VFSPath && toVirtualFile(path).equals(toVirtualFile(path2));
+    }
+
+    public boolean isHidden(Path path) {
+        final Path name = toVFSPath(path).getFileName();
+        return name != null && name.toString().startsWith(".");
+    }
+
+    public FileStore getFileStore(Path path) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void checkAccess(Path path, AccessMode... modes) throws IOException {
+        final VirtualFileAttributes attributes = getExistingAttributes(path, toVirtualFile(path));
+        for (AccessMode mode : modes) {
+            if (mode == AccessMode.WRITE || mode == AccessMode.EXECUTE && !attributes.isDirectory()) {
+                throw new AccessDeniedException(path.toString());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V extends FileAttributeView> V getFileAttributeView(Path path, Class<V> type, LinkOption... options) {
+        if (type != BasicFileAttributeView.class) {
+            return null;
+        }
+        final VirtualFile file = toVirtualFile(path);
+        return (V) new BasicFileAttributeView() {
+            public String name() {
+                return "basic";
+            }
+
+            public BasicFileAttributes readAttributes() throws IOException {
+                return readBasicAttributes(path, file);
+            }
+
+            public void setTimes(FileTime lastModifiedTime, FileTime lastAccessTime, FileTime createTime) {
+                throw new ReadOnlyFileSystemException();
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <A extends BasicFileAttributes> A readAttributes(Path path, Class<A> type, LinkOption... options) throws IOException {
+        if (!type.isAssignableFrom(VFSFileAttributes.class)) {
+            throw new UnsupportedOperationException(type.getName());
+        }
+        return (A) readBasicAttributes(path, toVirtualFile(path));
+    }
+
+    public Map<String, Object> readAttributes(Path path, String attributes, LinkOption... options) throws IOException {
+        String names = attributes;
+        final int colon = attributes.indexOf(':');
+        if (colon != -1) {
+            if (!"basic".equals(attributes.substring(0, colon))) {
+                throw new UnsupportedOperationException(attributes);
+            }
+            names = attributes.substring(colon + 1);
+        }
+        final BasicFileAttributes basic = readBasicAttributes(path, toVirtualFile(path));
+        final Map<String, Object> map = new HashMap<String, Object>();
+        for (String name : "*".equals(names) ? BASIC_ATTRIBUTES : names.split(",")) {
+            map.put(name, getAttribute(basic, name));
+        }
+        return map;
+    }
+
+    public void setAttribute(Path path, String attribute, Object value, LinkOption... options) {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    private static Object getAttribute(BasicFileAttributes basic, String name) {
+        switch (name) {
+            case "lastModifiedTime": return basic.lastModifiedTime();
+            case "lastAccessTime": return basic.lastAccessTime();
+            case "creationTime": return basic.creationTime();
+            case "size": return Long.valueOf(basic.size());
+            case "isRegularFile": return Boolean.valueOf(basic.isRegularFile());
+            case "isDirectory": return Boolean.valueOf(basic.isDirectory());
+            case "isSymbolicLink": return Boolean.valueOf(basic.isSymbolicLink());
+            case "isOther": return Boolean.valueOf(basic.isOther());
+            case "fileKey": return basic.fileKey();
+            default: throw new IllegalArgumentException("Unknown attribute " + name);
+        }
+    }
+
+    private static BasicFileAttributes readBasicAttributes(Path path, VirtualFile file) throws NoSuchFileException {
+        return new VFSFileAttributes(getExistingAttributes(path, file));
+    }
+
+    private static VirtualFileAttributes getExistingAttributes(Path path, VirtualFile file) throws NoSuchFileException {
+        final VirtualFileAttributes attributes = file.getAttributes();
+        if (!attributes.exists()) {
+            throw new NoSuchFileException(path.toString());
+        }
+        return attributes;
+    }
+
+    private static void checkReadOnly(Iterable<? extends OpenOption> options) {
+        for (OpenOption option : options) {
+            if (option != StandardOpenOption.READ && option instanceof StandardOpenOption) {
+                throw new ReadOnlyFileSystemException();
+            }
+        }
+    }
+
+    private static void checkNotDirectory(Path path, VirtualFileAttributes attributes) throws FileSystemException {
+        if (attributes.isDirectory()) {
+            throw new FileSystemException(path.toString(), null, "Is a directory");
+        }
+    }
+
+    private VirtualFile toVirtualFile(Path path) {
+        return toVFSPath(path).getVirtualFile();
+    }
+
+    private VFSPath toVFSPath(Path path) {
+        if (path == null) {
+            throw VFSMessages.MESSAGES.nullArgument("path");
+        }
+        if (!(path instanceof VFSPath)) {
+            throw new ProviderMismatchException();
+        }
+        return (VFSPath) path;
+    }
+
+    private void checkUri(URI uri) {
+        if (!getScheme().equalsIgnoreCase(uri.getScheme())) {
+            throw new IllegalArgumentException("URI scheme is not '" + getScheme() + "'");
+        }
+    }
+}
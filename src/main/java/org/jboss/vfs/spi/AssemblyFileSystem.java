@@ -138,6 +138,14 @@ public class AssemblyFileSystem implements FileSystem {
         return getExistingFile(mountPoint, target).openStream();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream tryOpenInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        final VirtualFile assemblyFile = assembly.getFile(mountPoint, target);
+        return assemblyFile == null ? null : assemblyFile.tryOpenStream();
+    }
+
     /**
      * {@inheritDoc}
      */
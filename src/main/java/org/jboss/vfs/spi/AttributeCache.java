@@ -0,0 +1,267 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.jboss.vfs.VFSMessages;
+import org.jboss.vfs.VirtualFileAttributes;
+
+/**
+ * A bounded cache of file attributes and directory listings for a {@link RealFileSystem}, intended for real
+ * file systems on slow storage such as NFS where every attribute query is a network round trip.
+ * <p/>
+ * Entries expire after a fixed time to live.  Optionally, an entry is also revalidated against a modification time
+ * read when it was loaded: attributes against the modification time of the parent directory, which changes when the
+ * file is created, deleted or renamed, and listings against the modification time of the listed directory itself.
+ * Revalidation costs one attribute query on the directory but detects such changes before the entry expires.
+ * Changes made through the VFS, by {@link FileSystem#delete(org.jboss.vfs.VirtualFile, org.jboss.vfs.VirtualFile) delete}
+ * or {@link FileSystem#openOutputStream(org.jboss.vfs.VirtualFile, org.jboss.vfs.VirtualFile) openOutputStream},
+ * invalidate the affected entries immediately.
+ */
+public final class AttributeCache {
+
+    private final ConcurrentMap<File, Entry<VirtualFileAttributes>> attributes = new ConcurrentHashMap<File, Entry<VirtualFileAttributes>>();
+    private final ConcurrentMap<File, Entry<List<String>>> listings = new ConcurrentHashMap<File, Entry<List<String>>>();
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final boolean revalidate;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Construct a new instance.
+     *
+     * @param maxEntries the maximum number of attribute entries, and separately of listing entries, to keep
+     * @param ttl        the time to live of an entry
+     * @param unit       the unit of {@code ttl}
+     * @param revalidate {@code true} to revalidate entries against the directory modification time on every hit
+     */
+    public AttributeCache(int maxEntries, long ttl, TimeUnit unit, boolean revalidate) {
+        if (maxEntries < 1) {
+            throw VFSMessages.MESSAGES.argumentMustBePositive("maxEntries");
+        }
+        if (ttl < 1L) {
+            throw VFSMessages.MESSAGES.argumentMustBePositive("ttl");
+        }
+        if (unit == null) {
+            throw VFSMessages.MESSAGES.nullArgument("unit");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.revalidate = revalidate;
+    }
+
+    /**
+     * Get the attributes of a file, loading them if they are not cached or no longer valid.  The caller must hold
+     * the permissions needed to read the attributes of the file and of its parent.
+     *
+     * @param file   the file
+     * @param loader the loader of the current attributes
+     * @return the attributes
+     */
+    VirtualFileAttributes getAttributes(File file, Supplier<VirtualFileAttributes> loader) {
+        return get(attributes, file, file.getParentFile(), loader);
+    }
+
+    /**
+     * Get the cached attributes of a file.
+     *
+     * @param file the file
+     * @return the attributes, or {@code null} if they are not cached or no longer valid
+     */
+    VirtualFileAttributes getAttributesIfPresent(File file) {
+        final Entry<VirtualFileAttributes> entry = attributes.get(file);
+        if (entry != null && isValid(entry, file.getParentFile())) {
+            hits.increment();
+            return entry.value;
+        }
+        return null;
+    }
+
+    /**
+     * Cache the attributes of a file.
+     *
+     * @param file        the file
+     * @param value       the attributes
+     * @param loadedAt    the {@link System#nanoTime()} before the attributes were read
+     * @param dirModified the modification time of the parent directory read before the attributes were read
+     */
+    void putAttributes(File file, VirtualFileAttributes value, long loadedAt, long dirModified) {
+        misses.increment();
+        put(attributes, file, new Entry<VirtualFileAttributes>(value, loadedAt, dirModified));
+    }
+
+    /**
+     * Get the modification time an entry for a file loaded now would be revalidated against.
+     *
+     * @param file the file
+     * @return the modification time of the parent directory, or {@code 0} if revalidation is disabled
+     */
+    long parentModified(File file) {
+        return revalidate ? lastModified(file.getParentFile()) : 0L;
+    }
+
+    /**
+     * Get the listing of a directory, loading it if it is not cached or no longer valid.  The caller must hold
+     * the permissions needed to list the directory.
+     *
+     * @param directory the directory
+     * @param loader    the loader of the current listing
+     * @return the listing
+     */
+    List<String> getListing(File directory, Supplier<List<String>> loader) {
+        return get(listings, directory, directory, loader);
+    }
+
+    private <T> T get(ConcurrentMap<File, Entry<T>> map, File file, File dir, Supplier<T> loader) {
+        final Entry<T> entry = map.get(file);
+        if (entry != null && isValid(entry, dir)) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        final long loadedAt = System.nanoTime();
+        final long dirModified = revalidate ? lastModified(dir) : 0L;
+        final T value = loader.get();
+        put(map, file, new Entry<T>(value, loadedAt, dirModified));
+        return value;
+    }
+
+    private boolean isValid(Entry<?> entry, File dir) {
+        return System.nanoTime() - entry.loadedAt < ttlNanos && (!revalidate || entry.dirModified == lastModified(dir));
+    }
+
+    private static long lastModified(File dir) {
+        return dir == null ? 0L : dir.lastModified();
+    }
+
+    private <T> void put(ConcurrentMap<File, Entry<T>> map, File file, Entry<T> entry) {
+        map.put(file, entry);
+        if (map.size() > maxEntries && evicting.compareAndSet(false, true)) {
+            try {
+                evict(map);
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    private <T> void evict(ConcurrentMap<File, Entry<T>> map) {
+        final long now = System.nanoTime();
+        Iterator<Entry<T>> iterator = map.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().loadedAt >= ttlNanos) {
+                iterator.remove();
+            }
+        }
+        // still full of live entries: drop an arbitrary quarter rather than evicting on every put
+        final int target = maxEntries - (maxEntries >> 2);
+        iterator = map.values().iterator();
+        while (map.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Invalidate the entries affected by a change to a file: its attributes and listing, and the attributes and
+     * listing of its parent directory.
+     *
+     * @param file the changed file
+     */
+    public void invalidate(File file) {
+        attributes.remove(file);
+        listings.remove(file);
+        final File parent = file.getParentFile();
+        if (parent != null) {
+            attributes.remove(parent);
+            listings.remove(parent);
+        }
+    }
+
+    /**
+     * Invalidate the entries of a file, its parent and everything below it, for when a whole tree is removed or
+     * replaced.  This has to examine every entry, so {@link #invalidate(File)} should be preferred for single files.
+     *
+     * @param root the root of the tree
+     */
+    public void invalidateTree(File root) {
+        invalidate(root);
+        final String prefix = root.getPath() + File.separatorChar;
+        attributes.keySet().removeIf(file -> file.getPath().startsWith(prefix));
+        listings.keySet().removeIf(file -> file.getPath().startsWith(prefix));
+    }
+
+    /**
+     * Invalidate all entries.
+     */
+    public void invalidateAll() {
+        attributes.clear();
+        listings.clear();
+    }
+
+    /**
+     * Get the number of cached entries, attributes and listings together.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return attributes.size() + listings.size();
+    }
+
+    /**
+     * Get the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups which had to query the file system.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final long loadedAt;
+        private final long dirModified;
+
+        Entry(T value, long loadedAt, long dirModified) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.dirModified = dirModified;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.vfs.VFSMessages;
+
+/**
+ * A Bloom filter over 64-bit hashes, used by filesystems to reject lookups of paths they do not contain without
+ * consulting their index.  The filter is populated while its filesystem is constructed and is read-only afterwards;
+ * {@link #add(long)} is not thread-safe.
+ * <p/>
+ * Besides the false positive rate expected from its size, the filter records how many negative lookups it rejected
+ * and how many it failed to reject, as reported through {@link #recordFalsePositive()}.
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final int bitMask;
+    private final int hashCount;
+    private int entryCount;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * Construct a new instance.
+     *
+     * @param expectedEntries   the number of entries the filter is sized for
+     * @param falsePositiveRate the desired false positive rate at that number of entries
+     */
+    public BloomFilter(int expectedEntries, double falsePositiveRate) {
+        if (!(falsePositiveRate > 0.0 && falsePositiveRate < 1.0)) {
+            throw VFSMessages.MESSAGES.argumentMustBeFraction("falsePositiveRate");
+        }
+        final int entries = Math.max(1, expectedEntries);
+        final double optimalBits = -entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        // round up to a power of two (at least one word) so that bit indexes are a mask rather than a division
+        final int bitCount = (int) Math.min(1L << 30, Math.max(64L, Long.highestOneBit((long) Math.ceil(optimalBits) - 1L) << 1));
+        bits = new long[bitCount >>> 6];
+        bitMask = bitCount - 1;
+        hashCount = Math.max(1, Math.min(16, (int) Math.round((double) bitCount / entries * Math.log(2))));
+    }
+
+    /**
+     * Construct a new instance over the bits of a filter which was saved by {@link ZipIndexCache}.
+     *
+     * @param bits       the filter bits; their number must be a power of two
+     * @param hashCount  the number of hash functions applied per entry
+     * @param entryCount the number of entries added
+     */
+    BloomFilter(long[] bits, int hashCount, int entryCount) {
+        this.bits = bits;
+        bitMask = (bits.length << 6) - 1;
+        this.hashCount = hashCount;
+        this.entryCount = entryCount;
+    }
+
+    long[] getBits() {
+        return bits;
+    }
+
+    /**
+     * Add a hash to the filter.
+     *
+     * @param hash the hash
+     */
+    public void add(long hash) {
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            final int bit = (h1 + i * h2) & bitMask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+        entryCount++;
+    }
+
+    /**
+     * Determine whether a hash may have been added to the filter.  A {@code false} result is counted as a rejected
+     * lookup.
+     *
+     * @param hash the hash
+     * @return {@code false} if the hash was definitely not added, {@code true} if it may have been
+     */
+    public boolean mightContain(long hash) {
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            final int bit = (h1 + i * h2) & bitMask;
+            if ((bits[bit >>> 6] & 1L << bit) == 0L) {
+                rejected.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Record that a lookup which passed the filter turned out not to exist.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Get the number of entries added.
+     *
+     * @return the entry count
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Get the number of bits in the filter.
+     *
+     * @return the bit count
+     */
+    public int getBitCount() {
+        return bitMask + 1;
+    }
+
+    /**
+     * Get the number of hash functions applied per entry.
+     *
+     * @return the hash function count
+     */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Get the approximate memory used by the filter bits.
+     *
+     * @return the memory use in bytes
+     */
+    public long getMemoryUsage() {
+        return (long) bits.length << 3;
+    }
+
+    /**
+     * Get the false positive rate expected from the size of the filter and the number of entries added.
+     *
+     * @return the expected false positive rate
+     */
+    public double getExpectedFalsePositiveRate() {
+        return Math.pow(1.0 - Math.exp(-(double) hashCount * entryCount / getBitCount()), hashCount);
+    }
+
+    /**
+     * Get the number of negative lookups rejected by the filter.
+     *
+     * @return the rejected lookup count
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Get the number of negative lookups which passed the filter.
+     *
+     * @return the false positive count
+     */
+    public long getFalsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Get the observed false positive rate: the fraction of negative lookups which passed the filter.
+     *
+     * @return the observed false positive rate, or {@code 0} if there have been no negative lookups
+     */
+    public double getObservedFalsePositiveRate() {
+        final long falsePositives = getFalsePositiveCount();
+        final long negatives = falsePositives + getRejectedCount();
+        return negatives == 0L ? 0.0 : (double) falsePositives / negatives;
+    }
+
+    public String toString() {
+        return "BloomFilter[entries=" + entryCount + ", bits=" + getBitCount() + ", hashes=" + hashCount + "]";
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * A read-only channel over a fixed region of a shared file channel.  Only positional reads are issued against the
+ * underlying channel, so any number of region channels may read from it concurrently; closing a region channel does
+ * not close the underlying channel.
+ */
+final class FileRegionChannel implements SeekableByteChannel {
+
+    private final FileChannel channel;
+    private final long start;
+    private final long size;
+    private long position;
+    private volatile boolean open = true;
+
+    FileRegionChannel(FileChannel channel, long start, long size) {
+        this.channel = channel;
+        this.start = start;
+        this.size = size;
+    }
+
+    public int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        final long remaining = size - position;
+        if (remaining <= 0L) {
+            return -1;
+        }
+        final int oldLimit = dst.limit();
+        if (dst.remaining() > remaining) {
+            dst.limit(dst.position() + (int) remaining);
+        }
+        try {
+            final int read = channel.read(dst, start + position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        } finally {
+            dst.limit(oldLimit);
+        }
+    }
+
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    public long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        if (newPosition < 0L) {
+            throw new IllegalArgumentException();
+        }
+        ensureOpen();
+        position = newPosition;
+        return this;
+    }
+
+    public long size() throws IOException {
+        ensureOpen();
+        return size;
+    }
+
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public void close() {
+        open = false;
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+}
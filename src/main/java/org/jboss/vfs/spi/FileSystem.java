@@ -20,14 +20,28 @@ package org.jboss.vfs.spi;
 
 import java.io.Closeable;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.security.CodeSigner;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import org.jboss.vfs.NamePredicate;
+import org.jboss.vfs.TreeStats;
+import org.jboss.vfs.VFSMessages;
+import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VirtualFileAttributes;
 
 /**
  * A file system which is mounted in to the VFS.  This is the driver class for a given virtual file system type.  An
@@ -62,6 +76,113 @@ public interface FileSystem extends Closeable {
      */
     InputStream openInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException;
 
+    /**
+     * Open an input stream for the file at the given relative path if it is a plain file.  This is for callers which
+     * probe for files which are often missing, such as class loaders: a miss should be reported by returning
+     * {@code null} rather than by constructing an exception, and should cost no more than a lookup.  The default
+     * implementation checks {@link #isFile(VirtualFile, VirtualFile)} before opening the file.
+     *
+     * @param mountPoint the mount point of the filesystem instance (guaranteed to be a parent of {@code target})
+     * @param target     the virtual file to act upon
+     * @return the input stream, or {@code null} if the file does not exist or is a directory
+     * @throws IOException if an I/O error occurs opening an existing file
+     */
+    default InputStream tryOpenInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return isFile(mountPoint, target) ? openInputStream(mountPoint, target) : null;
+    }
+
+    /**
+     * Open a channel for the file at the given relative path.  Filesystems which can address the bytes of a file
+     * directly should return a channel which reads them without an intermediate stream, preferably a
+     * {@link java.nio.channels.SeekableByteChannel}; the default implementation adapts
+     * {@link #openInputStream(VirtualFile, VirtualFile)}.
+     *
+     * @param mountPoint the mount point of the filesystem instance (guaranteed to be a parent of {@code target})
+     * @param target     the virtual file to act upon
+     * @return the channel
+     * @throws IOException if an I/O error occurs
+     */
+    default ReadableByteChannel openChannel(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return Channels.newChannel(openInputStream(mountPoint, target));
+    }
+
+    /**
+     * Get the content of the file at the given relative path as a read-only buffer.  Filesystems which can address the
+     * bytes of a file directly should return a memory-mapped buffer; the default implementation reads the content from
+     * {@link #openInputStream(VirtualFile, VirtualFile)} into a heap buffer.
+     *
+     * @param mountPoint the mount point of the filesystem instance (guaranteed to be a parent of {@code target})
+     * @param target     the virtual file to act upon
+     * @return the read-only content buffer
+     * @throws IOException if an I/O error occurs, or the file is a directory or is too large to map
+     */
+    default ByteBuffer map(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        if (isDirectory(mountPoint, target)) {
+            throw VFSMessages.MESSAGES.notAFile(target.getPathName());
+        }
+        try (InputStream is = openInputStream(mountPoint, target)) {
+            return ByteBuffer.wrap(is.readAllBytes()).asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * Write the content of the file at the given relative path to a channel.  Filesystems which can address the bytes
+     * of a file directly should transfer them without copying through the Java heap (for example by using
+     * {@link java.nio.channels.FileChannel#transferTo(long, long, WritableByteChannel)}); the default implementation
+     * copies from {@link #openInputStream(VirtualFile, VirtualFile)} through a buffer.  The channel must be blocking;
+     * {@link VirtualFile#transferTo(WritableByteChannel)} rejects one in non-blocking mode.
+     *
+     * @param mountPoint the mount point of the filesystem instance (guaranteed to be a parent of {@code target})
+     * @param target     the virtual file to act upon
+     * @param channel    the channel to write to
+     * @return the number of bytes written
+     * @throws IOException if an I/O error occurs
+     */
+    default long transferTo(VirtualFile mountPoint, VirtualFile target, WritableByteChannel channel) throws IOException {
+        return VFSUtils.copyStreamAndClose(openInputStream(mountPoint, target), channel);
+    }
+
+    /**
+     * Asynchronously read part of the content of the file at the given relative path.  Filesystems with native
+     * asynchronous I/O should use it; the default implementation reads from
+     * {@link #openInputStream(VirtualFile, VirtualFile)} as a task on the given executor.  Failures, including a
+     * rejected task, are reported through the returned future.
+     *
+     * @param mountPoint the mount point of the filesystem instance (guaranteed to be a parent of {@code target})
+     * @param target     the virtual file to act upon
+     * @param position   the position in the file of the first byte to read
+     * @param length     the maximum number of bytes to read; fewer are read if the end of the file is reached
+     * @param executor   the executor on which blocking work and completion may take place
+     * @return a future for a buffer which is ready to be read, holding the bytes which were read
+     */
+    default CompletableFuture<ByteBuffer> readAsync(VirtualFile mountPoint, VirtualFile target, long position, int length, Executor executor) {
+        final CompletableFuture<ByteBuffer> future = new CompletableFuture<ByteBuffer>();
+        try {
+            executor.execute(() -> {
+                try (InputStream is = openInputStream(mountPoint, target)) {
+                    long remaining = position;
+                    while (remaining > 0L) {
+                        final long skipped = is.skip(remaining);
+                        if (skipped <= 0L) {
+                            if (is.read() == -1) {
+                                break;
+                            }
+                            remaining--;
+                        } else {
+                            remaining -= skipped;
+                        }
+                    }
+                    future.complete(ByteBuffer.wrap(is.readNBytes(length)));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+        return future;
+    }
+
     /**
      * Determine whether this filesystem is read-only.  A read-only filesystem prohibits file modification or deletion.
      * It is not an error to mount a read-write filesystem within a read-only filesystem however (this operation does not
@@ -80,6 +201,93 @@ public interface FileSystem extends Closeable {
      */
     boolean delete(VirtualFile mountPoint, VirtualFile target);
 
+    /**
+     * Open an output stream which replaces the content of a file within this filesystem, creating the file and its
+     * parent directories if necessary.  The default implementation writes to the {@linkplain #getFile(VirtualFile,
+     * VirtualFile) physical file}.
+     *
+     * @param mountPoint the mount point of the filesystem instance (guaranteed to be a parent of {@code target})
+     * @param target     the virtual file to act upon
+     * @return the output stream
+     * @throws IOException if an I/O error occurs
+     */
+    default OutputStream openOutputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        final File file = getFile(mountPoint, target);
+        file.getParentFile().mkdirs();
+        return new FileOutputStream(file);
+    }
+
+    /**
+     * Get the basic attributes of the file at the given relative path.  Filesystems which can read all of the attributes
+     * in a single operation should do so; the default implementation calls the individual attribute methods in turn.
+     *
+     * @param mountPoint the mount point of the filesystem instance (guaranteed to be a parent of {@code target})
+     * @param target     the virtual file to act upon
+     * @return the attributes, or {@link VirtualFileAttributes#NONEXISTENT} if the file does not exist
+     */
+    default VirtualFileAttributes getAttributes(VirtualFile mountPoint, VirtualFile target) {
+        if (!exists(mountPoint, target)) {
+            return VirtualFileAttributes.NONEXISTENT;
+        }
+        return new VirtualFileAttributes(isDirectory(mountPoint, target), getSize(mountPoint, target), getLastModified(mountPoint, target));
+    }
+
+    /**
+     * Get the basic attributes of several files within this filesystem at once.  Filesystems should answer the batch
+     * more cheaply than by separate lookups, for example by sharing index lookups between siblings or by querying in
+     * parallel; the default implementation calls {@link #getAttributes(VirtualFile, VirtualFile)} for each file.
+     *
+     * @param mountPoint the mount point of the filesystem instance (guaranteed to be a parent of every target)
+     * @param targets    the virtual files to act upon
+     * @param executor   an executor which may be used to query in parallel; tasks given to it might not run promptly,
+     *                   so the calling thread must be able to complete the batch by itself
+     * @return the attributes of each target, in the same order as {@code targets}
+     */
+    default VirtualFileAttributes[] getAttributes(VirtualFile mountPoint, List<VirtualFile> targets, Executor executor) {
+        final VirtualFileAttributes[] attributes = new VirtualFileAttributes[targets.size()];
+        for (int i = 0; i < attributes.length; i++) {
+            attributes[i] = getAttributes(mountPoint, targets.get(i));
+        }
+        return attributes;
+    }
+
+    /**
+     * Get the statistics of the tree rooted at the given file, counting only content within this filesystem.
+     * Filesystems which hold an index of their content should compute the statistics from it, and others should
+     * compute them in parallel on the given executor where they can; the default implementation walks the tree with
+     * {@link #getDirectoryEntries(VirtualFile, VirtualFile)} and {@link #getAttributes(VirtualFile, VirtualFile)}.
+     *
+     * @param mountPoint the mount point of the filesystem instance (guaranteed to be a parent of {@code target})
+     * @param target     the root of the tree
+     * @param executor   the executor for parallel work
+     * @return the tree statistics
+     */
+    default TreeStats getTreeStats(VirtualFile mountPoint, VirtualFile target, Executor executor) {
+        final VirtualFileAttributes attributes = getAttributes(mountPoint, target);
+        TreeStats stats = TreeStats.of(attributes);
+        if (attributes.isDirectory()) {
+            for (String name : getDirectoryEntries(mountPoint, target)) {
+                stats = stats.plus(getTreeStats(mountPoint, target.getChild(name), executor));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Get a fingerprint of the content of the file at the given relative path: an opaque value which changes when the
+     * content changes.  It must be cheap to compute; filesystems which hold a checksum of each file, such as zip
+     * archives, should derive the fingerprint from it, and the default implementation derives it from the size and
+     * modification time of the file.  Fingerprints of different files are not comparable.
+     *
+     * @param mountPoint the mount point of the filesystem instance (guaranteed to be a parent of {@code target})
+     * @param target     the virtual file to act upon
+     * @return the fingerprint
+     */
+    default long getFingerprint(VirtualFile mountPoint, VirtualFile target) {
+        final VirtualFileAttributes attributes = getAttributes(mountPoint, target);
+        return attributes.getLastModified() * 31L + attributes.getSize();
+    }
+
     /**
      * Get the size of a virtual file within this filesystem.
      *
@@ -136,6 +344,41 @@ public interface FileSystem extends Closeable {
      */
     List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target);
 
+    /**
+     * Read the entries of a directory which are accepted by a predicate.  Filesystems which hold a sorted index of
+     * their entries should use the {@linkplain NamePredicate#getPrefix() prefix} of the predicate to test only the
+     * entries which can match; the default implementation tests every entry returned by {@link
+     * #getDirectoryEntries(VirtualFile, VirtualFile)}.
+     *
+     * @param mountPoint the mount point of the filesystem instance (guaranteed to be a parent of {@code target})
+     * @param target     the virtual file to act upon
+     * @param predicate  the predicate which names must match
+     * @return the collection of accepted children names
+     */
+    default List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target, NamePredicate predicate) {
+        final List<String> names = getDirectoryEntries(mountPoint, target);
+        final List<String> accepted = new ArrayList<String>();
+        for (String name : names) {
+            if (predicate.accepts(name)) {
+                accepted.add(name);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Read the entries of a directory whose names start with a prefix and end with a suffix.
+     *
+     * @param mountPoint the mount point of the filesystem instance (guaranteed to be a parent of {@code target})
+     * @param target     the virtual file to act upon
+     * @param prefix     the prefix, or the empty string for none
+     * @param suffix     the suffix, or the empty string for none
+     * @return the collection of matching children names
+     */
+    default List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target, String prefix, String suffix) {
+        return getDirectoryEntries(mountPoint, target, NamePredicate.of(prefix, suffix));
+    }
+
     /**
      * Get the {@link CodeSigner}s for a the virtual file.
      *
@@ -157,7 +400,7 @@ public interface FileSystem extends Closeable {
     /**
      * Get the {@link java.io.File} source provided at mount time.
      *
-     * @return the source used for mounting
+     * @return the source used for mounting, or {@code null} if the filesystem was not mounted from a file
      */
     File getMountSource();
 
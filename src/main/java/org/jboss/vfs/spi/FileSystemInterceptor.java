@@ -0,0 +1,251 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.CodeSigner;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.jboss.vfs.NamePredicate;
+import org.jboss.vfs.TreeStats;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VirtualFileAttributes;
+
+/**
+ * An interceptor around the calls made to a {@link FileSystem}.  Each method receives the next file system in the
+ * chain followed by the arguments of the intercepted call; the default implementations simply delegate, so an
+ * interceptor need only override the operations it is interested in.
+ * <p/>
+ * Interceptors are installed per mount using {@link org.jboss.vfs.VFS#mount(VirtualFile, FileSystem, FileSystemInterceptor...)}
+ * or globally using {@link org.jboss.vfs.VFS#addInterceptorFactory(Factory)}.  When no interceptor applies to a mount,
+ * the file system is mounted as-is and no indirection is added.
+ */
+public interface FileSystemInterceptor {
+
+    /**
+     * Intercept {@link FileSystem#getFile(VirtualFile, VirtualFile)}.
+     */
+    default File getFile(FileSystem next, VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return next.getFile(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#openInputStream(VirtualFile, VirtualFile)}.
+     */
+    default InputStream openInputStream(FileSystem next, VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return next.openInputStream(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#tryOpenInputStream(VirtualFile, VirtualFile)}.
+     */
+    default InputStream tryOpenInputStream(FileSystem next, VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return next.tryOpenInputStream(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#openChannel(VirtualFile, VirtualFile)}.
+     */
+    default ReadableByteChannel openChannel(FileSystem next, VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return next.openChannel(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#map(VirtualFile, VirtualFile)}.
+     */
+    default ByteBuffer map(FileSystem next, VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return next.map(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#transferTo(VirtualFile, VirtualFile, WritableByteChannel)}.
+     */
+    default long transferTo(FileSystem next, VirtualFile mountPoint, VirtualFile target, WritableByteChannel channel) throws IOException {
+        return next.transferTo(mountPoint, target, channel);
+    }
+
+    /**
+     * Intercept {@link FileSystem#readAsync(VirtualFile, VirtualFile, long, int, Executor)}.
+     */
+    default CompletableFuture<ByteBuffer> readAsync(FileSystem next, VirtualFile mountPoint, VirtualFile target, long position, int length, Executor executor) {
+        return next.readAsync(mountPoint, target, position, length, executor);
+    }
+
+    /**
+     * Intercept {@link FileSystem#isReadOnly()}.
+     */
+    default boolean isReadOnly(FileSystem next) {
+        return next.isReadOnly();
+    }
+
+    /**
+     * Intercept {@link FileSystem#delete(VirtualFile, VirtualFile)}.
+     */
+    default boolean delete(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        return next.delete(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#openOutputStream(VirtualFile, VirtualFile)}.
+     */
+    default OutputStream openOutputStream(FileSystem next, VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return next.openOutputStream(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#getAttributes(VirtualFile, VirtualFile)}.
+     */
+    default VirtualFileAttributes getAttributes(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        return next.getAttributes(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#getAttributes(VirtualFile, List, Executor)}.
+     */
+    default VirtualFileAttributes[] getAttributes(FileSystem next, VirtualFile mountPoint, List<VirtualFile> targets, Executor executor) {
+        return next.getAttributes(mountPoint, targets, executor);
+    }
+
+    /**
+     * Intercept {@link FileSystem#getTreeStats(VirtualFile, VirtualFile, Executor)}.
+     */
+    default TreeStats getTreeStats(FileSystem next, VirtualFile mountPoint, VirtualFile target, Executor executor) {
+        return next.getTreeStats(mountPoint, target, executor);
+    }
+
+    /**
+     * Intercept {@link FileSystem#getFingerprint(VirtualFile, VirtualFile)}.
+     */
+    default long getFingerprint(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        return next.getFingerprint(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#getSize(VirtualFile, VirtualFile)}.
+     */
+    default long getSize(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        return next.getSize(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#getLastModified(VirtualFile, VirtualFile)}.
+     */
+    default long getLastModified(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        return next.getLastModified(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#exists(VirtualFile, VirtualFile)}.
+     */
+    default boolean exists(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        return next.exists(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#isFile(VirtualFile, VirtualFile)}.
+     */
+    default boolean isFile(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        return next.isFile(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#isDirectory(VirtualFile, VirtualFile)}.
+     */
+    default boolean isDirectory(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        return next.isDirectory(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#getDirectoryEntries(VirtualFile, VirtualFile)}.
+     */
+    default List<String> getDirectoryEntries(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        return next.getDirectoryEntries(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#getDirectoryEntries(VirtualFile, VirtualFile, NamePredicate)}.
+     */
+    default List<String> getDirectoryEntries(FileSystem next, VirtualFile mountPoint, VirtualFile target, NamePredicate predicate) {
+        return next.getDirectoryEntries(mountPoint, target, predicate);
+    }
+
+    /**
+     * Intercept {@link FileSystem#getCodeSigners(VirtualFile, VirtualFile)}.
+     */
+    default CodeSigner[] getCodeSigners(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+        return next.getCodeSigners(mountPoint, target);
+    }
+
+    /**
+     * Intercept {@link FileSystem#close()}.
+     */
+    default void close(FileSystem next) throws IOException {
+        next.close();
+    }
+
+    /**
+     * Intercept {@link FileSystem#getMountSource()}.
+     */
+    default File getMountSource(FileSystem next) {
+        return next.getMountSource();
+    }
+
+    /**
+     * Intercept {@link FileSystem#getRootURI()}.
+     */
+    default URI getRootURI(FileSystem next) throws URISyntaxException {
+        return next.getRootURI();
+    }
+
+    /**
+     * A factory for interceptors which are installed on every newly created mount.
+     */
+    interface Factory {
+
+        /**
+         * Create an interceptor for a new mount.
+         *
+         * @param mountPoint the mount point
+         * @param fileSystem the file system being mounted
+         * @return the interceptor, or {@code null} if the mount should not be intercepted
+         */
+        FileSystemInterceptor createInterceptor(VirtualFile mountPoint, FileSystem fileSystem);
+
+        /**
+         * Note that a mount for which this factory created an interceptor has been added.  If the mount cannot be
+         * added, for example because the mount point is already in use, this method is not called and the
+         * interceptor is never used, so an interceptor should not publish itself before this point.
+         *
+         * @param mountPoint  the mount point
+         * @param interceptor the interceptor created for the mount
+         */
+        default void mounted(VirtualFile mountPoint, FileSystemInterceptor interceptor) {
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.CodeSigner;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.jboss.vfs.NamePredicate;
+import org.jboss.vfs.TreeStats;
+import org.jboss.vfs.VFSMessages;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VirtualFileAttributes;
+
+/**
+ * A file system which routes every call through a {@link FileSystemInterceptor} before reaching the underlying
+ * file system.
+ */
+public final class InterceptingFileSystem implements FileSystem {
+
+    private final FileSystem next;
+    private final FileSystemInterceptor interceptor;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param next the file system to delegate to
+     * @param interceptor the interceptor
+     */
+    public InterceptingFileSystem(FileSystem next, FileSystemInterceptor interceptor) {
+        if (next == null) {
+            throw VFSMessages.MESSAGES.nullArgument("next");
+        }
+        if (interceptor == null) {
+            throw VFSMessages.MESSAGES.nullArgument("interceptor");
+        }
+        this.next = next;
+        this.interceptor = interceptor;
+    }
+
+    /**
+     * Wrap a file system with a chain of interceptors.  The first interceptor is the outermost one.  If no
+     * interceptors are given, the file system itself is returned.
+     *
+     * @param fileSystem the file system to wrap
+     * @param interceptors the interceptors
+     * @return the wrapped file system
+     */
+    public static FileSystem wrap(FileSystem fileSystem, FileSystemInterceptor... interceptors) {
+        FileSystem result = fileSystem;
+        if (interceptors != null) {
+            for (int i = interceptors.length - 1; i >= 0; i--) {
+                if (interceptors[i] != null) {
+                    result = new InterceptingFileSystem(result, interceptors[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the file system this one delegates to.
+     *
+     * @return the delegate file system
+     */
+    public FileSystem getDelegate() {
+        return next;
+    }
+
+    /**
+     * Get the interceptor of this file system.
+     *
+     * @return the interceptor
+     */
+    public FileSystemInterceptor getInterceptor() {
+        return interceptor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public File getFile(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return interceptor.getFile(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream openInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return interceptor.openInputStream(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream tryOpenInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return interceptor.tryOpenInputStream(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ReadableByteChannel openChannel(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return interceptor.openChannel(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ByteBuffer map(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return interceptor.map(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long transferTo(VirtualFile mountPoint, VirtualFile target, WritableByteChannel channel) throws IOException {
+        return interceptor.transferTo(next, mountPoint, target, channel);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public CompletableFuture<ByteBuffer> readAsync(VirtualFile mountPoint, VirtualFile target, long position, int length, Executor executor) {
+        return interceptor.readAsync(next, mountPoint, target, position, length, executor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isReadOnly() {
+        return interceptor.isReadOnly(next);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean delete(VirtualFile mountPoint, VirtualFile target) {
+        return interceptor.delete(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public OutputStream openOutputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return interceptor.openOutputStream(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public VirtualFileAttributes getAttributes(VirtualFile mountPoint, VirtualFile target) {
+        return interceptor.getAttributes(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public VirtualFileAttributes[] getAttributes(VirtualFile mountPoint, List<VirtualFile> targets, Executor executor) {
+        return interceptor.getAttributes(next, mountPoint, targets, executor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public TreeStats getTreeStats(VirtualFile mountPoint, VirtualFile target, Executor executor) {
+        return interceptor.getTreeStats(next, mountPoint, target, executor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getFingerprint(VirtualFile mountPoint, VirtualFile target) {
+        return interceptor.getFingerprint(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getSize(VirtualFile mountPoint, VirtualFile target) {
+        return interceptor.getSize(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getLastModified(VirtualFile mountPoint, VirtualFile target) {
+        return interceptor.getLastModified(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean exists(VirtualFile mountPoint, VirtualFile target) {
+        return interceptor.exists(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isFile(VirtualFile mountPoint, VirtualFile target) {
+        return interceptor.isFile(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isDirectory(VirtualFile mountPoint, VirtualFile target) {
+        return interceptor.isDirectory(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target) {
+        return interceptor.getDirectoryEntries(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target, NamePredicate predicate) {
+        return interceptor.getDirectoryEntries(next, mountPoint, target, predicate);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public CodeSigner[] getCodeSigners(VirtualFile mountPoint, VirtualFile target) {
+        return interceptor.getCodeSigners(next, mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void close() throws IOException {
+        interceptor.close(next);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public File getMountSource() {
+        return interceptor.getMountSource(next);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public URI getRootURI() throws URISyntaxException {
+        return interceptor.getRootURI(next);
+    }
+}
@@ -28,23 +28,33 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.security.CodeSigner;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
-import java.util.Enumeration;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.zip.ZipException;
 
+import org.jboss.vfs.CasePolicy;
+import org.jboss.vfs.IoScheduler;
+import org.jboss.vfs.NamePredicate;
 import org.jboss.vfs.TempDir;
+import org.jboss.vfs.TreeStats;
 import org.jboss.vfs.VFSLogger;
 import org.jboss.vfs.VFSMessages;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VirtualFileAttributes;
 import org.jboss.vfs.util.PathTokenizer;
 
 /**
@@ -58,12 +68,22 @@ import org.jboss.vfs.util.PathTokenizer;
  */
 public final class JavaZipFileSystem implements FileSystem {
 
+    private static final double LOOKUP_FILTER_FALSE_POSITIVE_RATE = 0.01;
+
     private final JarFile zipFile;
     private final File archiveFile;
     private final long zipTime;
-    private final ZipNode rootNode;
+    private final Object indexLock = new Object();
+    private volatile ZipIndex index;
+    private final CasePolicy casePolicy;
+    private final ZipIndexCache indexCache;
     private final TempDir tempDir;
     private final File contentsDir;
+    private volatile FileChannel archiveChannel;
+    // extraction of an entry is serialized by one of these, chosen by its node
+    private final Object[] extractionLocks = new Object[16];
+    private final LongAdder extractionCount = new LongAdder();
+    private final LongAdder extractedBytes = new LongAdder();
 
     /**
      * Create a new instance.
@@ -85,80 +105,130 @@ public final class JavaZipFileSystem implements FileSystem {
      * @throws java.io.IOException if an I/O error occurs
      */
     public JavaZipFileSystem(File archiveFile, TempDir tempDir) throws IOException {
+        this(archiveFile, tempDir, CasePolicy.SENSITIVE);
+    }
+
+    /**
+     * Create a new instance which matches names by the given case policy.  Entry names are folded when the index is
+     * built, so lookups cost the same under either policy.  If several entries fold to the same name, the first one
+     * in the archive is used.
+     *
+     * @param archiveFile the original archive file
+     * @param tempDir     the temp dir into which zip information is stored
+     * @param casePolicy  the case policy
+     * @throws java.io.IOException if an I/O error occurs
+     */
+    public JavaZipFileSystem(File archiveFile, TempDir tempDir, CasePolicy casePolicy) throws IOException {
+        this(archiveFile, tempDir, casePolicy, ZipIndexCache.getDefault());
+    }
+
+    /**
+     * Create a new instance which keeps its entry index in the given cache.  If the cache holds the index of the
+     * archive as it is now, the index is loaded from it instead of being built; otherwise it is built and stored.
+     *
+     * @param archiveFile the original archive file
+     * @param tempDir     the temp dir into which zip information is stored
+     * @param casePolicy  the case policy
+     * @param indexCache  the index cache, or {@code null} to build the index without one
+     * @throws java.io.IOException if an I/O error occurs
+     */
+    public JavaZipFileSystem(File archiveFile, TempDir tempDir, CasePolicy casePolicy, ZipIndexCache indexCache) throws IOException {
+        if (casePolicy == null) {
+            throw VFSMessages.MESSAGES.nullArgument("casePolicy");
+        }
+        this.casePolicy = casePolicy;
+        this.indexCache = indexCache;
+        for (int i = 0; i < extractionLocks.length; i++) {
+            extractionLocks[i] = new Object();
+        }
         zipTime = archiveFile.lastModified();
         final JarFile zipFile;
         this.zipFile = zipFile = new JarFile(archiveFile);
         this.archiveFile = archiveFile;
         this.tempDir = tempDir;
-        final Enumeration<? extends JarEntry> entries = zipFile.entries();
-        final ZipNode rootNode = new ZipNode(new HashMap<String, ZipNode>(), "", null);
-        FILES:
-        for (JarEntry entry : iter(entries)) {
-            final String name = entry.getName();
-            final boolean isDirectory = entry.isDirectory();
-            final List<String> tokens = PathTokenizer.getTokens(name);
-            ZipNode node = rootNode;
-            final Iterator<String> it = tokens.iterator();
-            while (it.hasNext()) {
-                String token = it.next();
-                if (PathTokenizer.isCurrentToken(token) || PathTokenizer.isReverseToken(token)) {
-                    // invalid file name
-                    continue FILES;
-                }
-                final Map<String, ZipNode> children = node.children;
-                if (children == null) {
-                    // todo - log bad zip entry
-                    continue FILES;
-                }
-                ZipNode child = children.get(token);
-                if (child == null) {
-                    child = it.hasNext() || isDirectory ? new ZipNode(new HashMap<String, ZipNode>(), token, null) : new ZipNode(null, token, entry);
-                    children.put(token, child);
-                }
-                node = child;
-            }
-        }
-        this.rootNode = rootNode;
         contentsDir = tempDir.getFile("contents");
         contentsDir.mkdir();
         VFSLogger.ROOT_LOGGER.tracef("Created zip filesystem for file %s in temp dir %s", archiveFile, tempDir);
     }
 
     /**
-     * {@inheritDoc}
+     * Get the entry index, building it on first use.  Mounting a zip file only opens it, so archives which are
+     * mounted but never read cost no more than their central directory.
+     *
+     * @return the index
      */
-    private static <T> Iterable<T> iter(final Enumeration<T> entries) {
-        return new EnumerationIterable<T>(entries);
+    private ZipIndex getIndex() {
+        ZipIndex index = this.index;
+        if (index == null) {
+            synchronized (indexLock) {
+                index = this.index;
+                if (index == null) {
+                    this.index = index = loadIndex();
+                }
+            }
+        }
+        return index;
+    }
+
+    private ZipIndex loadIndex() {
+        ZipIndexCache.Key key = null;
+        if (indexCache != null) {
+            try {
+                key = indexCache.getKey(archiveFile, casePolicy);
+            } catch (IOException e) {
+                VFSLogger.ROOT_LOGGER.debugf(e, "Not caching the index of zip filesystem %s", archiveFile);
+            }
+            if (key != null) {
+                final ZipIndex index = indexCache.load(key);
+                if (index != null) {
+                    VFSLogger.ROOT_LOGGER.tracef("Loaded index of zip filesystem %s from %s", archiveFile, key.getFile());
+                    return index;
+                }
+            }
+        }
+        final ZipIndex index = ZipIndex.build(zipFile, casePolicy, LOOKUP_FILTER_FALSE_POSITIVE_RATE);
+        VFSLogger.ROOT_LOGGER.tracef("Indexed %d entries of zip filesystem %s", Integer.valueOf(zipFile.size()), archiveFile);
+        if (key != null) {
+            indexCache.store(key, index);
+        }
+        return index;
     }
 
     /**
      * {@inheritDoc}
      */
     public File getFile(VirtualFile mountPoint, VirtualFile target) throws IOException {
-        final ZipNode zipNode = getExistingZipNode(mountPoint, target);
+        final ZipIndex index = getIndex();
+        final int node = getExistingNode(index, mountPoint, target);
         // check if we have cached one already
-        File cachedFile = zipNode.cachedFile;
+        File cachedFile = index.getCachedFile(node);
         if (cachedFile != null) {
             return cachedFile;
         }
-        synchronized (zipNode) {
+        synchronized (extractionLocks[node & (extractionLocks.length - 1)]) {
             // double-check
-            cachedFile = zipNode.cachedFile;
+            cachedFile = index.getCachedFile(node);
             if (cachedFile != null) {
                 return cachedFile;
             }
 
             // nope, create a cached temp
-            final JarEntry zipEntry = zipNode.entry;
             String name = target.getPathNameRelativeTo(mountPoint);
             cachedFile = buildFile(contentsDir, name);
-            if (zipEntry == null) {
+            if (!index.isFile(node)) {
                 cachedFile.mkdir();
             } else {
-                VFSUtils.copyStreamAndClose(zipFile.getInputStream(zipEntry), new BufferedOutputStream(new FileOutputStream(cachedFile)));
+                final IoScheduler.Permit permit = IoScheduler.getDefault().acquire(IoScheduler.Priority.EXTRACTION);
+                try {
+                    VFSUtils.copyStreamAndClose(zipFile.getInputStream(getJarEntry(index, node)), new BufferedOutputStream(new FileOutputStream(cachedFile)));
+                } finally {
+                    permit.close();
+                }
+                extractionCount.increment();
+                extractedBytes.add(cachedFile.length());
             }
 
-            zipNode.cachedFile = cachedFile;
+            index.setCachedFile(node, cachedFile);
             return cachedFile;
         }
     }
@@ -167,71 +237,263 @@ public final class JavaZipFileSystem implements FileSystem {
      * {@inheritDoc}
      */
     public InputStream openInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
-        final ZipNode zipNode = getExistingZipNode(mountPoint, target);
-        final File cachedFile = zipNode.cachedFile;
+        final ZipIndex index = getIndex();
+        final int node = getExistingNode(index, mountPoint, target);
+        final File cachedFile = index.getCachedFile(node);
         if (cachedFile != null) {
             return new FileInputStream(cachedFile);
         }
-        if (rootNode == zipNode) {
+        if (node == ZipIndex.ROOT) {
             return new FileInputStream(archiveFile);
         }
-        final JarEntry entry = zipNode.entry;
-        if (entry == null) {
+        if (!index.isFile(node)) {
+            throw VFSMessages.MESSAGES.notAFile(target.getPathName());
+        }
+        return zipFile.getInputStream(getJarEntry(index, node));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream tryOpenInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        final ZipIndex index = getIndex();
+        final int node = getNode(index, mountPoint, target);
+        if (node == ZipIndex.NONE || !index.isFile(node)) {
+            return null;
+        }
+        final File cachedFile = index.getCachedFile(node);
+        return cachedFile != null ? new FileInputStream(cachedFile) : zipFile.getInputStream(getJarEntry(index, node));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * STORED entries are read directly from their byte range within the archive through a seekable channel.
+     */
+    public ReadableByteChannel openChannel(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        final ZipIndex index = getIndex();
+        final int node = getExistingNode(index, mountPoint, target);
+        final File cachedFile = index.getCachedFile(node);
+        if (cachedFile != null) {
+            return RealFileAccess.openChannel(cachedFile, target.getPathName());
+        }
+        if (node == ZipIndex.ROOT) {
+            return RealFileAccess.openChannel(archiveFile, target.getPathName());
+        }
+        if (!index.isFile(node)) {
+            throw VFSMessages.MESSAGES.notAFile(target.getPathName());
+        }
+        if (index.isStored(node)) {
+            final FileChannel archiveChannel = getArchiveChannel();
+            return new FileRegionChannel(archiveChannel, index.getDataOffset(archiveChannel, node), index.getSize(node));
+        }
+        return Channels.newChannel(zipFile.getInputStream(getJarEntry(index, node)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * STORED entries are mapped directly from their byte range within the archive; compressed entries are inflated
+     * into a heap buffer.
+     */
+    public ByteBuffer map(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        final ZipIndex index = getIndex();
+        final int node = getExistingNode(index, mountPoint, target);
+        final File cachedFile = index.getCachedFile(node);
+        if (cachedFile != null) {
+            return RealFileAccess.map(cachedFile, target.getPathName());
+        }
+        if (node == ZipIndex.ROOT) {
+            return RealFileAccess.map(archiveFile, target.getPathName());
+        }
+        if (!index.isFile(node)) {
             throw VFSMessages.MESSAGES.notAFile(target.getPathName());
         }
-        return zipFile.getInputStream(entry);
+        if (index.isStored(node)) {
+            final FileChannel archiveChannel = getArchiveChannel();
+            return RealFileAccess.map(archiveChannel, index.getDataOffset(archiveChannel, node), index.getSize(node), target.getPathName());
+        }
+        try (InputStream is = zipFile.getInputStream(getJarEntry(index, node))) {
+            return ByteBuffer.wrap(is.readAllBytes()).asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * STORED entries are transferred directly from their byte range within the archive; compressed entries are
+     * inflated through a buffer.
+     */
+    public long transferTo(VirtualFile mountPoint, VirtualFile target, WritableByteChannel channel) throws IOException {
+        final ZipIndex index = getIndex();
+        final int node = getExistingNode(index, mountPoint, target);
+        final File cachedFile = index.getCachedFile(node);
+        if (cachedFile != null) {
+            return RealFileAccess.transferTo(cachedFile, channel, target.getPathName());
+        }
+        if (node == ZipIndex.ROOT) {
+            return RealFileAccess.transferTo(archiveFile, channel, target.getPathName());
+        }
+        if (!index.isFile(node)) {
+            throw VFSMessages.MESSAGES.notAFile(target.getPathName());
+        }
+        if (index.isStored(node)) {
+            final FileChannel archiveChannel = getArchiveChannel();
+            return RealFileAccess.transferTo(archiveChannel, index.getDataOffset(archiveChannel, node), index.getSize(node), channel);
+        }
+        return VFSUtils.copyStreamAndClose(zipFile.getInputStream(getJarEntry(index, node)), channel);
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean delete(VirtualFile mountPoint, VirtualFile target) {
-        final ZipNode zipNode = getZipNode(mountPoint, target);
-        if (zipNode == null) {
+        final ZipIndex index = getIndex();
+        final int node = getNode(index, mountPoint, target);
+        if (node == ZipIndex.NONE) {
             return false;
         }
-        final File cachedFile = zipNode.cachedFile;
+        final File cachedFile = index.getCachedFile(node);
         return cachedFile != null && cachedFile.delete();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public VirtualFileAttributes getAttributes(VirtualFile mountPoint, VirtualFile target) {
+        final ZipIndex index = getIndex();
+        return getAttributes(index, getNode(index, mountPoint, target));
+    }
+
+    private VirtualFileAttributes getAttributes(ZipIndex index, int node) {
+        if (node == ZipIndex.NONE) {
+            return VirtualFileAttributes.NONEXISTENT;
+        }
+        final File cachedFile = index.getCachedFile(node);
+        if (cachedFile != null) {
+            return RealFileAccess.getAttributes(cachedFile);
+        }
+        if (node == ZipIndex.ROOT) {
+            return new VirtualFileAttributes(true, archiveFile.length(), zipTime);
+        }
+        return index.isFile(node) ? new VirtualFileAttributes(false, index.getSize(node), index.getTime(zipFile, node)) : new VirtualFileAttributes(true, 0L, zipTime);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Directory nodes resolved for one target are reused for the following ones, so siblings cost a single child
+     * search each.
+     */
+    public VirtualFileAttributes[] getAttributes(VirtualFile mountPoint, List<VirtualFile> targets, Executor executor) {
+        final ZipIndex index = getIndex();
+        final VirtualFileAttributes[] attributes = new VirtualFileAttributes[targets.size()];
+        final Map<VirtualFile, Integer> directories = new HashMap<VirtualFile, Integer>();
+        directories.put(mountPoint, Integer.valueOf(ZipIndex.ROOT));
+        for (int i = 0; i < attributes.length; i++) {
+            attributes[i] = getAttributes(index, find(index, mountPoint, targets.get(i), directories));
+        }
+        return attributes;
+    }
+
+    private int find(ZipIndex index, VirtualFile mountPoint, VirtualFile target, Map<VirtualFile, Integer> directories) {
+        final Integer known = directories.get(target);
+        if (known != null) {
+            return known.intValue();
+        }
+        final int parent = find(index, mountPoint, target.getParent(), directories);
+        final int node = parent == ZipIndex.NONE ? ZipIndex.NONE : index.getChild(parent, casePolicy.getKey(target));
+        if (node == ZipIndex.NONE || !index.isFile(node)) {
+            directories.put(target, Integer.valueOf(node));
+        }
+        return node;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The statistics are computed from the entries held in the index, without any I/O.
+     */
+    public TreeStats getTreeStats(VirtualFile mountPoint, VirtualFile target, Executor executor) {
+        final ZipIndex index = getIndex();
+        final int node = getNode(index, mountPoint, target);
+        return node == ZipIndex.NONE ? TreeStats.EMPTY : getTreeStats(index, node);
+    }
+
+    private TreeStats getTreeStats(ZipIndex index, int node) {
+        if (index.isFile(node)) {
+            return new TreeStats(1L, 0L, index.getSize(node), index.getTime(zipFile, node));
+        }
+        long files = 0L;
+        long directories = 1L;
+        long size = 0L;
+        long newest = zipTime;
+        final int first = index.getFirstChild(node);
+        final int end = first + index.getChildCount(node);
+        for (int child = first; child < end; child++) {
+            final TreeStats stats = getTreeStats(index, child);
+            files += stats.getFileCount();
+            directories += stats.getDirectoryCount();
+            size += stats.getTotalSize();
+            newest = Math.max(newest, stats.getNewestLastModified());
+        }
+        return new TreeStats(files, directories, size, newest);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The fingerprint of an entry combines the CRC-32 and size recorded in the central directory, so it is derived from
+     * the content itself and costs no I/O.
+     */
+    public long getFingerprint(VirtualFile mountPoint, VirtualFile target) {
+        final ZipIndex index = getIndex();
+        final int node = getNode(index, mountPoint, target);
+        if (node == ZipIndex.NONE || !index.isFile(node)) {
+            return FileSystem.super.getFingerprint(mountPoint, target);
+        }
+        return index.getSize(node) << 32 ^ (index.getCrc(node) & 0xffffffffL);
+    }
+
     /**
      * {@inheritDoc}
      */
     public long getSize(VirtualFile mountPoint, VirtualFile target) {
-        final ZipNode zipNode = getZipNode(mountPoint, target);
-        if (zipNode == null) {
+        final ZipIndex index = getIndex();
+        final int node = getNode(index, mountPoint, target);
+        if (node == ZipIndex.NONE) {
             return 0L;
         }
-        final File cachedFile = zipNode.cachedFile;
-        final JarEntry entry = zipNode.entry;
-        if (zipNode == rootNode) {
+        final File cachedFile = index.getCachedFile(node);
+        if (node == ZipIndex.ROOT) {
             return archiveFile.length();
         }
-        return cachedFile != null ? cachedFile.length() : entry == null ? 0L : entry.getSize();
+        return cachedFile != null ? cachedFile.length() : index.isFile(node) ? index.getSize(node) : 0L;
     }
 
     /**
      * {@inheritDoc}
      */
     public long getLastModified(VirtualFile mountPoint, VirtualFile target) {
-        final ZipNode zipNode = getZipNode(mountPoint, target);
-        if (zipNode == null) {
+        final ZipIndex index = getIndex();
+        final int node = getNode(index, mountPoint, target);
+        if (node == ZipIndex.NONE) {
             return 0L;
         }
-        final File cachedFile = zipNode.cachedFile;
-        final JarEntry entry = zipNode.entry;
-        return cachedFile != null ? cachedFile.lastModified() : entry == null ? zipTime : entry.getTime();
+        final File cachedFile = index.getCachedFile(node);
+        return cachedFile != null ? cachedFile.lastModified() : index.isFile(node) ? index.getTime(zipFile, node) : zipTime;
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean exists(VirtualFile mountPoint, VirtualFile target) {
-        final ZipNode zipNode = rootNode.find(mountPoint, target);
-        if (zipNode == null) {
+        final ZipIndex index = getIndex();
+        final int node = getNode(index, mountPoint, target);
+        if (node == ZipIndex.NONE) {
             return false;
         } else {
-            final File cachedFile = zipNode.cachedFile;
+            final File cachedFile = index.getCachedFile(node);
             return cachedFile == null || cachedFile.exists();
         }
     }
@@ -240,61 +502,93 @@ public final class JavaZipFileSystem implements FileSystem {
      * {@inheritDoc}
      */
     public boolean isFile(final VirtualFile mountPoint, final VirtualFile target) {
-        final ZipNode zipNode = rootNode.find(mountPoint, target);
-        return zipNode != null && zipNode.entry != null;
+        final ZipIndex index = getIndex();
+        final int node = getNode(index, mountPoint, target);
+        return node != ZipIndex.NONE && index.isFile(node);
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean isDirectory(VirtualFile mountPoint, VirtualFile target) {
-        final ZipNode zipNode = rootNode.find(mountPoint, target);
-        return zipNode != null && zipNode.entry == null;
+        final ZipIndex index = getIndex();
+        final int node = getNode(index, mountPoint, target);
+        return node != ZipIndex.NONE && !index.isFile(node);
     }
 
     /**
      * {@inheritDoc}
      */
     public List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target) {
-        final ZipNode zipNode = getZipNode(mountPoint, target);
-        if (zipNode == null) {
-            return Collections.emptyList();
-        }
-        final Map<String, ZipNode> children = zipNode.children;
-        if (children == null) {
-            return Collections.emptyList();
-        }
-        final Collection<ZipNode> values = children.values();
-        final List<String> names = new ArrayList<String>(values.size());
-        for (ZipNode node : values) {
-            names.add(node.name);
-        }
-        return names;
+        final ZipIndex index = getIndex();
+        final int node = getNode(index, mountPoint, target);
+        return node == ZipIndex.NONE ? Collections.<String>emptyList() : index.getChildNames(node);
     }
 
     /**
-     * {@inheritDoc}
+     * {@inheritDoc}  Names are looked up in the sorted range of the directory's children, so only the entries which
+     * start with the prefix of the predicate are tested.
+     */
+    public List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target, NamePredicate predicate) {
+        final ZipIndex index = getIndex();
+        final int node = getNode(index, mountPoint, target);
+        return node == ZipIndex.NONE ? Collections.<String>emptyList() : index.getChildNames(node, predicate);
+    }
+
+    /**
+     * {@inheritDoc}  The entry is fetched from the archive by name, as the index does not retain it.
      */
     public CodeSigner[] getCodeSigners(VirtualFile mountPoint, VirtualFile target) {
-        final ZipNode zipNode = getZipNode(mountPoint, target);
-        if (zipNode == null) {
+        final ZipIndex index = getIndex();
+        final int node = getNode(index, mountPoint, target);
+        if (node == ZipIndex.NONE || !index.isFile(node)) {
             return null;
         }
-        JarEntry jarEntry = zipNode.entry;
-        return jarEntry.getCodeSigners();
+        final JarEntry jarEntry = zipFile.getJarEntry(index.getEntryName(node));
+        return jarEntry == null ? null : jarEntry.getCodeSigners();
+    }
+
+    private JarEntry getJarEntry(ZipIndex index, int node) throws ZipException {
+        final String name = index.getEntryName(node);
+        final JarEntry jarEntry = zipFile.getJarEntry(name);
+        if (jarEntry == null) {
+            throw new ZipException(name);
+        }
+        return jarEntry;
+    }
+
+    private FileChannel getArchiveChannel() throws IOException {
+        FileChannel channel = archiveChannel;
+        if (channel == null) {
+            synchronized (this) {
+                channel = archiveChannel;
+                if (channel == null) {
+                    archiveChannel = channel = FileChannel.open(archiveFile.toPath(), StandardOpenOption.READ);
+                }
+            }
+        }
+        return channel;
     }
 
-    private ZipNode getZipNode(VirtualFile mountPoint, VirtualFile target) {
-        return rootNode.find(mountPoint, target);
+    private int getNode(ZipIndex index, VirtualFile mountPoint, VirtualFile target) {
+        final BloomFilter lookupFilter = index.getLookupFilter();
+        if (!lookupFilter.mightContain(PathHash.of(mountPoint, target, casePolicy))) {
+            return ZipIndex.NONE;
+        }
+        final int node = index.find(mountPoint, target);
+        if (node == ZipIndex.NONE) {
+            lookupFilter.recordFalsePositive();
+        }
+        return node;
     }
 
-    private ZipNode getExistingZipNode(VirtualFile mountPoint, VirtualFile target)
+    private int getExistingNode(ZipIndex index, VirtualFile mountPoint, VirtualFile target)
             throws FileNotFoundException {
-        final ZipNode zipNode = rootNode.find(mountPoint, target);
-        if (zipNode == null) {
+        final int node = getNode(index, mountPoint, target);
+        if (node == ZipIndex.NONE) {
             throw new FileNotFoundException(target.getPathName());
         }
-        return zipNode;
+        return node;
     }
 
     /**
@@ -311,6 +605,53 @@ public final class JavaZipFileSystem implements FileSystem {
         return archiveFile;
     }
 
+    /**
+     * Get the case policy by which names are matched.
+     *
+     * @return the case policy
+     */
+    public CasePolicy getCasePolicy() {
+        return casePolicy;
+    }
+
+    /**
+     * Get the filter which rejects lookups of paths which are not in the archive before the entry index is searched.
+     * Its statistics show how many lookups it rejected and its false positive rate.  Calling this method builds the
+     * entry index if it has not been built yet.
+     *
+     * @return the lookup filter
+     */
+    public BloomFilter getLookupFilter() {
+        return getIndex().getLookupFilter();
+    }
+
+    /**
+     * Determine whether the entry index has been built.  It is built by the first lookup of a path in the archive.
+     *
+     * @return {@code true} if the index has been built
+     */
+    public boolean isIndexed() {
+        return index != null;
+    }
+
+    /**
+     * Get the number of entries which have been extracted to the temporary directory by {@link #getFile(VirtualFile, VirtualFile)}.
+     *
+     * @return the extraction count
+     */
+    public long getExtractionCount() {
+        return extractionCount.sum();
+    }
+
+    /**
+     * Get the total number of bytes which have been extracted to the temporary directory by {@link #getFile(VirtualFile, VirtualFile)}.
+     *
+     * @return the extracted byte count
+     */
+    public long getExtractedBytes() {
+        return extractedBytes.sum();
+    }
+
     public URI getRootURI() throws URISyntaxException {
         return new URI("jar", archiveFile.toURI().toString() + "!/", null);
     }
@@ -325,6 +666,7 @@ public final class JavaZipFileSystem implements FileSystem {
                 zipFile.close();
             }
         });
+        VFSUtils.safeClose(archiveChannel);
         tempDir.close();
     }
 
@@ -337,35 +679,4 @@ public final class JavaZipFileSystem implements FileSystem {
         currentFile.getParentFile().mkdirs();
         return currentFile;
     }
-
-    private static final class ZipNode {
-
-        // immutable child map
-        private final Map<String, ZipNode> children;
-        private final String name;
-        private final JarEntry entry;
-        private volatile File cachedFile;
-
-        private ZipNode(Map<String, ZipNode> children, String name, JarEntry entry) {
-            this.children = children;
-            this.name = name;
-            this.entry = entry;
-        }
-
-        private ZipNode find(VirtualFile mountPoint, VirtualFile target) {
-            if (mountPoint.equals(target)) {
-                return this;
-            } else {
-                final ZipNode parent = find(mountPoint, target.getParent());
-                if (parent == null) {
-                    return null;
-                }
-                final Map<String, ZipNode> children = parent.children;
-                if (children == null) {
-                    return null;
-                }
-                return children.get(target.getName());
-            }
-        }
-    }
-}
\ No newline at end of file
+}
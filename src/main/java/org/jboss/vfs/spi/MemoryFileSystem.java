@@ -0,0 +1,644 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.security.CodeSigner;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.VFSLogger;
+import org.jboss.vfs.VFSMessages;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * A writable filesystem which keeps its content in memory, either on the heap or in direct buffers.  Files are
+ * written through {@link #openOutputStream(VirtualFile, VirtualFile)} (and hence {@link VFSUtils#writeFile(VirtualFile, byte[])}),
+ * which creates missing parent directories; the new content replaces the old one atomically when the stream is
+ * closed, so readers always see a complete version of a file.  Every path is held in a single concurrent map, so
+ * lookups take constant time regardless of depth.
+ * <p/>
+ * The memory used by file content is limited to a budget.  If a temporary directory is given, content which does not
+ * fit is spilled to a file in it, and it is also used to produce {@linkplain #getFile(VirtualFile, VirtualFile)
+ * physical files} on demand; without one, writes beyond the budget fail and no physical files are available.
+ *
+ * @see org.jboss.vfs.VFS#mountMemory(VirtualFile, Storage, long, org.jboss.vfs.TempFileProvider)
+ */
+public final class MemoryFileSystem implements FileSystem {
+
+    /**
+     * The kind of memory file content is stored in.
+     */
+    public enum Storage {
+        /**
+         * Store content in heap byte arrays.
+         */
+        HEAP,
+        /**
+         * Store content in direct byte buffers, outside of the heap.
+         */
+        DIRECT,
+    }
+
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    private final ConcurrentMap<String, Node> nodes = new ConcurrentHashMap<String, Node>();
+    private final Storage storage;
+    private final long budget;
+    private final TempDir tempDir;
+    private final AtomicLong used = new AtomicLong();
+    private final AtomicInteger spillCount = new AtomicInteger();
+    private final URI rootURI = URI.create("memory:/" + NEXT_ID.incrementAndGet() + "/");
+
+    /**
+     * Construct a new heap-backed instance with no budget and no temporary directory.
+     */
+    public MemoryFileSystem() {
+        this(Storage.HEAP, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param storage the kind of memory to store content in
+     * @param budget  the maximum number of bytes of content to keep in memory
+     * @param tempDir the temporary directory to spill content to and create physical files in, or {@code null} for none
+     */
+    public MemoryFileSystem(Storage storage, long budget, TempDir tempDir) {
+        if (storage == null) {
+            throw VFSMessages.MESSAGES.nullArgument("storage");
+        }
+        if (budget < 0L) {
+            throw VFSMessages.MESSAGES.argumentMustBePositive("budget");
+        }
+        this.storage = storage;
+        this.budget = budget;
+        this.tempDir = tempDir;
+        nodes.put("", new Node(null));
+        VFSLogger.ROOT_LOGGER.tracef("Created %s memory filesystem with a budget of %d bytes", storage, Long.valueOf(budget));
+    }
+
+    /**
+     * Get the number of bytes of content currently held in memory, including the budget reserved by open output
+     * streams.
+     *
+     * @return the number of bytes
+     */
+    public long getMemoryUsed() {
+        return used.get();
+    }
+
+    /**
+     * Get the budget of this filesystem.
+     *
+     * @return the maximum number of bytes of content held in memory
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    private static String path(VirtualFile mountPoint, VirtualFile target) {
+        return mountPoint.equals(target) ? "" : target.getPathNameRelativeTo(mountPoint);
+    }
+
+    private static String parentPath(String path) {
+        final int idx = path.lastIndexOf('/');
+        return idx == -1 ? "" : path.substring(0, idx);
+    }
+
+    private Content getContent(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        final Node node = nodes.get(path(mountPoint, target));
+        if (node == null) {
+            throw new FileNotFoundException(target.getPathName());
+        }
+        if (node.children != null) {
+            throw VFSMessages.MESSAGES.notAFile(target.getPathName());
+        }
+        return node.content;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The content of a file is written to the temporary directory the first time its physical file is requested
+     * after it has been written.  The physical file of a directory is an empty directory.
+     */
+    public File getFile(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        if (tempDir == null) {
+            throw VFSMessages.MESSAGES.noPhysicalFile(target.getPathName());
+        }
+        final String path = path(mountPoint, target);
+        final File file = tempDir.getFile(path.isEmpty() ? "contents" : "contents/" + path);
+        final Node node = nodes.get(path);
+        if (node == null) {
+            return file;
+        }
+        if (node.children != null) {
+            file.mkdirs();
+            return file;
+        }
+        final Content content = node.content;
+        if (content.spillFile != null) {
+            return content.spillFile;
+        }
+        synchronized (content) {
+            if (content.materialized == null) {
+                file.getParentFile().mkdirs();
+                VFSUtils.copyStreamAndClose(content.openStream(), new FileOutputStream(file));
+                content.materialized = file;
+            }
+            return content.materialized;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream openInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return getContent(mountPoint, target).openStream();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream tryOpenInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        final Node node = nodes.get(path(mountPoint, target));
+        return node == null || node.children != null ? null : node.content.openStream();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The returned buffer is a read-only view of the content held in memory.
+     */
+    public ByteBuffer map(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        final Content content = getContent(mountPoint, target);
+        if (content.bytes != null) {
+            return ByteBuffer.wrap(content.bytes).asReadOnlyBuffer();
+        } else if (content.buffer != null) {
+            return content.buffer.asReadOnlyBuffer();
+        } else {
+            return RealFileAccess.map(content.spillFile, target.getPathName());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Directories can only be deleted when they are empty.
+     */
+    public boolean delete(VirtualFile mountPoint, VirtualFile target) {
+        final String path = path(mountPoint, target);
+        if (path.isEmpty()) {
+            return false;
+        }
+        final Node parent = nodes.get(parentPath(path));
+        if (parent == null) {
+            return false;
+        }
+        synchronized (parent) {
+            final Node node = nodes.get(path);
+            if (node == null) {
+                return false;
+            }
+            // holding the lock of the node itself keeps entries from being added to a directory being removed
+            synchronized (node) {
+                if (node.children != null && !node.children.isEmpty()) {
+                    return false;
+                }
+                nodes.remove(path);
+            }
+            parent.children.remove(target.getName());
+            parent.lastModified = System.currentTimeMillis();
+            if (node.content != null) {
+                release(node.content);
+                final File materialized = node.content.materialized;
+                if (materialized != null) {
+                    materialized.delete();
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public OutputStream openOutputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        final String path = path(mountPoint, target);
+        final Node node = nodes.get(path);
+        if (node != null && node.children != null) {
+            throw VFSMessages.MESSAGES.notAFile(target.getPathName());
+        }
+        return new MemoryOutputStream(path, target.getPathName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getSize(VirtualFile mountPoint, VirtualFile target) {
+        final Node node = nodes.get(path(mountPoint, target));
+        return node == null || node.content == null ? 0L : node.content.size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getLastModified(VirtualFile mountPoint, VirtualFile target) {
+        final Node node = nodes.get(path(mountPoint, target));
+        return node == null ? 0L : node.content == null ? node.lastModified : node.content.lastModified;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean exists(VirtualFile mountPoint, VirtualFile target) {
+        return nodes.containsKey(path(mountPoint, target));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isFile(VirtualFile mountPoint, VirtualFile target) {
+        final Node node = nodes.get(path(mountPoint, target));
+        return node != null && node.children == null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isDirectory(VirtualFile mountPoint, VirtualFile target) {
+        final Node node = nodes.get(path(mountPoint, target));
+        return node != null && node.children != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target) {
+        final Node node = nodes.get(path(mountPoint, target));
+        if (node == null || node.children == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<String>(node.children));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public CodeSigner[] getCodeSigners(VirtualFile mountPoint, VirtualFile target) {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * A memory filesystem is not mounted from a file, so this is always {@code null}.
+     */
+    public File getMountSource() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * A memory filesystem has no physical root, so this is a synthetic {@code memory:} URI which is unique to this
+     * filesystem.  No URL handler is registered for it, so it cannot be converted to a URL.
+     */
+    public URI getRootURI() throws URISyntaxException {
+        return rootURI;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * All content is discarded.
+     */
+    public void close() throws IOException {
+        for (Node node : nodes.values()) {
+            if (node.content != null) {
+                release(node.content);
+            }
+        }
+        nodes.clear();
+        nodes.put("", new Node(null));
+    }
+
+    private Node getOrCreateDirectory(String path, String pathName) throws IOException {
+        Node node = nodes.get(path);
+        if (node != null) {
+            if (node.children == null) {
+                throw VFSMessages.MESSAGES.notADirectory(pathName);
+            }
+            return node;
+        }
+        final String parentPath = parentPath(path);
+        for (;;) {
+            final Node parent = getOrCreateDirectory(parentPath, pathName);
+            synchronized (parent) {
+                if (nodes.get(parentPath) != parent) {
+                    // the parent was deleted concurrently; create it again
+                    continue;
+                }
+                node = nodes.get(path);
+                if (node == null) {
+                    node = new Node(null);
+                    nodes.put(path, node);
+                    parent.children.add(path.substring(path.lastIndexOf('/') + 1));
+                    parent.lastModified = node.lastModified;
+                } else if (node.children == null) {
+                    throw VFSMessages.MESSAGES.notADirectory(pathName);
+                }
+                return node;
+            }
+        }
+    }
+
+    private void commit(String path, String pathName, Content content) throws IOException {
+        Content previous = null;
+        boolean ok = false;
+        try {
+            final String parentPath = parentPath(path);
+            for (;;) {
+                final Node parent = getOrCreateDirectory(parentPath, pathName);
+                synchronized (parent) {
+                    if (nodes.get(parentPath) != parent) {
+                        // the parent was deleted concurrently; create it again
+                        continue;
+                    }
+                    final Node node = nodes.get(path);
+                    if (node == null) {
+                        nodes.put(path, new Node(content));
+                        parent.children.add(path.substring(path.lastIndexOf('/') + 1));
+                        parent.lastModified = content.lastModified;
+                    } else if (node.children != null) {
+                        throw VFSMessages.MESSAGES.notAFile(pathName);
+                    } else {
+                        previous = node.content;
+                        node.content = content;
+                    }
+                }
+                break;
+            }
+            ok = true;
+        } finally {
+            if (!ok) {
+                release(content);
+            }
+        }
+        if (previous != null) {
+            // a physical file produced for the previous content is overwritten when the new one is requested
+            release(previous);
+        }
+    }
+
+    /**
+     * Reserve between {@code min} and {@code max} bytes of the budget, as much as is left.
+     *
+     * @return the number of bytes reserved, or {@code 0} if fewer than {@code min} are left
+     */
+    private long reserve(long min, long max) {
+        long current;
+        long size;
+        do {
+            current = used.get();
+            size = Math.min(max, budget - current);
+            if (size < min) {
+                return 0L;
+            }
+        } while (!used.compareAndSet(current, current + size));
+        return size;
+    }
+
+    private void release(Content content) {
+        if (content.spillFile != null) {
+            content.spillFile.delete();
+        } else {
+            used.addAndGet(-content.size);
+        }
+    }
+
+    private File newSpillFile() throws IOException {
+        final File file = tempDir.getFile("spill/" + spillCount.incrementAndGet());
+        file.getParentFile().mkdirs();
+        return file;
+    }
+
+    private static final class Node {
+        // names of the children of a directory, or null for a file
+        private final Set<String> children;
+        private volatile Content content;
+        private volatile long lastModified = System.currentTimeMillis();
+
+        Node(Content content) {
+            this.children = content == null ? ConcurrentHashMap.<String>newKeySet() : null;
+            this.content = content;
+        }
+    }
+
+    /**
+     * One immutable version of the content of a file.
+     */
+    private static final class Content {
+        private final byte[] bytes;
+        private final ByteBuffer buffer;
+        private final File spillFile;
+        private final long size;
+        private final long lastModified = System.currentTimeMillis();
+        private volatile File materialized;
+
+        Content(byte[] bytes, ByteBuffer buffer, File spillFile, long size) {
+            this.bytes = bytes;
+            this.buffer = buffer;
+            this.spillFile = spillFile;
+            this.size = size;
+        }
+
+        InputStream openStream() throws IOException {
+            if (bytes != null) {
+                return new ByteArrayInputStream(bytes);
+            } else if (buffer != null) {
+                return new ByteBufferInputStream(buffer.duplicate());
+            } else {
+                return new FileInputStream(spillFile);
+            }
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        public long skip(long n) {
+            final int skipped = (int) Math.max(0L, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    /**
+     * Buffers written content on the heap until it exceeds what is left of the budget, then continues in a spill
+     * file if there is a temporary directory.  The content is published when the stream is closed.
+     * <p/>
+     * Budget is reserved as content is buffered, a chunk at a time, so that concurrent writers cannot together
+     * overrun it; what is left of the last chunk is returned when the stream is closed.
+     */
+    private final class MemoryOutputStream extends OutputStream {
+        private static final int RESERVE_CHUNK = 256;
+
+        private final String path;
+        private final String pathName;
+        private byte[] buf = new byte[RESERVE_CHUNK];
+        private int count;
+        private long reserved;
+        private File spillFile;
+        private OutputStream spill;
+        private long spilled;
+        private boolean closed;
+
+        MemoryOutputStream(String path, String pathName) {
+            this.path = path;
+            this.pathName = pathName;
+        }
+
+        public void write(int b) throws IOException {
+            if (!closed && spill == null && count < buf.length && count < reserved) {
+                buf[count++] = (byte) b;
+            } else {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+        }
+
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw VFSMessages.MESSAGES.streamIsClosed();
+            }
+            if (spill != null) {
+                spill.write(b, off, len);
+                spilled += len;
+                return;
+            }
+            final long needed = (long) count + len - reserved;
+            final long granted = needed > 0L ? reserve(needed, Math.max(needed, RESERVE_CHUNK)) : 0L;
+            if (needed > 0L && granted == 0L) {
+                used.addAndGet(-reserved);
+                reserved = 0L;
+                if (tempDir == null) {
+                    // discard what was written so far rather than publishing a truncated file
+                    closed = true;
+                    buf = null;
+                    throw VFSMessages.MESSAGES.memoryBudgetExceeded(budget, pathName);
+                }
+                spillFile = newSpillFile();
+                spill = new FileOutputStream(spillFile);
+                spill.write(buf, 0, count);
+                spill.write(b, off, len);
+                spilled = (long) count + len;
+                buf = null;
+                return;
+            }
+            reserved += granted;
+            if (count + len > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(count + len, buf.length << 1));
+            }
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        public void flush() throws IOException {
+            if (spill != null) {
+                spill.flush();
+            }
+        }
+
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            final Content content;
+            if (spill != null) {
+                spill.close();
+                content = new Content(null, null, spillFile, spilled);
+            } else {
+                // return what is left of the last chunk reserved
+                used.addAndGet(count - reserved);
+                reserved = count;
+                if (storage == Storage.DIRECT) {
+                    final ByteBuffer buffer = ByteBuffer.allocateDirect(count);
+                    buffer.put(buf, 0, count).flip();
+                    content = new Content(null, buffer, null, count);
+                } else {
+                    content = new Content(count == buf.length ? buf : Arrays.copyOf(buf, count), null, null, count);
+                }
+            }
+            buf = null;
+            commit(path, pathName, content);
+        }
+    }
+}
@@ -31,7 +31,7 @@ public interface MountHandle extends Closeable {
     /**
      * Get the source file used for the mount.
      *
-     * @return the source file
+     * @return the source file, or {@code null} if the filesystem was not mounted from a file
      */
     File getMountSource();
 }
@@ -0,0 +1,585 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.CodeSigner;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.vfs.VFSLogger;
+import org.jboss.vfs.VFSMessages;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * A union of a stack of filesystem layers, where each layer shadows the ones below it.  Directories which exist in
+ * several layers are merged; a file, or a directory, in an upper layer hides whatever a lower layer has at the same
+ * path.
+ * <p/>
+ * Entries of lower layers are hidden by whiteout markers: an entry named {@code .wh.<name>} in a layer hides
+ * {@code <name>} in that layer and all layers below it, and an entry named {@code .wh..wh..opq} makes a directory
+ * opaque, so that no layer below contributes to it.  Markers are never listed.  All writes go to the top layer:
+ * {@link #openOutputStream(VirtualFile, VirtualFile) writing} a file leaves lower layers untouched, and
+ * {@link #delete(VirtualFile, VirtualFile) deleting} an entry which a lower layer provides records a whiteout in the
+ * top layer.
+ * <p/>
+ * The layer answering for each existing path, and the merged listing of each directory, are resolved once and
+ * remembered in a tree which mirrors the directories, so repeated lookups do not query every layer.  Paths which are
+ * not found are not remembered, and the tree is dropped once it holds too many paths.  Changes made through this
+ * filesystem update the remembered state; after changing or removing entries of a layer directly, call
+ * {@link #invalidate()}.
+ */
+public final class OverlayFileSystem implements FileSystem {
+
+    /**
+     * The prefix of the name of a whiteout marker.
+     */
+    public static final String WHITEOUT_PREFIX = ".wh.";
+
+    /**
+     * The name of the marker which makes a directory opaque.
+     */
+    public static final String OPAQUE_MARKER = ".wh..wh..opq";
+
+    private static final int MAX_LAYERS = 64;
+    private static final int MAX_CACHED_PATHS = 1 << 16;
+    private static final Resolution ABSENT = new Resolution(-1, 0L);
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    private final FileSystem[] layers;
+    private final ConcurrentMap<VirtualFile, Node> roots = new ConcurrentHashMap<VirtualFile, Node>();
+    private final AtomicInteger cachedPaths = new AtomicInteger();
+    private final AtomicLong generation = new AtomicLong();
+    private final URI rootURI = URI.create("overlay:/" + NEXT_ID.incrementAndGet() + "/");
+
+    /**
+     * Construct a new instance.  The filesystem takes ownership of the layers, and closes them when it is closed.
+     *
+     * @param layers the layers, from the top (writable) layer down to the base layer
+     */
+    public OverlayFileSystem(List<FileSystem> layers) {
+        if (layers == null) {
+            throw VFSMessages.MESSAGES.nullArgument("layers");
+        }
+        if (layers.isEmpty() || layers.size() > MAX_LAYERS) {
+            throw VFSMessages.MESSAGES.invalidLayerCount(MAX_LAYERS);
+        }
+        this.layers = layers.toArray(new FileSystem[layers.size()]);
+        for (FileSystem layer : this.layers) {
+            if (layer == null) {
+                throw VFSMessages.MESSAGES.nullArgument("layer");
+            }
+        }
+        VFSLogger.ROOT_LOGGER.tracef("Created overlay filesystem of %d layers", Integer.valueOf(this.layers.length));
+    }
+
+    /**
+     * Get the layers of this filesystem.
+     *
+     * @return the layers, from the top layer down
+     */
+    public List<FileSystem> getLayers() {
+        return Collections.unmodifiableList(Arrays.asList(layers));
+    }
+
+    /**
+     * Forget all resolved paths and listings, so that changes made directly to the layers become visible.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        roots.clear();
+        cachedPaths.set(0);
+    }
+
+    private static boolean isMarker(String name) {
+        return name.startsWith(WHITEOUT_PREFIX);
+    }
+
+    private static List<VirtualFile> pathTo(VirtualFile mountPoint, VirtualFile target) {
+        final List<VirtualFile> path = new ArrayList<VirtualFile>();
+        for (VirtualFile file = target; !file.equals(mountPoint); file = file.getParent()) {
+            path.add(file);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private Node addNode(ConcurrentMap<String, Node> children, String name) {
+        final Node node = new Node();
+        final Node existing = children.putIfAbsent(name, node);
+        if (existing != null) {
+            return existing;
+        }
+        if (cachedPaths.incrementAndGet() > MAX_CACHED_PATHS) {
+            invalidate();
+        }
+        return node;
+    }
+
+    private void remember(Node node, Resolution resolution, long generation) {
+        node.resolution = resolution;
+        if (this.generation.get() != generation) {
+            // invalidated while resolving; do not keep what may be stale
+            node.resolution = null;
+        }
+    }
+
+    private Resolution resolve(VirtualFile mountPoint, VirtualFile target) {
+        final long generation = this.generation.get();
+        Node node = roots.get(mountPoint);
+        if (node == null) {
+            node = new Node();
+            final Node existing = roots.putIfAbsent(mountPoint, node);
+            if (existing != null) {
+                node = existing;
+            }
+        }
+        Resolution resolution = node.resolution;
+        if (resolution == null) {
+            resolution = resolveRoot(mountPoint);
+            remember(node, resolution, generation);
+        }
+        for (VirtualFile file : pathTo(mountPoint, target)) {
+            final String name = file.getName();
+            Node child = node.children.get(name);
+            Resolution found = child == null ? null : child.resolution;
+            if (found == null) {
+                found = resolution.dirLayers == 0L || isMarker(name) ? ABSENT : resolveChild(mountPoint, file, resolution.dirLayers);
+                if (found == ABSENT) {
+                    // misses are not remembered, so that they cannot fill the cache
+                    if (child != null) {
+                        node.children.remove(name, child);
+                    }
+                    return ABSENT;
+                }
+                if (child == null) {
+                    child = addNode(node.children, name);
+                }
+                remember(child, found, generation);
+            }
+            node = child;
+            resolution = found;
+        }
+        return resolution;
+    }
+
+    private Node find(VirtualFile mountPoint, VirtualFile target) {
+        Node node = roots.get(mountPoint);
+        if (node != null) {
+            for (VirtualFile file : pathTo(mountPoint, target)) {
+                node = node.children.get(file.getName());
+                if (node == null) {
+                    break;
+                }
+            }
+        }
+        return node;
+    }
+
+    private Resolution resolveRoot(VirtualFile mountPoint) {
+        long dirLayers = 0L;
+        for (int i = 0; i < layers.length; i++) {
+            dirLayers |= 1L << i;
+            if (layers[i].exists(mountPoint, mountPoint.getChild(OPAQUE_MARKER))) {
+                break;
+            }
+        }
+        return new Resolution(0, dirLayers);
+    }
+
+    private Resolution resolveChild(VirtualFile mountPoint, VirtualFile target, long parentLayers) {
+        final VirtualFile whiteout = target.getParent().getChild(WHITEOUT_PREFIX + target.getName());
+        int found = -1;
+        long dirLayers = 0L;
+        for (int i = 0; i < layers.length; i++) {
+            if ((parentLayers & 1L << i) == 0L) {
+                continue;
+            }
+            final FileSystem layer = layers[i];
+            if (layer.exists(mountPoint, whiteout)) {
+                break;
+            }
+            if (layer.isDirectory(mountPoint, target)) {
+                if (found == -1) {
+                    found = i;
+                }
+                dirLayers |= 1L << i;
+                if (layer.exists(mountPoint, target.getChild(OPAQUE_MARKER))) {
+                    break;
+                }
+            } else if (layer.exists(mountPoint, target)) {
+                if (found == -1) {
+                    found = i;
+                }
+                // a file shadows everything below it, including directories
+                break;
+            }
+        }
+        return found == -1 ? ABSENT : new Resolution(found, dirLayers);
+    }
+
+    private FileSystem layerFor(VirtualFile mountPoint, VirtualFile target) {
+        final Resolution resolution = resolve(mountPoint, target);
+        return resolution.layer == -1 ? layers[0] : layers[resolution.layer];
+    }
+
+    private void invalidate(VirtualFile mountPoint, VirtualFile target, boolean descendants) {
+        generation.incrementAndGet();
+        Node node = roots.get(mountPoint);
+        if (node == null) {
+            return;
+        }
+        if (descendants && target.equals(mountPoint)) {
+            roots.remove(mountPoint, node);
+            return;
+        }
+        node.forget();
+        for (VirtualFile file : pathTo(mountPoint, target)) {
+            final Node child = node.children.get(file.getName());
+            if (child == null) {
+                return;
+            }
+            if (descendants && file.equals(target)) {
+                // the subtree goes with its node
+                node.children.remove(file.getName(), child);
+                return;
+            }
+            child.forget();
+            node = child;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public File getFile(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return layerFor(mountPoint, target).getFile(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream openInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return layerFor(mountPoint, target).openInputStream(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream tryOpenInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        final Resolution resolution = resolve(mountPoint, target);
+        return resolution.layer == -1 || resolution.dirLayers != 0L ? null : layers[resolution.layer].tryOpenInputStream(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ReadableByteChannel openChannel(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return layerFor(mountPoint, target).openChannel(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ByteBuffer map(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return layerFor(mountPoint, target).map(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long transferTo(VirtualFile mountPoint, VirtualFile target, WritableByteChannel channel) throws IOException {
+        return layerFor(mountPoint, target).transferTo(mountPoint, target, channel);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public CompletableFuture<ByteBuffer> readAsync(VirtualFile mountPoint, VirtualFile target, long position, int length, Executor executor) {
+        return layerFor(mountPoint, target).readAsync(mountPoint, target, position, length, executor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isReadOnly() {
+        return layers[0].isReadOnly();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * An entry is removed from the top layer if it is there; if a lower layer still provides it, a whiteout is
+     * written to the top layer.  Directories can only be deleted when they are empty.
+     */
+    public boolean delete(VirtualFile mountPoint, VirtualFile target) {
+        if (target.equals(mountPoint) || isReadOnly()) {
+            return false;
+        }
+        final Resolution resolution = resolve(mountPoint, target);
+        if (resolution.layer == -1 || resolution.dirLayers != 0L && !getDirectoryEntries(mountPoint, target).isEmpty()) {
+            return false;
+        }
+        final FileSystem top = layers[0];
+        try {
+            if (resolution.layer == 0) {
+                if (resolution.dirLayers != 0L) {
+                    // the merged directory is empty, but the top layer may still hold markers
+                    for (String name : top.getDirectoryEntries(mountPoint, target)) {
+                        if (isMarker(name)) {
+                            top.delete(mountPoint, target.getChild(name));
+                        }
+                    }
+                }
+                if (!top.delete(mountPoint, target)) {
+                    return false;
+                }
+                invalidate(mountPoint, target, true);
+                if (resolve(mountPoint, target).layer == -1) {
+                    return true;
+                }
+            }
+            final OutputStream os = top.openOutputStream(mountPoint, target.getParent().getChild(WHITEOUT_PREFIX + target.getName()));
+            os.close();
+            return true;
+        } catch (IOException e) {
+            VFSLogger.ROOT_LOGGER.debugf(e, "Failed to record whiteout of %s", target);
+            return false;
+        } finally {
+            invalidate(mountPoint, target, true);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The file is written to the top layer.  Whiteouts which hid it or its parent directories are removed, and a
+     * re-created directory is made opaque so that entries deleted with it do not reappear.
+     */
+    public OutputStream openOutputStream(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final Resolution resolution = resolve(mountPoint, target);
+        if (resolution.dirLayers != 0L) {
+            throw VFSMessages.MESSAGES.notAFile(target.getPathName());
+        }
+        final FileSystem top = layers[0];
+        for (VirtualFile file : pathTo(mountPoint, target)) {
+            final VirtualFile whiteout = file.getParent().getChild(WHITEOUT_PREFIX + file.getName());
+            if (top.exists(mountPoint, whiteout)) {
+                top.delete(mountPoint, whiteout);
+                if (file != target) {
+                    top.openOutputStream(mountPoint, file.getChild(OPAQUE_MARKER)).close();
+                }
+            }
+        }
+        invalidate(mountPoint, target, false);
+        return new FilterOutputStream(top.openOutputStream(mountPoint, target)) {
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    invalidate(mountPoint, target, false);
+                }
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getSize(VirtualFile mountPoint, VirtualFile target) {
+        final Resolution resolution = resolve(mountPoint, target);
+        return resolution.layer == -1 ? 0L : layers[resolution.layer].getSize(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getLastModified(VirtualFile mountPoint, VirtualFile target) {
+        final Resolution resolution = resolve(mountPoint, target);
+        return resolution.layer == -1 ? 0L : layers[resolution.layer].getLastModified(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean exists(VirtualFile mountPoint, VirtualFile target) {
+        return resolve(mountPoint, target).layer != -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isFile(VirtualFile mountPoint, VirtualFile target) {
+        final Resolution resolution = resolve(mountPoint, target);
+        return resolution.layer != -1 && resolution.dirLayers == 0L;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isDirectory(VirtualFile mountPoint, VirtualFile target) {
+        return resolve(mountPoint, target).dirLayers != 0L;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target) {
+        final long generation = this.generation.get();
+        final long dirLayers = resolve(mountPoint, target).dirLayers;
+        if (dirLayers == 0L) {
+            return Collections.emptyList();
+        }
+        final Node node = find(mountPoint, target);
+        List<String> listing = node == null ? null : node.listing;
+        if (listing != null) {
+            return listing;
+        }
+        final Set<String> names = new LinkedHashSet<String>();
+        final Set<String> hidden = new HashSet<String>();
+        for (int i = 0; i < layers.length; i++) {
+            if ((dirLayers & 1L << i) == 0L) {
+                continue;
+            }
+            final List<String> entries = layers[i].getDirectoryEntries(mountPoint, target);
+            // markers hide entries of their own layer as well as the layers below
+            for (String name : entries) {
+                if (isMarker(name) && !OPAQUE_MARKER.equals(name)) {
+                    hidden.add(name.substring(WHITEOUT_PREFIX.length()));
+                }
+            }
+            for (String name : entries) {
+                if (!isMarker(name) && !hidden.contains(name)) {
+                    names.add(name);
+                }
+            }
+        }
+        listing = Collections.unmodifiableList(new ArrayList<String>(names));
+        if (node != null) {
+            node.listing = listing;
+            if (this.generation.get() != generation) {
+                node.listing = null;
+            }
+        }
+        return listing;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public CodeSigner[] getCodeSigners(VirtualFile mountPoint, VirtualFile target) {
+        final Resolution resolution = resolve(mountPoint, target);
+        return resolution.layer == -1 ? null : layers[resolution.layer].getCodeSigners(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * An overlay is not mounted from a single file, so this is always {@code null}; the sources of the layers are
+     * available from the layers themselves.
+     */
+    public File getMountSource() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The content of an overlay comes from several layers, so no layer's root stands for it.  This is a synthetic
+     * {@code overlay:} URI which is unique to this filesystem.  No URL handler is registered for it, so it cannot be
+     * converted to a URL.
+     */
+    public URI getRootURI() throws URISyntaxException {
+        return rootURI;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * All layers are closed.
+     */
+    public void close() throws IOException {
+        invalidate();
+        IOException failure = null;
+        for (FileSystem layer : layers) {
+            try {
+                layer.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * The remembered state of an existing path, and of those of its children which have been resolved.
+     */
+    private static final class Node {
+        private final ConcurrentMap<String, Node> children = new ConcurrentHashMap<String, Node>();
+        private volatile Resolution resolution;
+        private volatile List<String> listing;
+
+        void forget() {
+            resolution = null;
+            listing = null;
+        }
+    }
+
+    /**
+     * Where a path is found: the top-most layer which has it, and the layers in which it is a directory contributing
+     * to the merged listing.
+     */
+    private static final class Resolution {
+        private final int layer;
+        private final long dirLayers;
+
+        Resolution(int layer, long dirLayers) {
+            this.layer = layer;
+            this.dirLayers = dirLayers;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.util.List;
+
+import org.jboss.vfs.CasePolicy;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * 64-bit hashes of paths relative to a mount point, computed from the name of each path segment so that a
+ * {@link VirtualFile} can be hashed without building its relative path name.
+ */
+final class PathHash {
+
+    static final long ROOT = 0x5DEECE66DL;
+
+    private PathHash() {
+    }
+
+    /**
+     * Get the hash of a child path.
+     *
+     * @param parentHash the hash of the parent path
+     * @param name       the name of the child
+     * @return the hash of the child path
+     */
+    static long child(long parentHash, String name) {
+        long h = (parentHash ^ name.hashCode()) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ h >>> 33;
+    }
+
+    /**
+     * Get the hash of a path given as a list of segments.
+     *
+     * @param segments the path segments
+     * @return the hash
+     */
+    static long of(List<String> segments) {
+        long h = ROOT;
+        for (int i = 0; i < segments.size(); i++) {
+            h = child(h, segments.get(i));
+        }
+        return h;
+    }
+
+    /**
+     * Get the hash of a virtual file relative to a mount point.
+     *
+     * @param mountPoint the mount point (must be an ancestor of {@code target})
+     * @param target     the virtual file
+     * @param casePolicy the case policy by which the names were folded when the hashes were indexed
+     * @return the hash
+     */
+    static long of(VirtualFile mountPoint, VirtualFile target, CasePolicy casePolicy) {
+        return target == mountPoint || mountPoint.equals(target) ? ROOT
+                : child(of(mountPoint, target.getParent(), casePolicy), casePolicy.getKey(target));
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.vfs.TreeStats;
+import org.jboss.vfs.VFSMessages;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFileAttributes;
+
+/**
+ * Channel-based content access and attribute queries shared by the filesystems which are backed directly by real files.
+ */
+final class RealFileAccess {
+
+    private static final int ATTRIBUTE_CHUNK_SIZE = 64;
+    private static final int MAX_ATTRIBUTE_HELPERS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private RealFileAccess() {
+    }
+
+    /**
+     * Read the basic attributes of a real file in one operation.
+     *
+     * @param file the file
+     * @return the attributes, or {@link VirtualFileAttributes#NONEXISTENT} if the file does not exist
+     */
+    static VirtualFileAttributes getAttributes(File file) {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (IOException | InvalidPathException e) {
+            return VirtualFileAttributes.NONEXISTENT;
+        }
+        if (VFSUtils.isForceCaseSensitive() && !VFSUtils.exists(file)) {
+            return VirtualFileAttributes.NONEXISTENT;
+        }
+        return new VirtualFileAttributes(attributes.isDirectory(), attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * Read the basic attributes of many real files, in parallel if the batch is large enough.  The calling thread
+     * takes part in the work and can finish it alone, so the batch completes even if the executor never runs the
+     * helper tasks.
+     *
+     * @param files      the files
+     * @param executor   the executor for helper tasks
+     * @param privileged {@code true} to read the attributes with the privileges of this library
+     * @return the attributes of each file, in the same order as {@code files}
+     */
+    static VirtualFileAttributes[] getAttributes(final File[] files, final Executor executor, final boolean privileged) {
+        final VirtualFileAttributes[] results = new VirtualFileAttributes[files.length];
+        final int chunks = (files.length + ATTRIBUTE_CHUNK_SIZE - 1) / ATTRIBUTE_CHUNK_SIZE;
+        final AtomicInteger nextChunk = new AtomicInteger();
+        final CountDownLatch remaining = new CountDownLatch(chunks);
+        final PrivilegedAction<Void> work = () -> {
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                try {
+                    final int end = Math.min(files.length, (chunk + 1) * ATTRIBUTE_CHUNK_SIZE);
+                    for (int i = chunk * ATTRIBUTE_CHUNK_SIZE; i < end; i++) {
+                        results[i] = getAttributes(files[i]);
+                    }
+                } finally {
+                    remaining.countDown();
+                }
+            }
+            return null;
+        };
+        final Runnable worker = privileged ? () -> AccessController.doPrivileged(work) : work::run;
+        final int helpers = Math.min(chunks - 1, MAX_ATTRIBUTE_HELPERS);
+        for (int i = 0; i < helpers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        worker.run();
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    remaining.await();
+                    return results;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Compute the statistics of a real file tree, walking directories in parallel.  Symbolic links to directories are
+     * followed, as {@link org.jboss.vfs.VirtualFile#getChildrenRecursively()} does, except that a link to a directory
+     * which contains the link is counted but not descended into, so link cycles cannot cause an endless walk.  The
+     * calling thread takes part in the walk and can finish it alone, so the walk completes even if the executor never
+     * runs the helper tasks.
+     *
+     * @param root       the root of the tree
+     * @param executor   the executor for helper tasks
+     * @param privileged {@code true} to walk the tree with the privileges of this library
+     * @return the tree statistics
+     */
+    static TreeStats getTreeStats(File root, Executor executor, boolean privileged) {
+        final VirtualFileAttributes attributes = privileged ? AccessController.doPrivileged((PrivilegedAction<VirtualFileAttributes>) () -> getAttributes(root))
+                : getAttributes(root);
+        if (!attributes.isDirectory()) {
+            return TreeStats.of(attributes);
+        }
+        final PrivilegedAction<TreeStats> walk = () -> new TreeWalk(root.toPath(), attributes, executor, privileged).run();
+        return privileged ? AccessController.doPrivileged(walk) : walk.run();
+    }
+
+    /**
+     * Open a real file for reading if it is a plain file, without constructing an exception if it is missing.
+     *
+     * @param file the file
+     * @return the input stream, or {@code null} if the file does not exist or is a directory
+     * @throws IOException if the file exists but cannot be opened
+     */
+    static InputStream tryOpenInputStream(File file) throws IOException {
+        if (!file.isFile() || VFSUtils.isForceCaseSensitive() && !VFSUtils.exists(file)) {
+            return null;
+        }
+        try {
+            return new FileInputStream(file);
+        } catch (FileNotFoundException e) {
+            if (file.exists()) {
+                throw e;
+            }
+            // removed since the check above
+            return null;
+        }
+    }
+
+    /**
+     * Open a read-only channel for a real file.
+     *
+     * @param file the file to open
+     * @param path the virtual path name, for error reporting
+     * @return the channel
+     * @throws IOException if the file cannot be opened
+     */
+    static FileChannel openChannel(File file, String path) throws IOException {
+        if (file.isDirectory()) {
+            throw VFSMessages.MESSAGES.notAFile(path);
+        }
+        return FileChannel.open(toPath(file), StandardOpenOption.READ);
+    }
+
+    /**
+     * Get the path of a real file which is about to be opened.
+     *
+     * @param file the file
+     * @return the path
+     * @throws FileNotFoundException if the name of the file is not a valid path, as {@link FileInputStream} reports it
+     */
+    static Path toPath(File file) throws FileNotFoundException {
+        try {
+            return file.toPath();
+        } catch (InvalidPathException e) {
+            throw new FileNotFoundException(file.getPath() + " (" + e.getReason() + ")");
+        }
+    }
+
+    /**
+     * Map a region of a real file read-only.
+     *
+     * @param channel the open file channel
+     * @param position the position of the first byte to map
+     * @param size the number of bytes to map
+     * @param path the virtual path name, for error reporting
+     * @return the mapped buffer
+     * @throws IOException if the mapping fails or the region is too large
+     */
+    static ByteBuffer map(FileChannel channel, long position, long size, String path) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw VFSMessages.MESSAGES.fileTooLargeToMap(path, size);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
+    /**
+     * Map an entire real file read-only.  The mapping remains valid after this method returns, even though the channel
+     * used to create it is closed.
+     *
+     * @param file the file to map
+     * @param path the virtual path name, for error reporting
+     * @return the mapped buffer
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    static ByteBuffer map(File file, String path) throws IOException {
+        try (FileChannel channel = openChannel(file, path)) {
+            return map(channel, 0L, channel.size(), path);
+        }
+    }
+
+    /**
+     * Transfer a region of a real file to a blocking channel, letting the operating system move the bytes where it can.
+     * A non-blocking target is rejected, because a transfer which makes no progress would otherwise drop the rest of
+     * the region.
+     *
+     * @param source the open file channel
+     * @param position the position of the first byte to transfer
+     * @param size the number of bytes to transfer
+     * @param target the channel to write to
+     * @return the number of bytes transferred, which is less than {@code size} only if the file is shorter
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the target is in non-blocking mode
+     */
+    static long transferTo(FileChannel source, long position, long size, WritableByteChannel target) throws IOException {
+        if (target instanceof SelectableChannel && !((SelectableChannel) target).isBlocking()) {
+            throw VFSMessages.MESSAGES.channelMustBeBlocking();
+        }
+        long count = 0L;
+        while (count < size) {
+            final long transferred = source.transferTo(position + count, size - count, target);
+            if (transferred <= 0L) {
+                break;
+            }
+            count += transferred;
+        }
+        return count;
+    }
+
+    /**
+     * Transfer an entire real file to a channel.
+     *
+     * @param file the file to transfer
+     * @param target the channel to write to
+     * @param path the virtual path name, for error reporting
+     * @return the number of bytes transferred
+     * @throws IOException if the file cannot be opened or an I/O error occurs
+     */
+    static long transferTo(File file, WritableByteChannel target, String path) throws IOException {
+        try (FileChannel channel = openChannel(file, path)) {
+            return transferTo(channel, 0L, channel.size(), target);
+        }
+    }
+
+    /**
+     * Asynchronously read a region of a real file using an {@link AsynchronousFileChannel}.  The file is examined and
+     * opened by a task on the given executor, so the calling thread does not block even on a slow filesystem.  If the
+     * executor is an {@link ExecutorService} the channel is bound to it; otherwise the channel uses the default thread
+     * pool.
+     *
+     * @param file the file to read
+     * @param position the position of the first byte to read
+     * @param length the maximum number of bytes to read
+     * @param executor the executor
+     * @param path the virtual path name, for error reporting
+     * @param privileged {@code true} to open the file with the privileges of this library rather than those of the caller
+     * @return a future for the flipped buffer holding the bytes read
+     */
+    static CompletableFuture<ByteBuffer> readAsync(final File file, final long position, final int length, final Executor executor, final String path,
+            final boolean privileged) {
+        final CompletableFuture<ByteBuffer> future = new CompletableFuture<ByteBuffer>();
+        final PrivilegedAction<Void> open = () -> {
+            startRead(file, position, length, executor, path, future);
+            return null;
+        };
+        final Runnable task;
+        if (System.getSecurityManager() == null) {
+            task = open::run;
+        } else if (privileged) {
+            task = () -> AccessController.doPrivileged(open);
+        } else {
+            // the file is opened on another thread, but with the permissions of the caller
+            final AccessControlContext context = AccessController.getContext();
+            task = () -> AccessController.doPrivileged(open, context);
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static void startRead(File file, final long position, int length, Executor executor, String path, final CompletableFuture<ByteBuffer> future) {
+        final AsynchronousFileChannel channel;
+        final ByteBuffer buffer;
+        try {
+            if (file.isDirectory()) {
+                throw VFSMessages.MESSAGES.notAFile(path);
+            }
+            channel = AsynchronousFileChannel.open(toPath(file), Collections.singleton(StandardOpenOption.READ),
+                    executor instanceof ExecutorService ? (ExecutorService) executor : null);
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            return;
+        }
+        try {
+            buffer = ByteBuffer.allocate((int) Math.min(length, Math.max(0L, channel.size() - position)));
+        } catch (Throwable t) {
+            VFSUtils.safeClose(channel);
+            future.completeExceptionally(t);
+            return;
+        }
+        if (!buffer.hasRemaining()) {
+            VFSUtils.safeClose(channel);
+            future.complete(buffer);
+            return;
+        }
+        channel.read(buffer, position, buffer, new CompletionHandler<Integer, ByteBuffer>() {
+            public void completed(Integer result, ByteBuffer attachment) {
+                if (result.intValue() == -1 || !attachment.hasRemaining()) {
+                    VFSUtils.safeClose(channel);
+                    attachment.flip();
+                    future.complete(attachment);
+                } else {
+                    channel.read(attachment, position + attachment.position(), attachment, this);
+                }
+            }
+
+            public void failed(Throwable exc, ByteBuffer attachment) {
+                VFSUtils.safeClose(channel);
+                future.completeExceptionally(exc);
+            }
+        });
+    }
+
+    private static final class TreeWalk {
+
+        private final WorkQueue queue;
+        // directories queued or being read
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final AtomicReference<TreeStats> stats;
+
+        TreeWalk(Path root, VirtualFileAttributes attributes, Executor executor, boolean privileged) {
+            queue = new WorkQueue(executor, privileged);
+            stats = new AtomicReference<TreeStats>(TreeStats.of(attributes));
+            Object rootKey;
+            try {
+                rootKey = Files.readAttributes(root, BasicFileAttributes.class).fileKey();
+            } catch (IOException e) {
+                rootKey = null;
+            }
+            final Directory directory = new Directory(root, rootKey, null);
+            queue.submit(() -> read(directory));
+        }
+
+        TreeStats run() {
+            queue.run(() -> pending.get() == 0);
+            return stats.get();
+        }
+
+        private void read(Directory directory) {
+            TreeStats subtotal = TreeStats.EMPTY;
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory.path)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes entryAttributes;
+                    boolean link = false;
+                    try {
+                        entryAttributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        if (entryAttributes.isSymbolicLink()) {
+                            link = true;
+                            entryAttributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                        }
+                    } catch (IOException e) {
+                        // removed concurrently, or a dangling link
+                        continue;
+                    }
+                    subtotal = subtotal.plus(TreeStats.of(new VirtualFileAttributes(entryAttributes.isDirectory(), entryAttributes.size(),
+                            entryAttributes.lastModifiedTime().toMillis())));
+                    if (entryAttributes.isDirectory()) {
+                        final Directory subdirectory = new Directory(entry, entryAttributes.fileKey(), directory);
+                        if (!link || !directory.isWithin(subdirectory.key())) {
+                            pending.incrementAndGet();
+                            queue.submit(() -> read(subdirectory));
+                        }
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                // an unreadable directory contributes only itself
+            } finally {
+                stats.accumulateAndGet(subtotal, TreeStats::plus);
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class Directory {
+
+        private final Path path;
+        private final Directory parent;
+        private volatile Object key;
+
+        Directory(Path path, Object fileKey, Directory parent) {
+            this.path = path;
+            this.key = fileKey;
+            this.parent = parent;
+        }
+
+        /**
+         * Get the identity of this directory: its file key where the platform has them, and otherwise its real path,
+         * which is only resolved when a link has to be checked.
+         */
+        Object key() {
+            if (key == null) {
+                try {
+                    key = path.toRealPath();
+                } catch (IOException e) {
+                    key = path.toAbsolutePath().normalize();
+                }
+            }
+            return key;
+        }
+
+        boolean isWithin(Object directoryKey) {
+            for (Directory directory = this; directory != null; directory = directory.parent) {
+                if (directory.key().equals(directoryKey)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -22,23 +22,39 @@ import static java.security.AccessController.doPrivileged;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FilePermission;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.security.CodeSigner;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
+import org.jboss.vfs.NamePredicate;
+import org.jboss.vfs.TreeStats;
 import org.jboss.vfs.VFSLogger;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VirtualFileAttributes;
 
 /**
  * A real filesystem.
@@ -47,10 +63,10 @@ import org.jboss.vfs.VirtualFile;
  */
 public final class RealFileSystem implements FileSystem {
 
-    private static final boolean NEEDS_CONVERSION = File.separatorChar != '/';
-
     private final File realRoot;
-    private final boolean privileged;
+    private final Path rootPath;
+    private final boolean usePrivileged;
+    private final AttributeCache cache;
 
     /**
      * Construct a real filesystem with the given real root.
@@ -68,6 +84,17 @@ public final class RealFileSystem implements FileSystem {
      * @param privileged {@code true} to check permissions once up front, {@code false} to check at access time
      */
     public RealFileSystem(File realRoot, boolean privileged) {
+        this(realRoot, privileged, null);
+    }
+
+    /**
+     * Construct a real filesystem with the given real root which caches attributes and directory listings.
+     *
+     * @param realRoot   the real root
+     * @param privileged {@code true} to check permissions once up front, {@code false} to check at access time
+     * @param cache      the attribute cache, or {@code null} to query the real filesystem on every call
+     */
+    public RealFileSystem(File realRoot, boolean privileged, AttributeCache cache) {
         if (privileged) {
             final SecurityManager sm = System.getSecurityManager();
             if (sm != null) {
@@ -82,10 +109,22 @@ public final class RealFileSystem implements FileSystem {
             VFSLogger.ROOT_LOGGER.warnf(e, "Cannot get the canonical form of the real root. This could lead to potential problems if the %s flag is set.", VFSUtils.FORCE_CASE_SENSITIVE_KEY);
         }
         this.realRoot = canonicalRoot;
-        this.privileged = privileged;
+        rootPath = canonicalRoot.toPath();
+        // decided once, so that calls need not allocate privileged actions when there is no security manager
+        usePrivileged = privileged && System.getSecurityManager() != null;
+        this.cache = cache;
         VFSLogger.ROOT_LOGGER.tracef("Constructed real %s filesystem at root %s", privileged ? "privileged" : "unprivileged", realRoot);
     }
 
+    /**
+     * Get the attribute cache of this filesystem.
+     *
+     * @return the attribute cache, or {@code null} if attributes are not cached
+     */
+    public AttributeCache getAttributeCache() {
+        return cache;
+    }
+
     private static <T> T doIoPrivileged(PrivilegedExceptionAction<T> action) throws IOException {
         try {
             return doPrivileged(action);
@@ -106,13 +145,78 @@ public final class RealFileSystem implements FileSystem {
      * {@inheritDoc}
      */
     public InputStream openInputStream(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
-        return privileged ? doIoPrivileged(new PrivilegedExceptionAction<InputStream>() {
+        return usePrivileged ? doIoPrivileged(new PrivilegedExceptionAction<InputStream>() {
             public InputStream run() throws Exception {
                 return new FileInputStream(getFile(mountPoint, target));
             }
         }) : new FileInputStream(getFile(mountPoint, target));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream tryOpenInputStream(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final File file = getFile(mountPoint, target);
+        return usePrivileged ? doIoPrivileged(new PrivilegedExceptionAction<InputStream>() {
+            public InputStream run() throws Exception {
+                return RealFileAccess.tryOpenInputStream(file);
+            }
+        }) : RealFileAccess.tryOpenInputStream(file);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The returned channel is a read-only {@link java.nio.channels.FileChannel}.
+     */
+    public ReadableByteChannel openChannel(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final File file = getFile(mountPoint, target);
+        return usePrivileged ? doIoPrivileged(new PrivilegedExceptionAction<ReadableByteChannel>() {
+            public ReadableByteChannel run() throws Exception {
+                return RealFileAccess.openChannel(file, target.getPathName());
+            }
+        }) : RealFileAccess.openChannel(file, target.getPathName());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The returned buffer is a read-only memory mapping of the real file.
+     */
+    public ByteBuffer map(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final File file = getFile(mountPoint, target);
+        return usePrivileged ? doIoPrivileged(new PrivilegedExceptionAction<ByteBuffer>() {
+            public ByteBuffer run() throws Exception {
+                return RealFileAccess.map(file, target.getPathName());
+            }
+        }) : RealFileAccess.map(file, target.getPathName());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The content is transferred with {@link java.nio.channels.FileChannel#transferTo(long, long, WritableByteChannel)},
+     * which allows the operating system to send it without copying through the Java heap.
+     */
+    public long transferTo(final VirtualFile mountPoint, final VirtualFile target, final WritableByteChannel channel) throws IOException {
+        final File file = getFile(mountPoint, target);
+        return usePrivileged ? doIoPrivileged(new PrivilegedExceptionAction<Long>() {
+            public Long run() throws Exception {
+                return Long.valueOf(RealFileAccess.transferTo(file, channel, target.getPathName()));
+            }
+        }).longValue() : RealFileAccess.transferTo(file, channel, target.getPathName());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The file is opened on the given executor and read with an {@link java.nio.channels.AsynchronousFileChannel},
+     * which is bound to the executor if it is an {@link java.util.concurrent.ExecutorService}.
+     */
+    public CompletableFuture<ByteBuffer> readAsync(final VirtualFile mountPoint, final VirtualFile target, final long position, final int length, final Executor executor) {
+        return RealFileAccess.readAsync(getFile(mountPoint, target), position, length, executor, target.getPathName(), usePrivileged);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -126,10 +230,29 @@ public final class RealFileSystem implements FileSystem {
     public File getFile(VirtualFile mountPoint, VirtualFile target) {
         if (mountPoint.equals(target)) {
             return realRoot;
-        } else if (NEEDS_CONVERSION) {
-            return new File(realRoot, target.getPathNameRelativeTo(mountPoint).replace('/', File.separatorChar));
-        } else {
-            return new File(realRoot, target.getPathNameRelativeTo(mountPoint));
+        }
+        final Path path = getPath(mountPoint, target);
+        // a name which is not a valid path still has a file, which simply does not exist
+        return path != null ? path.toFile() : new File(realRoot, target.getPathNameRelativeTo(mountPoint).replace('/', File.separatorChar));
+    }
+
+    /**
+     * Get the real path of a virtual file.
+     *
+     * @param mountPoint the mount point
+     * @param target     the virtual file
+     * @return the path, or {@code null} if the name of the file is not a valid path on this platform, in which case the
+     *         file cannot exist
+     */
+    private Path getPath(VirtualFile mountPoint, VirtualFile target) {
+        if (mountPoint.equals(target)) {
+            return rootPath;
+        }
+        try {
+            // the default filesystem accepts '/' as a separator on every platform
+            return rootPath.resolve(target.getPathNameRelativeTo(mountPoint));
+        } catch (InvalidPathException e) {
+            return null;
         }
     }
 
@@ -138,19 +261,152 @@ public final class RealFileSystem implements FileSystem {
      */
     public boolean delete(VirtualFile mountPoint, VirtualFile target) {
         final File file = getFile(mountPoint, target);
-        return privileged ? doPrivileged(new PrivilegedAction<Boolean>() {
-            public Boolean run() {
-                return Boolean.valueOf(file.delete());
+        try {
+            return usePrivileged ? doPrivileged(new PrivilegedAction<Boolean>() {
+                public Boolean run() {
+                    return Boolean.valueOf(file.delete());
+                }
+            }).booleanValue() : file.delete();
+        } finally {
+            if (cache != null) {
+                cache.invalidate(file);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The stream is always opened with the permissions of the caller, since write access is not covered by the
+     * permission check of a privileged filesystem.
+     */
+    public OutputStream openOutputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        final File file = getFile(mountPoint, target);
+        final File parent = file.getParentFile();
+        if (cache == null) {
+            parent.mkdirs();
+            return new FileOutputStream(file);
+        }
+        if (!parent.isDirectory()) {
+            File existing = parent.getParentFile();
+            while (existing != null && !existing.isDirectory()) {
+                existing = existing.getParentFile();
+            }
+            parent.mkdirs();
+            // every directory created, and the listing of the first one which already existed, may be cached as missing
+            for (File dir = parent; dir != null && !dir.equals(existing); dir = dir.getParentFile()) {
+                cache.invalidate(dir);
             }
-        }).booleanValue() : file.delete();
+        }
+        cache.invalidate(file);
+        return new FileOutputStream(file) {
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    cache.invalidate(file);
+                }
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public VirtualFileAttributes getAttributes(VirtualFile mountPoint, VirtualFile target) {
+        final File file = getFile(mountPoint, target);
+        return usePrivileged ? doPrivileged(new PrivilegedAction<VirtualFileAttributes>() {
+            public VirtualFileAttributes run() {
+                return getAttributes(file);
+            }
+        }) : getAttributes(file);
+    }
+
+    private VirtualFileAttributes getAttributes(final File file) {
+        if (cache == null) {
+            return RealFileAccess.getAttributes(file);
+        }
+        return cache.getAttributes(file, new Supplier<VirtualFileAttributes>() {
+            public VirtualFileAttributes get() {
+                return RealFileAccess.getAttributes(file);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Large batches are queried in parallel on the given executor.
+     */
+    public VirtualFileAttributes[] getAttributes(VirtualFile mountPoint, List<VirtualFile> targets, Executor executor) {
+        final File[] files = new File[targets.size()];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = getFile(mountPoint, targets.get(i));
+        }
+        if (cache == null) {
+            return RealFileAccess.getAttributes(files, executor, usePrivileged);
+        }
+        final long loadedAt = System.nanoTime();
+        final long[] dirModified = new long[files.length];
+        final VirtualFileAttributes[] results = usePrivileged ? doPrivileged(new PrivilegedAction<VirtualFileAttributes[]>() {
+            public VirtualFileAttributes[] run() {
+                return getCachedAttributes(files, dirModified);
+            }
+        }) : getCachedAttributes(files, dirModified);
+        int missing = 0;
+        for (VirtualFileAttributes result : results) {
+            if (result == null) {
+                missing++;
+            }
+        }
+        if (missing == 0) {
+            return results;
+        }
+        final File[] toLoad = new File[missing];
+        for (int i = 0, j = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                toLoad[j++] = files[i];
+            }
+        }
+        final VirtualFileAttributes[] loaded = RealFileAccess.getAttributes(toLoad, executor, usePrivileged);
+        for (int i = 0, j = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = loaded[j++];
+                cache.putAttributes(files[i], results[i], loadedAt, dirModified[i]);
+            }
+        }
+        return results;
+    }
+
+    private VirtualFileAttributes[] getCachedAttributes(File[] files, long[] dirModified) {
+        final VirtualFileAttributes[] results = new VirtualFileAttributes[files.length];
+        for (int i = 0; i < files.length; i++) {
+            results[i] = cache.getAttributesIfPresent(files[i]);
+            if (results[i] == null) {
+                dirModified[i] = cache.parentModified(files[i]);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Directories are walked in parallel on the given executor.
+     */
+    public TreeStats getTreeStats(VirtualFile mountPoint, VirtualFile target, Executor executor) {
+        return RealFileAccess.getTreeStats(getFile(mountPoint, target), executor, usePrivileged);
     }
 
     /**
      * {@inheritDoc}
      */
     public long getSize(VirtualFile mountPoint, VirtualFile target) {
+        if (cache != null) {
+            return getAttributes(mountPoint, target).getSize();
+        }
         final File file = getFile(mountPoint, target);
-        return privileged ? doPrivileged(new PrivilegedAction<Long>() {
+        return usePrivileged ? doPrivileged(new PrivilegedAction<Long>() {
             public Long run() {
                 return Long.valueOf(file.length());
             }
@@ -161,8 +417,11 @@ public final class RealFileSystem implements FileSystem {
      * {@inheritDoc}
      */
     public long getLastModified(VirtualFile mountPoint, VirtualFile target) {
+        if (cache != null) {
+            return getAttributes(mountPoint, target).getLastModified();
+        }
         final File file = getFile(mountPoint, target);
-        return privileged ? doPrivileged(new PrivilegedAction<Long>() {
+        return usePrivileged ? doPrivileged(new PrivilegedAction<Long>() {
             public Long run() {
                 return Long.valueOf(file.lastModified());
             }
@@ -173,50 +432,123 @@ public final class RealFileSystem implements FileSystem {
      * {@inheritDoc}
      */
     public boolean exists(VirtualFile mountPoint, VirtualFile target) {
-        final File file = getFile(mountPoint, target);
-        return privileged ? doPrivileged(new PrivilegedAction<Boolean>() {
+        if (cache != null) {
+            return getAttributes(mountPoint, target).exists();
+        }
+        final Path path = getPath(mountPoint, target);
+        if (path == null) {
+            return false;
+        }
+        return usePrivileged ? doPrivileged(new PrivilegedAction<Boolean>() {
             public Boolean run() {
-                return Boolean.valueOf(VFSUtils.exists(file));
+                return Boolean.valueOf(exists(path));
             }
-        }).booleanValue() : VFSUtils.exists(file);
+        }).booleanValue() : exists(path);
     }
 
+    private static boolean exists(Path path) {
+        // unlike reading the attributes, these predicates do not throw for missing files
+        return Files.exists(path) && (!VFSUtils.isForceCaseSensitive() || VFSUtils.exists(path.toFile()));
+    }
 
     /**
      * {@inheritDoc}
      */
     public boolean isFile(final VirtualFile mountPoint, final VirtualFile target) {
-        final File file = getFile(mountPoint, target);
-        return privileged ? doPrivileged(new PrivilegedAction<Boolean>() {
+        if (cache != null) {
+            return getAttributes(mountPoint, target).isFile();
+        }
+        final Path path = getPath(mountPoint, target);
+        if (path == null) {
+            return false;
+        }
+        return usePrivileged ? doPrivileged(new PrivilegedAction<Boolean>() {
             public Boolean run() {
-                return Boolean.valueOf(file.isFile());
+                return Boolean.valueOf(Files.isRegularFile(path));
             }
-        }).booleanValue() : file.isFile();
+        }).booleanValue() : Files.isRegularFile(path);
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean isDirectory(VirtualFile mountPoint, VirtualFile target) {
-        final File file = getFile(mountPoint, target);
-        return privileged ? doPrivileged(new PrivilegedAction<Boolean>() {
+        if (cache != null) {
+            return getAttributes(mountPoint, target).isDirectory();
+        }
+        final Path path = getPath(mountPoint, target);
+        if (path == null) {
+            return false;
+        }
+        return usePrivileged ? doPrivileged(new PrivilegedAction<Boolean>() {
             public Boolean run() {
-                return Boolean.valueOf(file.isDirectory());
+                return Boolean.valueOf(Files.isDirectory(path));
             }
-        }).booleanValue() : file.isDirectory();
+        }).booleanValue() : Files.isDirectory(path);
     }
 
     /**
      * {@inheritDoc}
      */
     public List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target) {
-        final File file = getFile(mountPoint, target);
-        final String[] names = privileged ? doPrivileged(new PrivilegedAction<String[]>() {
-            public String[] run() {
-                return file.list();
+        final Path path = getPath(mountPoint, target);
+        if (path == null) {
+            return Collections.emptyList();
+        }
+        return usePrivileged ? doPrivileged(new PrivilegedAction<List<String>>() {
+            public List<String> run() {
+                return getDirectoryEntries(path);
             }
-        }) : file.list();
-        return names == null ? Collections.<String>emptyList() : Arrays.asList(names);
+        }) : getDirectoryEntries(path);
+    }
+
+    /**
+     * {@inheritDoc}  Without an attribute cache, names are tested as the directory is read, so no listing of the
+     * whole directory is built.
+     */
+    public List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target, final NamePredicate predicate) {
+        if (cache != null) {
+            return FileSystem.super.getDirectoryEntries(mountPoint, target, predicate);
+        }
+        final Path path = getPath(mountPoint, target);
+        if (path == null) {
+            return Collections.emptyList();
+        }
+        return usePrivileged ? doPrivileged(new PrivilegedAction<List<String>>() {
+            public List<String> run() {
+                return list(path, predicate);
+            }
+        }) : list(path, predicate);
+    }
+
+    private List<String> getDirectoryEntries(final Path path) {
+        if (cache == null) {
+            return list(path);
+        }
+        return cache.getListing(path.toFile(), new Supplier<List<String>>() {
+            public List<String> get() {
+                return list(path);
+            }
+        });
+    }
+
+    private static List<String> list(Path path) {
+        return list(path, NamePredicate.ALL);
+    }
+
+    private static List<String> list(Path path, NamePredicate predicate) {
+        final List<String> names = new ArrayList<String>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+            for (Path entry : stream) {
+                final String name = entry.getFileName().toString();
+                if (predicate.accepts(name)) {
+                    names.add(name);
+                }
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(names);
     }
 
     /**
@@ -0,0 +1,362 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.vfs.FileChange;
+import org.jboss.vfs.FileChangeListener;
+import org.jboss.vfs.VFSLogger;
+import org.jboss.vfs.VFSMessages;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * A watcher which tracks changes to a real directory tree mounted in the VFS, so that callers need not poll the tree
+ * for modifications.  Every directory in the tree is registered with a {@link WatchService}, and directories created
+ * later are registered as they appear.  Events are coalesced per file until the tree has been quiet for the coalescing
+ * delay, then the affected entries of the attribute cache, if any, are invalidated and the batch is published to the
+ * {@linkplain #addListener(FileChangeListener) listeners}.  The work done is proportional to the number of changes,
+ * not to the size of the tree.
+ * <p/>
+ * If the watch service loses events, a single {@link FileChange.Kind#OVERFLOW} change for the mount point is published
+ * and the whole attribute cache is invalidated.
+ *
+ * @see org.jboss.vfs.VFS#mountReal(File, VirtualFile, AttributeCache, FileChangeListener)
+ */
+public final class RealFileWatcher implements Closeable {
+
+    private static final long DEFAULT_COALESCE_DELAY = 50L;
+    // a tree which never goes quiet still publishes at least this many delays apart
+    private static final int MAX_COALESCED_DELAYS = 20;
+
+    private final Path root;
+    private final VirtualFile mountPoint;
+    private final AttributeCache cache;
+    private final long coalesceDelay;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<WatchKey, Path>();
+    private final Set<Path> watchedPaths = ConcurrentHashMap.newKeySet();
+    private final List<FileChangeListener> listeners = new CopyOnWriteArrayList<FileChangeListener>();
+    private final Thread thread;
+
+    /**
+     * Start watching a real directory tree, coalescing the changes of 50 milliseconds.
+     *
+     * @param realRoot   the root of the real tree
+     * @param mountPoint the point at which the tree is mounted
+     * @param cache      the attribute cache of the mount, or {@code null} if it has none
+     * @throws IOException if the watch service cannot be created
+     */
+    public RealFileWatcher(File realRoot, VirtualFile mountPoint, AttributeCache cache) throws IOException {
+        this(realRoot, mountPoint, cache, DEFAULT_COALESCE_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Start watching a real directory tree.
+     *
+     * @param realRoot      the root of the real tree
+     * @param mountPoint    the point at which the tree is mounted
+     * @param cache         the attribute cache of the mount, or {@code null} if it has none
+     * @param coalesceDelay the time the tree must be quiet before a batch of changes is published
+     * @param unit          the unit of {@code coalesceDelay}
+     * @throws IOException if the watch service cannot be created
+     */
+    public RealFileWatcher(File realRoot, VirtualFile mountPoint, AttributeCache cache, long coalesceDelay, TimeUnit unit) throws IOException {
+        if (mountPoint == null) {
+            throw VFSMessages.MESSAGES.nullArgument("mountPoint");
+        }
+        if (coalesceDelay <= 0L) {
+            throw VFSMessages.MESSAGES.argumentMustBePositive("coalesceDelay");
+        }
+        // the cache is keyed by files below the canonical root, like the real filesystem
+        root = realRoot.getCanonicalFile().toPath();
+        this.mountPoint = mountPoint;
+        this.cache = cache;
+        this.coalesceDelay = Math.max(1L, unit.toMillis(coalesceDelay));
+        watchService = root.getFileSystem().newWatchService();
+        boolean ok = false;
+        try {
+            registerAll(root, null);
+            ok = true;
+        } finally {
+            if (!ok) {
+                watchService.close();
+            }
+        }
+        thread = new Thread(new Runnable() {
+            public void run() {
+                watch();
+            }
+        }, "VFS change watcher for " + mountPoint.getPathName());
+        thread.setDaemon(true);
+        thread.start();
+        VFSLogger.ROOT_LOGGER.tracef("Watching %d directories of %s", Integer.valueOf(directories.size()), root);
+    }
+
+    /**
+     * Add a listener.
+     *
+     * @param listener the listener
+     */
+    public void addListener(FileChangeListener listener) {
+        if (listener == null) {
+            throw VFSMessages.MESSAGES.nullArgument("listener");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(FileChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Get the number of directories currently watched.
+     *
+     * @return the number of directories
+     */
+    public int getWatchedDirectoryCount() {
+        return directories.size();
+    }
+
+    /**
+     * Stop watching.  No listener is called once this method returns.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    public void close() throws IOException {
+        watchService.close();
+        if (thread != Thread.currentThread()) {
+            boolean interrupted = false;
+            try {
+                for (;;) {
+                    try {
+                        thread.join();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void registerAll(final Path start, final Map<Path, FileChange.Kind> pending) {
+        try {
+            Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    directories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+                    watchedPaths.add(dir);
+                    if (pending != null && !dir.equals(start)) {
+                        merge(pending, dir, FileChange.Kind.CREATED);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (pending != null) {
+                        // created before its directory was registered, so no event was delivered for it
+                        merge(pending, file, FileChange.Kind.CREATED);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (ClosedWatchServiceException e) {
+            throw e;
+        } catch (IOException e) {
+            VFSLogger.ROOT_LOGGER.tracef(e, "Failed to watch %s", start);
+        }
+    }
+
+    private void watch() {
+        final Map<Path, FileChange.Kind> pending = new LinkedHashMap<Path, FileChange.Kind>();
+        final Set<Path> deletedDirectories = new HashSet<Path>();
+        boolean overflow = false;
+        long firstEvent = 0L;
+        try {
+            for (;;) {
+                final boolean idle = pending.isEmpty() && !overflow;
+                final WatchKey key = idle ? watchService.take() : watchService.poll(coalesceDelay, TimeUnit.MILLISECONDS);
+                if (idle) {
+                    firstEvent = System.nanoTime();
+                }
+                if (key != null) {
+                    overflow |= process(key, pending, deletedDirectories);
+                }
+                if (key == null || System.nanoTime() - firstEvent > TimeUnit.MILLISECONDS.toNanos(coalesceDelay * MAX_COALESCED_DELAYS)) {
+                    if (!pending.isEmpty() || overflow) {
+                        publish(pending, deletedDirectories, overflow);
+                    }
+                    pending.clear();
+                    deletedDirectories.clear();
+                    overflow = false;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        } catch (InterruptedException e) {
+            VFSUtils.safeClose(watchService);
+        }
+    }
+
+    private boolean process(WatchKey key, Map<Path, FileChange.Kind> pending, Set<Path> deletedDirectories) {
+        final Path directory = directories.get(key);
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            final WatchEvent.Kind<?> kind = event.kind();
+            if (kind == OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+            final Path path = directory.resolve((Path) event.context());
+            if (kind == ENTRY_CREATE) {
+                merge(pending, path, FileChange.Kind.CREATED);
+                if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    registerAll(path, pending);
+                }
+            } else if (kind == ENTRY_DELETE) {
+                merge(pending, path, FileChange.Kind.DELETED);
+                if (watchedPaths.contains(path)) {
+                    deletedDirectories.add(path);
+                }
+            } else {
+                merge(pending, path, FileChange.Kind.MODIFIED);
+            }
+        }
+        if (!key.reset()) {
+            // the directory is gone
+            directories.remove(key);
+            if (directory != null) {
+                if (!directories.containsValue(directory)) {
+                    // not replaced by a new directory of the same name
+                    watchedPaths.remove(directory);
+                }
+                deletedDirectories.add(directory);
+            }
+        }
+        return overflow;
+    }
+
+    private static void merge(Map<Path, FileChange.Kind> pending, Path path, FileChange.Kind kind) {
+        final FileChange.Kind previous = pending.get(path);
+        if (previous == null || previous == kind) {
+            pending.put(path, kind);
+        } else if (previous == FileChange.Kind.CREATED) {
+            if (kind == FileChange.Kind.DELETED) {
+                // never seen by anyone
+                pending.remove(path);
+            }
+        } else if (previous == FileChange.Kind.DELETED) {
+            pending.put(path, FileChange.Kind.MODIFIED);
+        } else if (kind == FileChange.Kind.DELETED) {
+            pending.put(path, FileChange.Kind.DELETED);
+        }
+    }
+
+    private void publish(Map<Path, FileChange.Kind> pending, Set<Path> deletedDirectories, boolean overflow) {
+        final List<FileChange> changes = new ArrayList<FileChange>(pending.size() + 1);
+        if (overflow) {
+            if (cache != null) {
+                cache.invalidateAll();
+            }
+            changes.add(new FileChange(mountPoint, FileChange.Kind.OVERFLOW));
+        } else if (cache != null) {
+            // each tree invalidation scans the whole cache, so do one per deleted tree rather than one per deleted file
+            for (Path directory : deletedDirectories) {
+                if (!isBelow(directory, deletedDirectories)) {
+                    cache.invalidateTree(directory.toFile());
+                }
+            }
+        }
+        final Iterator<Map.Entry<Path, FileChange.Kind>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Path, FileChange.Kind> entry = iterator.next();
+            final Path path = entry.getKey();
+            final FileChange.Kind kind = entry.getValue();
+            if (cache != null && !overflow && !deletedDirectories.contains(path) && !isBelow(path, deletedDirectories)) {
+                cache.invalidate(path.toFile());
+            }
+            changes.add(new FileChange(mountPoint.getChild(root.relativize(path).toString().replace(File.separatorChar, '/')), kind));
+        }
+        final List<FileChange> published = Collections.unmodifiableList(changes);
+        for (FileChangeListener listener : listeners) {
+            try {
+                listener.filesChanged(published);
+            } catch (Throwable t) {
+                VFSLogger.ROOT_LOGGER.fileChangeListenerFailed(listener, t);
+            }
+        }
+    }
+
+    private static boolean isBelow(Path path, Set<Path> directories) {
+        if (directories.isEmpty()) {
+            return false;
+        }
+        for (Path parent = path.getParent(); parent != null; parent = parent.getParent()) {
+            if (directories.contains(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
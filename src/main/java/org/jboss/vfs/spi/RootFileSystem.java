@@ -24,12 +24,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.security.CodeSigner;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import org.jboss.vfs.TreeStats;
 import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VirtualFileAttributes;
 
 /**
  * A special FileSystem which supports multiple roots.
@@ -51,6 +58,41 @@ public final class RootFileSystem implements FileSystem {
         return new FileInputStream(getFile(mountPoint, target));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream tryOpenInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return RealFileAccess.tryOpenInputStream(getFile(mountPoint, target));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ReadableByteChannel openChannel(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return RealFileAccess.openChannel(getFile(mountPoint, target), target.getPathName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ByteBuffer map(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return RealFileAccess.map(getFile(mountPoint, target), target.getPathName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long transferTo(VirtualFile mountPoint, VirtualFile target, WritableByteChannel channel) throws IOException {
+        return RealFileAccess.transferTo(getFile(mountPoint, target), channel, target.getPathName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public CompletableFuture<ByteBuffer> readAsync(VirtualFile mountPoint, VirtualFile target, long position, int length, Executor executor) {
+        return RealFileAccess.readAsync(getFile(mountPoint, target), position, length, executor, target.getPathName(), false);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -72,6 +114,35 @@ public final class RootFileSystem implements FileSystem {
         return getFile(mountPoint, target).delete();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public VirtualFileAttributes getAttributes(VirtualFile mountPoint, VirtualFile target) {
+        return RealFileAccess.getAttributes(getFile(mountPoint, target));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Large batches are queried in parallel on the given executor.
+     */
+    public VirtualFileAttributes[] getAttributes(VirtualFile mountPoint, List<VirtualFile> targets, Executor executor) {
+        final File[] files = new File[targets.size()];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = getFile(mountPoint, targets.get(i));
+        }
+        return RealFileAccess.getAttributes(files, executor, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Directories are walked in parallel on the given executor.
+     */
+    public TreeStats getTreeStats(VirtualFile mountPoint, VirtualFile target, Executor executor) {
+        return RealFileAccess.getTreeStats(getFile(mountPoint, target), executor, false);
+    }
+
     /**
      * {@inheritDoc}
      */
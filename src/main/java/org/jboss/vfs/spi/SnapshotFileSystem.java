@@ -0,0 +1,653 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.AccessController;
+import java.security.CodeSigner;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.vfs.CasePolicy;
+import org.jboss.vfs.NamePredicate;
+import org.jboss.vfs.TreeStats;
+import org.jboss.vfs.VFSLogger;
+import org.jboss.vfs.VFSMessages;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VirtualFileAttributes;
+
+/**
+ * A read-only filesystem which answers all metadata queries from an immutable index of a real directory tree.  The tree
+ * is walked once when the filesystem is constructed, in parallel on the given executor, recording the names, types,
+ * sizes and modification times of every file and directory; from then on only content reads go to the real
+ * filesystem.  Changes made to the real tree are not seen until the index is {@linkplain #refresh() refreshed}.
+ * <p/>
+ * A Bloom filter of the indexed paths rejects most lookups of missing files before the index is searched.
+ * <p/>
+ * Symbolic links are indexed as their targets.  A linked directory which is also an ancestor of the link is indexed as
+ * an empty directory, so link cycles cannot cause an endless walk.
+ *
+ * @see org.jboss.vfs.VFS#mountSnapshot(File, VirtualFile)
+ */
+public final class SnapshotFileSystem implements FileSystem {
+
+    /**
+     * A directory whose modification time is this close to the time it was listed may have been modified again within
+     * the resolution of the timestamp, so its listing is not trusted by a refresh.
+     */
+    private static final long RACY_INTERVAL = 2000L;
+    private static final double LOOKUP_FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    private final RealFileSystem content;
+    private final File realRoot;
+    private final boolean usePrivileged;
+    private final Executor executor;
+    private volatile Index index;
+
+    /**
+     * Construct a snapshot of the given real root, walking the tree on the calling thread.
+     *
+     * @param realRoot the real root
+     */
+    public SnapshotFileSystem(File realRoot) {
+        this(realRoot, true);
+    }
+
+    /**
+     * Construct a snapshot of the given real root, walking the tree on the calling thread.
+     *
+     * @param realRoot   the real root
+     * @param privileged {@code true} to check permissions once up front, {@code false} to check at access time
+     */
+    public SnapshotFileSystem(File realRoot, boolean privileged) {
+        this(realRoot, privileged, Runnable::run);
+    }
+
+    /**
+     * Construct a snapshot of the given real root.
+     *
+     * @param realRoot   the real root
+     * @param privileged {@code true} to check permissions once up front, {@code false} to check at access time
+     * @param executor   the executor on which the tree is walked in parallel, when constructed and on every refresh; the
+     *                   calling thread takes part in the walk
+     */
+    public SnapshotFileSystem(File realRoot, boolean privileged, Executor executor) {
+        if (executor == null) {
+            throw VFSMessages.MESSAGES.nullArgument("executor");
+        }
+        content = new RealFileSystem(realRoot, privileged);
+        this.realRoot = content.getMountSource();
+        usePrivileged = privileged && System.getSecurityManager() != null;
+        this.executor = executor;
+        index = buildIndex(null);
+        VFSLogger.ROOT_LOGGER.tracef("Constructed snapshot filesystem at root %s with %d entries", realRoot, Integer.valueOf(index.entryCount));
+    }
+
+    /**
+     * Walk the real tree again and replace the index.  The listing of a directory is only read again if the
+     * modification time of the directory has changed, and unchanged subtrees are shared with the previous index.
+     *
+     * @return {@code true} if anything changed since the previous index was built
+     */
+    public synchronized boolean refresh() {
+        final Index previous = index;
+        final Index next = buildIndex(previous);
+        index = next;
+        return next.root != previous.root;
+    }
+
+    /**
+     * Get the number of files and directories in the index, including the root.
+     *
+     * @return the number of entries
+     */
+    public int getEntryCount() {
+        return index.entryCount;
+    }
+
+    /**
+     * Get the filter which rejects lookups of paths which are not in the current index before the index is searched.
+     * Each refresh builds a new filter.
+     *
+     * @return the lookup filter
+     */
+    public BloomFilter getLookupFilter() {
+        return index.lookupFilter;
+    }
+
+    private Index buildIndex(final Index previous) {
+        return usePrivileged ? AccessController.doPrivileged(new PrivilegedAction<Index>() {
+            public Index run() {
+                return walk(previous);
+            }
+        }) : walk(previous);
+    }
+
+    private Index walk(Index previous) {
+        final long startTime = System.currentTimeMillis();
+        final Path rootPath = realRoot.toPath();
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(rootPath, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return new Index(null, startTime);
+        }
+        final Node previousRoot = previous == null ? null : previous.root;
+        final Node root;
+        if (attributes.isDirectory()) {
+            final long stableBefore = previous == null ? Long.MIN_VALUE : previous.startTime - RACY_INTERVAL;
+            final IndexWalk walk = new IndexWalk(new WorkQueue(executor, usePrivileged), stableBefore);
+            walk.queue.submit(new IndexTask(walk, rootPath, attributes, previousRoot, null, null, 0));
+            walk.queue.run(() -> walk.root != null);
+            root = walk.root;
+        } else {
+            root = Node.file(attributes, previousRoot);
+        }
+        return new Index(root, startTime);
+    }
+
+    private Node find(VirtualFile mountPoint, VirtualFile target) {
+        final Index index = this.index;
+        if (index.root == null) {
+            return null;
+        }
+        if (!index.lookupFilter.mightContain(PathHash.of(mountPoint, target, CasePolicy.SENSITIVE))) {
+            return null;
+        }
+        final Node node = find(index.root, mountPoint, target);
+        if (node == null) {
+            index.lookupFilter.recordFalsePositive();
+        }
+        return node;
+    }
+
+    private static Node find(Node root, VirtualFile mountPoint, VirtualFile target) {
+        if (mountPoint.equals(target)) {
+            return root;
+        }
+        final Node parent = find(root, mountPoint, target.getParent());
+        return parent == null ? null : parent.getChild(target.getName());
+    }
+
+    private VirtualFileAttributes attributes(Node node) {
+        return node == null ? VirtualFileAttributes.NONEXISTENT : new VirtualFileAttributes(node.isDirectory(), node.size, node.lastModified);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public File getFile(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return content.getFile(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream openInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return content.openInputStream(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream tryOpenInputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        final Node node = find(mountPoint, target);
+        return node == null || node.isDirectory() ? null : content.tryOpenInputStream(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ReadableByteChannel openChannel(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return content.openChannel(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ByteBuffer map(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        return content.map(mountPoint, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long transferTo(VirtualFile mountPoint, VirtualFile target, WritableByteChannel channel) throws IOException {
+        return content.transferTo(mountPoint, target, channel);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public CompletableFuture<ByteBuffer> readAsync(VirtualFile mountPoint, VirtualFile target, long position, int length, Executor executor) {
+        return content.readAsync(mountPoint, target, position, length, executor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Files cannot be deleted from a snapshot.
+     */
+    public boolean delete(VirtualFile mountPoint, VirtualFile target) {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Files cannot be written to a snapshot.
+     */
+    public OutputStream openOutputStream(VirtualFile mountPoint, VirtualFile target) throws IOException {
+        throw VFSMessages.MESSAGES.readOnlyFileSystem(target.getPathName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public VirtualFileAttributes getAttributes(VirtualFile mountPoint, VirtualFile target) {
+        return attributes(find(mountPoint, target));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public TreeStats getTreeStats(VirtualFile mountPoint, VirtualFile target, Executor executor) {
+        final Node node = find(mountPoint, target);
+        return node == null ? TreeStats.EMPTY : getTreeStats(node);
+    }
+
+    private TreeStats getTreeStats(Node node) {
+        TreeStats stats = TreeStats.of(attributes(node));
+        if (node.isDirectory()) {
+            for (Node child : node.children) {
+                stats = stats.plus(getTreeStats(child));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getSize(VirtualFile mountPoint, VirtualFile target) {
+        final Node node = find(mountPoint, target);
+        return node == null ? 0L : node.size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getLastModified(VirtualFile mountPoint, VirtualFile target) {
+        final Node node = find(mountPoint, target);
+        return node == null ? 0L : node.lastModified;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean exists(VirtualFile mountPoint, VirtualFile target) {
+        return find(mountPoint, target) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isFile(VirtualFile mountPoint, VirtualFile target) {
+        final Node node = find(mountPoint, target);
+        return node != null && !node.isDirectory();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isDirectory(VirtualFile mountPoint, VirtualFile target) {
+        final Node node = find(mountPoint, target);
+        return node != null && node.isDirectory();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target) {
+        final Node node = find(mountPoint, target);
+        return node == null || !node.isDirectory() ? Collections.<String>emptyList() : Collections.unmodifiableList(Arrays.asList(node.names));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<String> getDirectoryEntries(VirtualFile mountPoint, VirtualFile target, NamePredicate predicate) {
+        final Node node = find(mountPoint, target);
+        return node == null || !node.isDirectory() ? Collections.<String>emptyList() : SortedNames.getMatching(node.names, predicate);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public CodeSigner[] getCodeSigners(VirtualFile mountPoint, VirtualFile target) {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public File getMountSource() {
+        return realRoot;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public URI getRootURI() throws URISyntaxException {
+        return content.getRootURI();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void close() throws IOException {
+        // no operation - the index is simply dropped
+    }
+
+    private static final class Index {
+
+        private final Node root;
+        private final int entryCount;
+        private final long startTime;
+        private final BloomFilter lookupFilter;
+
+        Index(Node root, long startTime) {
+            this.root = root;
+            entryCount = root == null ? 0 : root.count();
+            this.startTime = startTime;
+            lookupFilter = new BloomFilter(entryCount, LOOKUP_FILTER_FALSE_POSITIVE_RATE);
+            if (root != null) {
+                addPaths(root, PathHash.ROOT);
+            }
+        }
+
+        private void addPaths(Node node, long hash) {
+            lookupFilter.add(hash);
+            if (node.isDirectory()) {
+                for (int i = 0; i < node.names.length; i++) {
+                    addPaths(node.children[i], PathHash.child(hash, node.names[i]));
+                }
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private static final String[] NO_NAMES = new String[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private final long size;
+        private final long lastModified;
+        // sorted names and the matching children; null for files
+        private final String[] names;
+        private final Node[] children;
+
+        private Node(long size, long lastModified, String[] names, Node[] children) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.names = names;
+            this.children = children;
+        }
+
+        static Node file(BasicFileAttributes attributes, Node previous) {
+            final long size = attributes.size();
+            final long lastModified = attributes.lastModifiedTime().toMillis();
+            if (previous != null && !previous.isDirectory() && previous.size == size && previous.lastModified == lastModified) {
+                return previous;
+            }
+            return new Node(size, lastModified, null, null);
+        }
+
+        static Node emptyDirectory(BasicFileAttributes attributes) {
+            return new Node(0L, attributes.lastModifiedTime().toMillis(), NO_NAMES, NO_CHILDREN);
+        }
+
+        boolean isDirectory() {
+            return names != null;
+        }
+
+        Node getChild(String name) {
+            if (names == null) {
+                return null;
+            }
+            final int idx = Arrays.binarySearch(names, name);
+            return idx < 0 ? null : children[idx];
+        }
+
+        int count() {
+            int count = 1;
+            if (children != null) {
+                for (Node child : children) {
+                    count += child.count();
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * The file keys of the directories above the one being indexed.
+     */
+    private static final class Ancestors {
+
+        private final Object fileKey;
+        private final Ancestors parent;
+
+        Ancestors(Object fileKey, Ancestors parent) {
+            this.fileKey = fileKey;
+            this.parent = parent;
+        }
+
+        static boolean contains(Ancestors ancestors, Object fileKey) {
+            for (Ancestors current = ancestors; current != null; current = current.parent) {
+                if (current.fileKey.equals(fileKey)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The state shared by the tasks of one walk of the real tree.
+     */
+    private static final class IndexWalk {
+
+        private final WorkQueue queue;
+        private final long stableBefore;
+        private volatile Node root;
+
+        IndexWalk(WorkQueue queue, long stableBefore) {
+            this.queue = queue;
+            this.stableBefore = stableBefore;
+        }
+    }
+
+    /**
+     * The indexing of one directory.  Its subdirectories are queued as tasks of their own; the node of the directory is
+     * built by whichever task completes last, and is then handed to the parent task.
+     */
+    private static final class IndexTask implements Runnable {
+
+        private final IndexWalk walk;
+        private final Path directory;
+        private final BasicFileAttributes attributes;
+        private final Node previous;
+        private final Ancestors ancestors;
+        private final IndexTask parent;
+        private final int slot;
+        // the subdirectories still being indexed, plus one while this directory is being read
+        private final AtomicInteger remaining = new AtomicInteger(1);
+        private String[] listed;
+        private Node[] children;
+        private boolean[] present;
+
+        IndexTask(IndexWalk walk, Path directory, BasicFileAttributes attributes, Node previous, Ancestors ancestors, IndexTask parent, int slot) {
+            this.walk = walk;
+            this.directory = directory;
+            this.attributes = attributes;
+            this.previous = previous;
+            this.ancestors = ancestors;
+            this.parent = parent;
+            this.slot = slot;
+        }
+
+        public void run() {
+            final long lastModified = attributes.lastModifiedTime().toMillis();
+            final boolean listingUnchanged = previous != null && previous.isDirectory() && previous.lastModified == lastModified
+                    && lastModified < walk.stableBefore;
+            listed = listingUnchanged ? previous.names : list();
+            final Object fileKey = attributes.fileKey();
+            final Ancestors childAncestors = fileKey == null ? ancestors : new Ancestors(fileKey, ancestors);
+            children = new Node[listed.length];
+            present = new boolean[listed.length];
+            final List<IndexTask> subdirectories = new ArrayList<IndexTask>();
+            for (int i = 0; i < listed.length; i++) {
+                final Path entry = directory.resolve(listed[i]);
+                final BasicFileAttributes entryAttributes;
+                try {
+                    entryAttributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    // removed concurrently, or a dangling link
+                    continue;
+                }
+                present[i] = true;
+                final Node previousChild = previous == null ? null : previous.getChild(listed[i]);
+                if (!entryAttributes.isDirectory()) {
+                    children[i] = Node.file(entryAttributes, previousChild);
+                } else if (isCycle(entry, entryAttributes)) {
+                    children[i] = Node.emptyDirectory(entryAttributes);
+                } else {
+                    subdirectories.add(new IndexTask(walk, entry, entryAttributes, previousChild, childAncestors, this, i));
+                }
+            }
+            remaining.addAndGet(subdirectories.size());
+            for (IndexTask task : subdirectories) {
+                walk.queue.submit(task);
+            }
+            completed();
+        }
+
+        private void completed() {
+            if (remaining.decrementAndGet() != 0) {
+                return;
+            }
+            final Node node = build(listed, children, present, attributes.lastModifiedTime().toMillis());
+            if (parent == null) {
+                walk.root = node;
+            } else {
+                parent.children[slot] = node;
+                parent.completed();
+            }
+        }
+
+        private boolean isCycle(Path entry, BasicFileAttributes entryAttributes) {
+            final Object entryKey = entryAttributes.fileKey();
+            if (entryKey == null) {
+                // without file keys cycles cannot be detected, so linked directories are not descended into
+                return Files.isSymbolicLink(entry);
+            }
+            return Ancestors.contains(ancestors, entryKey) || entryKey.equals(attributes.fileKey());
+        }
+
+        private String[] list() {
+            final List<String> names = new ArrayList<String>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    names.add(entry.getFileName().toString());
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                // an unreadable directory is indexed as empty
+            }
+            final String[] sorted = names.toArray(new String[names.size()]);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        private Node build(String[] listed, Node[] children, boolean[] present, long lastModified) {
+            int count = 0;
+            for (boolean p : present) {
+                if (p) {
+                    count++;
+                }
+            }
+            final String[] names;
+            final Node[] nodes;
+            if (count == listed.length) {
+                names = listed;
+                nodes = children;
+            } else {
+                names = new String[count];
+                nodes = new Node[count];
+                int j = 0;
+                for (int i = 0; i < listed.length; i++) {
+                    if (present[i]) {
+                        names[j] = listed[i];
+                        nodes[j++] = children[i];
+                    }
+                }
+            }
+            if (previous != null && previous.isDirectory() && previous.lastModified == lastModified
+                    && Arrays.equals(previous.names, names) && identical(previous.children, nodes)) {
+                return previous;
+            }
+            return new Node(0L, lastModified, names, nodes);
+        }
+
+        private static boolean identical(Node[] a, Node[] b) {
+            for (int i = 0; i < a.length; i++) {
+                if (a[i] != b[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.vfs.NamePredicate;
+
+/**
+ * Queries over the sorted child names of a directory in an immutable index.
+ */
+final class SortedNames {
+
+    private SortedNames() {
+    }
+
+    /**
+     * Get the names accepted by a predicate, testing only the range of names which start with its prefix.
+     *
+     * @param sortedNames the names, in natural order
+     * @param predicate   the predicate
+     * @return the accepted names, in natural order
+     */
+    static List<String> getMatching(String[] sortedNames, NamePredicate predicate) {
+        final String prefix = predicate.getPrefix();
+        int idx = prefix.isEmpty() ? 0 : Arrays.binarySearch(sortedNames, prefix);
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        final List<String> names = new ArrayList<String>();
+        for (; idx < sortedNames.length; idx++) {
+            final String name = sortedNames[idx];
+            if (!name.startsWith(prefix)) {
+                break;
+            }
+            if (predicate.accepts(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A queue of blocking I/O tasks, such as the directories of a tree walk, which is worked by the calling thread and by a
+ * bounded number of helper tasks on an executor.  Because the calling thread takes part, the work completes even if
+ * the executor never runs the helpers, and no shared pool such as the common fork/join pool is tied up by blocking
+ * file system calls.
+ */
+final class WorkQueue {
+
+    private static final int MAX_HELPERS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private final Executor executor;
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<Runnable>();
+    private final AtomicInteger helpers = new AtomicInteger();
+    private final Runnable helper;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param executor   the executor for helper tasks
+     * @param privileged {@code true} to run the tasks of helpers with the privileges of this library
+     */
+    WorkQueue(Executor executor, boolean privileged) {
+        this.executor = executor;
+        final Runnable drain = () -> {
+            try {
+                Runnable task;
+                while ((task = queue.poll()) != null) {
+                    task.run();
+                }
+            } finally {
+                helpers.decrementAndGet();
+            }
+        };
+        helper = privileged ? () -> AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+            drain.run();
+            return null;
+        }) : drain;
+    }
+
+    /**
+     * Add a task, starting a helper for it if fewer than the maximum are running.
+     *
+     * @param task the task
+     */
+    void submit(Runnable task) {
+        queue.add(task);
+        if (helpers.get() < MAX_HELPERS) {
+            helpers.incrementAndGet();
+            try {
+                executor.execute(helper);
+            } catch (RejectedExecutionException e) {
+                helpers.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Work the queue on the calling thread until the work is finished.  The calling thread runs with its own
+     * privileges.
+     *
+     * @param finished the condition, which the tasks make true, that all work is finished
+     */
+    void run(BooleanSupplier finished) {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                final Runnable task;
+                try {
+                    task = queue.poll(1L, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    continue;
+                }
+                if (task != null) {
+                    task.run();
+                } else if (finished.getAsBoolean()) {
+                    return;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipException;
+
+/**
+ * A raw reader for the central directory of a zip archive.  {@link java.util.zip.ZipFile} does not expose the
+ * position of an entry's data within the archive, which is needed to address STORED entries directly; this class
+ * reads it (and the other per-entry central directory fields) straight from the archive channel.
+ */
+final class ZipCentralDirectory {
+
+    private static final int LOCSIG = 0x04034b50;
+    private static final int CENSIG = 0x02014b50;
+    private static final int ENDSIG = 0x06054b50;
+    private static final int ZIP64_ENDSIG = 0x06064b50;
+    private static final int ZIP64_LOCSIG = 0x07064b50;
+
+    private static final int LOCHDR = 30;
+    private static final int CENHDR = 46;
+    private static final int ENDHDR = 22;
+    private static final int ZIP64_LOCHDR = 20;
+    private static final int ZIP64_ENDHDR = 56;
+    private static final int ZIP64_EXTID = 0x0001;
+    private static final int MAX_COMMENT = 0xffff;
+
+    private final String[] names;
+    private final int[] methods;
+    private final long[] crcs;
+    private final long[] compressedSizes;
+    private final long[] sizes;
+    private final long[] dosTimes;
+    private final long[] localHeaderOffsets;
+
+    private ZipCentralDirectory(int count) {
+        names = new String[count];
+        methods = new int[count];
+        crcs = new long[count];
+        compressedSizes = new long[count];
+        sizes = new long[count];
+        dosTimes = new long[count];
+        localHeaderOffsets = new long[count];
+    }
+
+    /**
+     * Read the central directory of the archive open on the given channel.
+     *
+     * @param channel the archive channel
+     * @return the central directory
+     * @throws IOException if the archive cannot be read or is not a valid zip archive
+     */
+    static ZipCentralDirectory read(FileChannel channel) throws IOException {
+        final long archiveSize = channel.size();
+        final int tailSize = (int) Math.min(archiveSize, ENDHDR + MAX_COMMENT);
+        final ByteBuffer tail = readFully(channel, archiveSize - tailSize, tailSize);
+        int endPos = -1;
+        for (int i = tailSize - ENDHDR; i >= 0; i--) {
+            if (tail.getInt(i) == ENDSIG && i + ENDHDR + (tail.getShort(i + 20) & 0xffff) <= tailSize) {
+                endPos = i;
+                break;
+            }
+        }
+        if (endPos == -1) {
+            throw new ZipException("End of central directory record not found");
+        }
+        long endRecord = archiveSize - tailSize + endPos;
+        long count = tail.getShort(endPos + 10) & 0xffff;
+        long cenSize = tail.getInt(endPos + 12) & 0xffffffffL;
+        long cenOffset = tail.getInt(endPos + 16) & 0xffffffffL;
+        if (endPos >= ZIP64_LOCHDR && tail.getInt(endPos - ZIP64_LOCHDR) == ZIP64_LOCSIG) {
+            final long zip64EndRecord = tail.getLong(endPos - ZIP64_LOCHDR + 8);
+            final ByteBuffer zip64End = readFully(channel, zip64EndRecord, ZIP64_ENDHDR);
+            if (zip64End.getInt(0) == ZIP64_ENDSIG) {
+                endRecord = zip64EndRecord;
+                count = zip64End.getLong(32);
+                cenSize = zip64End.getLong(40);
+                cenOffset = zip64End.getLong(48);
+            }
+        }
+        // any bytes prepended to the archive (e.g. a launcher stub) shift every recorded offset
+        final long base = endRecord - cenSize - cenOffset;
+        if (base < 0 || count > Integer.MAX_VALUE || cenSize > Integer.MAX_VALUE) {
+            throw new ZipException("Invalid central directory");
+        }
+        final ByteBuffer cen = readFully(channel, base + cenOffset, (int) cenSize);
+        final ZipCentralDirectory directory = new ZipCentralDirectory((int) count);
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+            if (pos + CENHDR > cenSize || cen.getInt(pos) != CENSIG) {
+                throw new ZipException("Invalid central directory header");
+            }
+            final int nameLength = cen.getShort(pos + 28) & 0xffff;
+            final int extraLength = cen.getShort(pos + 30) & 0xffff;
+            final int commentLength = cen.getShort(pos + 32) & 0xffff;
+            directory.methods[i] = cen.getShort(pos + 10) & 0xffff;
+            directory.dosTimes[i] = cen.getInt(pos + 12) & 0xffffffffL;
+            directory.crcs[i] = cen.getInt(pos + 16) & 0xffffffffL;
+            long compressedSize = cen.getInt(pos + 20) & 0xffffffffL;
+            long size = cen.getInt(pos + 24) & 0xffffffffL;
+            long offset = cen.getInt(pos + 42) & 0xffffffffL;
+            final byte[] nameBytes = new byte[nameLength];
+            cen.position(pos + CENHDR);
+            cen.get(nameBytes);
+            directory.names[i] = new String(nameBytes, StandardCharsets.UTF_8);
+            if (size == 0xffffffffL || compressedSize == 0xffffffffL || offset == 0xffffffffL) {
+                // the real values live in the zip64 extended information extra field, in this order
+                int extra = pos + CENHDR + nameLength;
+                final int extraEnd = extra + extraLength;
+                while (extra + 4 <= extraEnd) {
+                    final int tag = cen.getShort(extra) & 0xffff;
+                    final int dataSize = cen.getShort(extra + 2) & 0xffff;
+                    if (tag == ZIP64_EXTID) {
+                        int field = extra + 4;
+                        if (size == 0xffffffffL) {
+                            size = cen.getLong(field);
+                            field += 8;
+                        }
+                        if (compressedSize == 0xffffffffL) {
+                            compressedSize = cen.getLong(field);
+                            field += 8;
+                        }
+                        if (offset == 0xffffffffL) {
+                            offset = cen.getLong(field);
+                        }
+                        break;
+                    }
+                    extra += 4 + dataSize;
+                }
+            }
+            directory.compressedSizes[i] = compressedSize;
+            directory.sizes[i] = size;
+            directory.localHeaderOffsets[i] = base + offset;
+            pos += CENHDR + nameLength + extraLength + commentLength;
+        }
+        return directory;
+    }
+
+    /**
+     * Get the position of the first byte of an entry's data, by reading the local header at the given offset.
+     *
+     * @param channel the archive channel
+     * @param localHeaderOffset the absolute offset of the entry's local header
+     * @return the absolute offset of the entry data
+     * @throws IOException if the local header cannot be read or is invalid
+     */
+    static long getDataOffset(FileChannel channel, long localHeaderOffset) throws IOException {
+        final ByteBuffer header = readFully(channel, localHeaderOffset, LOCHDR);
+        if (header.getInt(0) != LOCSIG) {
+            throw new ZipException("Invalid local file header");
+        }
+        return localHeaderOffset + LOCHDR + (header.getShort(26) & 0xffff) + (header.getShort(28) & 0xffff);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) == -1) {
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    String getName(int index) {
+        return names[index];
+    }
+
+    int getMethod(int index) {
+        return methods[index];
+    }
+
+    long getCrc(int index) {
+        return crcs[index];
+    }
+
+    long getCompressedSize(int index) {
+        return compressedSizes[index];
+    }
+
+    long getSize(int index) {
+        return sizes[index];
+    }
+
+    long getDosTime(int index) {
+        return dosTimes[index];
+    }
+
+    long getLocalHeaderOffset(int index) {
+        return localHeaderOffsets[index];
+    }
+}
@@ -0,0 +1,599 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import org.jboss.vfs.CasePolicy;
+import org.jboss.vfs.NamePredicate;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.util.PathTokenizer;
+
+/**
+ * The entry index of a zip filesystem, packed into parallel arrays.  Every file and directory of the archive is a node,
+ * numbered so that the children of a directory are consecutive.  A child is found by probing a single open-addressing
+ * table keyed by its parent and (folded) name, and the entry metadata is read from primitive arrays at the node
+ * number.  No {@link JarEntry} is retained; one is fetched from the archive by name when an operation needs it.
+ */
+final class ZipIndex {
+
+    static final int ROOT = 0;
+    static final int NONE = -1;
+
+    private static final int FILE = -1;
+    private static final long UNKNOWN_TIME = Long.MIN_VALUE;
+
+    private final CasePolicy casePolicy;
+    private final String[] names;
+    // the same array as names unless names are folded
+    private final String[] keys;
+    private final int[] parents;
+    // node + 1 at the slot of its parent and key, or 0
+    private final int[] table;
+    private final int tableMask;
+    private final int[] firstChildren;
+    // FILE for files
+    private final int[] childCounts;
+    private final long[] sizes;
+    // UNKNOWN_TIME until first read; converting the DOS time of every entry would dominate building the index
+    private final AtomicLongArray times;
+    private final int[] crcs;
+    private final BitSet storedEntries;
+    // entries whose names are not the plain '/'-joined path of their node
+    private final Map<Integer, String> entryNames;
+    private final BloomFilter lookupFilter;
+    private final AtomicReferenceArray<File> cachedFiles;
+    // the sorted child names of the directories which have been queried by prefix
+    private final Map<Integer, String[]> sortedNames = new ConcurrentHashMap<Integer, String[]>();
+    private final Object offsetLock = new Object();
+    private volatile long[] localHeaderOffsets;
+    private AtomicLongArray dataOffsets;
+
+    private ZipIndex(CasePolicy casePolicy, int nodeCount, BloomFilter lookupFilter) {
+        this.casePolicy = casePolicy;
+        names = new String[nodeCount];
+        keys = casePolicy == CasePolicy.SENSITIVE ? names : new String[nodeCount];
+        parents = new int[nodeCount];
+        final int tableSize = Math.max(2, Integer.highestOneBit(nodeCount - 1) << 2);
+        table = new int[tableSize];
+        tableMask = tableSize - 1;
+        firstChildren = new int[nodeCount];
+        childCounts = new int[nodeCount];
+        sizes = new long[nodeCount];
+        times = new AtomicLongArray(nodeCount);
+        crcs = new int[nodeCount];
+        storedEntries = new BitSet(nodeCount);
+        entryNames = new HashMap<Integer, String>(0);
+        this.lookupFilter = lookupFilter;
+        cachedFiles = new AtomicReferenceArray<File>(nodeCount);
+    }
+
+    private ZipIndex(CasePolicy casePolicy, String[] names, int[] parents, int[] table, int[] firstChildren,
+            int[] childCounts, long[] sizes, int[] crcs, BitSet storedEntries, Map<Integer, String> entryNames,
+            BloomFilter lookupFilter) {
+        final int nodeCount = names.length;
+        this.casePolicy = casePolicy;
+        this.names = names;
+        if (casePolicy == CasePolicy.SENSITIVE) {
+            keys = names;
+        } else {
+            keys = new String[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                keys[i] = casePolicy.fold(names[i]);
+            }
+        }
+        this.parents = parents;
+        this.table = table;
+        tableMask = table.length - 1;
+        this.firstChildren = firstChildren;
+        this.childCounts = childCounts;
+        this.sizes = sizes;
+        times = new AtomicLongArray(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            if (childCounts[i] == FILE) {
+                times.set(i, UNKNOWN_TIME);
+            }
+        }
+        this.crcs = crcs;
+        this.storedEntries = storedEntries;
+        this.entryNames = entryNames;
+        this.lookupFilter = lookupFilter;
+        cachedFiles = new AtomicReferenceArray<File>(nodeCount);
+    }
+
+    /**
+     * Build the index of an archive.  If several entries map to the same node, the first one in the archive is used.
+     *
+     * @param zipFile                the archive
+     * @param casePolicy             the policy by which names are folded
+     * @param lookupFalsePositiveRate the false positive rate of the lookup filter
+     * @return the index
+     */
+    static ZipIndex build(JarFile zipFile, CasePolicy casePolicy, double lookupFalsePositiveRate) {
+        final Builder root = new Builder("", "", null);
+        root.hash = PathHash.ROOT;
+        int nodeCount = 1;
+        final Enumeration<? extends JarEntry> entries = zipFile.entries();
+        FILES:
+        while (entries.hasMoreElements()) {
+            final JarEntry entry = entries.nextElement();
+            final String name = entry.getName();
+            final boolean isDirectory = entry.isDirectory();
+            final List<String> tokens = PathTokenizer.getTokens(name);
+            Builder node = root;
+            long hash = PathHash.ROOT;
+            for (int i = 0; i < tokens.size(); i++) {
+                final String token = tokens.get(i);
+                if (PathTokenizer.isCurrentToken(token) || PathTokenizer.isReverseToken(token)) {
+                    // invalid file name
+                    continue FILES;
+                }
+                if (node.entry != null) {
+                    // todo - log bad zip entry
+                    continue FILES;
+                }
+                final String key = casePolicy.fold(token);
+                hash = PathHash.child(hash, key);
+                Builder child = node.children.get(key);
+                if (child == null) {
+                    final boolean isFile = i == tokens.size() - 1 && !isDirectory;
+                    child = new Builder(key, token, isFile ? entry : null);
+                    if (isFile && !isPath(name, tokens)) {
+                        child.entryName = name;
+                    }
+                    child.hash = hash;
+                    node.children.put(key, child);
+                    nodeCount++;
+                }
+                node = child;
+            }
+        }
+        // size the filter from the final node count, which includes implicit parent directories, not the entry count
+        final ZipIndex index = new ZipIndex(casePolicy, nodeCount, new BloomFilter(nodeCount, lookupFalsePositiveRate));
+        // number the nodes breadth first, so that the children of each directory are consecutive
+        final ArrayDeque<Builder> queue = new ArrayDeque<Builder>();
+        index.add(ROOT, NONE, root);
+        queue.add(root);
+        int next = 1;
+        while (!queue.isEmpty()) {
+            final Builder directory = queue.remove();
+            index.firstChildren[directory.node] = next;
+            index.childCounts[directory.node] = directory.children.size();
+            for (Builder child : directory.children.values()) {
+                index.add(next++, directory.node, child);
+                if (child.entry == null) {
+                    queue.add(child);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Write the index to a buffer, in the layout read by {@link #read(ByteBuffer, CasePolicy)}.  Entry times, which are
+     * read on first use, and the state of the mount, such as extracted files, are not written.
+     *
+     * @return the buffer, flipped for reading
+     */
+    ByteBuffer write() {
+        final int nodeCount = names.length;
+        final byte[][] encodedNames = new byte[nodeCount][];
+        int size = 4 + nodeCount * (4 + 4 + 4 + 4 + 4 + 8);
+        for (int i = 0; i < nodeCount; i++) {
+            encodedNames[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            size += encodedNames[i].length;
+        }
+        final long[] stored = storedEntries.toLongArray();
+        final long[] bits = lookupFilter.getBits();
+        size += 4 + table.length * 4 + 4 + stored.length * 8 + 4 + 4 + 4 + bits.length * 8 + 4;
+        final byte[][] encodedEntryNames = new byte[entryNames.size()][];
+        int i = 0;
+        for (String entryName : entryNames.values()) {
+            encodedEntryNames[i] = entryName.getBytes(StandardCharsets.UTF_8);
+            size += 8 + encodedEntryNames[i++].length;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(nodeCount);
+        int nameEnd = 0;
+        for (byte[] encodedName : encodedNames) {
+            buffer.putInt(nameEnd += encodedName.length);
+        }
+        for (byte[] encodedName : encodedNames) {
+            buffer.put(encodedName);
+        }
+        buffer.asIntBuffer().put(parents);
+        buffer.position(buffer.position() + nodeCount * 4);
+        buffer.asIntBuffer().put(firstChildren);
+        buffer.position(buffer.position() + nodeCount * 4);
+        buffer.asIntBuffer().put(childCounts);
+        buffer.position(buffer.position() + nodeCount * 4);
+        buffer.asIntBuffer().put(crcs);
+        buffer.position(buffer.position() + nodeCount * 4);
+        buffer.asLongBuffer().put(sizes);
+        buffer.position(buffer.position() + nodeCount * 8);
+        buffer.putInt(table.length);
+        buffer.asIntBuffer().put(table);
+        buffer.position(buffer.position() + table.length * 4);
+        buffer.putInt(stored.length);
+        buffer.asLongBuffer().put(stored);
+        buffer.position(buffer.position() + stored.length * 8);
+        buffer.putInt(lookupFilter.getHashCount());
+        buffer.putInt(lookupFilter.getEntryCount());
+        buffer.putInt(bits.length);
+        buffer.asLongBuffer().put(bits);
+        buffer.position(buffer.position() + bits.length * 8);
+        buffer.putInt(entryNames.size());
+        i = 0;
+        for (Integer node : entryNames.keySet()) {
+            buffer.putInt(node.intValue());
+            buffer.putInt(encodedEntryNames[i].length);
+            buffer.put(encodedEntryNames[i++]);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Read an index written by {@link #write()}.  The arrays are copied out of the buffer in bulk, so it may be a
+     * mapping of a file which is closed afterwards.
+     *
+     * @param buffer     the buffer
+     * @param casePolicy the policy by which the names were folded when the index was built
+     * @return the index
+     * @throws java.nio.BufferUnderflowException if the buffer is truncated
+     */
+    static ZipIndex read(ByteBuffer buffer, CasePolicy casePolicy) {
+        final int nodeCount = buffer.getInt();
+        final int[] nameEnds = new int[nodeCount];
+        buffer.asIntBuffer().get(nameEnds);
+        buffer.position(buffer.position() + nodeCount * 4);
+        final String[] names = new String[nodeCount];
+        final byte[] nameBytes = new byte[nodeCount == 0 ? 0 : nameEnds[nodeCount - 1]];
+        buffer.get(nameBytes);
+        for (int i = 0, nameStart = 0; i < nodeCount; nameStart = nameEnds[i++]) {
+            names[i] = new String(nameBytes, nameStart, nameEnds[i] - nameStart, StandardCharsets.UTF_8);
+        }
+        final int[] parents = readInts(buffer, nodeCount);
+        final int[] firstChildren = readInts(buffer, nodeCount);
+        final int[] childCounts = readInts(buffer, nodeCount);
+        final int[] crcs = readInts(buffer, nodeCount);
+        final long[] sizes = readLongs(buffer, nodeCount);
+        final int[] table = readInts(buffer, buffer.getInt());
+        final BitSet storedEntries = BitSet.valueOf(readLongs(buffer, buffer.getInt()));
+        final int hashCount = buffer.getInt();
+        final int entryCount = buffer.getInt();
+        final BloomFilter lookupFilter = new BloomFilter(readLongs(buffer, buffer.getInt()), hashCount, entryCount);
+        final int entryNameCount = buffer.getInt();
+        final Map<Integer, String> entryNames = new HashMap<Integer, String>(0);
+        for (int i = 0; i < entryNameCount; i++) {
+            final int node = buffer.getInt();
+            final byte[] entryName = new byte[buffer.getInt()];
+            buffer.get(entryName);
+            entryNames.put(Integer.valueOf(node), new String(entryName, StandardCharsets.UTF_8));
+        }
+        return new ZipIndex(casePolicy, names, parents, table, firstChildren, childCounts, sizes, crcs, storedEntries,
+                entryNames, lookupFilter);
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        final int[] ints = new int[count];
+        buffer.asIntBuffer().get(ints);
+        buffer.position(buffer.position() + count * 4);
+        return ints;
+    }
+
+    private static long[] readLongs(ByteBuffer buffer, int count) {
+        final long[] longs = new long[count];
+        buffer.asLongBuffer().get(longs);
+        buffer.position(buffer.position() + count * 8);
+        return longs;
+    }
+
+    private void add(int node, int parent, Builder builder) {
+        builder.node = node;
+        lookupFilter.add(builder.hash);
+        names[node] = builder.name;
+        keys[node] = builder.key;
+        parents[node] = parent;
+        if (node != ROOT) {
+            int slot = slot(parent, builder.key);
+            while (table[slot] != 0) {
+                slot = slot + 1 & tableMask;
+            }
+            table[slot] = node + 1;
+        }
+        final JarEntry entry = builder.entry;
+        if (entry != null) {
+            childCounts[node] = FILE;
+            sizes[node] = entry.getSize();
+            times.set(node, UNKNOWN_TIME);
+            crcs[node] = (int) entry.getCrc();
+            storedEntries.set(node, entry.getMethod() == ZipEntry.STORED);
+            if (builder.entryName != null) {
+                entryNames.put(Integer.valueOf(node), builder.entryName);
+            }
+        }
+    }
+
+    private static boolean isPath(String name, List<String> tokens) {
+        int pos = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (i > 0 && (pos >= name.length() || name.charAt(pos++) != '/')) {
+                return false;
+            }
+            final String token = tokens.get(i);
+            if (!name.startsWith(token, pos)) {
+                return false;
+            }
+            pos += token.length();
+        }
+        return pos == name.length();
+    }
+
+    /**
+     * Find the node of a virtual file.
+     *
+     * @param mountPoint the mount point of the archive
+     * @param target     the virtual file
+     * @return the node, or {@link #NONE} if there is no such file
+     */
+    int find(VirtualFile mountPoint, VirtualFile target) {
+        if (mountPoint.equals(target)) {
+            return ROOT;
+        }
+        final int parent = find(mountPoint, target.getParent());
+        return parent == NONE ? NONE : getChild(parent, casePolicy.getKey(target));
+    }
+
+    /**
+     * Find a child of a node.
+     *
+     * @param node the node
+     * @param key  the folded name of the child
+     * @return the child, or {@link #NONE} if there is no such child
+     */
+    int getChild(int node, String key) {
+        final int count = childCounts[node];
+        if (count <= 0) {
+            return NONE;
+        }
+        for (int slot = slot(node, key);; slot = slot + 1 & tableMask) {
+            final int child = table[slot] - 1;
+            if (child == NONE) {
+                return NONE;
+            }
+            if (parents[child] == node && keys[child].equals(key)) {
+                return child;
+            }
+        }
+    }
+
+    private int slot(int parent, String key) {
+        final int h = (key.hashCode() + parent * 0x9e3779b9) * 0x9e3779b9;
+        return (h ^ h >>> 16) & tableMask;
+    }
+
+    int getNodeCount() {
+        return names.length;
+    }
+
+    BloomFilter getLookupFilter() {
+        return lookupFilter;
+    }
+
+    boolean isFile(int node) {
+        return childCounts[node] == FILE;
+    }
+
+    boolean isStored(int node) {
+        return storedEntries.get(node);
+    }
+
+    long getSize(int node) {
+        return sizes[node];
+    }
+
+    /**
+     * Get the modification time of a file node.  The time of each entry is read from the archive on first use.
+     *
+     * @param zipFile the archive
+     * @param node    the node
+     * @return the modification time, or -1 if it is not known
+     */
+    long getTime(JarFile zipFile, int node) {
+        long time = times.get(node);
+        if (time == UNKNOWN_TIME) {
+            final JarEntry entry = zipFile.getJarEntry(getEntryName(node));
+            time = entry == null ? -1L : entry.getTime();
+            times.set(node, time);
+        }
+        return time;
+    }
+
+    int getCrc(int node) {
+        return crcs[node];
+    }
+
+    int getFirstChild(int node) {
+        return firstChildren[node];
+    }
+
+    int getChildCount(int node) {
+        return Math.max(0, childCounts[node]);
+    }
+
+    /**
+     * Get the names of the children of a node.
+     *
+     * @param node the node
+     * @return the names
+     */
+    List<String> getChildNames(int node) {
+        final int count = getChildCount(node);
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        final int first = firstChildren[node];
+        return new ArrayList<String>(Arrays.asList(names).subList(first, first + count));
+    }
+
+    /**
+     * Get the names of the children of a node which are accepted by a predicate.
+     *
+     * @param node      the node
+     * @param predicate the predicate
+     * @return the accepted names, in natural order
+     */
+    List<String> getChildNames(int node, NamePredicate predicate) {
+        final int count = getChildCount(node);
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        final Integer key = Integer.valueOf(node);
+        String[] sortedNames = this.sortedNames.get(key);
+        if (sortedNames == null) {
+            // the children never change once built, so racing threads compute the same array
+            final int first = firstChildren[node];
+            sortedNames = Arrays.copyOfRange(names, first, first + count);
+            Arrays.sort(sortedNames);
+            this.sortedNames.put(key, sortedNames);
+        }
+        return SortedNames.getMatching(sortedNames, predicate);
+    }
+
+    /**
+     * Get the name of the archive entry of a file node.
+     *
+     * @param node the node
+     * @return the entry name
+     */
+    String getEntryName(int node) {
+        final String entryName = entryNames.get(Integer.valueOf(node));
+        if (entryName != null) {
+            return entryName;
+        }
+        final StringBuilder b = new StringBuilder(names[node]);
+        for (int parent = parents[node]; parent != ROOT; parent = parents[parent]) {
+            b.insert(0, '/').insert(0, names[parent]);
+        }
+        return b.toString();
+    }
+
+    File getCachedFile(int node) {
+        return cachedFiles.get(node);
+    }
+
+    void setCachedFile(int node, File file) {
+        cachedFiles.set(node, file);
+    }
+
+    /**
+     * Get the position of the data of a STORED file node within the archive.  The positions of the local headers of
+     * the STORED entries are read from the central directory on first use.
+     *
+     * @param channel the archive channel
+     * @param node    the node
+     * @return the position of the first byte of the entry data
+     * @throws IOException if the archive cannot be read
+     */
+    long getDataOffset(FileChannel channel, int node) throws IOException {
+        long[] localHeaderOffsets = this.localHeaderOffsets;
+        if (localHeaderOffsets == null) {
+            synchronized (offsetLock) {
+                localHeaderOffsets = this.localHeaderOffsets;
+                if (localHeaderOffsets == null) {
+                    localHeaderOffsets = readLocalHeaderOffsets(channel);
+                    dataOffsets = new AtomicLongArray(localHeaderOffsets.length);
+                    this.localHeaderOffsets = localHeaderOffsets;
+                }
+            }
+        }
+        long dataOffset = dataOffsets.get(node);
+        if (dataOffset == 0L) {
+            if (localHeaderOffsets[node] == -1L) {
+                throw new ZipException(getEntryName(node));
+            }
+            // a local header precedes the data, so no data starts at zero
+            dataOffset = ZipCentralDirectory.getDataOffset(channel, localHeaderOffsets[node]);
+            dataOffsets.set(node, dataOffset);
+        }
+        return dataOffset;
+    }
+
+    private long[] readLocalHeaderOffsets(FileChannel channel) throws IOException {
+        final ZipCentralDirectory directory = ZipCentralDirectory.read(channel);
+        final long[] offsets = new long[names.length];
+        Arrays.fill(offsets, -1L);
+        for (int i = 0; i < directory.size(); i++) {
+            if (directory.getMethod(i) != ZipEntry.STORED) {
+                continue;
+            }
+            int node = ROOT;
+            for (String token : PathTokenizer.getTokens(directory.getName(i))) {
+                node = getChild(node, casePolicy.fold(token));
+                if (node == NONE) {
+                    break;
+                }
+            }
+            // the first of any duplicate entries wins, as it does in the node tree
+            if (node != NONE && isFile(node) && offsets[node] == -1L) {
+                offsets[node] = directory.getLocalHeaderOffset(i);
+            }
+        }
+        return offsets;
+    }
+
+    private static final class Builder {
+
+        private final String key;
+        private final String name;
+        private final JarEntry entry;
+        private final Map<String, Builder> children;
+        private String entryName;
+        private long hash;
+        private int node;
+
+        Builder(String key, String name, JarEntry entry) {
+            this.key = key;
+            this.name = name;
+            this.entry = entry;
+            children = entry == null ? new HashMap<String, Builder>() : null;
+        }
+    }
+}
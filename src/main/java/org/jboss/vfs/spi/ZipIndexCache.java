@@ -0,0 +1,282 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.spi;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+import org.jboss.vfs.CasePolicy;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFSLogger;
+import org.jboss.vfs.VFSMessages;
+
+/**
+ * A cache of zip entry indexes on disk, so that an archive which has not changed since an earlier mount, possibly in
+ * an earlier run or another process, need not be indexed again.
+ * <p/>
+ * Each archive has one cache file, named by its canonical path and case policy, which holds the index as a flat
+ * sequence of arrays.  A cache file is used only if the size, modification time and a checksum of the trailing bytes
+ * (which hold the central directory) of the archive are those it was written for, and its own checksum is intact;
+ * otherwise the index is rebuilt and the file replaced.  Files are written to a temporary name and moved into place,
+ * so processes which share the directory never see a partial file, and they are read by mapping them, so the page
+ * cache is shared as well.
+ * <p/>
+ * The cache is optional.  It is used by the zip filesystems created with it, or with the {@linkplain #getDefault()
+ * default cache} if one is set.
+ */
+public final class ZipIndexCache {
+
+    private static final int MAGIC = 0x565a4958;
+    private static final int VERSION = 1;
+    private static final int TAIL_SIZE = 1024;
+
+    private static volatile ZipIndexCache defaultCache;
+
+    private final File directory;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * Construct a new instance.
+     *
+     * @param directory the directory in which the cache files are kept; it is created if it does not exist
+     */
+    public ZipIndexCache(File directory) {
+        if (directory == null) {
+            throw VFSMessages.MESSAGES.nullArgument("directory");
+        }
+        directory.mkdirs();
+        this.directory = directory;
+    }
+
+    /**
+     * Create a cache in the persistent cache directory of the temporary file root, which is shared by every
+     * {@link TempFileProvider} on the host.
+     *
+     * @return the cache
+     */
+    public static ZipIndexCache create() {
+        return new ZipIndexCache(TempFileProvider.getCacheDir("zip-index"));
+    }
+
+    /**
+     * Get the cache used by zip filesystems which are not given one.
+     *
+     * @return the default cache, or {@code null} if none is set
+     */
+    public static ZipIndexCache getDefault() {
+        return defaultCache;
+    }
+
+    /**
+     * Set the cache used by zip filesystems which are not given one.  It affects the filesystems created afterwards.
+     *
+     * @param cache the default cache, or {@code null} to use none
+     */
+    public static void setDefault(ZipIndexCache cache) {
+        defaultCache = cache;
+    }
+
+    /**
+     * Get the directory in which the cache files are kept.
+     *
+     * @return the directory
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the number of indexes loaded from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of indexes which were not in the cache, or whose cache file was stale or damaged.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of cache files written.
+     *
+     * @return the store count
+     */
+    public long getStoreCount() {
+        return stores.sum();
+    }
+
+    /**
+     * Get the key of the cache file of an archive.
+     *
+     * @param archiveFile the archive
+     * @param casePolicy  the case policy of the index
+     * @return the key
+     * @throws IOException if the archive cannot be read
+     */
+    Key getKey(File archiveFile, CasePolicy casePolicy) throws IOException {
+        final String path = archiveFile.getCanonicalPath();
+        final CRC32 crc = new CRC32();
+        final long size;
+        try (FileChannel channel = FileChannel.open(archiveFile.toPath(), StandardOpenOption.READ)) {
+            size = channel.size();
+            final ByteBuffer tail = ByteBuffer.allocate((int) Math.min(size, TAIL_SIZE));
+            while (tail.hasRemaining() && channel.read(tail, size - tail.capacity() + tail.position()) != -1) {
+                // keep reading
+            }
+            tail.flip();
+            crc.update(tail);
+        }
+        final String name = UUID.nameUUIDFromBytes((path + '\n' + casePolicy).getBytes(StandardCharsets.UTF_8)) + ".idx";
+        return new Key(new File(directory, name), path, casePolicy, size, archiveFile.lastModified(), crc.getValue());
+    }
+
+    /**
+     * Load the cached index for a key.
+     *
+     * @param key the key
+     * @return the index, or {@code null} if there is no cache file, or it is stale or damaged
+     */
+    ZipIndex load(Key key) {
+        try (FileChannel channel = FileChannel.open(key.file.toPath(), StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !key.matches(buffer)) {
+                misses.increment();
+                return null;
+            }
+            final long checksum = buffer.getLong();
+            final ByteBuffer body = buffer.slice();
+            final CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if (crc.getValue() != checksum) {
+                misses.increment();
+                return null;
+            }
+            final ZipIndex index = ZipIndex.read(body, key.casePolicy);
+            hits.increment();
+            return index;
+        } catch (NoSuchFileException e) {
+            misses.increment();
+            return null;
+        } catch (IOException | RuntimeException e) {
+            VFSLogger.ROOT_LOGGER.debugf(e, "Ignoring unreadable index cache file %s", key.file);
+            misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Store an index in the cache, replacing any existing file for its key.  Failures are logged, not thrown, since
+     * the index is usable without its cache file.
+     *
+     * @param key   the key
+     * @param index the index
+     */
+    void store(Key key, ZipIndex index) {
+        final ByteBuffer body = index.write();
+        final CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        final byte[] path = key.path.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer header = ByteBuffer.allocate(4 + 4 + 4 + path.length + 4 + 8 + 8 + 8 + 8);
+        header.putInt(MAGIC).putInt(VERSION);
+        header.putInt(path.length).put(path);
+        header.putInt(key.casePolicy.ordinal()).putLong(key.size).putLong(key.lastModified).putLong(key.tailChecksum);
+        header.putLong(crc.getValue());
+        header.flip();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory.toPath(), key.file.getName(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[] {header, body});
+                }
+            }
+            try {
+                Files.move(temp, key.file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, key.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            stores.increment();
+        } catch (IOException e) {
+            VFSLogger.ROOT_LOGGER.failedToWriteIndexCache(key.path, key.file, e);
+            if (temp != null) {
+                temp.toFile().delete();
+            }
+        }
+    }
+
+    public String toString() {
+        return "ZipIndexCache[" + directory + "]";
+    }
+
+    static final class Key {
+
+        private final File file;
+        private final String path;
+        private final CasePolicy casePolicy;
+        private final long size;
+        private final long lastModified;
+        private final long tailChecksum;
+
+        Key(File file, String path, CasePolicy casePolicy, long size, long lastModified, long tailChecksum) {
+            this.file = file;
+            this.path = path;
+            this.casePolicy = casePolicy;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.tailChecksum = tailChecksum;
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        private boolean matches(ByteBuffer header) {
+            final int length = header.getInt();
+            if (length < 0 || length > header.remaining()) {
+                return false;
+            }
+            final byte[] path = new byte[length];
+            header.get(path);
+            return this.path.equals(new String(path, StandardCharsets.UTF_8)) && header.getInt() == casePolicy.ordinal()
+                    && header.getLong() == size && header.getLong() == lastModified && header.getLong() == tailChecksum;
+        }
+    }
+}
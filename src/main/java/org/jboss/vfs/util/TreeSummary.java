@@ -0,0 +1,300 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.vfs.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSMessages;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VirtualFileAttributes;
+
+/**
+ * An immutable Merkle summary of a virtual directory tree, for cheap change detection.  Each directory is summarized
+ * by a hash of the names, sizes and modification times of its entries and of the hashes of its subdirectories, so
+ * two summaries of an unchanged subtree have the same hash and comparing them never descends into it.
+ * <p/>
+ * A summary is refreshed from its predecessor.  Only directories whose own modification time moved are listed again;
+ * the others reuse the listing held in the previous summary.  Because a directory's modification time changes when
+ * entries are added, removed or renamed but not when a file's content is rewritten, a normal refresh still reads the
+ * attributes of every file (in bulk, through {@link VFS#getAttributes(java.util.Collection)}).  A <em>shallow</em>
+ * refresh also trusts the previous attributes of the files in unchanged directories, so it only touches directories;
+ * it is the cheapest option for trees whose files are replaced rather than rewritten in place, as is usual for
+ * deployments.
+ */
+public final class TreeSummary {
+
+    private final VirtualFile root;
+    private final DirectoryNode node;
+
+    private TreeSummary(VirtualFile root, DirectoryNode node) {
+        this.root = root;
+        this.node = node;
+    }
+
+    /**
+     * Build the summary of a directory tree.
+     *
+     * @param root the root directory of the tree
+     * @return the summary
+     */
+    public static TreeSummary build(VirtualFile root) {
+        if (root == null) {
+            throw VFSMessages.MESSAGES.nullArgument("root");
+        }
+        return new TreeSummary(root, scan(root, root.getAttributes(), null, false));
+    }
+
+    /**
+     * Build a new summary of the same tree, reusing the listings of directories which have not been modified.
+     *
+     * @return the new summary
+     */
+    public TreeSummary refresh() {
+        return refresh(false);
+    }
+
+    /**
+     * Build a new summary of the same tree, reusing the listings of directories which have not been modified.
+     *
+     * @param shallow {@code true} to also reuse the file attributes of directories which have not been modified
+     * @return the new summary
+     */
+    public TreeSummary refresh(boolean shallow) {
+        return new TreeSummary(root, scan(root, root.getAttributes(), node, shallow));
+    }
+
+    /**
+     * Get the root of the summarized tree.
+     *
+     * @return the root directory
+     */
+    public VirtualFile getRoot() {
+        return root;
+    }
+
+    /**
+     * Get the hash of the whole tree.
+     *
+     * @return the hash, or 0 if the root is not a directory
+     */
+    public long getHash() {
+        return node == null ? 0L : node.hash;
+    }
+
+    /**
+     * Get the paths which differ between a previous summary of this tree and this one: the files and directories which
+     * were added or removed (including everything below an added or removed directory), and the files whose size or
+     * modification time changed.
+     *
+     * @param previous the previous summary
+     * @return the changed paths, relative to the root, in sorted order
+     * @throws IllegalArgumentException if the previous summary is of a different tree
+     */
+    public SortedSet<String> getChangedPaths(TreeSummary previous) {
+        if (previous == null) {
+            throw VFSMessages.MESSAGES.nullArgument("previous");
+        }
+        if (!previous.root.equals(root)) {
+            throw new IllegalArgumentException("Summaries are of different trees");
+        }
+        final SortedSet<String> changed = new TreeSet<String>();
+        diff("", previous.node, node, changed);
+        return changed;
+    }
+
+    private static DirectoryNode scan(VirtualFile directory, VirtualFileAttributes attributes, DirectoryNode previous, boolean shallow) {
+        if (!attributes.isDirectory()) {
+            return null;
+        }
+        final boolean unmodified = previous != null && previous.lastModified == attributes.getLastModified();
+        final String[] names;
+        if (unmodified) {
+            names = previous.names;
+        } else {
+            final List<VirtualFile> children = directory.getChildren();
+            names = new String[children.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = children.get(i).getName();
+            }
+            Arrays.sort(names);
+        }
+        final boolean reuseFiles = unmodified && shallow;
+        final List<VirtualFile> queried = new ArrayList<VirtualFile>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            if (!reuseFiles || previous.directories[i] != null) {
+                queried.add(directory.getChild(names[i]));
+            }
+        }
+        final Map<VirtualFile, VirtualFileAttributes> queriedAttributes = VFS.getAttributes(queried);
+        final DirectoryNode.Builder builder = new DirectoryNode.Builder(attributes.getLastModified(), names.length);
+        for (int i = 0; i < names.length; i++) {
+            final String name = names[i];
+            if (reuseFiles && previous.directories[i] == null) {
+                builder.add(name, previous.sizes[i], previous.lastModifieds[i], null);
+                continue;
+            }
+            final VirtualFile child = directory.getChild(name);
+            final VirtualFileAttributes childAttributes = queriedAttributes.get(child);
+            if (!childAttributes.exists()) {
+                // removed since the directory was listed
+                continue;
+            }
+            if (childAttributes.isDirectory()) {
+                final DirectoryNode previousChild = previous == null ? null : previous.getDirectory(name);
+                builder.add(name, 0L, childAttributes.getLastModified(), scan(child, childAttributes, previousChild, shallow));
+            } else {
+                builder.add(name, childAttributes.getSize(), childAttributes.getLastModified(), null);
+            }
+        }
+        return builder.build();
+    }
+
+    private static void diff(String path, DirectoryNode before, DirectoryNode after, SortedSet<String> changed) {
+        if (before == after || before != null && after != null && before.hash == after.hash) {
+            return;
+        }
+        if (before == null || after == null) {
+            if (!path.isEmpty()) {
+                changed.add(path);
+            }
+            addAll(path, before == null ? after : before, changed);
+            return;
+        }
+        int i = 0;
+        int j = 0;
+        while (i < before.names.length || j < after.names.length) {
+            final int cmp = i == before.names.length ? 1 : j == after.names.length ? -1 : before.names[i].compareTo(after.names[j]);
+            if (cmp < 0) {
+                addEntry(path, before, i++, changed);
+            } else if (cmp > 0) {
+                addEntry(path, after, j++, changed);
+            } else {
+                final DirectoryNode beforeChild = before.directories[i];
+                final DirectoryNode afterChild = after.directories[j];
+                final String childPath = child(path, before.names[i]);
+                if (beforeChild != null && afterChild != null) {
+                    diff(childPath, beforeChild, afterChild, changed);
+                } else if (beforeChild != null || afterChild != null) {
+                    changed.add(childPath);
+                    addAll(childPath, beforeChild != null ? beforeChild : afterChild, changed);
+                } else if (before.sizes[i] != after.sizes[j] || before.lastModifieds[i] != after.lastModifieds[j]) {
+                    changed.add(childPath);
+                }
+                i++;
+                j++;
+            }
+        }
+    }
+
+    private static void addEntry(String path, DirectoryNode node, int index, SortedSet<String> changed) {
+        final String childPath = child(path, node.names[index]);
+        changed.add(childPath);
+        if (node.directories[index] != null) {
+            addAll(childPath, node.directories[index], changed);
+        }
+    }
+
+    private static void addAll(String path, DirectoryNode node, SortedSet<String> changed) {
+        for (int i = 0; i < node.names.length; i++) {
+            addEntry(path, node, i, changed);
+        }
+    }
+
+    private static String child(String path, String name) {
+        return path.isEmpty() ? name : path + "/" + name;
+    }
+
+    private static final class DirectoryNode {
+        private final long lastModified;
+        private final String[] names;
+        private final long[] sizes;
+        private final long[] lastModifieds;
+        private final DirectoryNode[] directories;
+        private final long hash;
+
+        private DirectoryNode(long lastModified, String[] names, long[] sizes, long[] lastModifieds, DirectoryNode[] directories) {
+            this.lastModified = lastModified;
+            this.names = names;
+            this.sizes = sizes;
+            this.lastModifieds = lastModifieds;
+            this.directories = directories;
+            long hash = mix(names.length);
+            for (int i = 0; i < names.length; i++) {
+                hash = mix(hash ^ names[i].hashCode());
+                hash = mix(hash ^ (directories[i] == null ? sizes[i] : directories[i].hash));
+                hash = mix(hash ^ lastModifieds[i]);
+            }
+            this.hash = hash;
+        }
+
+        private DirectoryNode getDirectory(String name) {
+            final int index = Arrays.binarySearch(names, name);
+            return index < 0 ? null : directories[index];
+        }
+
+        // the finalization step of MurmurHash3, which spreads every input bit over the whole result
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+
+        private static final class Builder {
+            private final long lastModified;
+            private final String[] names;
+            private final long[] sizes;
+            private final long[] lastModifieds;
+            private final DirectoryNode[] directories;
+            private int count;
+
+            private Builder(long lastModified, int capacity) {
+                this.lastModified = lastModified;
+                names = new String[capacity];
+                sizes = new long[capacity];
+                lastModifieds = new long[capacity];
+                directories = new DirectoryNode[capacity];
+            }
+
+            private void add(String name, long size, long lastModified, DirectoryNode directory) {
+                names[count] = name;
+                sizes[count] = size;
+                lastModifieds[count] = lastModified;
+                directories[count] = directory;
+                count++;
+            }
+
+            private DirectoryNode build() {
+                if (count == names.length) {
+                    return new DirectoryNode(lastModified, names, sizes, lastModifieds, directories);
+                }
+                return new DirectoryNode(lastModified, Arrays.copyOf(names, count), Arrays.copyOf(sizes, count),
+                        Arrays.copyOf(lastModifieds, count), Arrays.copyOf(directories, count));
+            }
+        }
+    }
+}
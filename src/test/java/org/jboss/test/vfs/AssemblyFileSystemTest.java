@@ -2,6 +2,7 @@ package org.jboss.test.vfs;
 
 import java.io.Closeable;
 import java.io.File;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.List;
@@ -72,6 +73,24 @@ public class AssemblyFileSystemTest extends AbstractVFSTest {
         }
     }
 
+    @Test
+    public void testTryOpenStream() throws Exception {
+
+        VirtualFile assemblyLocation = VFS.getChild("/assembly");
+        VirtualFileAssembly assembly = new VirtualFileAssembly();
+        Closeable assemblyHandle = VFS.mountAssembly(assembly, assemblyLocation);
+        try {
+            VirtualFile testDir = getVirtualFile("/vfs/test");
+            assembly.add("web.xml", testDir.getChild("test-web.xml"));
+            InputStream stream = assemblyLocation.getChild("web.xml").tryOpenStream();
+            assertNotNull(stream);
+            stream.close();
+            assertNull(assemblyLocation.getChild("missingFile.txt").tryOpenStream());
+        } finally {
+            VFSUtils.safeClose(assemblyHandle);
+        }
+    }
+
     @Test
     public void testDelete() throws Exception {
 
@@ -0,0 +1,161 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.AttributeCache;
+
+/**
+ * Tests of real filesystem mounts with an {@link AttributeCache}.
+ */
+public class AttributeCacheTestCase extends AbstractVFSTest {
+
+    private static final byte[] CONTENT = "cached".getBytes(StandardCharsets.UTF_8);
+
+    private File tempRoot;
+
+    public AttributeCacheTestCase(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        tempRoot = Files.createTempDirectory("vfs-attribute-cache").toFile();
+    }
+
+    protected void tearDown() throws Exception {
+        VFSUtils.recursiveDelete(tempRoot);
+        super.tearDown();
+    }
+
+    public void testCachedUntilInvalidated() throws Exception {
+        final AttributeCache cache = new AttributeCache(1000, 1, TimeUnit.HOURS, false);
+        final VirtualFile mountPoint = VFS.getChild("attribute-cache");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint, cache);
+        try {
+            final VirtualFile file = mountPoint.getChild("file.txt");
+            assertFalse(file.exists());
+            assertTrue(mountPoint.getChildren().isEmpty());
+
+            // changes behind the back of the VFS are not seen
+            Files.write(new File(tempRoot, "file.txt").toPath(), CONTENT);
+            assertFalse(file.exists());
+            assertTrue(mountPoint.getChildren().isEmpty());
+            assertTrue(cache.getHitCount() >= 2L);
+
+            // changes through the VFS are
+            VFSUtils.writeFile(file, CONTENT);
+            assertTrue(file.exists());
+            assertEquals(CONTENT.length, file.getSize());
+            assertEquals(1, mountPoint.getChildren().size());
+
+            assertTrue(file.delete());
+            assertFalse(file.exists());
+            assertTrue(mountPoint.getChildren().isEmpty());
+
+            Files.write(new File(tempRoot, "file.txt").toPath(), CONTENT);
+            cache.invalidateAll();
+            assertEquals(0, cache.size());
+            assertTrue(file.isFile());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testWriteCreatesDirectories() throws Exception {
+        final AttributeCache cache = new AttributeCache(1000, 1, TimeUnit.HOURS, false);
+        final VirtualFile mountPoint = VFS.getChild("attribute-cache-mkdirs");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint, cache);
+        try {
+            final VirtualFile a = mountPoint.getChild("a");
+            final VirtualFile b = a.getChild("b");
+            final VirtualFile file = b.getChild("c/file.txt");
+            assertFalse(a.exists());
+            assertFalse(b.exists());
+            assertTrue(mountPoint.getChildren().isEmpty());
+
+            // every directory created for the file is seen, not only its immediate parent
+            VFSUtils.writeFile(file, CONTENT);
+            assertTrue(file.exists());
+            assertTrue(a.isDirectory());
+            assertTrue(b.isDirectory());
+            assertEquals(1, mountPoint.getChildren().size());
+            assertEquals(1, a.getChildren().size());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testExpiry() throws Exception {
+        final AttributeCache cache = new AttributeCache(1000, 50, TimeUnit.MILLISECONDS, false);
+        final VirtualFile mountPoint = VFS.getChild("attribute-cache-expiry");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint, cache);
+        try {
+            final VirtualFile file = mountPoint.getChild("file.txt");
+            assertFalse(file.exists());
+            Files.write(new File(tempRoot, "file.txt").toPath(), CONTENT);
+            Thread.sleep(100L);
+            assertTrue(file.exists());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testRevalidation() throws Exception {
+        final AttributeCache cache = new AttributeCache(1000, 1, TimeUnit.HOURS, true);
+        final VirtualFile mountPoint = VFS.getChild("attribute-cache-revalidate");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint, cache);
+        try {
+            final VirtualFile file = mountPoint.getChild("file.txt");
+            assertFalse(file.exists());
+            assertTrue(mountPoint.getChildren().isEmpty());
+            assertFalse(file.exists());
+            Files.write(new File(tempRoot, "file.txt").toPath(), CONTENT);
+            // make sure the directory modification time moves even on coarse-grained file systems
+            assertTrue(tempRoot.setLastModified(tempRoot.lastModified() + 2000L));
+            assertTrue(file.exists());
+            assertEquals(1, mountPoint.getChildren().size());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testBounded() throws Exception {
+        final AttributeCache cache = new AttributeCache(8, 1, TimeUnit.HOURS, false);
+        final VirtualFile mountPoint = VFS.getChild("attribute-cache-bounded");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint, cache);
+        try {
+            for (int i = 0; i < 100; i++) {
+                assertFalse(mountPoint.getChild("file" + i + ".txt").exists());
+            }
+            assertTrue(cache.size() <= 8);
+            assertEquals(100L, cache.getMissCount());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+}
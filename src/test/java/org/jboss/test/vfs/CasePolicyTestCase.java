@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.Closeable;
+import java.io.File;
+
+import org.jboss.vfs.CasePolicy;
+import org.jboss.vfs.NamePredicate;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VirtualFileAssembly;
+
+/**
+ * Tests of the case policy of zip and assembly mounts.
+ */
+public class CasePolicyTestCase extends AbstractVFSTest {
+
+    public CasePolicyTestCase(String name) {
+        super(name);
+    }
+
+    public void testFold() {
+        assertEquals("Manifest.MF", CasePolicy.SENSITIVE.fold("Manifest.MF"));
+        assertEquals("manifest.mf", CasePolicy.INSENSITIVE.fold("Manifest.MF"));
+        final VirtualFile file = VFS.getChild("Case/Manifest.MF");
+        assertEquals(CasePolicy.INSENSITIVE.fold(file.getName()), CasePolicy.INSENSITIVE.getKey(file));
+        assertEquals(file.getName(), CasePolicy.SENSITIVE.getKey(file));
+    }
+
+    public void testSensitiveZip() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("case-sensitive.jar");
+        final Closeable handle = VFS.mountZip(getJar(), mountPoint, provider);
+        try {
+            assertTrue(mountPoint.getChild("META-INF/MANIFEST.MF").isFile());
+            assertFalse(mountPoint.getChild("meta-inf/manifest.mf").exists());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testInsensitiveZip() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("case-insensitive.jar");
+        final Closeable handle = VFS.mountZip(getJar(), mountPoint, provider, CasePolicy.INSENSITIVE);
+        try {
+            final VirtualFile manifest = mountPoint.getChild("meta-inf/manifest.mf");
+            assertTrue(manifest.isFile());
+            assertEquals(341L, manifest.getSize());
+            assertEquals(getContent(mountPoint.getChild("META-INF/MANIFEST.MF")).length, getContent(manifest).length);
+            assertTrue(mountPoint.getChild("ORG/JBOSS").isDirectory());
+            assertFalse(mountPoint.getChild("org/missing").exists());
+            // listings keep the names of the archive
+            assertEquals("META-INF", mountPoint.getMatchingChildren(NamePredicate.prefix("META")).get(0).getName());
+            assertEquals("MANIFEST.MF", mountPoint.getChild("meta-inf").getChildren().get(0).getName());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testAssemblyPolicies() throws Exception {
+        final VirtualFile webXml = getVirtualFile("/vfs/test/test-web.xml");
+        final VirtualFile insensitiveMount = VFS.getChild("case-insensitive-assembly");
+        final VirtualFileAssembly insensitive = new VirtualFileAssembly();
+        final VirtualFile sensitiveMount = VFS.getChild("case-sensitive-assembly");
+        final VirtualFileAssembly sensitive = new VirtualFileAssembly(CasePolicy.SENSITIVE);
+        final Closeable insensitiveHandle = VFS.mountAssembly(insensitive, insensitiveMount);
+        final Closeable sensitiveHandle = VFS.mountAssembly(sensitive, sensitiveMount);
+        try {
+            assertEquals(CasePolicy.INSENSITIVE, insensitive.getCasePolicy());
+            insensitive.add("WEB-INF/web.xml", webXml);
+            sensitive.add("WEB-INF/web.xml", webXml);
+            assertTrue(insensitiveMount.getChild("web-inf/WEB.XML").isFile());
+            assertTrue(sensitiveMount.getChild("WEB-INF/web.xml").isFile());
+            assertFalse(sensitiveMount.getChild("web-inf/WEB.XML").exists());
+            assertEquals("WEB-INF", insensitiveMount.getChildren().get(0).getName());
+        } finally {
+            VFSUtils.safeClose(sensitiveHandle, insensitiveHandle);
+            VFSUtils.safeClose(sensitive, insensitive);
+        }
+    }
+
+    private File getJar() throws Exception {
+        return new File(getResource("/vfs/test/jar1.jar").toURI());
+    }
+}
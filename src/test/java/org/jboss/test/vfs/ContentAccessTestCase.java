@@ -0,0 +1,635 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.test.vfs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import org.jboss.vfs.TreeStats;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VirtualFileAttributes;
+
+/**
+ * Tests of the buffer and channel based content access and bulk attribute methods of {@link VirtualFile} and {@link VFS}.
+ */
+public class ContentAccessTestCase extends AbstractVFSTest {
+
+    private static final byte[] STORED_CONTENT = "stored entry content".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DEFLATED_CONTENT = "deflated entry content, deflated entry content".getBytes(StandardCharsets.UTF_8);
+
+    private File tempRoot;
+    private File archive;
+
+    public ContentAccessTestCase(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        tempRoot = Files.createTempDirectory("vfs-content").toFile();
+        archive = new File(tempRoot, "content.jar");
+        final JarOutputStream jos = new JarOutputStream(new FileOutputStream(archive));
+        try {
+            final CRC32 crc = new CRC32();
+            crc.update(STORED_CONTENT);
+            final JarEntry stored = new JarEntry("dir/stored.txt");
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(STORED_CONTENT.length);
+            stored.setCrc(crc.getValue());
+            jos.putNextEntry(stored);
+            jos.write(STORED_CONTENT);
+            jos.closeEntry();
+            jos.putNextEntry(new JarEntry("dir/deflated.txt"));
+            jos.write(DEFLATED_CONTENT);
+            jos.closeEntry();
+        } finally {
+            jos.close();
+        }
+    }
+
+    protected void tearDown() throws Exception {
+        VFSUtils.recursiveDelete(tempRoot);
+        super.tearDown();
+    }
+
+    public void testTryOpenStream() throws Exception {
+        Files.write(new File(tempRoot, "real.txt").toPath(), STORED_CONTENT);
+        final VirtualFile realMount = VFS.getChild("content-access-real");
+        final VirtualFile zipMount = VFS.getChild("content-access-zip");
+        final Closeable realHandle = VFS.mountReal(tempRoot, realMount);
+        final Closeable zipHandle = VFS.mountZip(archive, zipMount, provider);
+        try {
+            assertTryOpen(STORED_CONTENT, realMount.getChild("real.txt"));
+            assertTryOpen(STORED_CONTENT, zipMount.getChild("dir/stored.txt"));
+            assertTryOpen(DEFLATED_CONTENT, zipMount.getChild("dir/deflated.txt"));
+            assertNull(realMount.getChild("missing.txt").tryOpenStream());
+            assertNull(zipMount.getChild("dir/missing.txt").tryOpenStream());
+            assertNull(zipMount.getChild("missing/stored.txt").tryOpenStream());
+            assertNull(zipMount.getChild("dir").tryOpenStream());
+            assertNull(realMount.tryOpenStream());
+            assertNull(VFS.getChild(tempRoot.getPath()).getChild("missing.txt").tryOpenStream());
+        } finally {
+            VFSUtils.safeClose(zipHandle, realHandle);
+        }
+    }
+
+    private static void assertTryOpen(byte[] expected, VirtualFile file) throws IOException {
+        final InputStream stream = file.tryOpenStream();
+        assertNotNull(stream);
+        try {
+            assertTrue(Arrays.equals(expected, stream.readAllBytes()));
+        } finally {
+            stream.close();
+        }
+    }
+
+    public void testMapRealFile() throws Exception {
+        final File file = new File(tempRoot, "real.txt");
+        Files.write(file.toPath(), STORED_CONTENT);
+        final VirtualFile mountPoint = VFS.getChild("content-access-real");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint);
+        try {
+            final ByteBuffer buffer = mountPoint.getChild("real.txt").map();
+            assertTrue("expected a memory mapping", buffer instanceof MappedByteBuffer);
+            assertTrue(buffer.isReadOnly());
+            assertEquals(ByteBuffer.wrap(STORED_CONTENT), buffer);
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testMapZipEntries() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("content-access-zip");
+        final Closeable handle = VFS.mountZip(archive, mountPoint, provider);
+        try {
+            final ByteBuffer stored = mountPoint.getChild("dir/stored.txt").map();
+            assertTrue("expected a memory mapping", stored instanceof MappedByteBuffer);
+            assertTrue(stored.isReadOnly());
+            assertEquals(ByteBuffer.wrap(STORED_CONTENT), stored);
+
+            final ByteBuffer deflated = mountPoint.getChild("dir/deflated.txt").map();
+            assertTrue(deflated.isReadOnly());
+            assertEquals(ByteBuffer.wrap(DEFLATED_CONTENT), deflated);
+
+            try {
+                mountPoint.getChild("dir").map();
+                fail("mapping a directory should fail");
+            } catch (IOException expected) {
+            }
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testTransferToRealFile() throws Exception {
+        final File file = new File(tempRoot, "real.txt");
+        Files.write(file.toPath(), DEFLATED_CONTENT);
+        final VirtualFile mountPoint = VFS.getChild("content-access-real");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint);
+        try {
+            final File copy = new File(tempRoot, "copy.txt");
+            final FileChannel channel = FileChannel.open(copy.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                assertEquals(DEFLATED_CONTENT.length, mountPoint.getChild("real.txt").transferTo(channel));
+            } finally {
+                channel.close();
+            }
+            assertTrue(Arrays.equals(DEFLATED_CONTENT, Files.readAllBytes(copy.toPath())));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testTransferToRejectsNonBlockingChannel() throws Exception {
+        final File file = new File(tempRoot, "real.txt");
+        Files.write(file.toPath(), DEFLATED_CONTENT);
+        final VirtualFile mountPoint = VFS.getChild("content-access-real");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint);
+        final Pipe pipe = Pipe.open();
+        try {
+            pipe.sink().configureBlocking(false);
+            try {
+                mountPoint.getChild("real.txt").transferTo(pipe.sink());
+                fail("a non-blocking channel should be rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+            try {
+                VFSUtils.copyStream(new ByteArrayInputStream(DEFLATED_CONTENT), pipe.sink());
+                fail("a non-blocking channel should be rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+        } finally {
+            VFSUtils.safeClose(pipe.sink());
+            VFSUtils.safeClose(pipe.source());
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testTransferToZipEntries() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("content-access-zip");
+        final Closeable handle = VFS.mountZip(archive, mountPoint, provider);
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            assertEquals(STORED_CONTENT.length, mountPoint.getChild("dir/stored.txt").transferTo(Channels.newChannel(bytes)));
+            assertTrue(Arrays.equals(STORED_CONTENT, bytes.toByteArray()));
+
+            bytes = new ByteArrayOutputStream();
+            assertEquals(DEFLATED_CONTENT.length, mountPoint.getChild("dir/deflated.txt").transferTo(Channels.newChannel(bytes)));
+            assertTrue(Arrays.equals(DEFLATED_CONTENT, bytes.toByteArray()));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testReadAsyncRealFile() throws Exception {
+        final File file = new File(tempRoot, "real.txt");
+        Files.write(file.toPath(), DEFLATED_CONTENT);
+        final VirtualFile mountPoint = VFS.getChild("content-access-real");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint);
+        try {
+            final VirtualFile real = mountPoint.getChild("real.txt");
+            assertEquals(ByteBuffer.wrap(DEFLATED_CONTENT), real.readAsync().get());
+            final ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                assertEquals(ByteBuffer.wrap(DEFLATED_CONTENT, 9, 5), real.readAsync(9L, 5, executor).get());
+                assertEquals(ByteBuffer.wrap(DEFLATED_CONTENT, 40, DEFLATED_CONTENT.length - 40), real.readAsync(40L, 100, executor).get());
+            } finally {
+                executor.shutdown();
+            }
+            try {
+                real.readAsync(-1L, 5, Runnable::run);
+                fail("a negative position should be rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+            try {
+                mountPoint.getChild("missing.txt").readAsync().get();
+                fail("reading a missing file should fail");
+            } catch (ExecutionException expected) {
+                assertTrue(expected.getCause() instanceof IOException);
+            }
+            // the file is only opened once the executor runs the task
+            final LinkedBlockingQueue<Runnable> tasks = new LinkedBlockingQueue<Runnable>();
+            final CompletableFuture<ByteBuffer> deferred = real.readAsync(0L, 5, tasks::add);
+            assertFalse(deferred.isDone());
+            assertEquals(1, tasks.size());
+            tasks.take().run();
+            assertEquals(ByteBuffer.wrap(DEFLATED_CONTENT, 0, 5), deferred.get(10L, TimeUnit.SECONDS));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testReadAsyncZipEntries() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("content-access-zip");
+        final Closeable handle = VFS.mountZip(archive, mountPoint, provider);
+        try {
+            final VirtualFile stored = mountPoint.getChild("dir/stored.txt");
+            final VirtualFile deflated = mountPoint.getChild("dir/deflated.txt");
+            assertEquals(ByteBuffer.wrap(DEFLATED_CONTENT, 9, 5), deflated.readAsync(9L, 5, Runnable::run).get());
+            final Map<VirtualFile, ByteBuffer> contents = VFS.readAsync(Arrays.asList(stored, deflated)).get();
+            assertEquals(2, contents.size());
+            assertEquals(ByteBuffer.wrap(STORED_CONTENT), contents.get(stored));
+            assertEquals(ByteBuffer.wrap(DEFLATED_CONTENT), contents.get(deflated));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testOpenChannelZipEntries() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("content-access-zip");
+        final Closeable handle = VFS.mountZip(archive, mountPoint, provider);
+        try {
+            final ReadableByteChannel stored = mountPoint.getChild("dir/stored.txt").openChannel();
+            try {
+                assertTrue("expected a seekable channel", stored instanceof SeekableByteChannel);
+                final SeekableByteChannel seekable = (SeekableByteChannel) stored;
+                assertEquals(STORED_CONTENT.length, seekable.size());
+                seekable.position(7L);
+                final ByteBuffer buffer = ByteBuffer.allocate(100);
+                assertEquals(STORED_CONTENT.length - 7, seekable.read(buffer));
+                assertEquals(-1, seekable.read(buffer));
+                buffer.flip();
+                assertEquals(ByteBuffer.wrap(STORED_CONTENT, 7, STORED_CONTENT.length - 7), buffer);
+            } finally {
+                stored.close();
+            }
+            final ReadableByteChannel deflated = mountPoint.getChild("dir/deflated.txt").openChannel();
+            try {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                VFSUtils.copyStream(Channels.newInputStream(deflated), bytes);
+                assertTrue(Arrays.equals(DEFLATED_CONTENT, bytes.toByteArray()));
+            } finally {
+                deflated.close();
+            }
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testPublishRealFile() throws Exception {
+        final File file = new File(tempRoot, "real.txt");
+        final byte[] content = new byte[100000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.write(file.toPath(), content);
+        final VirtualFile mountPoint = VFS.getChild("content-access-real");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint);
+        try {
+            assertTrue(Arrays.equals(content, collect(mountPoint.getChild("real.txt").publish())));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testPublishZipEntries() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("content-access-zip");
+        final Closeable handle = VFS.mountZip(archive, mountPoint, provider);
+        try {
+            final ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                assertTrue(Arrays.equals(STORED_CONTENT, collect(mountPoint.getChild("dir/stored.txt").publish(executor))));
+                assertTrue(Arrays.equals(DEFLATED_CONTENT, collect(mountPoint.getChild("dir/deflated.txt").publish(executor, true))));
+            } finally {
+                executor.shutdown();
+            }
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testPublishedBuffersBelongToSubscriber() throws Exception {
+        final File file = new File(tempRoot, "real.txt");
+        final byte[] content = new byte[100000];
+        // no pattern that repeats at the size of a buffer
+        new Random(29L).nextBytes(content);
+        Files.write(file.toPath(), content);
+        final VirtualFile mountPoint = VFS.getChild("content-access-real");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint);
+        try {
+            // keep every buffer past onNext, and read them only once the whole file has been published
+            final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+            final CompletableFuture<Void> result = new CompletableFuture<Void>();
+            mountPoint.getChild("real.txt").publish().subscribe(new Flow.Subscriber<ByteBuffer>() {
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                public void onNext(ByteBuffer item) {
+                    buffers.add(item);
+                }
+
+                public void onError(Throwable throwable) {
+                    result.completeExceptionally(throwable);
+                }
+
+                public void onComplete() {
+                    result.complete(null);
+                }
+            });
+            result.get(10L, TimeUnit.SECONDS);
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            for (ByteBuffer buffer : buffers) {
+                assertTrue(buffer.isReadOnly());
+                final byte[] chunk = new byte[buffer.remaining()];
+                buffer.get(chunk);
+                bytes.write(chunk, 0, chunk.length);
+            }
+            assertTrue(Arrays.equals(content, bytes.toByteArray()));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testPublishHonorsDemand() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("content-access-zip");
+        final Closeable handle = VFS.mountZip(archive, mountPoint, provider);
+        try {
+            final LinkedBlockingQueue<Object> signals = new LinkedBlockingQueue<Object>();
+            final Flow.Subscription[] subscription = new Flow.Subscription[1];
+            mountPoint.getChild("dir/stored.txt").publish().subscribe(new Flow.Subscriber<ByteBuffer>() {
+                public void onSubscribe(Flow.Subscription s) {
+                    subscription[0] = s;
+                }
+
+                public void onNext(ByteBuffer item) {
+                    signals.add(item);
+                }
+
+                public void onError(Throwable throwable) {
+                    signals.add(throwable);
+                }
+
+                public void onComplete() {
+                    signals.add("complete");
+                }
+            });
+            assertNull("nothing may be emitted before it is requested", signals.poll(100L, TimeUnit.MILLISECONDS));
+            subscription[0].cancel();
+            assertNull("nothing may be emitted after cancellation", signals.poll(100L, TimeUnit.MILLISECONDS));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testBulkAttributes() throws Exception {
+        final File dir = new File(tempRoot, "many");
+        assertTrue(dir.mkdir());
+        for (int i = 0; i < 200; i++) {
+            Files.write(new File(dir, "file" + i + ".txt").toPath(), Arrays.copyOf(STORED_CONTENT, i % STORED_CONTENT.length));
+        }
+        final VirtualFile realMount = VFS.getChild("content-access-real");
+        final VirtualFile zipMount = VFS.getChild("content-access-zip");
+        final Closeable realHandle = VFS.mountReal(tempRoot, realMount);
+        final Closeable zipHandle = VFS.mountZip(archive, zipMount, provider);
+        try {
+            final List<VirtualFile> files = new ArrayList<VirtualFile>();
+            for (int i = 0; i < 200; i++) {
+                files.add(realMount.getChild("many/file" + i + ".txt"));
+            }
+            files.add(realMount.getChild("many/missing.txt"));
+            files.add(zipMount.getChild("dir"));
+            files.add(zipMount.getChild("dir/stored.txt"));
+            files.add(zipMount.getChild("dir/missing.txt"));
+            files.add(zipMount.getChild("missing/stored.txt"));
+            final Map<VirtualFile, VirtualFileAttributes> attributes = VFS.getAttributes(files);
+            assertEquals(files, new ArrayList<VirtualFile>(attributes.keySet()));
+            for (int i = 0; i < 200; i++) {
+                final VirtualFileAttributes fileAttributes = attributes.get(files.get(i));
+                assertTrue(fileAttributes.isFile());
+                assertEquals(i % STORED_CONTENT.length, fileAttributes.getSize());
+                assertEquals(files.get(i).getAttributes(), fileAttributes);
+            }
+            assertSame(VirtualFileAttributes.NONEXISTENT, attributes.get(realMount.getChild("many/missing.txt")));
+            assertTrue(attributes.get(zipMount.getChild("dir")).isDirectory());
+            assertEquals(STORED_CONTENT.length, attributes.get(zipMount.getChild("dir/stored.txt")).getSize());
+            assertFalse(attributes.get(zipMount.getChild("dir/missing.txt")).exists());
+            assertFalse(attributes.get(zipMount.getChild("missing/stored.txt")).exists());
+        } finally {
+            VFSUtils.safeClose(zipHandle, realHandle);
+        }
+    }
+
+    public void testTreeStats() throws Exception {
+        final File dir = new File(tempRoot, "tree");
+        long size = 0L;
+        for (int i = 0; i < 20; i++) {
+            final File sub = new File(dir, "sub" + (i % 4) + "/nested");
+            sub.mkdirs();
+            Files.write(new File(sub, "file" + i + ".txt").toPath(), Arrays.copyOf(DEFLATED_CONTENT, i));
+            size += i;
+        }
+        Files.copy(archive.toPath(), new File(dir, "content.jar").toPath());
+        final VirtualFile mountPoint = VFS.getChild("content-access-real");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint);
+        try {
+            final VirtualFile tree = mountPoint.getChild("tree");
+            final long jarSize = archive.length();
+            // tree, sub0..sub3, and their nested directories
+            final TreeStats realStats = tree.getTreeStats();
+            assertEquals(21L, realStats.getFileCount());
+            assertEquals(9L, realStats.getDirectoryCount());
+            assertEquals(size + jarSize, realStats.getTotalSize());
+            assertTrue(realStats.getNewestLastModified() > 0L);
+            assertEquals(TreeStats.EMPTY, tree.getChild("missing").getTreeStats());
+
+            final VirtualFile jar = tree.getChild("content.jar");
+            final Closeable zipHandle = VFS.mountZip(jar, jar, provider);
+            try {
+                final TreeStats zipStats = jar.getTreeStats();
+                assertEquals(2L, zipStats.getFileCount());
+                assertEquals(2L, zipStats.getDirectoryCount());
+                assertEquals(STORED_CONTENT.length + DEFLATED_CONTENT.length, zipStats.getTotalSize());
+                assertEquals(new TreeStats(1L, 0L, STORED_CONTENT.length, jar.getChild("dir/stored.txt").getLastModified()),
+                        jar.getChild("dir/stored.txt").getTreeStats());
+                // the archive is now walked as a mounted directory rather than counted as a file
+                final TreeStats mixedStats = tree.getTreeStats();
+                assertEquals(22L, mixedStats.getFileCount());
+                assertEquals(11L, mixedStats.getDirectoryCount());
+                assertEquals(size + STORED_CONTENT.length + DEFLATED_CONTENT.length, mixedStats.getTotalSize());
+            } finally {
+                VFSUtils.safeClose(zipHandle);
+            }
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testTreeStatsFollowsLinks() throws Exception {
+        final File dir = new File(tempRoot, "linked");
+        final File target = new File(dir, "target");
+        target.mkdirs();
+        Files.write(new File(target, "file.txt").toPath(), DEFLATED_CONTENT);
+        try {
+            Files.createSymbolicLink(new File(dir, "link").toPath(), target.toPath());
+        } catch (UnsupportedOperationException | IOException e) {
+            return;
+        }
+        final VirtualFile mountPoint = VFS.getChild("content-access-linked");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final VirtualFile linked = mountPoint.getChild("linked");
+            long files = 0L;
+            long directories = 1L;
+            for (VirtualFile child : linked.getChildrenRecursively()) {
+                if (child.isFile()) {
+                    files++;
+                } else {
+                    directories++;
+                }
+            }
+            final TreeStats stats = linked.getTreeStats(executor);
+            assertEquals(files, stats.getFileCount());
+            assertEquals(directories, stats.getDirectoryCount());
+            assertEquals(2L * DEFLATED_CONTENT.length, stats.getTotalSize());
+
+            // a link to an ancestor is counted but not walked
+            Files.createSymbolicLink(new File(target, "loop").toPath(), dir.toPath());
+            final TreeStats loopStats = linked.getTreeStats(executor);
+            assertEquals(files, loopStats.getFileCount());
+            assertEquals(directories + 2L, loopStats.getDirectoryCount());
+            assertEquals(loopStats, linked.getTreeStats());
+        } finally {
+            executor.shutdown();
+            VFSUtils.safeClose(handle);
+            // so that the cleanup does not walk the links
+            Files.deleteIfExists(new File(target, "loop").toPath());
+            Files.deleteIfExists(new File(dir, "link").toPath());
+        }
+    }
+
+    public void testDigestRealFile() throws Exception {
+        final File file = new File(tempRoot, "real.txt");
+        Files.write(file.toPath(), STORED_CONTENT);
+        final long lastModified = file.lastModified() - 10000L;
+        assertTrue(file.setLastModified(lastModified));
+        final VirtualFile mountPoint = VFS.getChild("content-access-real");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint);
+        try {
+            final VirtualFile real = mountPoint.getChild("real.txt");
+            final byte[] expected = MessageDigest.getInstance("SHA-256").digest(STORED_CONTENT);
+            assertTrue(Arrays.equals(expected, real.getDigest("SHA-256")));
+            final long fingerprint = real.getFingerprint();
+
+            // same size and modification time: the cached digest is reused without reading the file
+            final byte[] sameSize = STORED_CONTENT.clone();
+            sameSize[0]++;
+            Files.write(file.toPath(), sameSize);
+            assertTrue(file.setLastModified(lastModified));
+            assertTrue(Arrays.equals(expected, real.getDigest("sha-256")));
+            assertEquals(fingerprint, real.getFingerprint());
+
+            Files.write(file.toPath(), DEFLATED_CONTENT);
+            assertTrue(Arrays.equals(MessageDigest.getInstance("SHA-256").digest(DEFLATED_CONTENT), real.getDigest("SHA-256")));
+            assertFalse(fingerprint == real.getFingerprint());
+            try {
+                real.getDigest("NO-SUCH-DIGEST");
+                fail("expected IllegalArgumentException");
+            } catch (IllegalArgumentException unsupported) {
+            }
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testDigestZipEntries() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("content-access-zip");
+        final Closeable handle = VFS.mountZip(archive, mountPoint, provider);
+        try {
+            final VirtualFile stored = mountPoint.getChild("dir/stored.txt");
+            final VirtualFile deflated = mountPoint.getChild("dir/deflated.txt");
+            assertTrue(Arrays.equals(MessageDigest.getInstance("MD5").digest(STORED_CONTENT), stored.getDigest("MD5")));
+            assertTrue(Arrays.equals(MessageDigest.getInstance("MD5").digest(DEFLATED_CONTENT), deflated.getDigest("MD5")));
+            final CRC32 crc = new CRC32();
+            crc.update(DEFLATED_CONTENT);
+            assertEquals((long) DEFLATED_CONTENT.length << 32 ^ crc.getValue(), deflated.getFingerprint());
+            try {
+                mountPoint.getChild("dir").getDigest("MD5");
+                fail("digesting a directory should fail");
+            } catch (IOException expected) {
+            }
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    private static byte[] collect(Flow.Publisher<ByteBuffer> publisher) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CompletableFuture<byte[]> result = new CompletableFuture<byte[]>();
+        publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+            private Flow.Subscription subscription;
+
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1L);
+            }
+
+            public void onNext(ByteBuffer item) {
+                // the buffer may be recycled once we return, so copy it out now
+                final byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                bytes.write(chunk, 0, chunk.length);
+                subscription.request(1L);
+            }
+
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            public void onComplete() {
+                result.complete(bytes.toByteArray());
+            }
+        });
+        return result.get(10L, TimeUnit.SECONDS);
+    }
+}
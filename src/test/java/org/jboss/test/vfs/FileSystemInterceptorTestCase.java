@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.FileSystem;
+import org.jboss.vfs.spi.FileSystemInterceptor;
+import org.jboss.vfs.spi.InterceptingFileSystem;
+import org.jboss.vfs.spi.RealFileSystem;
+
+/**
+ * Tests of file system interceptors.
+ */
+public class FileSystemInterceptorTestCase extends AbstractVFSTest {
+
+    private File tempRoot;
+
+    public FileSystemInterceptorTestCase(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        tempRoot = Files.createTempDirectory("vfs-interceptor").toFile();
+        Files.write(new File(tempRoot, "file.txt").toPath(), "content".getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected void tearDown() throws Exception {
+        VFSUtils.recursiveDelete(tempRoot);
+        super.tearDown();
+    }
+
+    public void testWrapWithoutInterceptorsIsIdentity() throws Exception {
+        final FileSystem fileSystem = new RealFileSystem(tempRoot);
+        assertSame(fileSystem, InterceptingFileSystem.wrap(fileSystem));
+        assertSame(fileSystem, InterceptingFileSystem.wrap(fileSystem, (FileSystemInterceptor[]) null));
+        assertSame(fileSystem, InterceptingFileSystem.wrap(fileSystem, new FileSystemInterceptor[] { null }));
+    }
+
+    public void testChainOrder() throws Exception {
+        final List<String> calls = new ArrayList<String>();
+        final FileSystem fileSystem = InterceptingFileSystem.wrap(new RealFileSystem(tempRoot), new Recording("outer", calls), new Recording("inner", calls));
+        final InterceptingFileSystem outer = (InterceptingFileSystem) fileSystem;
+        assertTrue(outer.getDelegate() instanceof InterceptingFileSystem);
+        final VirtualFile mountPoint = VFS.getChild("interceptor-chain");
+        final Closeable handle = VFS.mount(mountPoint, fileSystem);
+        try {
+            assertTrue(mountPoint.getChild("file.txt").exists());
+            assertEquals(2, calls.size());
+            assertEquals("outer", calls.get(0));
+            assertEquals("inner", calls.get(1));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testPerMountInterceptor() throws Exception {
+        final Counting counting = new Counting();
+        final VirtualFile mountPoint = VFS.getChild("interceptor-mount");
+        final Closeable handle = VFS.mount(mountPoint, new RealFileSystem(tempRoot), counting);
+        try {
+            final VirtualFile file = mountPoint.getChild("file.txt");
+            assertTrue(file.exists());
+            final InputStream is = file.openStream();
+            try {
+                assertEquals('c', is.read());
+            } finally {
+                VFSUtils.safeClose(is);
+            }
+            assertEquals(1, counting.opened.get());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testGlobalInterceptorFactory() throws Exception {
+        final Counting counting = new Counting();
+        final List<VirtualFile> mountPoints = new ArrayList<VirtualFile>();
+        final FileSystemInterceptor.Factory factory = new FileSystemInterceptor.Factory() {
+            public FileSystemInterceptor createInterceptor(VirtualFile mountPoint, FileSystem fileSystem) {
+                mountPoints.add(mountPoint);
+                return counting;
+            }
+        };
+        final VirtualFile mountPoint = VFS.getChild("interceptor-global");
+        VFS.addInterceptorFactory(factory);
+        final Closeable handle;
+        try {
+            handle = VFS.mountReal(tempRoot, mountPoint);
+        } finally {
+            assertTrue(VFS.removeInterceptorFactory(factory));
+        }
+        try {
+            VFSUtils.safeClose(mountPoint.getChild("file.txt").openStream());
+            assertEquals(1, counting.opened.get());
+            assertEquals(1, mountPoints.size());
+            assertEquals(mountPoint, mountPoints.get(0));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+        assertEquals(1, counting.closed.get());
+        assertFalse(VFS.removeInterceptorFactory(factory));
+    }
+
+    private static final class Recording implements FileSystemInterceptor {
+        private final String name;
+        private final List<String> calls;
+
+        Recording(final String name, final List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+
+        public boolean exists(FileSystem next, VirtualFile mountPoint, VirtualFile target) {
+            calls.add(name);
+            return next.exists(mountPoint, target);
+        }
+    }
+
+    private static final class Counting implements FileSystemInterceptor {
+        private final AtomicInteger opened = new AtomicInteger();
+        private final AtomicInteger closed = new AtomicInteger();
+
+        public InputStream openInputStream(FileSystem next, VirtualFile mountPoint, VirtualFile target) throws IOException {
+            opened.incrementAndGet();
+            return next.openInputStream(mountPoint, target);
+        }
+
+        public void close(FileSystem next) throws IOException {
+            closed.incrementAndGet();
+            next.close();
+        }
+    }
+}
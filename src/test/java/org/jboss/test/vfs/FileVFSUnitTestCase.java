@@ -1193,6 +1193,27 @@ public class FileVFSUnitTestCase extends AbstractVFSTest {
     }
 
 
+    /**
+     * Test that a name which is not a valid path on this platform is reported as a nonexistent file.
+     *
+     * @throws Exception
+     */
+    public void testInvalidPathDoesNotExist() throws Exception {
+        File tmpRoot = Files.createTempDirectory("vfs" + ".root").toFile();
+        try {
+            VirtualFile invalid = VFS.getChild(tmpRoot.getPath()).getChild("a\u0000b");
+            assertFalse(invalid.getPathName() + ".exists()", invalid.exists());
+            assertFalse(invalid.getPathName() + ".isFile()", invalid.isFile());
+            assertFalse(invalid.getPathName() + ".isDirectory()", invalid.isDirectory());
+            assertTrue(invalid.getPathName() + ".getChildren()", invalid.getChildren().isEmpty());
+            assertNotNull(invalid.getPhysicalFile());
+            assertNull(invalid.tryOpenStream());
+        } finally {
+            assertTrue(tmpRoot + ".delete()", tmpRoot.delete());
+        }
+    }
+
+
     /**
      * Test VirtualFile.exists for vfsfile based urls for a directory.
      *
@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.vfs.IoScheduler;
+import org.jboss.vfs.IoScheduler.Priority;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * Tests of the prioritized I/O scheduler.
+ */
+public class IoSchedulerTestCase extends AbstractVFSTest {
+
+    private ExecutorService executor;
+
+    public IoSchedulerTestCase(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+        super.tearDown();
+    }
+
+    public void testLimits() throws Exception {
+        final IoScheduler scheduler = new IoScheduler(10, 10, 2, 1, 0L, TimeUnit.MILLISECONDS);
+        assertEquals(2, scheduler.getLimit(Priority.EXTRACTION));
+        final IoScheduler.Permit first = scheduler.acquire(Priority.EXTRACTION);
+        final IoScheduler.Permit second = scheduler.acquire(Priority.EXTRACTION);
+        assertEquals(2, scheduler.getActiveCount(Priority.EXTRACTION));
+        assertNull(scheduler.tryAcquire(Priority.EXTRACTION));
+        first.close();
+        first.close();
+        assertEquals(1, scheduler.getActiveCount(Priority.EXTRACTION));
+        final IoScheduler.Permit third = scheduler.tryAcquire(Priority.EXTRACTION);
+        assertNotNull(third);
+        third.close();
+        second.close();
+        assertEquals(0, scheduler.getActiveCount(Priority.EXTRACTION));
+        assertEquals(3L, scheduler.getCompletedCount(Priority.EXTRACTION));
+    }
+
+    public void testBackgroundYieldsToForeground() throws Exception {
+        final IoScheduler scheduler = new IoScheduler(10, 10, 10, 10, 10L, TimeUnit.SECONDS);
+        final IoScheduler.Permit interactive = scheduler.acquire(Priority.INTERACTIVE);
+        assertNull(scheduler.tryAcquire(Priority.CLEANUP));
+        final CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                scheduler.acquire(Priority.CLEANUP).close();
+                started.countDown();
+            } catch (InterruptedIOException ignored) {
+            }
+        });
+        assertFalse(started.await(100L, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.getWaitingCount(Priority.CLEANUP));
+        interactive.close();
+        assertTrue(started.await(10L, TimeUnit.SECONDS));
+        assertEquals(1L, scheduler.getYieldCount(Priority.CLEANUP));
+        assertTrue(scheduler.getTotalWaitTime(Priority.CLEANUP, TimeUnit.MILLISECONDS) >= 100L);
+    }
+
+    public void testBackgroundIsNotStarved() throws Exception {
+        final IoScheduler scheduler = new IoScheduler(10, 10, 10, 10, 50L, TimeUnit.MILLISECONDS);
+        final IoScheduler.Permit prefetch = scheduler.acquire(Priority.PREFETCH);
+        try {
+            final long start = System.nanoTime();
+            scheduler.acquire(Priority.EXTRACTION).close();
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50L));
+        } finally {
+            prefetch.close();
+        }
+    }
+
+    public void testAcquireIsInterruptible() throws Exception {
+        final IoScheduler scheduler = new IoScheduler(10, 10, 1, 10, 0L, TimeUnit.MILLISECONDS);
+        final IoScheduler.Permit held = scheduler.acquire(Priority.EXTRACTION);
+        try {
+            final CountDownLatch interrupted = new CountDownLatch(1);
+            final Thread waiter = new Thread(() -> {
+                try {
+                    scheduler.acquire(Priority.EXTRACTION).close();
+                } catch (InterruptedIOException e) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        interrupted.countDown();
+                    }
+                }
+            });
+            waiter.start();
+            while (scheduler.getWaitingCount(Priority.EXTRACTION) == 0) {
+                Thread.sleep(1L);
+            }
+            waiter.interrupt();
+            assertTrue(interrupted.await(10L, TimeUnit.SECONDS));
+            assertEquals(0, scheduler.getWaitingCount(Priority.EXTRACTION));
+            assertEquals(1, scheduler.getActiveCount(Priority.EXTRACTION));
+        } finally {
+            held.close();
+        }
+        assertEquals(0, scheduler.getActiveCount(Priority.EXTRACTION));
+    }
+
+    public void testSubmitWaitsOnExecutor() throws Exception {
+        final IoScheduler scheduler = new IoScheduler(10, 1, 10, 10, 0L, TimeUnit.MILLISECONDS);
+        final IoScheduler.Permit held = scheduler.acquire(Priority.PREFETCH);
+        final AtomicLong runs = new AtomicLong();
+        final CompletableFuture<String> future = scheduler.submit(Priority.PREFETCH, executor, () -> {
+            runs.incrementAndGet();
+            return CompletableFuture.completedFuture("done");
+        });
+        Thread.sleep(50L);
+        assertFalse(future.isDone());
+        assertEquals(0L, runs.get());
+        held.close();
+        assertEquals("done", future.get(10L, TimeUnit.SECONDS));
+        assertEquals(0, scheduler.getActiveCount(Priority.PREFETCH));
+    }
+
+    public void testVirtualFileReads() throws Exception {
+        final IoScheduler scheduler = IoScheduler.getDefault();
+        final VirtualFile file = getVirtualFile("/vfs/test/jar1.jar");
+        final long interactive = scheduler.getCompletedCount(Priority.INTERACTIVE);
+        // noting a foreground read is kept off the counters, which would slow down class loading
+        file.openStream().close();
+        assertEquals(interactive, scheduler.getCompletedCount(Priority.INTERACTIVE));
+        // a plain asynchronous read has a caller waiting for it
+        final long prefetch = scheduler.getCompletedCount(Priority.PREFETCH);
+        final long interactiveReads = scheduler.getCompletedCount(Priority.INTERACTIVE);
+        ByteBuffer content = file.readAsync(executor).get(10L, TimeUnit.SECONDS);
+        assertEquals(file.getSize(), content.remaining());
+        assertTrue(scheduler.getCompletedCount(Priority.INTERACTIVE) > interactiveReads);
+        assertEquals(prefetch, scheduler.getCompletedCount(Priority.PREFETCH));
+        content = file.readAsync(0L, Integer.MAX_VALUE, executor, Priority.PREFETCH).get(10L, TimeUnit.SECONDS);
+        assertEquals(file.getSize(), content.remaining());
+        assertTrue(scheduler.getCompletedCount(Priority.PREFETCH) > prefetch);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.vfs.TempDir;
+
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.BloomFilter;
+import org.jboss.vfs.spi.JavaZipFileSystem;
+
+/**
+ * Tests of the negative lookup filter of zip mounts.
+ */
+public class LookupFilterTestCase extends AbstractVFSTest {
+
+    public LookupFilterTestCase(String name) {
+        super(name);
+    }
+
+    public void testBloomFilter() throws Exception {
+        final BloomFilter filter = new BloomFilter(10000, 0.01);
+        final Random random = new Random(42L);
+        final long[] added = new long[10000];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = random.nextLong();
+            filter.add(added[i]);
+        }
+        for (long hash : added) {
+            assertTrue(filter.mightContain(hash));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain(random.nextLong())) {
+                filter.recordFalsePositive();
+                falsePositives++;
+            }
+        }
+        assertEquals(10000, filter.getEntryCount());
+        assertEquals(falsePositives, filter.getFalsePositiveCount());
+        assertTrue(filter.getObservedFalsePositiveRate() < 0.02);
+        assertTrue(filter.getExpectedFalsePositiveRate() < 0.02);
+        assertEquals(filter.getBitCount() / 8, filter.getMemoryUsage());
+    }
+
+    public void testIndexIsBuiltOnFirstLookup() throws Exception {
+        final File archive = new File(getResource("/vfs/test/jar1.jar").toURI());
+        final JavaZipFileSystem fileSystem = new JavaZipFileSystem(archive, provider.createTempDir("jar1.jar"));
+        final VirtualFile mountPoint = VFS.getChild("lazy-index");
+        final Closeable handle = VFS.mount(mountPoint, fileSystem);
+        try {
+            assertFalse(fileSystem.isIndexed());
+            assertTrue(mountPoint.getChild("META-INF/MANIFEST.MF").isFile());
+            assertTrue(fileSystem.isIndexed());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testZipLookups() throws Exception {
+        final File archive = new File(getResource("/vfs/test/jar1.jar").toURI());
+        final JavaZipFileSystem fileSystem = new JavaZipFileSystem(archive, provider.createTempDir("jar1.jar"));
+        final VirtualFile mountPoint = VFS.getChild("lookup-filter");
+        final Closeable handle = VFS.mount(mountPoint, fileSystem);
+        try {
+            final BloomFilter filter = fileSystem.getLookupFilter();
+            assertTrue(filter.getEntryCount() > 0);
+            assertTrue(filter.getMemoryUsage() > 0L);
+            assertTrue(mountPoint.exists());
+            assertTrue(mountPoint.getChild("META-INF").isDirectory());
+            assertTrue(mountPoint.getChild("org/jboss/test/vfs/support/jar1/ClassInJar1.class").isFile());
+            assertEquals(filter.getEntryCount(), mountPoint.getChildrenRecursively().size() + 1);
+            for (VirtualFile child : mountPoint.getChildrenRecursively()) {
+                assertTrue(child.exists());
+            }
+
+            for (int i = 0; i < 1000; i++) {
+                assertFalse(mountPoint.getChild("org/jboss/Missing" + i + ".class").exists());
+            }
+            assertEquals(1000L, filter.getRejectedCount() + filter.getFalsePositiveCount());
+            assertTrue(filter.getRejectedCount() > 900L);
+        } finally {
+            VFSUtils.safeClose(handle, fileSystem);
+        }
+    }
+
+    public void testImplicitDirectoriesAreCounted() throws Exception {
+        final TempDir tempDir = provider.createTempDir("implicit");
+        final File archive = tempDir.getFile("implicit.zip");
+        // no directory entries, so each entry adds two implicit directories to the index
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (int i = 0; i < 200; i++) {
+                out.putNextEntry(new ZipEntry("a" + i + "/b" + i + "/File.class"));
+                out.closeEntry();
+            }
+        }
+        final JavaZipFileSystem fileSystem = new JavaZipFileSystem(archive, provider.createTempDir("implicit.zip"));
+        final VirtualFile mountPoint = VFS.getChild("implicit-directories");
+        final Closeable handle = VFS.mount(mountPoint, fileSystem);
+        try {
+            final BloomFilter filter = fileSystem.getLookupFilter();
+            assertEquals(1 + 200 * 3, filter.getEntryCount());
+            assertTrue(filter.getExpectedFalsePositiveRate() <= 0.01);
+            assertTrue(mountPoint.getChild("a7/b7").isDirectory());
+            assertFalse(mountPoint.getChild("a7/b8").exists());
+        } finally {
+            VFSUtils.safeClose(handle, fileSystem);
+        }
+    }
+}
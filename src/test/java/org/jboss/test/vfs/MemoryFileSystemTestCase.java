@@ -0,0 +1,280 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.MemoryFileSystem;
+
+/**
+ * Tests of {@link MemoryFileSystem}.
+ */
+public class MemoryFileSystemTestCase extends AbstractVFSTest {
+
+    private static final byte[] CONTENT = "generated content".getBytes(StandardCharsets.UTF_8);
+
+    public MemoryFileSystemTestCase(String name) {
+        super(name);
+    }
+
+    public void testHeap() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("memory-heap");
+        final Closeable handle = VFS.mountMemory(mountPoint);
+        try {
+            assertReadWrite(mountPoint);
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+        assertFalse(mountPoint.getChild("a").exists());
+    }
+
+    public void testDirect() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("memory-direct");
+        final Closeable handle = VFS.mountMemory(mountPoint, MemoryFileSystem.Storage.DIRECT, 1024L * 1024L, null);
+        try {
+            assertReadWrite(mountPoint);
+            final ByteBuffer mapped = mountPoint.getChild("a/b/c.txt").map();
+            assertTrue(mapped.isReadOnly());
+            final byte[] bytes = new byte[mapped.remaining()];
+            mapped.get(bytes);
+            assertTrue(Arrays.equals(CONTENT, bytes));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testRootUriAndMountSource() throws Exception {
+        final VirtualFile first = VFS.getChild("memory-root-1");
+        final VirtualFile second = VFS.getChild("memory-root-2");
+        final Closeable firstHandle = VFS.mountMemory(first);
+        final Closeable secondHandle = VFS.mountMemory(second);
+        try {
+            assertNull(VFSUtils.getMountSource(firstHandle));
+            final URI uri = VFSUtils.getRootURI(first);
+            assertEquals("memory", uri.getScheme());
+            assertFalse(uri.equals(VFSUtils.getRootURI(second)));
+            try {
+                VFSUtils.getRootURL(first);
+                fail("Expected MalformedURLException");
+            } catch (MalformedURLException expected) {
+            }
+        } finally {
+            VFSUtils.safeClose(firstHandle, secondHandle);
+        }
+    }
+
+    private void assertReadWrite(VirtualFile mountPoint) throws Exception {
+        final VirtualFile file = mountPoint.getChild("a/b/c.txt");
+        assertFalse(file.exists());
+        VFSUtils.writeFile(file, CONTENT);
+        assertTrue(file.isFile());
+        assertTrue(mountPoint.getChild("a/b").isDirectory());
+        assertEquals(CONTENT.length, file.getSize());
+        assertTrue(Arrays.equals(CONTENT, read(file)));
+        assertEquals(1, mountPoint.getChildren().size());
+        assertEquals("c.txt", mountPoint.getChild("a/b").getChildren().get(0).getName());
+
+        final byte[] replacement = "replaced".getBytes(StandardCharsets.UTF_8);
+        final InputStream before = file.openStream();
+        VFSUtils.writeFile(file, replacement);
+        // a stream opened before the write still sees the old content
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        VFSUtils.copyStreamAndClose(before, os);
+        assertTrue(Arrays.equals(CONTENT, os.toByteArray()));
+        assertTrue(Arrays.equals(replacement, read(file)));
+        VFSUtils.writeFile(file, CONTENT);
+
+        assertFalse(mountPoint.getChild("a").delete());
+        VFSUtils.writeFile(mountPoint.getChild("a/b/d.txt"), CONTENT);
+        assertTrue(mountPoint.getChild("a/b/d.txt").delete());
+        assertFalse(mountPoint.getChild("a/b/d.txt").exists());
+        assertEquals(1, mountPoint.getChild("a/b").getChildren().size());
+
+        try {
+            VFSUtils.writeFile(mountPoint.getChild("a/b/c.txt/x"), CONTENT);
+            fail("Expected IOException");
+        } catch (IOException expected) {
+        }
+    }
+
+    public void testBudget() throws Exception {
+        final MemoryFileSystem fileSystem = new MemoryFileSystem(MemoryFileSystem.Storage.HEAP, 20L, null);
+        final VirtualFile mountPoint = VFS.getChild("memory-budget");
+        final Closeable handle = VFS.mount(mountPoint, fileSystem);
+        try {
+            VFSUtils.writeFile(mountPoint.getChild("one.txt"), CONTENT);
+            assertEquals(CONTENT.length, fileSystem.getMemoryUsed());
+            try {
+                VFSUtils.writeFile(mountPoint.getChild("two.txt"), CONTENT);
+                fail("Expected IOException");
+            } catch (IOException expected) {
+            }
+            assertFalse(mountPoint.getChild("two.txt").exists());
+            assertEquals(CONTENT.length, fileSystem.getMemoryUsed());
+            assertTrue(mountPoint.getChild("one.txt").delete());
+            assertEquals(0L, fileSystem.getMemoryUsed());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testBudgetIsReservedAsWritten() throws Exception {
+        final MemoryFileSystem fileSystem = new MemoryFileSystem(MemoryFileSystem.Storage.HEAP, 20L, null);
+        final VirtualFile mountPoint = VFS.getChild("memory-reserve");
+        final Closeable handle = VFS.mount(mountPoint, fileSystem);
+        try {
+            final OutputStream first = fileSystem.openOutputStream(mountPoint, mountPoint.getChild("first.txt"));
+            final OutputStream second = fileSystem.openOutputStream(mountPoint, mountPoint.getChild("second.txt"));
+            for (int i = 0; i < 15; i++) {
+                first.write('a');
+            }
+            assertTrue(fileSystem.getMemoryUsed() >= 15L);
+            try {
+                for (int i = 0; i < 15; i++) {
+                    second.write('b');
+                }
+                fail("Expected IOException");
+            } catch (IOException expected) {
+            }
+            assertTrue(fileSystem.getMemoryUsed() <= fileSystem.getBudget());
+            first.close();
+            second.close();
+            assertEquals(15L, fileSystem.getMemoryUsed());
+            assertEquals(15L, mountPoint.getChild("first.txt").getSize());
+            assertFalse(mountPoint.getChild("second.txt").exists());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testSpill() throws Exception {
+        final TempDir tempDir = provider.createTempDir("memory-spill");
+        final MemoryFileSystem fileSystem = new MemoryFileSystem(MemoryFileSystem.Storage.HEAP, 20L, tempDir);
+        final VirtualFile mountPoint = VFS.getChild("memory-spill");
+        final Closeable handle = VFS.mount(mountPoint, fileSystem);
+        try {
+            final VirtualFile small = mountPoint.getChild("small.txt");
+            final VirtualFile large = mountPoint.getChild("large.txt");
+            final byte[] largeContent = new byte[10000];
+            Arrays.fill(largeContent, (byte) 'x');
+            VFSUtils.writeFile(small, CONTENT);
+            VFSUtils.writeFile(large, largeContent);
+            assertEquals(CONTENT.length, fileSystem.getMemoryUsed());
+            assertEquals(largeContent.length, large.getSize());
+            assertTrue(Arrays.equals(largeContent, read(large)));
+
+            final File physical = small.getPhysicalFile();
+            assertTrue(Arrays.equals(CONTENT, Files.readAllBytes(physical.toPath())));
+            assertEquals(largeContent.length, large.getPhysicalFile().length());
+        } finally {
+            VFSUtils.safeClose(handle, tempDir);
+        }
+    }
+
+    public void testConcurrentReaders() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("memory-concurrent");
+        final Closeable handle = VFS.mountMemory(mountPoint);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final VirtualFile file = mountPoint.getChild("file.txt");
+            final byte[] first = new byte[4096];
+            final byte[] second = new byte[4096];
+            Arrays.fill(first, (byte) 1);
+            Arrays.fill(second, (byte) 2);
+            VFSUtils.writeFile(file, first);
+            final Future<?>[] readers = new Future<?>[4];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = executor.submit(() -> {
+                    for (int j = 0; j < 200; j++) {
+                        final byte[] bytes = read(file);
+                        assertTrue(Arrays.equals(first, bytes) || Arrays.equals(second, bytes));
+                    }
+                    return null;
+                });
+            }
+            for (int j = 0; j < 200; j++) {
+                VFSUtils.writeFile(file, j % 2 == 0 ? second : first);
+            }
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testConcurrentDirectoryDelete() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("memory-delete");
+        final Closeable handle = VFS.mountMemory(mountPoint);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final AtomicBoolean done = new AtomicBoolean();
+        try {
+            final VirtualFile dir = mountPoint.getChild("dir");
+            final Future<?> deleter = executor.submit(() -> {
+                while (!done.get()) {
+                    dir.delete();
+                }
+                return null;
+            });
+            try {
+                for (int j = 0; j < 20000; j++) {
+                    final VirtualFile file = dir.getChild("file" + j);
+                    VFSUtils.writeFile(file, CONTENT);
+                    // a directory holding a file cannot be deleted, so the file is never orphaned
+                    assertTrue(dir.exists());
+                    assertTrue(dir.getChildren().contains(file));
+                    assertTrue(file.delete());
+                }
+            } finally {
+                done.set(true);
+            }
+            deleter.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    private static byte[] read(VirtualFile file) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        VFSUtils.copyStreamAndClose(file.openStream(), os);
+        return os.toByteArray();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.vfs.NamePredicate;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.JavaZipFileSystem;
+
+/**
+ * Tests of directory listings filtered by name.
+ */
+public class NamePredicateTestCase extends AbstractVFSTest {
+
+    private static final String[] NAMES = {"a.txt", "ab.class", "ab.txt", "abc.txt", "abd.class", "b.txt", "ba.txt", "c"};
+
+    public NamePredicateTestCase(String name) {
+        super(name);
+    }
+
+    public void testPredicates() {
+        assertTrue(NamePredicate.ALL.accepts("anything"));
+        assertEquals("", NamePredicate.ALL.getPrefix());
+        final NamePredicate predicate = NamePredicate.of("ab", "b");
+        assertEquals("ab", predicate.getPrefix());
+        assertEquals("b", predicate.getSuffix());
+        assertTrue(predicate.accepts("abb"));
+        assertFalse(predicate.accepts("ab"));
+        assertTrue(NamePredicate.prefix("ab").accepts("ab"));
+        assertTrue(NamePredicate.suffix(".txt").accepts("x.txt"));
+        assertFalse(NamePredicate.suffix(".txt").accepts("x.class"));
+    }
+
+    public void testZipListing() throws Exception {
+        final TempDir tempDir = provider.createTempDir("names");
+        final File archive = tempDir.getFile("names.zip");
+        final ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(archive));
+        try {
+            for (String name : NAMES) {
+                zos.putNextEntry(new ZipEntry("dir/" + name));
+                zos.closeEntry();
+            }
+        } finally {
+            VFSUtils.safeClose(zos);
+        }
+        final VirtualFile mountPoint = VFS.getChild("names.zip");
+        final Closeable handle = VFS.mount(mountPoint, new JavaZipFileSystem(archive, tempDir));
+        try {
+            assertListings(mountPoint.getChild("dir"));
+            assertTrue(mountPoint.getChild("missing").getMatchingChildren(NamePredicate.ALL).isEmpty());
+            assertTrue(mountPoint.getChild("dir/a.txt").getMatchingChildren(NamePredicate.ALL).isEmpty());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testRealListing() throws Exception {
+        final TempDir tempDir = provider.createTempDir("names");
+        final File root = tempDir.getFile("dir");
+        assertTrue(root.mkdir());
+        for (String name : NAMES) {
+            assertTrue(new File(root, name).createNewFile());
+        }
+        final VirtualFile mountPoint = VFS.getChild("names-real");
+        final Closeable handle = VFS.mountReal(root, mountPoint);
+        try {
+            assertListings(mountPoint);
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testMemoryListing() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("names-memory");
+        final Closeable handle = VFS.mountMemory(mountPoint);
+        try {
+            for (String name : NAMES) {
+                VFSUtils.writeFile(mountPoint.getChild(name), new byte[0]);
+            }
+            assertListings(mountPoint);
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testSubmountsAreFiltered() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("names-submounts");
+        final Closeable handle = VFS.mountMemory(mountPoint);
+        final Closeable submount = VFS.mountMemory(mountPoint.getChild("ab.mounted"));
+        try {
+            VFSUtils.writeFile(mountPoint.getChild("ab.txt"), new byte[0]);
+            assertEquals(names(mountPoint.getChildren()), names(mountPoint.getMatchingChildren(NamePredicate.prefix("ab"))));
+            assertEquals(Collections.singletonList("ab.mounted"), names(mountPoint.getMatchingChildren(NamePredicate.suffix(".mounted"))));
+        } finally {
+            VFSUtils.safeClose(submount, handle);
+        }
+    }
+
+    private void assertListings(VirtualFile dir) {
+        assertEquals(NAMES.length, dir.getChildren().size());
+        assertEquals(expected("", ""), names(dir.getMatchingChildren(NamePredicate.ALL)));
+        assertEquals(expected("ab", ""), names(dir.getMatchingChildren(NamePredicate.prefix("ab"))));
+        assertEquals(expected("ab", ".txt"), names(dir.getMatchingChildren(NamePredicate.of("ab", ".txt"))));
+        assertEquals(expected("", ".class"), names(dir.getMatchingChildren(NamePredicate.suffix(".class"))));
+        assertEquals(expected("b", ""), names(dir.getMatchingChildren(NamePredicate.prefix("b"))));
+        assertTrue(dir.getMatchingChildren(NamePredicate.prefix("z")).isEmpty());
+        assertTrue(dir.getMatchingChildren(NamePredicate.prefix("0")).isEmpty());
+    }
+
+    private static List<String> expected(String prefix, String suffix) {
+        final List<String> names = new ArrayList<String>();
+        for (String name : NAMES) {
+            if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static List<String> names(List<VirtualFile> files) {
+        final List<String> names = new ArrayList<String>();
+        for (VirtualFile file : files) {
+            names.add(file.getName());
+        }
+        Collections.sort(names);
+        return names;
+    }
+}
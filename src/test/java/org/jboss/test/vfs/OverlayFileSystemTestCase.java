@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.FileSystem;
+import org.jboss.vfs.spi.JavaZipFileSystem;
+import org.jboss.vfs.spi.MemoryFileSystem;
+import org.jboss.vfs.spi.OverlayFileSystem;
+import org.jboss.vfs.spi.RealFileSystem;
+
+/**
+ * Tests of {@link OverlayFileSystem}.
+ */
+public class OverlayFileSystemTestCase extends AbstractVFSTest {
+
+    private File tempRoot;
+    private File archive;
+
+    public OverlayFileSystemTestCase(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        tempRoot = Files.createTempDirectory("vfs-overlay").toFile();
+        archive = new File(tempRoot, "base.jar");
+        final JarOutputStream jos = new JarOutputStream(new FileOutputStream(archive));
+        try {
+            for (String name : Arrays.asList("a/one.txt", "a/two.txt", "b/three.txt")) {
+                jos.putNextEntry(new JarEntry(name));
+                jos.write(("base " + name).getBytes(StandardCharsets.UTF_8));
+                jos.closeEntry();
+            }
+        } finally {
+            jos.close();
+        }
+    }
+
+    protected void tearDown() throws Exception {
+        VFSUtils.recursiveDelete(tempRoot);
+        super.tearDown();
+    }
+
+    public void testOverlay() throws Exception {
+        final MemoryFileSystem top = new MemoryFileSystem();
+        final FileSystem base = new JavaZipFileSystem(archive, provider.createTempDir("base.jar"));
+        final VirtualFile mountPoint = VFS.getChild("overlay");
+        final Closeable handle = VFS.mountOverlay(mountPoint, Arrays.<FileSystem>asList(top, base));
+        try {
+            final VirtualFile a = mountPoint.getChild("a");
+            assertEquals("base a/one.txt", read(a.getChild("one.txt")));
+            assertEquals(Arrays.asList("one.txt", "two.txt"), names(a));
+
+            // writes go to the top layer and shadow the base
+            VFSUtils.writeFile(a.getChild("one.txt"), "patched".getBytes(StandardCharsets.UTF_8));
+            assertEquals("patched", read(a.getChild("one.txt")));
+            VFSUtils.writeFile(a.getChild("new.txt"), "new".getBytes(StandardCharsets.UTF_8));
+            assertEquals(Arrays.asList("new.txt", "one.txt", "two.txt"), names(a));
+            assertTrue(base.exists(mountPoint, a.getChild("one.txt")));
+
+            // deleting a base entry records a whiteout in the top layer
+            assertTrue(a.getChild("two.txt").delete());
+            assertFalse(a.getChild("two.txt").exists());
+            assertTrue(top.exists(mountPoint, a.getChild(OverlayFileSystem.WHITEOUT_PREFIX + "two.txt")));
+            assertEquals(Arrays.asList("new.txt", "one.txt"), names(a));
+            VFSUtils.writeFile(a.getChild("two.txt"), "again".getBytes(StandardCharsets.UTF_8));
+            assertEquals("again", read(a.getChild("two.txt")));
+
+            // deleting a patched entry uncovers nothing, since the base also has it
+            assertTrue(a.getChild("one.txt").delete());
+            assertFalse(a.getChild("one.txt").exists());
+
+            // a deleted and re-created directory does not bring back its old entries
+            final VirtualFile b = mountPoint.getChild("b");
+            assertFalse(b.delete());
+            assertTrue(b.getChild("three.txt").delete());
+            assertTrue(b.delete());
+            assertFalse(b.exists());
+            VFSUtils.writeFile(b.getChild("four.txt"), "four".getBytes(StandardCharsets.UTF_8));
+            assertEquals(Collections.singletonList("four.txt"), names(b));
+            assertFalse(b.getChild("three.txt").exists());
+            assertEquals(Arrays.asList("a", "b"), names(mountPoint));
+
+            assertNull(VFSUtils.getMountSource(handle));
+            assertEquals("overlay", VFSUtils.getRootURI(mountPoint).getScheme());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testDirectLayerChanges() throws Exception {
+        final File upper = new File(tempRoot, "upper");
+        assertTrue(upper.mkdir());
+        final OverlayFileSystem overlay = new OverlayFileSystem(Arrays.<FileSystem>asList(new RealFileSystem(upper),
+                new JavaZipFileSystem(archive, provider.createTempDir("base.jar"))));
+        final VirtualFile mountPoint = VFS.getChild("overlay-direct");
+        final Closeable handle = VFS.mount(mountPoint, overlay);
+        try {
+            assertTrue(mountPoint.getChild("a/one.txt").exists());
+            assertTrue(new File(upper, "a").mkdir());
+            Files.write(new File(upper, "a/" + OverlayFileSystem.WHITEOUT_PREFIX + "one.txt").toPath(), new byte[0]);
+            // still remembered until invalidated
+            assertTrue(mountPoint.getChild("a/one.txt").exists());
+            overlay.invalidate();
+            assertFalse(mountPoint.getChild("a/one.txt").exists());
+            assertEquals(Collections.singletonList("two.txt"), names(mountPoint.getChild("a")));
+
+            // misses are not remembered, so new entries show up without invalidation
+            final VirtualFile added = mountPoint.getChild("c/added.txt");
+            assertFalse(added.exists());
+            assertTrue(new File(upper, "c").mkdir());
+            Files.write(new File(upper, "c/added.txt").toPath(), new byte[0]);
+            assertTrue(added.exists());
+        } finally {
+            VFSUtils.safeClose(handle, overlay);
+        }
+    }
+
+    private static List<String> names(VirtualFile dir) {
+        final List<String> names = new ArrayList<String>();
+        for (VirtualFile child : dir.getChildren()) {
+            names.add(child.getName());
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    private static String read(VirtualFile file) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        VFSUtils.copyStreamAndClose(file.openStream(), os);
+        return new String(os.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
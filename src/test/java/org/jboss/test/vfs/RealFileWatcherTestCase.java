@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.vfs.FileChange;
+import org.jboss.vfs.FileChangeListener;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.AttributeCache;
+
+/**
+ * Tests of change tracking for real filesystem mounts.
+ */
+public class RealFileWatcherTestCase extends AbstractVFSTest {
+
+    private final BlockingQueue<FileChange> changes = new LinkedBlockingQueue<FileChange>();
+    private final FileChangeListener listener = new FileChangeListener() {
+        public void filesChanged(List<FileChange> batch) {
+            changes.addAll(batch);
+        }
+    };
+    private File root;
+
+    public RealFileWatcherTestCase(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        final TempDir tempDir = provider.createTempDir("watched");
+        root = tempDir.getFile("root");
+        assertTrue(new File(root, "dir").mkdirs());
+    }
+
+    public void testChangesArePublished() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("watched-publish");
+        final Closeable handle = VFS.mountReal(root, mountPoint, null, listener);
+        try {
+            write(new File(root, "dir/a.txt"), "a");
+            await(new FileChange(mountPoint.getChild("dir/a.txt"), FileChange.Kind.CREATED));
+            assertTrue(new File(root, "dir/a.txt").delete());
+            await(new FileChange(mountPoint.getChild("dir/a.txt"), FileChange.Kind.DELETED));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testNewDirectoriesAreWatched() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("watched-directories");
+        final Closeable handle = VFS.mountReal(root, mountPoint, null, listener);
+        try {
+            assertTrue(new File(root, "new").mkdir());
+            await(new FileChange(mountPoint.getChild("new"), FileChange.Kind.CREATED));
+            write(new File(root, "new/b.txt"), "b");
+            await(new FileChange(mountPoint.getChild("new/b.txt"), FileChange.Kind.CREATED));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testCacheIsInvalidated() throws Exception {
+        final AttributeCache cache = new AttributeCache(1000, 1L, TimeUnit.HOURS, false);
+        final VirtualFile mountPoint = VFS.getChild("watched-cache");
+        final Closeable handle = VFS.mountReal(root, mountPoint, cache, listener);
+        try {
+            final VirtualFile file = mountPoint.getChild("dir/c.txt");
+            assertFalse(file.exists());
+            assertTrue(mountPoint.getChild("dir").getChildren().isEmpty());
+            write(new File(root, "dir/c.txt"), "c");
+            await(new FileChange(file, FileChange.Kind.CREATED));
+            assertTrue(file.exists());
+            assertEquals(1, mountPoint.getChild("dir").getChildren().size());
+            assertEquals(1L, file.getSize());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testCacheIsInvalidatedBelowMovedDirectory() throws Exception {
+        assertTrue(new File(root, "dir/sub").mkdir());
+        write(new File(root, "dir/sub/e.txt"), "e");
+        final AttributeCache cache = new AttributeCache(1000, 1L, TimeUnit.HOURS, false);
+        final VirtualFile mountPoint = VFS.getChild("watched-moved");
+        final Closeable handle = VFS.mountReal(root, mountPoint, cache, listener);
+        try {
+            final VirtualFile file = mountPoint.getChild("dir/sub/e.txt");
+            assertTrue(file.exists());
+            assertEquals(1, mountPoint.getChild("dir/sub").getChildren().size());
+            // no event is delivered for the files of a directory moved out of the tree
+            assertTrue(new File(root, "dir/sub").renameTo(new File(root.getParentFile(), "moved")));
+            await(new FileChange(mountPoint.getChild("dir/sub"), FileChange.Kind.DELETED));
+            assertFalse(file.exists());
+            assertTrue(mountPoint.getChild("dir/sub").getChildren().isEmpty());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testNoChangesAfterClose() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("watched-close");
+        VFSUtils.safeClose(VFS.mountReal(root, mountPoint, null, listener));
+        write(new File(root, "dir/d.txt"), "d");
+        assertNull(changes.poll(500L, TimeUnit.MILLISECONDS));
+    }
+
+    private void await(FileChange expected) throws InterruptedException {
+        // a slow file system may report a modification separately from the creation of a file
+        FileChange change;
+        do {
+            change = changes.poll(10L, TimeUnit.SECONDS);
+            assertNotNull("No change was published: " + expected, change);
+        } while (!change.equals(expected));
+    }
+
+    private static void write(File file, String content) throws IOException {
+        final FileOutputStream fos = new FileOutputStream(file);
+        try {
+            fos.write(content.getBytes("UTF-8"));
+        } finally {
+            VFSUtils.safeClose(fos);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jboss.vfs.NamePredicate;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.TreeStats;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.BloomFilter;
+import org.jboss.vfs.spi.SnapshotFileSystem;
+
+/**
+ * Tests of the snapshot filesystem.
+ */
+public class SnapshotFileSystemTestCase extends AbstractVFSTest {
+
+    private File root;
+
+    public SnapshotFileSystemTestCase(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        final TempDir tempDir = provider.createTempDir("snapshot");
+        root = tempDir.getFile("root");
+        write(new File(root, "a.txt"), "a");
+        write(new File(root, "dir/b.txt"), "bb");
+        write(new File(root, "dir/sub/c.class"), "ccc");
+        assertTrue(new File(root, "empty").mkdir());
+    }
+
+    public void testIndex() throws Exception {
+        final SnapshotFileSystem fileSystem = new SnapshotFileSystem(root);
+        assertEquals(7, fileSystem.getEntryCount());
+        final VirtualFile mountPoint = VFS.getChild("snapshot-index");
+        final Closeable handle = VFS.mount(mountPoint, fileSystem);
+        try {
+            assertTrue(mountPoint.isDirectory());
+            assertEquals(Arrays.asList("a.txt", "dir", "empty"), names(mountPoint.getChildren()));
+            assertEquals(Arrays.asList("b.txt", "sub"), names(mountPoint.getChild("dir").getChildren()));
+            assertTrue(mountPoint.getChild("empty").isDirectory());
+            assertTrue(mountPoint.getChild("empty").getChildren().isEmpty());
+            final VirtualFile b = mountPoint.getChild("dir/b.txt");
+            assertTrue(b.isFile());
+            assertEquals(2L, b.getSize());
+            assertEquals(new File(root, "dir/b.txt").lastModified(), b.getLastModified());
+            assertEquals("bb", new String(getContent(b), "UTF-8"));
+            assertFalse(mountPoint.getChild("missing").exists());
+            assertFalse(mountPoint.getChild("A.TXT").exists());
+            assertFalse(mountPoint.getChild("a.txt/x").exists());
+            assertEquals(Collections.singletonList("c.class"), names(mountPoint.getChild("dir/sub").getMatchingChildren(NamePredicate.suffix(".class"))));
+            final TreeStats stats = mountPoint.getTreeStats();
+            assertEquals(3L, stats.getFileCount());
+            assertEquals(4L, stats.getDirectoryCount());
+            assertEquals(6L, stats.getTotalSize());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testReadOnly() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("snapshot-read-only");
+        final Closeable handle = VFS.mountSnapshot(root, mountPoint);
+        try {
+            assertFalse(mountPoint.getChild("a.txt").delete());
+            assertTrue(new File(root, "a.txt").exists());
+            try {
+                VFSUtils.writeFile(mountPoint.getChild("new.txt"), new byte[1]);
+                fail("Expected IOException");
+            } catch (IOException expected) {
+            }
+            assertFalse(new File(root, "new.txt").exists());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testChangesAreNotSeenUntilRefresh() throws Exception {
+        final SnapshotFileSystem fileSystem = new SnapshotFileSystem(root);
+        final VirtualFile mountPoint = VFS.getChild("snapshot-refresh");
+        final Closeable handle = VFS.mount(mountPoint, fileSystem);
+        try {
+            assertFalse(fileSystem.refresh());
+            write(new File(root, "dir/new.txt"), "new");
+            assertTrue(new File(root, "a.txt").delete());
+            assertFalse(mountPoint.getChild("dir/new.txt").exists());
+            assertTrue(mountPoint.getChild("a.txt").exists());
+            assertTrue(fileSystem.refresh());
+            assertTrue(mountPoint.getChild("dir/new.txt").isFile());
+            assertEquals(3L, mountPoint.getChild("dir/new.txt").getSize());
+            assertFalse(mountPoint.getChild("a.txt").exists());
+            assertEquals(7, fileSystem.getEntryCount());
+            assertFalse(fileSystem.refresh());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testParallelIndexAndLookupFilter() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            write(new File(root, "wide/d" + i + "/f" + i + ".txt"), Integer.toString(i));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final SnapshotFileSystem fileSystem = new SnapshotFileSystem(root, true, executor);
+            assertEquals(7 + 1 + 100, fileSystem.getEntryCount());
+            final VirtualFile mountPoint = VFS.getChild("snapshot-parallel");
+            final Closeable handle = VFS.mount(mountPoint, fileSystem);
+            try {
+                assertEquals(50, mountPoint.getChild("wide").getChildren().size());
+                assertEquals("17", new String(getContent(mountPoint.getChild("wide/d17/f17.txt")), "UTF-8"));
+                final BloomFilter filter = fileSystem.getLookupFilter();
+                assertEquals(fileSystem.getEntryCount(), filter.getEntryCount());
+                for (int i = 0; i < 50; i++) {
+                    assertFalse(mountPoint.getChild("wide/d" + i + "/missing" + i).exists());
+                }
+                assertEquals(50L, filter.getRejectedCount() + filter.getFalsePositiveCount());
+                assertTrue(filter.getRejectedCount() > 40L);
+                assertTrue(mountPoint.getChild("wide/d3/f3.txt").exists());
+            } finally {
+                VFSUtils.safeClose(handle);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testLinkCycle() throws Exception {
+        try {
+            Files.createSymbolicLink(new File(root, "dir/sub/loop").toPath(), new File(root, "dir").toPath());
+        } catch (UnsupportedOperationException | IOException e) {
+            // links are not available on this platform
+            return;
+        }
+        final SnapshotFileSystem fileSystem = new SnapshotFileSystem(root);
+        assertEquals(8, fileSystem.getEntryCount());
+        final VirtualFile mountPoint = VFS.getChild("snapshot-cycle");
+        final Closeable handle = VFS.mount(mountPoint, fileSystem);
+        try {
+            assertTrue(mountPoint.getChild("dir/sub/loop").isDirectory());
+            assertTrue(mountPoint.getChild("dir/sub/loop").getChildren().isEmpty());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        final FileOutputStream fos = new FileOutputStream(file);
+        try {
+            fos.write(content.getBytes("UTF-8"));
+        } finally {
+            VFSUtils.safeClose(fos);
+        }
+    }
+
+    private static List<String> names(List<VirtualFile> files) {
+        final List<String> names = new ArrayList<String>();
+        for (VirtualFile file : files) {
+            names.add(file.getName());
+        }
+        Collections.sort(names);
+        return names;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.ReadOnlyFileSystemException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * Tests of the {@code vfs} scheme {@link java.nio.file.spi.FileSystemProvider}.
+ */
+public class VirtualFileSystemProviderTestCase extends AbstractVFSTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.UTF_8);
+
+    private File tempRoot;
+    private VirtualFile mountPoint;
+    private Closeable handle;
+
+    public VirtualFileSystemProviderTestCase(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        tempRoot = Files.createTempDirectory("vfs-nio").toFile();
+        final File archive = new File(tempRoot, "nio.jar");
+        final JarOutputStream jos = new JarOutputStream(new FileOutputStream(archive));
+        try {
+            jos.putNextEntry(new JarEntry("dir/a.txt"));
+            jos.write(CONTENT);
+            jos.closeEntry();
+            jos.putNextEntry(new JarEntry("dir/b.txt"));
+            jos.closeEntry();
+        } finally {
+            jos.close();
+        }
+        mountPoint = VFS.getChild("nio-provider/nio.jar");
+        handle = VFS.mountZip(archive, mountPoint, provider);
+    }
+
+    protected void tearDown() throws Exception {
+        VFSUtils.safeClose(handle);
+        VFSUtils.recursiveDelete(tempRoot);
+        super.tearDown();
+    }
+
+    public void testReadContent() throws Exception {
+        final Path path = Paths.get(URI.create("vfs:/nio-provider/nio.jar/dir/a.txt"));
+        assertTrue(Arrays.equals(CONTENT, Files.readAllBytes(path)));
+        final SeekableByteChannel channel = Files.newByteChannel(path);
+        try {
+            assertEquals(CONTENT.length, channel.size());
+            channel.position(30L);
+            final ByteBuffer buffer = ByteBuffer.allocate(3);
+            assertEquals(3, channel.read(buffer));
+            assertEquals("uvw", new String(buffer.array(), StandardCharsets.UTF_8));
+            channel.position(10L);
+            buffer.clear();
+            assertEquals(3, channel.read(buffer));
+            assertEquals("abc", new String(buffer.array(), StandardCharsets.UTF_8));
+        } finally {
+            channel.close();
+        }
+    }
+
+    public void testDirectoryStream() throws Exception {
+        final Path dir = Paths.get(URI.create("vfs:/nio-provider/nio.jar/dir"));
+        final Set<String> names = new HashSet<String>();
+        final DirectoryStream<Path> stream = Files.newDirectoryStream(dir);
+        try {
+            for (Path child : stream) {
+                assertEquals(dir, child.getParent());
+                names.add(child.getFileName().toString());
+            }
+        } finally {
+            stream.close();
+        }
+        assertEquals(new HashSet<String>(Arrays.asList("a.txt", "b.txt")), names);
+    }
+
+    public void testAttributes() throws Exception {
+        final Path dir = Paths.get(URI.create("vfs:/nio-provider/nio.jar/dir"));
+        final Path file = dir.resolve("a.txt");
+        assertTrue(Files.isDirectory(dir));
+        assertTrue(Files.isRegularFile(file));
+        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        assertEquals(CONTENT.length, attributes.size());
+        assertFalse(attributes.isDirectory());
+        final Map<String, Object> map = Files.readAttributes(file, "basic:size,isDirectory");
+        assertEquals(Long.valueOf(CONTENT.length), map.get("size"));
+        assertEquals(Boolean.FALSE, map.get("isDirectory"));
+        assertFalse(Files.exists(dir.resolve("missing.txt")));
+        try {
+            Files.readAttributes(dir.resolve("missing.txt"), BasicFileAttributes.class);
+            fail("expected NoSuchFileException");
+        } catch (NoSuchFileException expected) {
+        }
+    }
+
+    public void testReadOnly() throws Exception {
+        final Path file = Paths.get(URI.create("vfs:/nio-provider/nio.jar/dir/a.txt"));
+        try {
+            Files.write(file, CONTENT);
+            fail("expected ReadOnlyFileSystemException");
+        } catch (ReadOnlyFileSystemException expected) {
+        }
+        assertTrue(file.getFileSystem().isReadOnly());
+    }
+
+    public void testPathOperations() throws Exception {
+        final Path file = Paths.get(URI.create("vfs:/nio-provider/nio.jar/dir/a.txt"));
+        assertEquals("/nio-provider/nio.jar/dir/a.txt", file.toString());
+        assertEquals(4, file.getNameCount());
+        assertEquals(file, file.getFileSystem().getPath("/nio-provider", "nio.jar", "dir/./../dir/a.txt").normalize());
+        assertEquals("dir/a.txt", file.getParent().getParent().relativize(file).toString());
+        assertTrue(file.startsWith("/nio-provider/nio.jar"));
+        assertTrue(file.endsWith("dir/a.txt"));
+        assertEquals(file, Paths.get(file.toUri()));
+        assertEquals(mountPoint.getChild("dir/a.txt"), VFS.getChild(file.toUri()));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.jboss.vfs.CasePolicy;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.JavaZipFileSystem;
+import org.jboss.vfs.spi.ZipIndexCache;
+
+/**
+ * Tests of the on-disk cache of zip entry indexes.
+ */
+public class ZipIndexCacheTestCase extends AbstractVFSTest {
+
+    private static final long TIME = 1262304000000L;
+
+    public ZipIndexCacheTestCase(String name) {
+        super(name);
+    }
+
+    private static void createArchive(File archive, String name, String content) throws Exception {
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(archive))) {
+            final ZipEntry entry = new ZipEntry(name);
+            entry.setTime(TIME);
+            out.putNextEntry(entry);
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("other\\windows.txt"));
+            out.write("windows".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        archive.setLastModified(TIME);
+    }
+
+    private static String read(VirtualFile file) throws Exception {
+        try (InputStream is = file.openStream()) {
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private String mountAndRead(File archive, ZipIndexCache cache, String path) throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("index-cache");
+        final JavaZipFileSystem fileSystem = new JavaZipFileSystem(archive, provider.createTempDir("cached.jar"), CasePolicy.SENSITIVE, cache);
+        final Closeable handle = VFS.mount(mountPoint, fileSystem);
+        try {
+            final VirtualFile file = mountPoint.getChild(path);
+            if (!file.exists()) {
+                return null;
+            }
+            assertEquals(TIME, file.getLastModified());
+            assertEquals("windows", read(mountPoint.getChild("other/windows.txt")));
+            assertEquals(2, mountPoint.getChildren().size());
+            return read(file);
+        } finally {
+            VFSUtils.safeClose(handle, fileSystem);
+        }
+    }
+
+    public void testIndexIsReused() throws Exception {
+        final TempDir tempDir = provider.createTempDir("index-cache");
+        final File archive = tempDir.getFile("cached.jar");
+        createArchive(archive, "dir/entry.txt", "first");
+        final ZipIndexCache cache = new ZipIndexCache(tempDir.getFile("cache"));
+
+        assertEquals("first", mountAndRead(archive, cache, "dir/entry.txt"));
+        assertEquals(0L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+        assertEquals(1L, cache.getStoreCount());
+        assertEquals(1, cache.getDirectory().list().length);
+
+        assertEquals("first", mountAndRead(archive, cache, "dir/entry.txt"));
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(1L, cache.getStoreCount());
+
+        // a second cache over the same directory, as another process would have
+        final ZipIndexCache shared = new ZipIndexCache(cache.getDirectory());
+        assertEquals("first", mountAndRead(archive, shared, "dir/entry.txt"));
+        assertEquals(1L, shared.getHitCount());
+    }
+
+    public void testChangedArchiveIsIndexedAgain() throws Exception {
+        final TempDir tempDir = provider.createTempDir("index-cache");
+        final File archive = tempDir.getFile("cached.jar");
+        createArchive(archive, "dir/entry.txt", "first");
+        final ZipIndexCache cache = new ZipIndexCache(tempDir.getFile("cache"));
+        assertEquals("first", mountAndRead(archive, cache, "dir/entry.txt"));
+
+        // same size and modification time, but another entry name
+        createArchive(archive, "dir/ENTRY.txt", "other");
+        assertNull(mountAndRead(archive, cache, "dir/entry.txt"));
+        assertEquals(0L, cache.getHitCount());
+        assertEquals(2L, cache.getStoreCount());
+        assertEquals("other", mountAndRead(archive, cache, "dir/ENTRY.txt"));
+        assertEquals(1L, cache.getHitCount());
+    }
+
+    public void testDamagedCacheFileIsReplaced() throws Exception {
+        final TempDir tempDir = provider.createTempDir("index-cache");
+        final File archive = tempDir.getFile("cached.jar");
+        createArchive(archive, "dir/entry.txt", "first");
+        final ZipIndexCache cache = new ZipIndexCache(tempDir.getFile("cache"));
+        assertEquals("first", mountAndRead(archive, cache, "dir/entry.txt"));
+
+        final File cacheFile = cache.getDirectory().listFiles()[0];
+        try (RandomAccessFile file = new RandomAccessFile(cacheFile, "rw")) {
+            file.seek(file.length() - 1);
+            final int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xff);
+        }
+        assertEquals("first", mountAndRead(archive, cache, "dir/entry.txt"));
+        assertEquals(0L, cache.getHitCount());
+        assertEquals(2L, cache.getStoreCount());
+        assertEquals("first", mountAndRead(archive, cache, "dir/entry.txt"));
+        assertEquals(1L, cache.getHitCount());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import org.jboss.vfs.CasePolicy;
+import org.jboss.vfs.NamePredicate;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.JavaZipFileSystem;
+
+/**
+ * Tests of the packed entry index of zip mounts.
+ */
+public class ZipIndexTestCase extends AbstractVFSTest {
+
+    private static final long TIME = 1262304000000L;
+
+    public ZipIndexTestCase(String name) {
+        super(name);
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void addEntry(JarOutputStream out, String name, byte[] content, boolean stored) throws Exception {
+        final ZipEntry entry = new ZipEntry(name);
+        entry.setTime(TIME);
+        if (stored) {
+            final CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCrc(crc.getValue());
+        }
+        out.putNextEntry(entry);
+        out.write(content);
+        out.closeEntry();
+    }
+
+    private File createArchive(TempDir tempDir) throws Exception {
+        final File archive = tempDir.getFile("index.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(archive))) {
+            addEntry(out, "dir/deflated.txt", bytes("deflated content"), false);
+            addEntry(out, "dir/stored.txt", bytes("stored content"), true);
+            addEntry(out, "dir/Upper.txt", bytes("upper"), false);
+            addEntry(out, "other\\windows.txt", bytes("windows"), false);
+            addEntry(out, "top.txt", bytes("top"), true);
+        }
+        return archive;
+    }
+
+    private static String read(VirtualFile file) throws Exception {
+        try (InputStream is = file.openStream()) {
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public void testEntries() throws Exception {
+        final TempDir tempDir = provider.createTempDir("index");
+        final File archive = createArchive(tempDir);
+        final VirtualFile mountPoint = VFS.getChild("packed-index");
+        final Closeable handle = VFS.mount(mountPoint, new JavaZipFileSystem(archive, provider.createTempDir("index.jar")));
+        try {
+            assertEquals(new HashSet<String>(Arrays.asList("dir", "other", "top.txt")), new HashSet<String>(names(mountPoint)));
+            assertEquals(new HashSet<String>(Arrays.asList("deflated.txt", "stored.txt", "Upper.txt")), new HashSet<String>(names(mountPoint.getChild("dir"))));
+            assertEquals(Arrays.asList("deflated.txt"), names(mountPoint.getChild("dir").getMatchingChildren(NamePredicate.prefix("d"))));
+
+            final VirtualFile deflated = mountPoint.getChild("dir/deflated.txt");
+            assertTrue(deflated.isFile());
+            assertEquals("deflated content", read(deflated));
+            assertEquals(16L, deflated.getSize());
+            assertEquals(TIME, deflated.getLastModified());
+            assertNull(deflated.getCodeSigners());
+
+            final VirtualFile stored = mountPoint.getChild("dir/stored.txt");
+            assertEquals("stored content", read(stored));
+            final ByteBuffer buffer = stored.map();
+            final byte[] content = new byte[buffer.remaining()];
+            buffer.get(content);
+            assertEquals("stored content", new String(content, StandardCharsets.UTF_8));
+            final ByteBuffer top = mountPoint.getChild("top.txt").map();
+            assertEquals(3, top.remaining());
+            assertEquals('t', top.get(0));
+
+            // the entry name is not the path of its node, so it is kept to fetch the entry
+            final VirtualFile windows = mountPoint.getChild("other/windows.txt");
+            assertTrue(windows.isFile());
+            assertEquals("windows", read(windows));
+
+            assertTrue(mountPoint.getChild("dir").isDirectory());
+            assertNull(mountPoint.getChild("dir").getCodeSigners());
+            assertFalse(mountPoint.getChild("dir/missing.txt").exists());
+            assertFalse(mountPoint.getChild("top.txt/child").exists());
+            assertFalse(mountPoint.getChild("dir/upper.txt").exists());
+            assertEquals(5L, mountPoint.getTreeStats().getFileCount());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testCaseInsensitiveEntries() throws Exception {
+        final TempDir tempDir = provider.createTempDir("index");
+        final File archive = createArchive(tempDir);
+        final VirtualFile mountPoint = VFS.getChild("packed-index-insensitive");
+        final Closeable handle = VFS.mount(mountPoint, new JavaZipFileSystem(archive, provider.createTempDir("index.jar"), CasePolicy.INSENSITIVE));
+        try {
+            assertEquals("upper", read(mountPoint.getChild("DIR/upper.txt")));
+            assertEquals("stored content", read(mountPoint.getChild("Dir/STORED.txt")));
+            assertEquals(Arrays.asList("Upper.txt"), names(mountPoint.getChild("dir").getMatchingChildren(NamePredicate.prefix("U"))));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    private static List<String> names(VirtualFile directory) {
+        return names(directory.getChildren());
+    }
+
+    private static List<String> names(List<VirtualFile> files) {
+        final List<String> names = new ArrayList<String>();
+        for (VirtualFile file : files) {
+            names.add(file.getName());
+        }
+        return names;
+    }
+}
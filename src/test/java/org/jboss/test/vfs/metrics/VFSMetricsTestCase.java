@@ -0,0 +1,232 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.jboss.test.vfs.AbstractVFSTest;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.metrics.LatencyHistogram;
+import org.jboss.vfs.metrics.LatencySnapshot;
+import org.jboss.vfs.metrics.MountMetrics;
+import org.jboss.vfs.metrics.OperationType;
+import org.jboss.vfs.metrics.VFSMetrics;
+import org.jboss.vfs.spi.FileSystemInterceptor;
+import org.jboss.vfs.spi.JavaZipFileSystem;
+
+/**
+ * Tests of {@link VFSMetrics}.
+ */
+public class VFSMetricsTestCase extends AbstractVFSTest {
+
+    private static final byte[] CONTENT = "metrics entry content".getBytes(StandardCharsets.UTF_8);
+
+    private File tempRoot;
+    private File archive;
+
+    public VFSMetricsTestCase(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        tempRoot = Files.createTempDirectory("vfs-metrics").toFile();
+        archive = new File(tempRoot, "metrics.jar");
+        final JarOutputStream jos = new JarOutputStream(new FileOutputStream(archive));
+        try {
+            jos.putNextEntry(new JarEntry("dir/entry.txt"));
+            jos.write(CONTENT);
+            jos.closeEntry();
+        } finally {
+            jos.close();
+        }
+        VFSMetrics.install(1);
+    }
+
+    protected void tearDown() throws Exception {
+        VFSMetrics.uninstall();
+        VFSUtils.recursiveDelete(tempRoot);
+        super.tearDown();
+    }
+
+    public void testMountMetrics() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("metrics-zip");
+        final Closeable handle = VFS.mountZip(archive, mountPoint, provider);
+        try {
+            final MountMetrics metrics = VFSMetrics.getMountMetrics(mountPoint);
+            assertNotNull(metrics);
+            final VirtualFile entry = mountPoint.getChild("dir/entry.txt");
+            assertTrue(entry.exists());
+            assertFalse(mountPoint.getChild("missing.txt").exists());
+            assertEquals(1, mountPoint.getChild("dir").getChildren().size());
+            final InputStream is = entry.openStream();
+            try {
+                assertEquals(1L, metrics.getOpenStreams());
+                VFSUtils.copyStream(is, new ByteArrayOutputStream());
+            } finally {
+                is.close();
+            }
+            assertEquals(0L, metrics.getOpenStreams());
+            assertEquals(CONTENT.length, metrics.getBytesRead());
+            assertEquals(1L, metrics.getOperationCount(OperationType.OPEN_INPUT_STREAM));
+            assertTrue(metrics.getOperationCount(OperationType.EXISTS) >= 2L);
+
+            entry.getPhysicalFile();
+            entry.getPhysicalFile();
+            assertEquals(1L, metrics.getExtractionCount());
+            assertEquals(CONTENT.length, metrics.getExtractedBytes());
+
+            assertEquals(1L, metrics.getOpenInputStreamLatency().getSampleCount());
+            assertEquals(metrics.getOperationCount(OperationType.EXISTS), metrics.getExistsLatency().getSampleCount());
+            assertTrue(metrics.getDirectoryEntriesLatency().getSampleCount() > 0L);
+
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName("org.jboss.vfs:type=MountMetrics,mountPoint=" + ObjectName.quote(mountPoint.getPathName()));
+            assertTrue(server.isRegistered(name));
+            assertEquals(Long.valueOf(CONTENT.length), server.getAttribute(name, "BytesRead"));
+            final CompositeData latency = (CompositeData) server.getAttribute(name, "OpenInputStreamLatency");
+            assertEquals(Long.valueOf(1L), latency.get("sampleCount"));
+            assertEquals(Long.valueOf(1L), server.getAttribute(new ObjectName("org.jboss.vfs:type=VFSMetrics"), "ExtractionCount"));
+
+            final Map<String, Long> counts = VFSMetrics.getAggregateMetrics().getOperationCounts();
+            assertEquals(Long.valueOf(1L), counts.get(OperationType.OPEN_INPUT_STREAM.name()));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+        assertNull(VFSMetrics.getMountMetrics(mountPoint));
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(
+                new ObjectName("org.jboss.vfs:type=MountMetrics,mountPoint=" + ObjectName.quote(mountPoint.getPathName()))));
+    }
+
+    public void testChannelAndMapReadsAreCounted() throws Exception {
+        final File file = new File(tempRoot, "real.txt");
+        Files.write(file.toPath(), CONTENT);
+        final VirtualFile mountPoint = VFS.getChild("metrics-real");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint);
+        try {
+            final MountMetrics metrics = VFSMetrics.getMountMetrics(mountPoint);
+            final VirtualFile real = mountPoint.getChild("real.txt");
+            final ReadableByteChannel channel = real.openChannel();
+            try {
+                // a seekable channel stays seekable behind the metrics
+                assertTrue(channel instanceof SeekableByteChannel);
+                final ByteBuffer buffer = ByteBuffer.allocate(CONTENT.length + 1);
+                while (channel.read(buffer) != -1) {
+                    assertTrue(buffer.hasRemaining());
+                }
+            } finally {
+                channel.close();
+            }
+            assertEquals(CONTENT.length, metrics.getBytesRead());
+            assertEquals(CONTENT.length, real.map().remaining());
+            assertEquals(2L * CONTENT.length, metrics.getBytesRead());
+            real.getDigest("SHA-256");
+            assertEquals(3L * CONTENT.length, metrics.getBytesRead());
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testFailedMountKeepsExistingMetrics() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("metrics-duplicate");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint);
+        try {
+            final MountMetrics metrics = VFSMetrics.getMountMetrics(mountPoint);
+            assertNotNull(metrics);
+            try {
+                VFS.mountReal(tempRoot, mountPoint);
+                fail("Expected the second mount to fail");
+            } catch (IOException expected) {
+            }
+            assertSame(metrics, VFSMetrics.getMountMetrics(mountPoint));
+            assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(
+                    new ObjectName("org.jboss.vfs:type=MountMetrics,mountPoint=" + ObjectName.quote(mountPoint.getPathName()))));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+        assertNull(VFSMetrics.getMountMetrics(mountPoint));
+    }
+
+    public void testExtractionBehindMountInterceptor() throws Exception {
+        final VirtualFile mountPoint = VFS.getChild("metrics-intercepted-zip");
+        final TempDir tempDir = provider.createTempDir("metrics");
+        final Closeable handle = VFS.mount(mountPoint, new JavaZipFileSystem(archive, tempDir), new FileSystemInterceptor() {
+        });
+        try {
+            final MountMetrics metrics = VFSMetrics.getMountMetrics(mountPoint);
+            assertNotNull(metrics);
+            mountPoint.getChild("dir/entry.txt").getPhysicalFile();
+            assertEquals(1L, metrics.getExtractionCount());
+            assertEquals(CONTENT.length, metrics.getExtractedBytes());
+        } finally {
+            VFSUtils.safeClose(handle);
+            VFSUtils.safeClose(tempDir);
+        }
+    }
+
+    public void testUninstall() throws Exception {
+        VFSMetrics.uninstall();
+        assertFalse(VFSMetrics.isInstalled());
+        assertNull(VFSMetrics.getAggregateMetrics());
+        final VirtualFile mountPoint = VFS.getChild("metrics-uninstalled");
+        final Closeable handle = VFS.mountReal(tempRoot, mountPoint);
+        try {
+            assertNull(VFSMetrics.getMountMetrics(mountPoint));
+        } finally {
+            VFSUtils.safeClose(handle);
+        }
+    }
+
+    public void testLatencyHistogram() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.record(100L);
+        }
+        histogram.record(5000L);
+        histogram.record(1000000L);
+        assertEquals(100L, histogram.getCount());
+        final LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(100L, snapshot.getSampleCount());
+        assertEquals(127L, snapshot.getP50Nanos());
+        assertEquals(127L, snapshot.getP90Nanos());
+        assertEquals(8191L, snapshot.getP99Nanos());
+        assertEquals(1048575L, snapshot.getMaxNanos());
+    }
+}
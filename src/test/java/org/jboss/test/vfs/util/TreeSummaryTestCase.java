@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jboss.test.vfs.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeSet;
+
+import org.jboss.test.vfs.AbstractVFSTest;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.util.TreeSummary;
+
+/**
+ * Tests of {@link TreeSummary}.
+ */
+public class TreeSummaryTestCase extends AbstractVFSTest {
+
+    private File tempRoot;
+    private VirtualFile mountPoint;
+    private Closeable handle;
+
+    public TreeSummaryTestCase(String name) {
+        super(name);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        tempRoot = Files.createTempDirectory("vfs-summary").toFile();
+        write("a.txt", "a");
+        write("sub/b.txt", "b");
+        write("sub/nested/c.txt", "c");
+        write("other/d.txt", "d");
+        mountPoint = VFS.getChild("tree-summary");
+        handle = VFS.mountReal(tempRoot, mountPoint);
+    }
+
+    protected void tearDown() throws Exception {
+        VFSUtils.safeClose(handle);
+        VFSUtils.recursiveDelete(tempRoot);
+        super.tearDown();
+    }
+
+    public void testUnchanged() throws Exception {
+        final TreeSummary summary = TreeSummary.build(mountPoint);
+        final TreeSummary refreshed = summary.refresh();
+        assertEquals(summary.getHash(), refreshed.getHash());
+        assertEquals(Collections.emptySet(), refreshed.getChangedPaths(summary));
+        assertEquals(Collections.emptySet(), summary.refresh(true).getChangedPaths(summary));
+    }
+
+    public void testAddedAndRemoved() throws Exception {
+        final TreeSummary summary = TreeSummary.build(mountPoint);
+        write("sub/nested/e.txt", "e");
+        touch("sub/nested");
+        assertTrue(VFSUtils.recursiveDelete(new File(tempRoot, "other")));
+        touch("");
+        final TreeSummary refreshed = summary.refresh(true);
+        assertFalse(summary.getHash() == refreshed.getHash());
+        assertEquals(new TreeSet<String>(Arrays.asList("other", "other/d.txt", "sub/nested/e.txt")), refreshed.getChangedPaths(summary));
+    }
+
+    public void testModifiedInUnchangedDirectory() throws Exception {
+        final File dir = new File(tempRoot, "sub");
+        final long dirModified = dir.lastModified();
+        final TreeSummary summary = TreeSummary.build(mountPoint);
+        final File file = write("sub/b.txt", "bigger b");
+        assertTrue(file.setLastModified(file.lastModified() + 5000L));
+        assertTrue(dir.setLastModified(dirModified));
+        assertEquals(Collections.singleton("sub/b.txt"), summary.refresh().getChangedPaths(summary));
+        // a shallow refresh trusts the unchanged directory and misses the rewrite
+        assertEquals(Collections.emptySet(), summary.refresh(true).getChangedPaths(summary));
+    }
+
+    private File write(String path, String content) throws Exception {
+        final File file = new File(tempRoot, path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private void touch(String path) {
+        final File dir = new File(tempRoot, path);
+        assertTrue(dir.setLastModified(dir.lastModified() + 5000L));
+    }
+}